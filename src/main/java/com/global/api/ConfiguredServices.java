@@ -9,12 +9,19 @@ import com.global.api.terminals.abstractions.IDisposable;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ConfiguredServices implements IDisposable {
     private IPaymentGateway gatewayConnector;
     private IRecurringGateway recurringConnector;
     @Getter @Setter private IReportingService reportingService;
+    @Getter @Setter private RequestLimiter requestLimiter;
+    @Getter @Setter private RequestCoalescer requestCoalescer;
     private IDeviceInterface deviceInterface;
     private DeviceController deviceController;
     private TableServiceConnector tableServiceConnector;
@@ -22,11 +29,21 @@ public class ConfiguredServices implements IDisposable {
     private HashMap<Secure3dVersion, ISecure3dProvider> secure3dProviders;
     private IBillingProvider billingProvider;
 
+    // calls currently using this instance; once replaced, it is disposed when the last of them completes
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean retired;
+    private final AtomicBoolean disposed = new AtomicBoolean();
+    private ConfiguredServices replacement;
+
     IPaymentGateway getGatewayConnector() {
         return gatewayConnector;
     }
     public void setGatewayConnector(IPaymentGateway gatewayConnector) {
         this.gatewayConnector = gatewayConnector;
+        // a reporting service, limiter or coalescer configured for the previous gateway no longer applies
+        this.reportingService = null;
+        this.requestLimiter = null;
+        this.requestCoalescer = null;
     }
     IRecurringGateway getRecurringConnector() {
         return recurringConnector;
@@ -83,7 +100,98 @@ public class ConfiguredServices implements IDisposable {
         secure3dProviders = new HashMap<Secure3dVersion, ISecure3dProvider>();
     }
 
+    // Starting point for reconfiguring: the services already configured are carried over
+    ConfiguredServices copy() {
+        ConfiguredServices copy = new ConfiguredServices();
+        copy.gatewayConnector = gatewayConnector;
+        copy.recurringConnector = recurringConnector;
+        copy.reportingService = reportingService;
+        copy.requestLimiter = requestLimiter;
+        copy.requestCoalescer = requestCoalescer;
+        copy.deviceInterface = deviceInterface;
+        copy.deviceController = deviceController;
+        copy.tableServiceConnector = tableServiceConnector;
+        copy.payrollConnector = payrollConnector;
+        copy.secure3dProviders.putAll(secure3dProviders);
+        copy.billingProvider = billingProvider;
+        return copy;
+    }
+
+    boolean tryAcquire() {
+        inFlight.incrementAndGet();
+        if (retired) {
+            // replaced in the meantime; the caller looks up the replacement instead
+            release();
+            return false;
+        }
+        return true;
+    }
+
+    void release() {
+        if (inFlight.decrementAndGet() == 0 && retired) {
+            disposeReplaced();
+        }
+    }
+
+    int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    boolean isDisposed() {
+        return disposed.get();
+    }
+
+    /**
+     * Marks this instance as replaced. It is disposed as soon as no call is using it; the replacement
+     * may be null when the configuration was removed.
+     */
+    void retire(ConfiguredServices replacement) {
+        this.replacement = replacement;
+        retired = true;
+        if (inFlight.get() == 0) {
+            disposeReplaced();
+        }
+    }
+
+    // Disposes the components the replacement does not use
+    void disposeReplaced() {
+        if (!disposed.compareAndSet(false, true)) {
+            return;
+        }
+
+        Set<Object> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (replacement != null) {
+            kept.addAll(replacement.components());
+        }
+        for (Object component : components()) {
+            if (component instanceof IDisposable && !kept.contains(component)) {
+                try {
+                    ((IDisposable) component).dispose();
+                } catch (RuntimeException exc) {
+                    // one component failing to close must not keep the others open
+                }
+            }
+        }
+    }
+
+    // the device interface is disposed through its controller
+    private Set<Object> components() {
+        Set<Object> components = Collections.newSetFromMap(new IdentityHashMap<>());
+        components.add(gatewayConnector);
+        components.add(recurringConnector);
+        components.add(reportingService);
+        components.add(deviceController);
+        components.add(tableServiceConnector);
+        components.add(payrollConnector);
+        components.add(billingProvider);
+        components.addAll(secure3dProviders.values());
+        components.remove(null);
+        return components;
+    }
+
     public void dispose() {
-        deviceController.dispose();
+        replacement = null;
+        retired = true;
+        disposeReplaced();
     }
 }
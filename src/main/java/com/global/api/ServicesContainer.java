@@ -5,44 +5,97 @@ import com.global.api.entities.exceptions.ApiException;
 import com.global.api.entities.exceptions.ConfigurationException;
 import com.global.api.gateways.*;
 import com.global.api.serviceConfigs.Configuration;
+import com.global.api.serviceConfigs.PriorityConfig;
 import com.global.api.terminals.DeviceController;
 import com.global.api.terminals.abstractions.IDeviceInterface;
 import com.global.api.terminals.abstractions.IDisposable;
+import lombok.Getter;
+import lombok.Setter;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class ServicesContainer implements IDisposable {
-    private ConcurrentHashMap<String, ConfiguredServices> configurations;
-    private static ServicesContainer instance;
+    public interface IServicesCall<T> {
+        T execute() throws ApiException;
+    }
+
+    private static final ServicesContainer instance = new ServicesContainer();
+    // calls in progress on this thread, with the configuration instance each one is using
+    private static final ThreadLocal<HashMap<String, ConfiguredServices>> pinned = new ThreadLocal<>();
+    private static ScheduledExecutorService drainTimer;
+    private static final long IDLE_SWEEP_MILLIS = 30000;
+
+    private final ConcurrentHashMap<String, ConfiguredServices> configurations;
+    @Getter private final TenantRegistry tenantRegistry;
+    private boolean idleSweepScheduled;
+    // replaced configurations still serving in flight calls are disposed after this long regardless
+    @Getter @Setter private long drainTimeoutMillis = 60000;
 
     public IDeviceInterface getDeviceInterface(String configName) throws ApiException {
-        if(configurations.containsKey(configName))
-            return configurations.get(configName).getDeviceInterface();
+        ConfiguredServices cs = lookup(configName);
+        if(cs != null)
+            return cs.getDeviceInterface();
         throw new ApiException("The specified configuration has not been configured for terminal interaction.");
     }
     public DeviceController getDeviceController(String configName) throws ApiException {
-        if(configurations.containsKey(configName))
-            return configurations.get(configName).getDeviceController();
+        ConfiguredServices cs = lookup(configName);
+        if(cs != null)
+            return cs.getDeviceController();
         throw new ApiException("The specified configuration has not been configured for terminal interaction.");
     }
     public IPaymentGateway getGateway(String configName) throws ApiException {
-        if(configurations.containsKey(configName))
-            return configurations.get(configName).getGatewayConnector();
+        ConfiguredServices cs = lookup(configName);
+        if(cs != null)
+            return cs.getGatewayConnector();
         throw new ApiException("The specified configuration has not been configured for card processing.");
     }
+    public IReportingService getReportingService(String configName) throws ApiException {
+        ConfiguredServices cs = lookup(configName);
+        if(cs != null) {
+            if(cs.getReportingService() != null)
+                return cs.getReportingService();
+            if(cs.getGatewayConnector() instanceof IReportingService)
+                return (IReportingService) cs.getGatewayConnector();
+        }
+        throw new ApiException("The specified configuration has not been configured for reporting.");
+    }
+    public RequestLimiter getRequestLimiter(String configName) {
+        ConfiguredServices cs = lookupConfigured(configName);
+        if(cs != null && cs.getRequestLimiter() != null)
+            return cs.getRequestLimiter();
+        return RequestLimiter.UNLIMITED;
+    }
+    public RequestCoalescer getRequestCoalescer(String configName) {
+        ConfiguredServices cs = lookupConfigured(configName);
+        if(cs != null && cs.getRequestCoalescer() != null)
+            return cs.getRequestCoalescer();
+        return RequestCoalescer.DISABLED;
+    }
     public PayrollConnector getPayroll(String configName) throws ApiException {
-        if(configurations.containsKey(configName))
-            return configurations.get(configName).getPayrollConnector();
+        ConfiguredServices cs = lookup(configName);
+        if(cs != null)
+            return cs.getPayrollConnector();
         throw new ApiException("The specified configuration has not been configured for payroll.");
     }
     public IRecurringGateway getRecurring(String configName) throws ApiException {
-        if(configurations.containsKey(configName))
-            return configurations.get(configName).getRecurringConnector();
+        ConfiguredServices cs = lookup(configName);
+        if(cs != null)
+            return cs.getRecurringConnector();
         throw new ApiException("The specified configuration has not been configured for recurring processing.");
     }
     public ISecure3dProvider getSecure3d(String configName, Secure3dVersion version) throws ApiException {
-        if(configurations.containsKey(configName)) {
-            ISecure3dProvider provider = configurations.get(configName).getSecure3dProvider(version);
+        ConfiguredServices cs = lookup(configName);
+        if(cs != null) {
+            ISecure3dProvider provider = cs.getSecure3dProvider(version);
             if(provider != null) {
                 return provider;
             }
@@ -51,24 +104,65 @@ public class ServicesContainer implements IDisposable {
         throw new ConfigurationException("Secure 3d is not configured on the connector");
     }
     public TableServiceConnector getTableService(String configName) throws ApiException {
-        if(configurations.containsKey(configName))
-            return configurations.get(configName).getTableServiceConnector();
+        ConfiguredServices cs = lookup(configName);
+        if(cs != null)
+            return cs.getTableServiceConnector();
         throw new ApiException("The specified configuration has not been configured for payroll.");
     }
     public IBillingProvider getBillingClient(String configName) throws ApiException {
-        if (configurations.containsKey(configName)) {
-            return configurations.get(configName).getBillingProvider();
+        ConfiguredServices cs = lookup(configName);
+        if (cs != null) {
+            return cs.getBillingProvider();
         }
 
         throw new ConfigurationException("The specified configuration has not been configured for gateway processing.");
     }
 
     public static ServicesContainer getInstance() {
-        if(instance == null)
-            instance = new ServicesContainer();
         return instance;
     }
 
+    /**
+     * Runs the call against the current instance of the configuration, which stays in service (and
+     * undisposed) until the call completes even if the configuration is replaced meanwhile. Calls
+     * nested on the same thread use the same instance.
+     */
+    public <T> T execute(String configName, IServicesCall<T> call) throws ApiException {
+        HashMap<String, ConfiguredServices> calls = pinned.get();
+        if(calls != null && calls.containsKey(configName)) {
+            return call.execute();
+        }
+
+        ConfiguredServices cs;
+        do {
+            cs = configurations.get(configName);
+            if(cs == null) {
+                cs = hydrate(configName);
+            }
+            if(cs == null) {
+                // not configured; the lookups made by the call report it
+                return call.execute();
+            }
+        } while(!cs.tryAcquire());
+        tenantRegistry.touch(configName);
+
+        if(calls == null) {
+            calls = new HashMap<>();
+            pinned.set(calls);
+        }
+        calls.put(configName, cs);
+        try {
+            return call.execute();
+        }
+        finally {
+            calls.remove(configName);
+            if(calls.isEmpty()) {
+                pinned.remove();
+            }
+            cs.release();
+        }
+    }
+
     public static void configure(ServicesConfig config) throws ConfigurationException {
         configure(config, "default");
     }
@@ -99,6 +193,8 @@ public class ServicesContainer implements IDisposable {
         configureService(config, "default");
     }
     public static <T extends Configuration> void configureService(T config, String configName) throws ConfigurationException {
+        // an explicitly configured service is never evicted
+        getInstance().unregisterTenant(configName);
         if(config == null) {
             getInstance().removeConfiguration(configName);
             return;
@@ -108,39 +204,180 @@ public class ServicesContainer implements IDisposable {
             config.validate();
         }
 
-        ConfiguredServices cs = getInstance().getConfiguration(configName);
+        getInstance().updateConfiguration(configName, config);
+    }
+
+    /**
+     * Registers the configuration of a tenant without creating any of its services. They are created by
+     * the first call made with the configuration name and released while the tenant is idle, see
+     * {@link TenantRegistry}. Registering a name again replaces its configuration (e.g. to rotate
+     * credentials); calls in progress complete with the previous one.
+     */
+    public static void registerTenant(Configuration config, String configName) throws ConfigurationException {
+        getInstance().tenantRegistry.register(configName, config);
+    }
+
+    // configurations are only changed under the container's lock; lookups never take it
+    private synchronized void updateConfiguration(String configName, Configuration config) throws ConfigurationException {
+        // new calls see the new instance as soon as it is in the map, while the previous instance drains
+        ConfiguredServices current = configurations.get(configName);
+        ConfiguredServices cs = current != null ? current.copy() : new ConfiguredServices();
         config.configureContainer(cs);
+        if(config.getLimiterConfig() != null) {
+            cs.setRequestLimiter(new RequestLimiter(config.getLimiterConfig()));
+        }
+        if(config.isRequestCoalescing()) {
+            cs.setRequestCoalescer(new RequestCoalescer());
+        }
+        if(config.getPriorityConfig() != null) {
+            applyPriorityScheduling(cs, config.getPriorityConfig());
+        }
 
-        getInstance().addConfiguration(configName, cs);
+        ConfiguredServices previous = configurations.put(configName, cs);
+        if(previous != null) {
+            retire(previous, cs);
+        }
+    }
+
+    // the transports of a configuration share one scheduler, so its reports compete with its authorizations for the same connections
+    private static void applyPriorityScheduling(ConfiguredServices cs, PriorityConfig config) {
+        PriorityScheduler scheduler = new PriorityScheduler(config);
+        Set<Object> configured = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Object> transports = new ArrayList<>();
+        transports.add(cs.getGatewayConnector());
+        transports.add(cs.getReportingService());
+        transports.add(cs.getRecurringConnector());
+        transports.add(cs.getSecure3dProvider(Secure3dVersion.ONE));
+        transports.add(cs.getSecure3dProvider(Secure3dVersion.TWO));
+
+        for(Object transport : transports) {
+            if(transport instanceof CachingReportingService) {
+                transport = ((CachingReportingService) transport).getReportingService();
+            }
+            if(transport == null || !configured.add(transport)) {
+                continue;
+            }
+            if(transport instanceof Gateway) {
+                ((Gateway) transport).setPriorityScheduler(scheduler);
+            }
+            else if(transport instanceof NetworkGateway) {
+                ((NetworkGateway) transport).setPriorityScheduler(PriorityScheduler.forSingleConnection(config));
+            }
+        }
     }
 
     private ServicesContainer() {
         configurations = new ConcurrentHashMap<>();
+        tenantRegistry = new TenantRegistry(this);
+    }
+
+    // the instance a call on this thread is already using, otherwise the current one, creating a registered tenant's
+    private ConfiguredServices lookup(String configName) throws ConfigurationException {
+        ConfiguredServices cs = lookupConfigured(configName);
+        return cs != null ? cs : hydrate(configName);
+    }
+
+    private ConfiguredServices lookupConfigured(String configName) {
+        HashMap<String, ConfiguredServices> calls = pinned.get();
+        if(calls != null) {
+            ConfiguredServices cs = calls.get(configName);
+            if(cs != null) {
+                return cs;
+            }
+        }
+        ConfiguredServices cs = configurations.get(configName);
+        if(cs != null) {
+            tenantRegistry.touch(configName);
+        }
+        return cs;
+    }
+
+    private ConfiguredServices hydrate(String configName) throws ConfigurationException {
+        TenantRegistry.Tenant tenant = tenantRegistry.get(configName);
+        if(tenant == null) {
+            return null;
+        }
+        synchronized(this) {
+            ConfiguredServices cs = configurations.get(configName);
+            if(cs == null && tenantRegistry.get(configName) == tenant) {
+                updateConfiguration(configName, tenant.config);
+                cs = configurations.get(configName);
+                tenantRegistry.onHydrated(configName, tenant);
+            }
+            return cs;
+        }
+    }
+
+    // releases the tenant's services; they drain and are created again by its next call
+    synchronized void evictTenant(String configName, TenantRegistry.Tenant tenant) {
+        if(tenantRegistry.get(configName) != tenant || !tenant.active) {
+            return;
+        }
+        ConfiguredServices cs = configurations.remove(configName);
+        if(cs != null) {
+            retire(cs, null);
+        }
+        tenantRegistry.onReleased(tenant, true);
+    }
+
+    // tenants are only activated and released under the container's lock
+    private synchronized void unregisterTenant(String configName) {
+        tenantRegistry.unregister(configName);
     }
 
-    private ConfiguredServices getConfiguration(String configName) {
-        if(configurations.containsKey(configName))
-            return configurations.get(configName);
-        return new ConfiguredServices();
+    // a (re)registered tenant starts from its new configuration on its next call
+    synchronized void releaseTenant(String configName, TenantRegistry.Tenant previous) {
+        ConfiguredServices cs = configurations.remove(configName);
+        if(cs != null) {
+            retire(cs, null);
+        }
+        if(previous != null) {
+            tenantRegistry.onReleased(previous, false);
+        }
+
+        if(!idleSweepScheduled) {
+            idleSweepScheduled = true;
+            getDrainTimer().scheduleWithFixedDelay(() -> {
+                try {
+                    tenantRegistry.evictIdleTenants();
+                }
+                catch(RuntimeException e) {
+                    // keep sweeping; a failed dispose only affects that tenant
+                }
+            }, IDLE_SWEEP_MILLIS, IDLE_SWEEP_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void removeConfiguration(String configName) {
+        ConfiguredServices previous = configurations.remove(configName);
+        if(previous != null) {
+            retire(previous, null);
+        }
     }
 
-    private void addConfiguration(String configName, ConfiguredServices cs) throws ConfigurationException {
-        System.out.println(String.format("[Add Configuration] - %s", configName));
-        if(configurations.containsKey(configName)) {
-            configurations.remove(configName);
+    private void retire(ConfiguredServices previous, ConfiguredServices replacement) {
+        previous.retire(replacement);
+        if(!previous.isDisposed() && drainTimeoutMillis > 0) {
+            // a call that never completes must not keep the replaced connections open forever
+            getDrainTimer().schedule(previous::disposeReplaced, drainTimeoutMillis, TimeUnit.MILLISECONDS);
         }
-        configurations.put(configName, cs);
     }
 
-    private void removeConfiguration(String configName) throws ConfigurationException {
-        System.out.println(String.format("[Remove Configuration] - %s", configName));
-        if(configurations.containsKey(configName)) {
-            configurations.remove(configName);
+    private static synchronized ScheduledExecutorService getDrainTimer() {
+        if(drainTimer == null) {
+            drainTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "services-drain");
+                thread.setDaemon(true);
+                return thread;
+            });
         }
+        return drainTimer;
     }
 
-    public void dispose() {
+    public synchronized void dispose() {
         for(ConfiguredServices cs : configurations.values())
             cs.dispose();
+        configurations.clear();
+        tenantRegistry.releaseAll();
     }
 }
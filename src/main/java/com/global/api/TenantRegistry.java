@@ -0,0 +1,171 @@
+package com.global.api;
+
+import com.global.api.entities.exceptions.ConfigurationException;
+import com.global.api.serviceConfigs.Configuration;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Configurations of many merchants (tenants) of which only a few are in use at any time. Registering
+ * a tenant only keeps its Configuration; its connectors are built the first time one of its calls is
+ * made, and released again once it has been idle for idleTimeoutMillis or when more than
+ * maxActiveTenants are built (least recently used first). The next call rebuilds them transparently.
+ *
+ * Use {@link ServicesContainer#registerTenant} to register and the usual builders with the tenant's
+ * configuration name to transact.
+ */
+public class TenantRegistry {
+    static class Tenant {
+        final Configuration config;
+        volatile long lastUsedNanos;
+        volatile boolean active;
+
+        Tenant(Configuration config) {
+            this.config = config;
+        }
+    }
+
+    private final ServicesContainer container;
+    private final ConcurrentHashMap<String, Tenant> tenants = new ConcurrentHashMap<>();
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicLong hydrationCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    @Getter private int maxActiveTenants = 500;
+    @Getter private long idleTimeoutMillis = TimeUnit.MINUTES.toMillis(15);
+
+    TenantRegistry(ServicesContainer container) {
+        this.container = container;
+    }
+
+    public void setMaxActiveTenants(int maxActiveTenants) {
+        this.maxActiveTenants = maxActiveTenants;
+        evictLeastRecentlyUsed(null);
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public int getRegisteredCount() {
+        return tenants.size();
+    }
+
+    // Tenants whose services are currently built
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    public long getHydrationCount() {
+        return hydrationCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public boolean isRegistered(String configName) {
+        return tenants.containsKey(configName);
+    }
+
+    public boolean isActive(String configName) {
+        Tenant tenant = tenants.get(configName);
+        return tenant != null && tenant.active;
+    }
+
+    /**
+     * Registers or replaces the tenant's configuration. When the tenant is active, its current services
+     * drain and the next call is made with the new configuration.
+     */
+    void register(String configName, Configuration config) throws ConfigurationException {
+        if (!config.isValidated()) {
+            config.validate();
+        }
+        Tenant previous = tenants.put(configName, new Tenant(config));
+        container.releaseTenant(configName, previous);
+    }
+
+    void unregister(String configName) {
+        Tenant previous = tenants.remove(configName);
+        if (previous != null && previous.active) {
+            previous.active = false;
+            activeCount.decrementAndGet();
+        }
+    }
+
+    Tenant get(String configName) {
+        return tenants.get(configName);
+    }
+
+    void touch(String configName) {
+        Tenant tenant = tenants.get(configName);
+        if (tenant != null) {
+            tenant.lastUsedNanos = System.nanoTime();
+        }
+    }
+
+    void onHydrated(String configName, Tenant tenant) {
+        tenant.lastUsedNanos = System.nanoTime();
+        if (!tenant.active) {
+            tenant.active = true;
+            activeCount.incrementAndGet();
+        }
+        hydrationCount.incrementAndGet();
+        evictLeastRecentlyUsed(configName);
+    }
+
+    void onReleased(Tenant tenant, boolean evicted) {
+        if (tenant.active) {
+            tenant.active = false;
+            activeCount.decrementAndGet();
+            if (evicted) {
+                evictionCount.incrementAndGet();
+            }
+        }
+    }
+
+    // the container disposed every service
+    void releaseAll() {
+        for (Tenant tenant : tenants.values()) {
+            onReleased(tenant, false);
+        }
+    }
+
+    /**
+     * Releases the services of tenants that have not been used for idleTimeoutMillis. Runs periodically
+     * once a tenant is registered.
+     */
+    public void evictIdleTenants() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        for (Map.Entry<String, Tenant> entry : tenants.entrySet()) {
+            Tenant tenant = entry.getValue();
+            if (tenant.active && tenant.lastUsedNanos - cutoff < 0) {
+                container.evictTenant(entry.getKey(), tenant);
+            }
+        }
+    }
+
+    // Scans every tenant, which is only done when the active limit is exceeded
+    private void evictLeastRecentlyUsed(String keep) {
+        while (activeCount.get() > maxActiveTenants) {
+            String oldestName = null;
+            Tenant oldest = null;
+            for (Map.Entry<String, Tenant> entry : tenants.entrySet()) {
+                Tenant tenant = entry.getValue();
+                if (tenant.active && !entry.getKey().equals(keep)
+                        && (oldest == null || tenant.lastUsedNanos - oldest.lastUsedNanos < 0)) {
+                    oldestName = entry.getKey();
+                    oldest = tenant;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            container.evictTenant(oldestName, oldest);
+        }
+    }
+}
@@ -7,6 +7,9 @@ import com.global.api.entities.enums.*;
 import com.global.api.entities.exceptions.ApiException;
 import com.global.api.entities.exceptions.UnsupportedTransactionException;
 import com.global.api.gateways.IPaymentGateway;
+import com.global.api.gateways.PriorityScheduler;
+import com.global.api.gateways.RequestCoalescer;
+import com.global.api.gateways.RequestLimiter;
 import com.global.api.network.entities.FleetData;
 import com.global.api.network.entities.PriorMessageInformation;
 import com.global.api.network.entities.ProductData;
@@ -21,6 +24,7 @@ import lombok.var;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 public class AuthorizationBuilder extends TransactionBuilder<Transaction> {
     private AccountType accountType;
@@ -475,6 +479,14 @@ public class AuthorizationBuilder extends TransactionBuilder<Transaction> {
         this.idempotencyKey = value;
         return this;
     }
+    public AuthorizationBuilder withTimeout(long value, TimeUnit unit) {
+        this.timeoutMillis = unit.toMillis(value);
+        return this;
+    }
+    public AuthorizationBuilder withDeadline(Date value) {
+        this.deadline = value;
+        return this;
+    }
     public AuthorizationBuilder withInvoiceNumber(String value) {
         this.invoiceNumber = value;
         return this;
@@ -747,8 +759,19 @@ public class AuthorizationBuilder extends TransactionBuilder<Transaction> {
     public Transaction execute(String configName) throws ApiException {
         super.execute(configName);
 
-        IPaymentGateway client = ServicesContainer.getInstance().getGateway(configName);
-        return client.processAuthorization(this);
+        return ServicesContainer.getInstance().execute(configName, () -> {
+            IPaymentGateway client = ServicesContainer.getInstance().getGateway(configName);
+            RequestLimiter limiter = ServicesContainer.getInstance().getRequestLimiter(configName);
+            // bound outside the limiter, which compares latencies per priority
+            RequestCoalescer.IRequest<Transaction> request = () -> PriorityScheduler.withPriority(RequestPriority.Authorization,
+                    () -> limiter.execute(() -> client.processAuthorization(this)));
+            if (transactionType == TransactionType.Balance) {
+                // balance inquiries are read only, so identical concurrent inquiries can share one gateway call
+                return executeWithDeadline(() -> ServicesContainer.getInstance().getRequestCoalescer(configName)
+                        .execute(() -> RequestCoalescer.fingerprint(this), request));
+            }
+            return executeWithDeadline(request::execute);
+        });
     }
 
     public String serialize() throws ApiException {
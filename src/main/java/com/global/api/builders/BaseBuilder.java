@@ -3,19 +3,40 @@ package com.global.api.builders;
 import com.global.api.builders.validations.Validations;
 import com.global.api.entities.exceptions.ApiException;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 public abstract class BaseBuilder<TResult> {
+    // setupValidations() only declares static rules, so they are built once per builder class and shared
+    private static final ConcurrentHashMap<Class<?>, Validations> validationsByClass = new ConcurrentHashMap<>();
+
     protected Validations validations;
+    // validations is the instance shared by every builder of this class, so it is copied before it is handed out
+    private boolean sharedValidations;
 
     public Validations getValidations() {
+        if (sharedValidations) {
+            validations = new Validations(validations);
+            sharedValidations = false;
+        }
         return validations;
     }
     public void setValidations(Validations validations) {
         this.validations = validations;
+        sharedValidations = false;
     }
 
     public BaseBuilder() {
-        validations = new Validations();
-        setupValidations();
+        validations = validationsByClass.get(getClass());
+        if (validations == null) {
+            validations = new Validations();
+            setupValidations();
+
+            Validations existing = validationsByClass.putIfAbsent(getClass(), validations);
+            if (existing != null) {
+                validations = existing;
+            }
+        }
+        sharedValidations = true;
     }
 
     public TResult execute() throws ApiException {
@@ -132,8 +132,10 @@ public class BillingBuilder extends TransactionBuilder<BillingResponse> {
     public BillingResponse execute(String configName) throws ApiException {
         super.execute(configName);
 
-        IBillingProvider client = ServicesContainer.getInstance().getBillingClient(configName);
-        return client.processBillingRequest(this);
+        return ServicesContainer.getInstance().execute(configName, () -> {
+            IBillingProvider client = ServicesContainer.getInstance().getBillingClient(configName);
+            return client.processBillingRequest(this);
+        });
     }
 
     @Override
@@ -9,6 +9,7 @@ import com.global.api.entities.billing.Bill;
 import com.global.api.entities.enums.*;
 import com.global.api.entities.exceptions.ApiException;
 import com.global.api.gateways.IPaymentGateway;
+import com.global.api.gateways.PriorityScheduler;
 import com.global.api.network.entities.FleetData;
 import com.global.api.network.entities.PriorMessageInformation;
 import com.global.api.network.entities.ProductData;
@@ -21,6 +22,7 @@ import lombok.Setter;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 public class ManagementBuilder extends TransactionBuilder<Transaction> {
 	private AlternativePaymentType alternativePaymentType;
@@ -346,6 +348,14 @@ public class ManagementBuilder extends TransactionBuilder<Transaction> {
         this.idempotencyKey = value;
         return this;
     }
+    public ManagementBuilder withTimeout(long value, TimeUnit unit) {
+        this.timeoutMillis = unit.toMillis(value);
+        return this;
+    }
+    public ManagementBuilder withDeadline(Date value) {
+        this.deadline = value;
+        return this;
+    }
     public ManagementBuilder withIssuerData(CardIssuerEntryTag tag, String value) {
         if(issuerData == null) {
             issuerData = new LinkedHashMap<CardIssuerEntryTag, String>();
@@ -509,8 +519,11 @@ public class ManagementBuilder extends TransactionBuilder<Transaction> {
     public Transaction execute(String configName) throws ApiException {
         super.execute(configName);
 
-        IPaymentGateway gateway = ServicesContainer.getInstance().getGateway(configName);
-        return gateway.manageTransaction(this);
+        return ServicesContainer.getInstance().execute(configName, () -> {
+            IPaymentGateway gateway = ServicesContainer.getInstance().getGateway(configName);
+            return executeWithDeadline(() -> PriorityScheduler.withPriority(RequestPriority.Management,
+                    () -> ServicesContainer.getInstance().getRequestLimiter(configName).execute(() -> gateway.manageTransaction(this))));
+        });
     }
 
     @Override
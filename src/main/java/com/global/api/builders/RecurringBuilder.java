@@ -68,8 +68,10 @@ public class RecurringBuilder<TResult> extends TransactionBuilder<TResult> {
     public TResult execute(String configName) throws ApiException {
         super.execute(configName);
 
-        IRecurringGateway client = ServicesContainer.getInstance().getRecurring(configName);
-        return client.processRecurring(this, clazz);
+        return ServicesContainer.getInstance().execute(configName, () -> {
+            IRecurringGateway client = ServicesContainer.getInstance().getRecurring(configName);
+            return client.processRecurring(this, clazz);
+        });
     }
 
     public void setupValidations() {
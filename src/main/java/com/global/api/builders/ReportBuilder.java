@@ -2,9 +2,13 @@ package com.global.api.builders;
 
 import com.global.api.ServicesContainer;
 import com.global.api.entities.enums.ReportType;
+import com.global.api.entities.enums.RequestPriority;
 import com.global.api.entities.enums.TimeZoneConversion;
 import com.global.api.entities.exceptions.ApiException;
 import com.global.api.gateways.IReportingService;
+import com.global.api.gateways.PriorityScheduler;
+import com.global.api.gateways.RequestCoalescer;
+import com.global.api.gateways.RequestLimiter;
 
 public abstract class ReportBuilder<TResult> extends BaseBuilder<TResult> {
     private ReportType reportType;
@@ -33,7 +37,12 @@ public abstract class ReportBuilder<TResult> extends BaseBuilder<TResult> {
     public TResult execute(String configName) throws ApiException {
         super.execute(configName);
 
-        IReportingService client = (IReportingService) ServicesContainer.getInstance().getGateway(configName);
-        return client.processReport(this, clazz);
+        return ServicesContainer.getInstance().execute(configName, () -> {
+            IReportingService client = ServicesContainer.getInstance().getReportingService(configName);
+            RequestLimiter limiter = ServicesContainer.getInstance().getRequestLimiter(configName);
+            // reports are read only, so identical concurrent reports can share one gateway call
+            return PriorityScheduler.withPriority(RequestPriority.Report, () -> ServicesContainer.getInstance().getRequestCoalescer(configName)
+                    .execute(() -> RequestCoalescer.fingerprint(this), () -> limiter.execute(() -> client.processReport(this, clazz))));
+        });
     }
 }
@@ -90,13 +90,15 @@ public class ResubmitBuilder extends TransactionBuilder<Transaction> {
     public Transaction execute(String configName) throws ApiException {
         super.execute(configName);
 
-        IPaymentGateway client = ServicesContainer.getInstance().getGateway(configName);
-        if(client instanceof VapsConnector) {
-            return ((VapsConnector)client).resubmitTransaction(this);
-        }
-        else {
-            throw new UnsupportedTransactionException("Resubmissions are not allowed for the currently configured gateway.");
-        }
+        return ServicesContainer.getInstance().execute(configName, () -> {
+            IPaymentGateway client = ServicesContainer.getInstance().getGateway(configName);
+            if(client instanceof VapsConnector) {
+                return ((VapsConnector)client).resubmitTransaction(this);
+            }
+            else {
+                throw new UnsupportedTransactionException("Resubmissions are not allowed for the currently configured gateway.");
+            }
+        });
     }
 
     public void setupValidations() {
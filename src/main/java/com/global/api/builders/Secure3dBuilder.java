@@ -7,6 +7,8 @@ import com.global.api.entities.exceptions.ApiException;
 import com.global.api.entities.exceptions.ConfigurationException;
 import com.global.api.entities.exceptions.GatewayException;
 import com.global.api.gateways.ISecure3dProvider;
+import com.global.api.gateways.PriorityScheduler;
+import com.global.api.gateways.RequestCoalescer;
 import com.global.api.paymentMethods.IPaymentMethod;
 import com.global.api.paymentMethods.ISecure3d;
 import com.global.api.utils.JsonDoc;
@@ -733,6 +735,17 @@ public class Secure3dBuilder extends BaseBuilder<ThreeDSecure> {
         return execute(version, "default");
     }
     public ThreeDSecure execute(Secure3dVersion version, String configName) throws ApiException {
+        return ServicesContainer.getInstance().execute(configName, () -> {
+            if (transactionType == TransactionType.VerifyEnrolled && threeDSecure == null) {
+                // enrollment checks are read only, so identical concurrent checks can share one gateway call
+                return ServicesContainer.getInstance().getRequestCoalescer(configName)
+                        .execute(() -> RequestCoalescer.fingerprint(this, version), () -> processSecure3d(version, configName));
+            }
+            return processSecure3d(version, configName);
+        });
+    }
+
+    private ThreeDSecure processSecure3d(Secure3dVersion version, String configName) throws ApiException {
         validations.validate(this);
 
         // setup return object
@@ -762,7 +775,8 @@ public class Secure3dBuilder extends BaseBuilder<ThreeDSecure> {
             /* process the request, capture any exceptions which might have been thrown */
             Transaction response = null;
             try{
-                response = provider.processSecure3d(this);
+                // authentication is part of the checkout, so it is scheduled with the authorizations
+                response = PriorityScheduler.withPriority(RequestPriority.Authorization, () -> provider.processSecure3d(this));
                 if(response == null && canDowngrade) {
                     return execute(Secure3dVersion.ONE, configName);
                 }
@@ -4,16 +4,20 @@ import com.global.api.entities.enums.Host;
 import com.global.api.entities.enums.HostError;
 import com.global.api.entities.enums.TransactionModifier;
 import com.global.api.entities.enums.TransactionType;
+import com.global.api.entities.exceptions.ApiException;
 import com.global.api.network.entities.FleetData;
 import com.global.api.network.entities.PriorMessageInformation;
 import com.global.api.network.entities.ProductData;
 import com.global.api.network.entities.TransactionMatchingData;
 import com.global.api.network.enums.CardIssuerEntryTag;
 import com.global.api.paymentMethods.IPaymentMethod;
+import com.global.api.utils.Deadline;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
 
 public abstract class TransactionBuilder<TResult> extends BaseBuilder<TResult> {
     protected TransactionType transactionType;
@@ -35,6 +39,10 @@ public abstract class TransactionBuilder<TResult> extends BaseBuilder<TResult> {
     protected TransactionMatchingData transactionMatchingData;
     protected boolean terminalError;
 
+    // overall time allowed for the call, including sign in, fail over, retries and follow on messages
+    protected Long timeoutMillis;
+    protected Date deadline;
+
     public TransactionType getTransactionType() {
         return transactionType;
     }
@@ -95,6 +103,12 @@ public abstract class TransactionBuilder<TResult> extends BaseBuilder<TResult> {
     public boolean isTerminalError() {
         return terminalError;
     }
+    public Long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+    public Date getDeadline() {
+        return deadline;
+    }
 
     public TransactionBuilder(TransactionType type) {
         this(type, null);
@@ -104,4 +118,26 @@ public abstract class TransactionBuilder<TResult> extends BaseBuilder<TResult> {
         this.transactionType = type;
         this.paymentMethod = paymentMethod;
     }
+
+    // Runs the call with its deadline bound to this thread; the timeout starts counting at execution
+    protected <T> T executeWithDeadline(Deadline.IAction<T> action) throws ApiException {
+        Deadline callDeadline = null;
+        if (deadline != null) {
+            callDeadline = Deadline.at(deadline);
+        }
+        if (timeoutMillis != null) {
+            Deadline timeout = Deadline.after(timeoutMillis, TimeUnit.MILLISECONDS);
+            if (callDeadline == null || timeout.remainingMillis() < callDeadline.remainingMillis()) {
+                callDeadline = timeout;
+            }
+        }
+
+        if (callDeadline == null) {
+            return action.execute();
+        }
+        return callDeadline.run(() -> {
+            Deadline.check();
+            return action.execute();
+        });
+    }
 }
@@ -2,14 +2,16 @@ package com.global.api.builders;
 
 import com.global.api.entities.enums.*;
 import com.global.api.entities.reporting.DataServiceCriteria;
+import com.global.api.entities.reporting.ReportCursor;
 import com.global.api.entities.reporting.SearchCriteria;
 import com.global.api.entities.reporting.SearchCriteriaBuilder;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.util.Date;
+import java.util.stream.Stream;
 
-public class TransactionReportBuilder<TResult> extends ReportBuilder<TResult> {
+public class TransactionReportBuilder<TResult> extends ReportBuilder<TResult> implements Cloneable {
     private String deviceId;
     private Date endDate;
     private Date startDate;
@@ -23,6 +25,7 @@ public class TransactionReportBuilder<TResult> extends ReportBuilder<TResult> {
     @Getter @Setter private StoredPaymentMethodSortProperty storedPaymentMethodOrderBy;
     @Getter @Setter private SortDirection storedPaymentMethodOrder;
     @Getter @Setter private ActionSortProperty actionOrderBy;
+    @Getter @Setter private int prefetchDepth = 1;  // Pages fetched ahead of the consumer by cursor()/stream()
 
     private SearchCriteriaBuilder<TResult> _searchBuilder;
 
@@ -104,6 +107,11 @@ public class TransactionReportBuilder<TResult> extends ReportBuilder<TResult> {
         return this;
     }
 
+    public TransactionReportBuilder<TResult> withPrefetchDepth(int value) {
+        this.prefetchDepth = value;
+        return this;
+    }
+
     public TransactionReportBuilder<TResult> WithSettlementDisputeId(String value) {
         getSearchBuilder().setSettlementDisputeId(value);
         return this;
@@ -145,6 +153,38 @@ public class TransactionReportBuilder<TResult> extends ReportBuilder<TResult> {
         return this;
     }
 
+    /**
+     * Shallow copy of this builder, so a copy can page through the report without changing this builder's page.
+     */
+    @SuppressWarnings("unchecked")
+    public TransactionReportBuilder<TResult> copy() {
+        try {
+            return (TransactionReportBuilder<TResult>) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public <T> ReportCursor<T> cursor() {
+        return cursor("default");
+    }
+
+    /**
+     * Iterates over the rows of every page of a paged report, starting at the current page.
+     * The next {@code prefetchDepth} pages are requested in the background while the current one is consumed.
+     */
+    public <T> ReportCursor<T> cursor(String configName) {
+        return new ReportCursor<>(this, configName, prefetchDepth);
+    }
+
+    public <T> Stream<T> stream() {
+        return stream("default");
+    }
+
+    public <T> Stream<T> stream(String configName) {
+        return this.<T>cursor(configName).stream();
+    }
+
     public void setupValidations() {
         this.validations.of(ReportType.TransactionDetail)
                 .check("transactionId").isNotNull();
@@ -0,0 +1,65 @@
+package com.global.api.builders.validations;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the fields read by the validation rules once per class and property name,
+ * including negative lookups, so validating a builder does not walk the class hierarchy.
+ */
+class PropertyAccessors {
+    private static final Field MISSING;
+
+    static {
+        try {
+            MISSING = PropertyAccessors.class.getDeclaredField("MISSING");
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final ClassValue<ConcurrentHashMap<String, Field>> fields = new ClassValue<ConcurrentHashMap<String, Field>>() {
+        @Override
+        protected ConcurrentHashMap<String, Field> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    // the builder property holding a flag of the given type, e.g. TransactionType -> transactionType
+    private static final ClassValue<String> propertyNames = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            String name = type.getSimpleName();
+            return name.substring(0, 1).toLowerCase() + name.substring(1);
+        }
+    };
+
+    static String propertyNameOf(Class<?> flagType) {
+        return propertyNames.get(flagType);
+    }
+
+    /**
+     * @return the accessible field declared by the class or one of its superclasses, or null when there is none
+     */
+    static Field find(Class<?> clazz, String name) {
+        ConcurrentHashMap<String, Field> classFields = fields.get(clazz);
+        Field field = classFields.get(name);
+        if (field == null) {
+            field = resolve(clazz, name);
+            classFields.putIfAbsent(name, field);
+        }
+        return field != MISSING ? field : null;
+    }
+
+    private static Field resolve(Class<?> clazz, String name) {
+        for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.getName().equals(name)) {
+                    field.setAccessible(true);
+                    return field;
+                }
+            }
+        }
+        return MISSING;
+    }
+}
@@ -37,14 +37,12 @@ public class ValidationClause {
     public ValidationTarget isNull(String message){
         callback = new MyCallable() {
             public Boolean call(Object builder) throws Exception {
-                try {
-                    Field f = getField(builder.getClass(), propertyName);
-                    Object value = f.get(builder);
-                    return value == null;
-                }
-                catch(NoSuchFieldException exc) {
+                Field f = PropertyAccessors.find(builder.getClass(), propertyName);
+                if(f == null) {
                     return false;
                 }
+                Object value = f.get(builder);
+                return value == null;
             }
         };
         this.message = (message != null) ? message : String.format("%s cannot be null for this transaction type.", propertyName);
@@ -59,14 +57,12 @@ public class ValidationClause {
     public ValidationTarget isNotNull(String message){
         callback = new MyCallable() {
             public Boolean call(Object builder) throws Exception {
-                try {
-                    Field f = getField(builder.getClass(), propertyName);
-                    Object value = f.get(builder);
-                    return value != null;
-                }
-                catch(NoSuchFieldException exc) {
+                Field f = PropertyAccessors.find(builder.getClass(), propertyName);
+                if(f == null) {
                     return false;
                 }
+                Object value = f.get(builder);
+                return value != null;
             }
         };
         this.message = (message != null) ? message : String.format("%s cannot be null for this transaction type.", propertyName);
@@ -82,14 +78,12 @@ public class ValidationClause {
         final Class checkClass = clazz;
         callback = new MyCallable() {
             public Boolean call(Object builder) throws Exception {
-                try {
-                    Field f = getField(builder.getClass(), propertyName);
-                    Object value = f.get(builder);
-                    return value.getClass() == checkClass;
-                }
-                catch(NoSuchFieldException exc) {
+                Field f = PropertyAccessors.find(builder.getClass(), propertyName);
+                if(f == null) {
                     return false;
                 }
+                Object value = f.get(builder);
+                return value.getClass() == checkClass;
             }
         };
         this.message = (message != null) ? message : String.format("%s must be an instance of the %s class.", propertyName, clazz.getName());
@@ -105,14 +99,12 @@ public class ValidationClause {
         final Class checkClass = clazz;
         callback = new MyCallable() {
             public Boolean call(Object builder) throws Exception {
-                try {
-                    Field f = getField(builder.getClass(), propertyName);
-                    Object value = f.get(builder);
-                    return checkClass.isAssignableFrom(value.getClass());
-                }
-                catch(NoSuchFieldException exc) {
+                Field f = PropertyAccessors.find(builder.getClass(), propertyName);
+                if(f == null) {
                     return false;
                 }
+                Object value = f.get(builder);
+                return checkClass.isAssignableFrom(value.getClass());
             }
         };
         this.message = (message != null) ? message : String.format("%s must be an instance of the %s class.", propertyName, clazz.getName());
@@ -127,25 +119,26 @@ public class ValidationClause {
     public ValidationTarget isEqualTo(final Object expected, String message) {
         callback = new MyCallable() {
             public Boolean call(Object builder) throws Exception {
-                try {
-                    Field f = getField(builder.getClass(), propertyName);
-                    Object value = f.get(builder);
-
-                    // check sub-field
-                    if(!StringUtils.isNullOrEmpty(subPropertyName)) {
-                        if(!propertyClass.isInstance(value)) {
-                            return false;
-                        }
+                Field f = PropertyAccessors.find(builder.getClass(), propertyName);
+                if(f == null) {
+                    return false;
+                }
+                Object value = f.get(builder);
 
-                        Field subField = getField(propertyClass, subPropertyName);
-                        value = subField.get(value);
+                // check sub-field
+                if(!StringUtils.isNullOrEmpty(subPropertyName)) {
+                    if(!propertyClass.isInstance(value)) {
+                        return false;
                     }
 
-                    return value.equals(expected);
-                }
-                catch(NoSuchFieldException exc) {
-                    return false;
+                    Field subField = PropertyAccessors.find(propertyClass, subPropertyName);
+                    if(subField == null) {
+                        return false;
+                    }
+                    value = subField.get(value);
                 }
+
+                return value.equals(expected);
             }
         };
         this.message = (message != null) ? message : String.format("%s was not the expected value %s", propertyName, expected.toString());
@@ -160,14 +153,12 @@ public class ValidationClause {
     public ValidationTarget isNotEqual(final Object expected, String message) {
         callback = new MyCallable() {
             public Boolean call(Object builder) throws Exception {
-                try {
-                    Field f = getField(builder.getClass(), propertyName);
-                    Object value = f.get(builder);
-                    return !value.equals(expected);
-                }
-                catch(NoSuchFieldException exc) {
+                Field f = PropertyAccessors.find(builder.getClass(), propertyName);
+                if(f == null) {
                     return false;
                 }
+                Object value = f.get(builder);
+                return !value.equals(expected);
             }
         };
         this.message = (message != null) ? message : String.format("%s cannot be the value %s.", propertyName, expected.toString());
@@ -181,20 +172,4 @@ public class ValidationClause {
         this.subPropertyName = subPropertyName;
         return this;
     }
-
-    private Field getField(Class clazz, String fieldName) throws NoSuchFieldException {
-        try{
-            Field f = clazz.getDeclaredField(fieldName);
-            f.setAccessible(true);
-            return f;
-        }
-        catch(NoSuchFieldException e) {
-            Class superClass = clazz.getSuperclass();
-            if(superClass == null)
-                throw e;
-            else {
-                return getField(superClass, fieldName);
-            }
-        }
-    }
 }
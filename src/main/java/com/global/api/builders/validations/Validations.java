@@ -36,10 +36,22 @@ public class Validations {
         }
     }
 
-    private HashMap<ValidationKey, List<ValidationTarget>> rules;
+    private LinkedHashMap<ValidationKey, List<ValidationTarget>> rules;
+    // rules with a clause, indexed by the type of flag they apply to and then by each flag value in their set
+    private volatile Map<Class<?>, Map<Object, List<ValidationTarget>>> index;
 
     public Validations() {
-        rules = new HashMap<ValidationKey, List<ValidationTarget>>();
+        rules = new LinkedHashMap<ValidationKey, List<ValidationTarget>>();
+    }
+
+    // A copy whose rules can be added to without changing the source
+    public Validations(Validations source) {
+        rules = new LinkedHashMap<ValidationKey, List<ValidationTarget>>();
+        synchronized (source) {
+            for(Map.Entry<ValidationKey, List<ValidationTarget>> rule: source.rules.entrySet()) {
+                rules.put(rule.getKey(), new ArrayList<ValidationTarget>(rule.getValue()));
+            }
+        }
     }
 
     public <T extends IFlag> ValidationTarget of(Set<T> types) {
@@ -49,85 +61,113 @@ public class Validations {
     public ValidationTarget of(IFlag type) {
         return of(new ValidationKey(type.getClass(), type.getLongValue()));
     }
-    ValidationTarget of(ValidationKey key) {
+    synchronized ValidationTarget of(ValidationKey key) {
         if(!rules.containsKey(key))
             rules.put(key, new ArrayList<ValidationTarget>());
 
         ValidationTarget target = new ValidationTarget(this, key);
         rules.get(key).add(target);
+        index = null;
         return target;
     }
 
     public <T> void validate(BaseBuilder<T> builder) throws BuilderException {
-        for(ValidationKey key: rules.keySet()) {
-            IFlag value = getPropertyValue(builder, key.getType());
+        for(Map.Entry<Class<?>, Map<Object, List<ValidationTarget>>> entry: getIndex().entrySet()) {
+            IFlag value = getPropertyValue(builder, entry.getKey());
             if(value == null && builder instanceof TransactionBuilder) {
-                value = getPropertyValue(((TransactionBuilder<T>)builder).getPaymentMethod(), key.getType());
-                if(value == null)
-                    continue;
+                value = getPropertyValue(((TransactionBuilder<T>)builder).getPaymentMethod(), entry.getKey());
             }
+            if(value == null)
+                continue;
+
+            List<ValidationTarget> validations = entry.getValue().get(value);
+            if(validations == null)
+                continue;
+
+            for(ValidationTarget validation: validations) {
+                ValidationClause clause = validation.getClause();
+
+                // modifier
+                IFlag constraint = validation.getConstraint();
+                if(constraint != null) {
+                    IFlag modifier = getPropertyValue(builder, constraint.getClass());
+                    if(!constraint.equals(modifier))
+                        continue;
+                }
 
-            Set<?> values = key.getSet();
-            if(values.contains(value)) {
-                for(ValidationTarget validation: rules.get(key)) {
-                    ValidationClause clause = validation.getClause();
-                    if(clause == null) continue;
-
-                    // modifier
-                    IFlag constraint = validation.getConstraint();
-                    if(constraint != null) {
-                        IFlag modifier = getPropertyValue(builder, constraint.getClass());
-                        if(!constraint.equals(modifier))
+                // check precondition
+                ValidationClause precondition = validation.getPrecondition();
+                if(precondition != null) {
+                    try {
+                        if (!precondition.getCallback().call(builder))
                             continue;
                     }
-
-                    // check precondition
-                    ValidationClause precondition = validation.getPrecondition();
-                    if(precondition != null) {
-                        try {
-                            if (!precondition.getCallback().call(builder))
-                                continue;
-                        }
-                        catch(Exception exc) {
-                            throw new BuilderException(exc.getMessage());
-                        }
+                    catch(Exception exc) {
+                        throw new BuilderException(exc.getMessage());
                     }
+                }
 
-                    // run actual validation
-                    try{
-                        if(!clause.getCallback().call(builder))
-                            throw new BuilderException(clause.getMessage());
-                    }
-                    catch(Exception e) {
-                        throw new BuilderException(e.getMessage());
-                    }
+                // run actual validation
+                try{
+                    if(!clause.getCallback().call(builder))
+                        throw new BuilderException(clause.getMessage());
+                }
+                catch(Exception e) {
+                    throw new BuilderException(e.getMessage());
                 }
             }
         }
     }
 
-    private Field getField(Class clazz, String name) throws NoSuchFieldException {
-        try {
-            Field field = clazz.getDeclaredField(name);
-            field.setAccessible(true);
-            return field;
+    private Map<Class<?>, Map<Object, List<ValidationTarget>>> getIndex() {
+        Map<Class<?>, Map<Object, List<ValidationTarget>>> current = index;
+        if(current == null) {
+            synchronized (this) {
+                current = index;
+                if(current == null) {
+                    current = buildIndex();
+                    index = current;
+                }
+            }
         }
-        catch(NoSuchFieldException e) {
-            Class superClazz = clazz.getSuperclass();
-            if(superClazz != null)
-                return getField(superClazz, name);
-            else throw e;
+        return current;
+    }
+
+    private Map<Class<?>, Map<Object, List<ValidationTarget>>> buildIndex() {
+        Map<Class<?>, Map<Object, List<ValidationTarget>>> result = new LinkedHashMap<Class<?>, Map<Object, List<ValidationTarget>>>();
+        for(Map.Entry<ValidationKey, List<ValidationTarget>> rule: rules.entrySet()) {
+            Set<?> values = rule.getKey().getSet();
+            if(values == null)
+                continue;
+
+            Class<?> type = (Class<?>) rule.getKey().getType();
+            if(!result.containsKey(type))
+                result.put(type, new HashMap<Object, List<ValidationTarget>>());
+            Map<Object, List<ValidationTarget>> byValue = result.get(type);
+
+            for(Object value: values) {
+                for(ValidationTarget target: rule.getValue()) {
+                    if(target.getClause() == null)
+                        continue;
+
+                    if(!byValue.containsKey(value))
+                        byValue.put(value, new ArrayList<ValidationTarget>());
+                    byValue.get(value).add(target);
+                }
+            }
         }
+        return result;
     }
-    private IFlag getPropertyValue(Object obj, Object comp) {
+
+    private IFlag getPropertyValue(Object obj, Class<?> flagType) {
         if(obj == null) return null;
 
-        String name = ((Class)comp).getSimpleName();
-        name = name.substring(0, 1).toLowerCase() + name.substring(1);
+        Field field = PropertyAccessors.find(obj.getClass(), PropertyAccessors.propertyNameOf(flagType));
+        if(field == null) return null;
 
         try{
-            Field field = getField(obj.getClass(), name);
-            return (IFlag)field.get(obj);
+            Object value = field.get(obj);
+            return (value instanceof IFlag) ? (IFlag) value : null;
         }
         catch(Exception e) {
             return null;
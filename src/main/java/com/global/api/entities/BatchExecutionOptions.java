@@ -0,0 +1,61 @@
+package com.global.api.entities;
+
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.services.BatchExecutor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Controls how {@link BatchExecutor} runs a list of transaction builders.
+ */
+@Getter
+@Setter
+public class BatchExecutionOptions {
+    // Number of builders executed at the same time against the configuration
+    private int maxConcurrency = 4;
+    // Maximum transactions (including retries) started per second; 0 disables rate limiting
+    private double requestsPerSecond;
+    // Additional attempts made for an item after a transient failure
+    private int maxRetries = 2;
+    private long initialBackoffMillis = 250;
+    private long maxBackoffMillis = TimeUnit.SECONDS.toMillis(5);
+    // Assigns a generated idempotency key to builders without one, so a retried request is not processed twice
+    private boolean generateIdempotencyKeys = true;
+    // Failures worth another attempt; when null, BatchExecutor.isTransient decides, allowing more for
+    // requests with an idempotency key the gateway honors
+    private Predicate<ApiException> retryOn;
+
+    public BatchExecutionOptions withMaxConcurrency(int value) {
+        this.maxConcurrency = value;
+        return this;
+    }
+
+    public BatchExecutionOptions withRequestsPerSecond(double value) {
+        this.requestsPerSecond = value;
+        return this;
+    }
+
+    public BatchExecutionOptions withMaxRetries(int value) {
+        this.maxRetries = value;
+        return this;
+    }
+
+    public BatchExecutionOptions withBackoff(long initial, long max, TimeUnit unit) {
+        this.initialBackoffMillis = unit.toMillis(initial);
+        this.maxBackoffMillis = unit.toMillis(max);
+        return this;
+    }
+
+    public BatchExecutionOptions withGenerateIdempotencyKeys(boolean value) {
+        this.generateIdempotencyKeys = value;
+        return this;
+    }
+
+    public BatchExecutionOptions withRetryOn(Predicate<ApiException> value) {
+        this.retryOn = value;
+        return this;
+    }
+}
@@ -0,0 +1,31 @@
+package com.global.api.entities;
+
+import com.global.api.builders.TransactionBuilder;
+import com.global.api.entities.exceptions.ApiException;
+import lombok.Getter;
+
+/**
+ * Outcome of a single builder executed by the BatchExecutor. Exactly one of
+ * {@code transaction} or {@code exception} is set.
+ */
+@Getter
+public class BatchItemResult {
+    // Position of the builder in the submitted list
+    private final int index;
+    private final TransactionBuilder<Transaction> builder;
+    private final Transaction transaction;
+    private final ApiException exception;
+    private final int attempts;
+
+    public BatchItemResult(int index, TransactionBuilder<Transaction> builder, Transaction transaction, ApiException exception, int attempts) {
+        this.index = index;
+        this.builder = builder;
+        this.transaction = transaction;
+        this.exception = exception;
+        this.attempts = attempts;
+    }
+
+    public boolean isSuccessful() {
+        return exception == null;
+    }
+}
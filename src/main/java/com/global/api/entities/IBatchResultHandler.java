@@ -0,0 +1,7 @@
+package com.global.api.entities;
+
+import com.global.api.entities.exceptions.ApiException;
+
+public interface IBatchResultHandler {
+    void handle(BatchItemResult result) throws ApiException;
+}
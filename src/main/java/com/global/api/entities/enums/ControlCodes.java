@@ -17,12 +17,15 @@ public enum ControlCodes implements IByteConstant {
     LF (0x0A);
 
     private final byte code;
-    ControlCodes(int code){ this.code = (byte)code; }
+    private final String text;
+    ControlCodes(int code){
+        this.code = (byte)code;
+        this.text = String.format("[%s]", name());
+    }
     public byte getByte() { return this.code; }
 
     @Override
     public String toString() {
-        String rvalue = super.toString();
-        return String.format("[%s]", rvalue);
+        return text;
     }
 }
@@ -0,0 +1,8 @@
+package com.global.api.entities.enums;
+
+// Scheduling class of a gateway request, highest priority first
+public enum RequestPriority {
+    Authorization,
+    Management,
+    Report
+}
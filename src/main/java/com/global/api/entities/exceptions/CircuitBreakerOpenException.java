@@ -0,0 +1,7 @@
+package com.global.api.entities.exceptions;
+
+public class CircuitBreakerOpenException extends RequestRejectedException {
+    public CircuitBreakerOpenException(String endpoint) {
+        super(String.format("The circuit breaker for %s is open; the request was not sent.", endpoint));
+    }
+}
@@ -1,10 +1,21 @@
 package com.global.api.entities.exceptions;
 
 public class GatewayComsException extends GatewayException {
+    // the connection could not be opened, so the request never reached the gateway
+    private boolean requestNotSent;
+
+    public boolean isRequestNotSent() {
+        return requestNotSent;
+    }
+
     public GatewayComsException() {
         super("An error occurred while communicating with the gateway.");
     }
     public GatewayComsException(Exception innerException) {
         super("An error occurred while communicating with the gateway. Please see the inner exception for further details.", innerException);
     }
+    public GatewayComsException(Exception innerException, boolean requestNotSent) {
+        this(innerException);
+        this.requestNotSent = requestNotSent;
+    }
 }
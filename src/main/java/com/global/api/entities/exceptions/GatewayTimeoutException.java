@@ -4,6 +4,9 @@ public class GatewayTimeoutException extends GatewayException {
     public GatewayTimeoutException() {
         super("The gateway did not respond within the given timeout.");
     }
+    public GatewayTimeoutException(String message) {
+        super(message);
+    }
     public GatewayTimeoutException(Exception innerException) {
         super("The gateway did not respond within the given timeout.", innerException);
     }
@@ -0,0 +1,11 @@
+package com.global.api.entities.exceptions;
+
+/**
+ * Thrown when a request is refused locally, before it is sent to the gateway, because the
+ * configuration's request limits are exhausted. The request can safely be retried later.
+ */
+public class RequestRejectedException extends GatewayException {
+    public RequestRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,142 @@
+package com.global.api.entities.reporting;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads files produced by {@link ColumnarReportWriter} one row group at a time.
+ */
+public class ColumnarReportReader implements Closeable {
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private final List<String> columnNames;
+    private String[][] rowGroup;
+    private int rowCount;
+    private int rowIndex;
+    private boolean finished;
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public ColumnarReportReader(ReadableByteChannel channel) throws IOException {
+        this.channel = channel;
+        buffer.flip();
+
+        byte[] magic = readBytes(ColumnarReportWriter.MAGIC.length);
+        if (!Arrays.equals(magic, ColumnarReportWriter.MAGIC) || readByte() != ColumnarReportWriter.VERSION) {
+            throw new IOException("Not a columnar report file.");
+        }
+
+        int columnCount = readVarInt();
+        List<String> names = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            names.add(new String(readBytes(readVarInt()), StandardCharsets.UTF_8));
+        }
+        columnNames = Collections.unmodifiableList(names);
+    }
+
+    public static ColumnarReportReader open(Path path) throws IOException {
+        return new ColumnarReportReader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * @return the values of the next row in column order, or null once every row has been read
+     */
+    public String[] readRow() throws IOException {
+        if (rowIndex == rowCount && !readRowGroup()) {
+            return null;
+        }
+
+        String[] row = new String[columnNames.size()];
+        for (int column = 0; column < row.length; column++) {
+            row[column] = rowGroup[column][rowIndex];
+        }
+        rowIndex++;
+        return row;
+    }
+
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean readRowGroup() throws IOException {
+        if (finished) {
+            return false;
+        }
+
+        rowCount = readVarInt();
+        rowIndex = 0;
+        if (rowCount == 0) {
+            finished = true;
+            return false;
+        }
+
+        if (rowGroup == null || rowGroup[0].length < rowCount) {
+            rowGroup = new String[columnNames.size()][rowCount];
+        }
+        for (String[] column : rowGroup) {
+            for (int row = 0; row < rowCount; row++) {
+                int length = readVarInt();
+                column[row] = length == 0 ? null : new String(readBytes(length - 1), StandardCharsets.UTF_8);
+            }
+        }
+        return true;
+    }
+
+    private byte readByte() throws IOException {
+        if (!buffer.hasRemaining()) {
+            fill();
+        }
+        return buffer.get();
+    }
+
+    private byte[] readBytes(int length) throws IOException {
+        byte[] value = new byte[length];
+        int offset = 0;
+        while (offset < length) {
+            if (!buffer.hasRemaining()) {
+                fill();
+            }
+            int count = Math.min(buffer.remaining(), length - offset);
+            buffer.get(value, offset, count);
+            offset += count;
+        }
+        return value;
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed columnar report file.");
+    }
+
+    private void fill() throws IOException {
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        buffer.flip();
+        if (read < 0) {
+            throw new EOFException("Unexpected end of the columnar report file.");
+        }
+    }
+}
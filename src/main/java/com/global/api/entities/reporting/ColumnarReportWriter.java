@@ -0,0 +1,100 @@
+package com.global.api.entities.reporting;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes report rows in a compact column oriented binary format. Rows are buffered into row
+ * groups of {@code rowGroupSize}; each group is then written one column at a time.
+ *
+ * Layout (all counts and lengths are unsigned LEB128 varints):
+ * <pre>
+ *   "GPRC" version columnCount (nameLength name)*
+ *   (rowCount (column values: 0 for null, otherwise byteLength + 1 followed by the UTF-8 value)*)*
+ *   0
+ * </pre>
+ *
+ * @see ColumnarReportReader
+ */
+public class ColumnarReportWriter<T> extends ReportFileWriter<T> {
+    static final byte[] MAGIC = { 'G', 'P', 'R', 'C' };
+    static final byte VERSION = 1;
+
+    private final byte[][][] rowGroup;
+    private int rowCount;
+
+    public ColumnarReportWriter(WritableByteChannel channel, List<ReportColumn<T>> columns) {
+        this(channel, columns, 4096);
+    }
+
+    public ColumnarReportWriter(WritableByteChannel channel, List<ReportColumn<T>> columns, int rowGroupSize) {
+        super(channel, columns);
+        if (rowGroupSize < 1) {
+            throw new IllegalArgumentException("rowGroupSize must be at least 1.");
+        }
+        rowGroup = new byte[columns.size()][rowGroupSize][];
+    }
+
+    public static <T> ColumnarReportWriter<T> open(Path path, List<ReportColumn<T>> columns) throws IOException {
+        return new ColumnarReportWriter<>(openChannel(path), columns);
+    }
+
+    protected void writeHeader() throws IOException {
+        write(MAGIC);
+        write(VERSION);
+        writeVarInt(columns.size());
+        for (ReportColumn<T> column : columns) {
+            byte[] name = column.getName().getBytes(StandardCharsets.UTF_8);
+            writeVarInt(name.length);
+            write(name);
+        }
+    }
+
+    protected void writeRow(T row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            String value = format(columns.get(i).getValue(row));
+            rowGroup[i][rowCount] = value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+        }
+
+        if (++rowCount == rowGroup[0].length) {
+            writeRowGroup();
+        }
+    }
+
+    protected void writeFooter() throws IOException {
+        writeRowGroup();
+        writeVarInt(0);
+    }
+
+    private void writeRowGroup() throws IOException {
+        if (rowCount == 0) {
+            return;
+        }
+
+        writeVarInt(rowCount);
+        for (byte[][] column : rowGroup) {
+            for (int row = 0; row < rowCount; row++) {
+                byte[] value = column[row];
+                if (value == null) {
+                    writeVarInt(0);
+                } else {
+                    writeVarInt(value.length + 1);
+                    write(value);
+                }
+                column[row] = null;
+            }
+        }
+        rowCount = 0;
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            write((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        write((byte) value);
+    }
+}
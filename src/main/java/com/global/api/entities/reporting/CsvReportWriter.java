@@ -0,0 +1,53 @@
+package com.global.api.entities.reporting;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes report rows as RFC 4180 CSV, with a header line holding the column names.
+ */
+public class CsvReportWriter<T> extends ReportFileWriter<T> {
+    private static final byte SEPARATOR = ',';
+    private static final byte[] LINE_END = { '\r', '\n' };
+
+    public CsvReportWriter(WritableByteChannel channel, List<ReportColumn<T>> columns) {
+        super(channel, columns);
+    }
+
+    public static <T> CsvReportWriter<T> open(Path path, List<ReportColumn<T>> columns) throws IOException {
+        return new CsvReportWriter<>(openChannel(path), columns);
+    }
+
+    protected void writeHeader() throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            writeField(i, columns.get(i).getName());
+        }
+        write(LINE_END);
+    }
+
+    protected void writeRow(T row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            writeField(i, format(columns.get(i).getValue(row)));
+        }
+        write(LINE_END);
+    }
+
+    private void writeField(int index, String value) throws IOException {
+        if (index > 0) {
+            write(SEPARATOR);
+        }
+        if (value == null) {
+            return;
+        }
+
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\r') < 0 && value.indexOf('\n') < 0) {
+            write(value);
+        } else {
+            write((byte) '"');
+            write(value.replace("\"", "\"\""));
+            write((byte) '"');
+        }
+    }
+}
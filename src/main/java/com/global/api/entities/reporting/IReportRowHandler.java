@@ -0,0 +1,7 @@
+package com.global.api.entities.reporting;
+
+import com.global.api.entities.exceptions.ApiException;
+
+public interface IReportRowHandler<T> {
+    void handle(T row) throws ApiException;
+}
@@ -0,0 +1,28 @@
+package com.global.api.entities.reporting;
+
+import java.util.function.Function;
+
+/**
+ * A named column of a report export, reading its value from a report row.
+ */
+public class ReportColumn<T> {
+    private final String name;
+    private final Function<? super T, ?> accessor;
+
+    public String getName() {
+        return name;
+    }
+
+    public ReportColumn(String name, Function<? super T, ?> accessor) {
+        this.name = name;
+        this.accessor = accessor;
+    }
+
+    public static <T> ReportColumn<T> of(String name, Function<? super T, ?> accessor) {
+        return new ReportColumn<>(name, accessor);
+    }
+
+    public Object getValue(T row) {
+        return accessor.apply(row);
+    }
+}
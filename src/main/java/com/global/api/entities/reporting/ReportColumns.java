@@ -0,0 +1,81 @@
+package com.global.api.entities.reporting;
+
+import com.global.api.entities.TransactionSummary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Default column sets for the report exports. Use {@link #select(List, String...)} to export a subset.
+ */
+public class ReportColumns {
+    public static final List<ReportColumn<TransactionSummary>> TRANSACTION_SUMMARY = Collections.unmodifiableList(Arrays.asList(
+            ReportColumn.<TransactionSummary>of("transactionId", TransactionSummary::getTransactionId),
+            ReportColumn.<TransactionSummary>of("transactionDate", TransactionSummary::getTransactionDate),
+            ReportColumn.<TransactionSummary>of("transactionType", TransactionSummary::getTransactionType),
+            ReportColumn.<TransactionSummary>of("transactionStatus", TransactionSummary::getTransactionStatus),
+            ReportColumn.<TransactionSummary>of("amount", TransactionSummary::getAmount),
+            ReportColumn.<TransactionSummary>of("currency", TransactionSummary::getCurrency),
+            ReportColumn.<TransactionSummary>of("authCode", TransactionSummary::getAuthCode),
+            ReportColumn.<TransactionSummary>of("referenceNumber", TransactionSummary::getReferenceNumber),
+            ReportColumn.<TransactionSummary>of("orderId", TransactionSummary::getOrderId),
+            ReportColumn.<TransactionSummary>of("cardType", TransactionSummary::getCardType),
+            ReportColumn.<TransactionSummary>of("maskedCardNumber", TransactionSummary::getMaskedCardNumber),
+            ReportColumn.<TransactionSummary>of("batchSequenceNumber", TransactionSummary::getBatchSequenceNumber),
+            ReportColumn.<TransactionSummary>of("depositReference", TransactionSummary::getDepositReference),
+            ReportColumn.<TransactionSummary>of("merchantId", TransactionSummary::getMerchantId)
+    ));
+
+    public static final List<ReportColumn<DepositSummary>> DEPOSIT_SUMMARY = Collections.unmodifiableList(Arrays.asList(
+            ReportColumn.<DepositSummary>of("depositId", DepositSummary::getDepositId),
+            ReportColumn.<DepositSummary>of("depositDate", DepositSummary::getDepositDate),
+            ReportColumn.<DepositSummary>of("status", DepositSummary::getStatus),
+            ReportColumn.<DepositSummary>of("type", DepositSummary::getType),
+            ReportColumn.<DepositSummary>of("amount", DepositSummary::getAmount),
+            ReportColumn.<DepositSummary>of("currency", DepositSummary::getCurrency),
+            ReportColumn.<DepositSummary>of("merchantNumber", DepositSummary::getMerchantNumber),
+            ReportColumn.<DepositSummary>of("merchantName", DepositSummary::getMerchantName),
+            ReportColumn.<DepositSummary>of("salesTotalCount", DepositSummary::getSalesTotalCount),
+            ReportColumn.<DepositSummary>of("salesTotalAmount", DepositSummary::getSalesTotalAmount),
+            ReportColumn.<DepositSummary>of("refundsTotalCount", DepositSummary::getRefundsTotalCount),
+            ReportColumn.<DepositSummary>of("refundsTotalAmount", DepositSummary::getRefundsTotalAmount),
+            ReportColumn.<DepositSummary>of("chargebackTotalAmount", DepositSummary::getChargebackTotalAmount),
+            ReportColumn.<DepositSummary>of("feesTotalAmount", DepositSummary::getFeesTotalAmount)
+    ));
+
+    public static final List<ReportColumn<DisputeSummary>> DISPUTE_SUMMARY = Collections.unmodifiableList(Arrays.asList(
+            ReportColumn.<DisputeSummary>of("caseId", DisputeSummary::getCaseId),
+            ReportColumn.<DisputeSummary>of("caseIdTime", DisputeSummary::getCaseIdTime),
+            ReportColumn.<DisputeSummary>of("caseStage", DisputeSummary::getCaseStage),
+            ReportColumn.<DisputeSummary>of("caseStatus", DisputeSummary::getCaseStatus),
+            ReportColumn.<DisputeSummary>of("caseAmount", DisputeSummary::getCaseAmount),
+            ReportColumn.<DisputeSummary>of("caseCurrency", DisputeSummary::getCaseCurrency),
+            ReportColumn.<DisputeSummary>of("reasonCode", DisputeSummary::getReasonCode),
+            ReportColumn.<DisputeSummary>of("respondByDate", DisputeSummary::getRespondByDate),
+            ReportColumn.<DisputeSummary>of("transactionARN", DisputeSummary::getTransactionARN),
+            ReportColumn.<DisputeSummary>of("transactionAmount", DisputeSummary::getTransactionAmount),
+            ReportColumn.<DisputeSummary>of("transactionCurrency", DisputeSummary::getTransactionCurrency),
+            ReportColumn.<DisputeSummary>of("transactionMaskedCardNumber", DisputeSummary::getTransactionMaskedCardNumber),
+            ReportColumn.<DisputeSummary>of("caseMerchantId", DisputeSummary::getCaseMerchantId)
+    ));
+
+    public static <T> List<ReportColumn<T>> select(List<ReportColumn<T>> columns, String... names) {
+        List<ReportColumn<T>> selected = new ArrayList<>();
+        for (String name : names) {
+            ReportColumn<T> match = null;
+            for (ReportColumn<T> column : columns) {
+                if (column.getName().equals(name)) {
+                    match = column;
+                    break;
+                }
+            }
+            if (match == null) {
+                throw new IllegalArgumentException(String.format("Unknown report column: %s", name));
+            }
+            selected.add(match);
+        }
+        return selected;
+    }
+}
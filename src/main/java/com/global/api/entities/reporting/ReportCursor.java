@@ -0,0 +1,212 @@
+package com.global.api.entities.reporting;
+
+import com.global.api.builders.TransactionReportBuilder;
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.entities.exceptions.UnsupportedTransactionException;
+import com.global.api.entities.gpApi.PagedResult;
+import com.global.api.terminals.abstractions.IDisposable;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Walks every page of a paged report, fetching the following pages on a background
+ * thread while the current page is being consumed.
+ *
+ * At most {@code prefetchDepth} pages are requested ahead of the consumer; the fetching
+ * thread waits for the consumer to take a page before requesting the next one. If the
+ * consumer takes nothing for {@link #IDLE_TIMEOUT_SECONDS}, the fetching thread stops and
+ * is started again by the next {@link #hasNext()}, so an abandoned cursor holds no thread.
+ *
+ * The cursor pages through its own copy of the builder; the builder it was created from is not changed.
+ *
+ * @param <T> the type of the individual report rows (e.g. TransactionSummary)
+ */
+public class ReportCursor<T> implements IDisposable {
+    public static final int IDLE_TIMEOUT_SECONDS = 60;
+
+    private final TransactionReportBuilder<?> builder;
+    private final String configName;
+    private final BlockingQueue<PageResult<T>> pages = new LinkedBlockingQueue<>();
+    // pages that may be requested before the consumer takes one
+    private final Semaphore aheadSlots;
+    private final ThreadPoolExecutor executor;
+    private Future<?> fetcher;
+    private Iterator<T> current;
+    private boolean finished;
+    private volatile int nextPage;
+    private volatile boolean fetchedLast;
+    private volatile boolean disposed;
+
+    public ReportCursor(TransactionReportBuilder<?> builder, String configName, int prefetchDepth) {
+        if (prefetchDepth < 1) {
+            throw new IllegalArgumentException("prefetchDepth must be at least 1.");
+        }
+        this.builder = builder.copy();
+        this.configName = configName;
+        this.nextPage = builder.getPage();
+        this.aheadSlots = new Semaphore(prefetchDepth);
+        // no core thread, so a stopped fetcher does not keep its thread
+        this.executor = new ThreadPoolExecutor(0, 1, IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), runnable -> {
+            Thread thread = new Thread(runnable, "report-cursor-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean hasNext() throws ApiException {
+        while (current == null || !current.hasNext()) {
+            if (finished) {
+                return false;
+            }
+            PageResult<T> page;
+            try {
+                // rechecks the fetcher while waiting, in case it stopped just as this consumer came back
+                do {
+                    start();
+                    page = pages.poll(1, TimeUnit.SECONDS);
+                } while (page == null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ApiException("Interrupted while waiting for the next report page.", e);
+            }
+            aheadSlots.release();
+
+            if (page.error != null) {
+                dispose();
+                throw page.error;
+            }
+            if (page.last) {
+                finished = true;
+                executor.shutdown();
+            }
+            current = page.results != null ? page.results.iterator() : null;
+        }
+        return true;
+    }
+
+    public T next() throws ApiException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * Exposes the cursor as a sequential {@link Stream}. Errors raised while fetching a page
+     * are rethrown as {@link IllegalStateException} with the original {@link ApiException} as cause.
+     * Closing the stream stops any outstanding prefetch.
+     */
+    public Stream<T> stream() {
+        Iterator<T> iterator = new Iterator<T>() {
+            public boolean hasNext() {
+                try {
+                    return ReportCursor.this.hasNext();
+                } catch (ApiException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            public T next() {
+                try {
+                    return ReportCursor.this.next();
+                } catch (ApiException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+
+        return StreamSupport
+                .stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::dispose);
+    }
+
+    public void dispose() {
+        disposed = true;
+        finished = true;
+        if (fetcher != null) {
+            fetcher.cancel(true);
+        }
+        executor.shutdownNow();
+        pages.clear();
+    }
+
+    // starts the fetcher, or restarts it after it stopped waiting for an idle consumer
+    private void start() {
+        if (!fetchedLast && (fetcher == null || fetcher.isDone())) {
+            fetcher = executor.submit(this::fetchPages);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void fetchPages() {
+        try {
+            while (!disposed) {
+                if (!aheadSlots.tryAcquire(IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    return;
+                }
+
+                int page = nextPage;
+                builder.setPage(page);
+                Object response = builder.execute(configName);
+                if (response != null && !(response instanceof PagedResult)) {
+                    throw new UnsupportedTransactionException("Only paged report types can be iterated with a cursor.");
+                }
+
+                PagedResult<T> result = (PagedResult<T>) response;
+                boolean last = isLastPage(result, page, builder.getPageSize());
+                nextPage = page + 1;
+                fetchedLast = last;
+                pages.add(new PageResult<>(result != null ? result.getResults() : null, last, null));
+                if (last) {
+                    return;
+                }
+            }
+        } catch (ApiException e) {
+            offerError(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            offerError(new ApiException("Error occurred while fetching the report page.", e));
+        }
+    }
+
+    private void offerError(ApiException error) {
+        fetchedLast = true;
+        pages.add(new PageResult<T>(null, true, error));
+    }
+
+    static boolean isLastPage(PagedResult<?> result, int page, int pageSize) {
+        if (result == null || result.getResults() == null || result.getResults().isEmpty()) {
+            return true;
+        }
+
+        if (result.getResults().size() < pageSize) {
+            return true;
+        }
+        return result.getTotalRecordCount() > 0 && (long) page * pageSize >= result.getTotalRecordCount();
+    }
+
+    private static class PageResult<T> {
+        private final List<T> results;
+        private final boolean last;
+        private final ApiException error;
+
+        private PageResult(List<T> results, boolean last, ApiException error) {
+            this.results = results;
+            this.last = last;
+            this.error = error;
+        }
+    }
+}
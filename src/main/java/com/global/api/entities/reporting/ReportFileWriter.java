@@ -0,0 +1,143 @@
+package com.global.api.entities.reporting;
+
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.entities.gpApi.PagedResult;
+import org.joda.time.DateTime;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Streams report rows to a byte channel through a fixed size buffer, so memory use does not
+ * depend on the number of rows written. Rows can be written one by one, a page at a time, or
+ * straight from a {@link ReportCursor}.
+ */
+public abstract class ReportFileWriter<T> implements IReportRowHandler<T>, Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    protected final List<ReportColumn<T>> columns;
+    private boolean started;
+
+    protected ReportFileWriter(WritableByteChannel channel, List<ReportColumn<T>> columns) {
+        if (columns == null || columns.isEmpty()) {
+            throw new IllegalArgumentException("At least one report column is required.");
+        }
+        this.channel = channel;
+        this.columns = new ArrayList<>(columns);
+    }
+
+    protected static FileChannel openChannel(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    public void handle(T row) throws ApiException {
+        try {
+            if (!started) {
+                started = true;
+                writeHeader();
+            }
+            writeRow(row);
+        } catch (IOException e) {
+            throw new ApiException("Error occurred while writing the report file.", e);
+        }
+    }
+
+    public void writePage(PagedResult<T> page) throws ApiException {
+        if (page != null) {
+            writeAll(page.getResults());
+        }
+    }
+
+    public void writeAll(Iterable<T> rows) throws ApiException {
+        if (rows != null) {
+            for (T row : rows) {
+                handle(row);
+            }
+        }
+    }
+
+    public void writeAll(ReportCursor<T> cursor) throws ApiException {
+        try {
+            while (cursor.hasNext()) {
+                handle(cursor.next());
+            }
+        } finally {
+            cursor.dispose();
+        }
+    }
+
+    public void close() throws IOException {
+        try {
+            if (!started) {
+                started = true;
+                writeHeader();
+            }
+            writeFooter();
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    protected abstract void writeHeader() throws IOException;
+
+    protected abstract void writeRow(T row) throws IOException;
+
+    protected void writeFooter() throws IOException { }
+
+    protected void write(byte value) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put(value);
+    }
+
+    protected void write(byte[] value) throws IOException {
+        int offset = 0;
+        while (offset < value.length) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            int length = Math.min(buffer.remaining(), value.length - offset);
+            buffer.put(value, offset, length);
+            offset += length;
+        }
+    }
+
+    protected void write(String value) throws IOException {
+        write(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    protected static String format(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        if (value instanceof Date) {
+            return new DateTime(value).toString();
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,234 @@
+package com.global.api.entities.reporting;
+
+import com.global.api.builders.TransactionReportBuilder;
+import com.global.api.entities.TransactionSummary;
+import com.global.api.entities.enums.SortDirection;
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.entities.exceptions.BuilderException;
+import com.global.api.entities.exceptions.UnsupportedTransactionException;
+import com.global.api.entities.gpApi.PagedResult;
+import com.global.api.utils.RateLimiter;
+import org.joda.time.DateTime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bulk transaction report export. The requested date range is split into time shards which are
+ * fetched concurrently (every page of each shard), then merged into a single date-ordered output.
+ *
+ * Works with both paged (GP API) and list (Portico) transaction reports. Rows returned by two
+ * adjacent shards (GP API date filters are day based) are emitted once, keyed on transaction id.
+ */
+public class ShardedReportExport {
+    private static final Comparator<TransactionSummary> BY_DATE = Comparator
+            .comparing(TransactionSummary::getTransactionDate, Comparator.nullsFirst(Comparator.<DateTime>naturalOrder()))
+            .thenComparing(TransactionSummary::getTransactionId, Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+
+    private final Supplier<? extends TransactionReportBuilder<?>> builderFactory;
+    private final Date startDate;
+    private final Date endDate;
+    private long shardDurationMillis = TimeUnit.DAYS.toMillis(1);
+    private int concurrency = 4;
+    private double requestsPerSecond;
+    private SortDirection order = SortDirection.Ascending;
+
+    /**
+     * @param builderFactory creates a new, fully filtered report builder for each shard,
+     *                       e.g. {@code () -> ReportingService.findTransactionsPaged(1, 1000)}
+     */
+    public ShardedReportExport(Supplier<? extends TransactionReportBuilder<?>> builderFactory, Date startDate, Date endDate) {
+        this.builderFactory = builderFactory;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public ShardedReportExport withShardDuration(long duration, TimeUnit unit) {
+        this.shardDurationMillis = unit.toMillis(duration);
+        return this;
+    }
+
+    public ShardedReportExport withConcurrency(int value) {
+        this.concurrency = value;
+        return this;
+    }
+
+    // Maximum report requests started per second across all shards; 0 disables rate limiting
+    public ShardedReportExport withRequestsPerSecond(double value) {
+        this.requestsPerSecond = value;
+        return this;
+    }
+
+    public ShardedReportExport withOrder(SortDirection value) {
+        this.order = value;
+        return this;
+    }
+
+    public List<TransactionSummary> execute() throws ApiException {
+        return execute("default");
+    }
+
+    public List<TransactionSummary> execute(String configName) throws ApiException {
+        final List<TransactionSummary> rows = new ArrayList<>();
+        execute(configName, rows::add);
+        return rows;
+    }
+
+    public void execute(String configName, IReportRowHandler<TransactionSummary> handler) throws ApiException {
+        validate();
+
+        final Comparator<TransactionSummary> comparator = order == SortDirection.Descending ? BY_DATE.reversed() : BY_DATE;
+        final RateLimiter rateLimiter = requestsPerSecond > 0 ? new RateLimiter(requestsPerSecond) : null;
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "report-export-shard");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<Future<List<TransactionSummary>>> futures = new ArrayList<>();
+        try {
+            for (long shardStart = startDate.getTime(); shardStart <= endDate.getTime(); shardStart += shardDurationMillis) {
+                final Date from = new Date(shardStart);
+                final Date to = new Date(Math.min(shardStart + shardDurationMillis - 1, endDate.getTime()));
+                futures.add(executor.submit(() -> fetchShard(from, to, configName, rateLimiter, comparator)));
+            }
+
+            List<List<TransactionSummary>> shards = new ArrayList<>();
+            for (Future<List<TransactionSummary>> future : futures) {
+                shards.add(await(future));
+            }
+            merge(shards, comparator, handler);
+        } finally {
+            for (Future<List<TransactionSummary>> future : futures) {
+                future.cancel(true);
+            }
+            executor.shutdownNow();
+        }
+    }
+
+    private void validate() throws BuilderException {
+        if (startDate == null || endDate == null) {
+            throw new BuilderException("startDate and endDate are required for a sharded export.");
+        }
+        if (endDate.before(startDate)) {
+            throw new BuilderException("endDate cannot be before startDate.");
+        }
+        if (shardDurationMillis <= 0) {
+            throw new BuilderException("shardDuration must be greater than zero.");
+        }
+        if (concurrency < 1) {
+            throw new BuilderException("concurrency must be at least 1.");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TransactionSummary> fetchShard(Date from, Date to, String configName, RateLimiter rateLimiter, Comparator<TransactionSummary> comparator) throws ApiException, InterruptedException {
+        TransactionReportBuilder<?> builder = builderFactory.get()
+                .withStartDate(from)
+                .withEndDate(to);
+
+        List<TransactionSummary> rows = new ArrayList<>();
+        for (int page = builder.getPage(); ; page++) {
+            if (rateLimiter != null) {
+                rateLimiter.acquire();
+            }
+
+            builder.setPage(page);
+            Object result = builder.execute(configName);
+            if (result instanceof PagedResult) {
+                PagedResult<TransactionSummary> pagedResult = (PagedResult<TransactionSummary>) result;
+                rows.addAll(pagedResult.getResults());
+                if (ReportCursor.isLastPage(pagedResult, page, builder.getPageSize())) {
+                    break;
+                }
+            } else if (result instanceof List) {
+                rows.addAll((List<TransactionSummary>) result);
+                break;
+            } else if (result == null) {
+                break;
+            } else {
+                throw new UnsupportedTransactionException("Only transaction list reports can be exported.");
+            }
+        }
+
+        rows.sort(comparator);
+        return rows;
+    }
+
+    private List<TransactionSummary> await(Future<List<TransactionSummary>> future) throws ApiException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Interrupted while waiting for the report export.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ApiException) {
+                throw (ApiException) e.getCause();
+            }
+            throw new ApiException("Error occurred while exporting the report.", e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+        }
+    }
+
+    // K-way merge of the individually sorted shards, skipping rows already emitted for the same timestamp
+    private void merge(List<List<TransactionSummary>> shards, Comparator<TransactionSummary> comparator, IReportRowHandler<TransactionSummary> handler) throws ApiException {
+        PriorityQueue<ShardHead> heads = new PriorityQueue<>(Math.max(1, shards.size()), (a, b) -> comparator.compare(a.current, b.current));
+        for (List<TransactionSummary> shard : shards) {
+            ShardHead head = new ShardHead(shard);
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+
+        DateTime runDate = null;
+        Set<String> runIds = new HashSet<>();
+        while (!heads.isEmpty()) {
+            ShardHead head = heads.poll();
+            TransactionSummary row = head.current;
+            if (head.advance()) {
+                heads.add(head);
+            }
+
+            DateTime rowDate = row.getTransactionDate();
+            if (runDate == null ? rowDate != null : !runDate.equals(rowDate)) {
+                runDate = rowDate;
+                runIds.clear();
+            }
+            if (row.getTransactionId() != null && !runIds.add(row.getTransactionId())) {
+                continue;
+            }
+            handler.handle(row);
+        }
+    }
+
+    private static class ShardHead {
+        private final List<TransactionSummary> rows;
+        private int index = -1;
+        private TransactionSummary current;
+
+        private ShardHead(List<TransactionSummary> rows) {
+            this.rows = rows != null ? rows : Collections.<TransactionSummary>emptyList();
+        }
+
+        private boolean advance() {
+            if (++index < rows.size()) {
+                current = rows.get(index);
+                return true;
+            }
+            current = null;
+            return false;
+        }
+    }
+}
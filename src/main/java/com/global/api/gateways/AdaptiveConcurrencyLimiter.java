@@ -0,0 +1,158 @@
+package com.global.api.gateways;
+
+import com.global.api.entities.enums.RequestPriority;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to the gateway using AIMD: the limit grows by one for every
+ * limit's worth of healthy responses and is multiplied by the backoff ratio whenever a response
+ * is dropped (throttled or timed out) or is much slower than the fastest recently observed.
+ * The fastest latency is tracked per {@link RequestPriority}, so a report that is slow by nature
+ * is compared with other reports and does not hold back the limit for authorizations.
+ *
+ * Callers over the limit wait in FIFO order; the number of waiting callers is bounded and a caller
+ * that cannot be admitted before its deadline is refused instead of piling onto the gateway.
+ */
+public class AdaptiveConcurrencyLimiter {
+    // Number of samples after which the no-load latency is re-measured, so it can follow a slower gateway
+    private static final int RTT_WINDOW = 500;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final int maxQueueSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    // indexed by RequestPriority ordinal
+    private final long[] minRttNanos = new long[RequestPriority.values().length];
+    private final long[] windowMinRttNanos = new long[RequestPriority.values().length];
+    private final int[] windowSamples = new int[RequestPriority.values().length];
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double latencyTolerance, int maxQueueSize) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.maxQueueSize = maxQueueSize;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        Arrays.fill(minRttNanos, Long.MAX_VALUE);
+        Arrays.fill(windowMinRttNanos, Long.MAX_VALUE);
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Admits the caller, waiting up to the timeout for capacity.
+     *
+     * @return false if the queue is full or no capacity became available in time
+     */
+    public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            // newcomers queue behind existing waiters so they are admitted in arrival order
+            if (waiting == 0 && inFlight < (int) limit) {
+                inFlight++;
+                return true;
+            }
+            if (waiting >= maxQueueSize || remaining <= 0) {
+                return false;
+            }
+
+            waiting++;
+            try {
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    remaining = available.awaitNanos(remaining);
+                }
+                inFlight++;
+                return true;
+            } finally {
+                waiting--;
+                if (inFlight < (int) limit) {
+                    available.signal();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the caller's slot without affecting the limit, for requests that never reached the gateway.
+     */
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the caller's slot and feeds the outcome of its request into the limit.
+     *
+     * @param priority the kind of request, whose latency is only compared with requests of the same kind
+     * @param dropped true when the gateway throttled or timed out the request
+     */
+    public void release(RequestPriority priority, long rttNanos, boolean dropped) {
+        lock.lock();
+        try {
+            int used = inFlight--;
+            if (dropped) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else {
+                int index = priority.ordinal();
+                recordRtt(index, rttNanos);
+                if (rttNanos > minRttNanos[index] * latencyTolerance) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                } else if (used * 2 >= limit) {
+                    // only grow while the current limit is actually being used
+                    limit = Math.min(maxLimit, limit + 1 / limit);
+                }
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordRtt(int index, long rttNanos) {
+        windowMinRttNanos[index] = Math.min(windowMinRttNanos[index], rttNanos);
+        minRttNanos[index] = Math.min(minRttNanos[index], rttNanos);
+        if (++windowSamples[index] >= RTT_WINDOW) {
+            minRttNanos[index] = windowMinRttNanos[index];
+            windowMinRttNanos[index] = Long.MAX_VALUE;
+            windowSamples[index] = 0;
+        }
+    }
+}
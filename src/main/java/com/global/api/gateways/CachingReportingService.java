@@ -0,0 +1,109 @@
+package com.global.api.gateways;
+
+import com.global.api.builders.ReportBuilder;
+import com.global.api.builders.TransactionReportBuilder;
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.serviceConfigs.ReportCacheConfig;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves repeated detail lookups (TransactionDetail, DepositDetail, DisputeDetail, ...) from an
+ * {@link IReportCache} instead of the wrapped reporting service. Report types without a configured
+ * time to live, and any search report, always go to the wrapped service.
+ *
+ * Cached results are shared between callers and must not be modified.
+ */
+public class CachingReportingService implements IReportingService {
+    private final IReportingService reportingService;
+    private final ReportCacheConfig config;
+    private final IReportCache cache;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public IReportingService getReportingService() {
+        return reportingService;
+    }
+    public IReportCache getCache() {
+        return cache;
+    }
+    public long getHitCount() {
+        return hitCount.get();
+    }
+    public long getMissCount() {
+        return missCount.get();
+    }
+    public double getHitRatio() {
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public CachingReportingService(IReportingService reportingService, ReportCacheConfig config) {
+        this.reportingService = reportingService;
+        this.config = config;
+        this.cache = config.getCache();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T processReport(ReportBuilder<T> builder, Class<T> clazz) throws ApiException {
+        long timeToLive = config.getTimeToLiveMillis(builder.getReportType());
+        String key = timeToLive > 0 ? getCacheKey(builder) : null;
+        if (key == null) {
+            return reportingService.processReport(builder, clazz);
+        }
+
+        Object cached = cache.get(key);
+        if (clazz.isInstance(cached)) {
+            hitCount.incrementAndGet();
+            return (T) cached;
+        }
+
+        missCount.incrementAndGet();
+        T result = reportingService.processReport(builder, clazz);
+        if (result != null) {
+            cache.put(key, result, timeToLive);
+        }
+        return result;
+    }
+
+    public void invalidate(ReportBuilder<?> builder) {
+        String key = getCacheKey(builder);
+        if (key != null) {
+            cache.remove(key);
+        }
+    }
+
+    // Only single resource lookups are cacheable; the key is the report type plus the resource id
+    static String getCacheKey(ReportBuilder<?> builder) {
+        if (!(builder instanceof TransactionReportBuilder)) {
+            return null;
+        }
+
+        TransactionReportBuilder<?> reportBuilder = (TransactionReportBuilder<?>) builder;
+        String id;
+        switch (builder.getReportType()) {
+            case TransactionDetail:
+                id = reportBuilder.getTransactionId();
+                break;
+            case DepositDetail:
+                id = reportBuilder.getSearchBuilder().getDepositReference();
+                break;
+            case DisputeDetail:
+                id = reportBuilder.getSearchBuilder().getDisputeId();
+                break;
+            case SettlementDisputeDetail:
+                id = reportBuilder.getSearchBuilder().getSettlementDisputeId();
+                break;
+            case StoredPaymentMethodDetail:
+                id = reportBuilder.getSearchBuilder().getStoredPaymentMethodId();
+                break;
+            case ActionDetail:
+                id = reportBuilder.getSearchBuilder().getActionId();
+                break;
+            default:
+                return null;
+        }
+        return id != null ? builder.getReportType() + ":" + id : null;
+    }
+}
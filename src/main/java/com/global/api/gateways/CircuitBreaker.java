@@ -0,0 +1,127 @@
+package com.global.api.gateways;
+
+import com.global.api.serviceConfigs.ResilienceConfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per endpoint circuit breaker. While closed, the outcome of the last {@code slidingWindowSize} calls
+ * is recorded and the breaker opens once the failure or slow call rate crosses its threshold. An open
+ * breaker rejects calls immediately; after {@code openStateDurationMillis} it lets a few trial calls
+ * through (half open) and closes again only if all of them succeed.
+ *
+ * Each connector keeps its own breakers, created with its own settings.
+ */
+public class CircuitBreaker {
+    public enum State {
+        Closed,
+        Open,
+        HalfOpen
+    }
+
+    private final String name;
+    private final ResilienceConfig config;
+    private final long slowCallNanos;
+    // ring buffer of recent outcomes: bit 0 = failed, bit 1 = slow
+    private final byte[] outcomes;
+    private int position;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.Closed;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(String name, ResilienceConfig config) {
+        this.name = name;
+        this.config = config;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowCallDurationMillis());
+        this.outcomes = new byte[config.getSlidingWindowSize()];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return false when the call must not be attempted; the caller must report the outcome of every permitted call
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.Open) {
+            if (System.nanoTime() - openedAt < TimeUnit.MILLISECONDS.toNanos(config.getOpenStateDurationMillis())) {
+                return false;
+            }
+            state = State.HalfOpen;
+            halfOpenPermits = config.getPermittedCallsInHalfOpenState();
+            halfOpenSuccesses = 0;
+        }
+
+        if (state == State.HalfOpen) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess(long durationNanos) {
+        record(false, durationNanos > slowCallNanos);
+    }
+
+    public synchronized void onError(long durationNanos) {
+        record(true, durationNanos > slowCallNanos);
+    }
+
+    private void record(boolean failed, boolean slow) {
+        if (state == State.HalfOpen) {
+            if (failed || slow) {
+                open();
+            } else if (++halfOpenSuccesses >= config.getPermittedCallsInHalfOpenState()) {
+                close();
+            }
+            return;
+        }
+        if (state == State.Open) {
+            // a call permitted before the breaker opened
+            return;
+        }
+
+        if (recorded == outcomes.length) {
+            byte evicted = outcomes[position];
+            failures -= evicted & 1;
+            slowCalls -= (evicted >> 1) & 1;
+        } else {
+            recorded++;
+        }
+        outcomes[position] = (byte) ((failed ? 1 : 0) | (slow ? 2 : 0));
+        position = (position + 1) % outcomes.length;
+        failures += failed ? 1 : 0;
+        slowCalls += slow ? 1 : 0;
+
+        if (recorded >= Math.min(config.getMinimumNumberOfCalls(), outcomes.length)
+                && (failures * 100 >= config.getFailureRateThreshold() * recorded
+                || slowCalls * 100 >= config.getSlowCallRateThreshold() * recorded)) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.Open;
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.Closed;
+        position = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+}
@@ -0,0 +1,113 @@
+package com.global.api.gateways;
+
+import com.global.api.entities.exceptions.ConfigurationException;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+/**
+ * Disk backed {@link IIdempotencyStore}, so completed requests survive an application restart.
+ * Each key is kept in its own file (named by the SHA-256 of the key) holding the expiry time and the response.
+ *
+ * <p><b>Security:</b> the stored responses are the raw gateway responses and are NOT encrypted. They can
+ * contain payment method tokens, masked card data and other account details, so the directory must be
+ * private to the application. On POSIX file systems the directory is restricted to its owner (rwx------)
+ * and each entry is written owner read/write only (rw-------). Elsewhere, for example on Windows, the
+ * directory inherits its parent's ACL and must be secured by the application.</p>
+ */
+public class FileIdempotencyStore implements IIdempotencyStore {
+    private static final String EXTENSION = ".idem";
+
+    private static final Set<PosixFilePermission> DIRECTORY_PERMISSIONS = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> FILE_PERMISSIONS = PosixFilePermissions.fromString("rw-------");
+
+    private final Path directory;
+    private final boolean posix;
+
+    public FileIdempotencyStore(Path directory) throws ConfigurationException {
+        try {
+            this.directory = Files.createDirectories(directory);
+            this.posix = Files.getFileStore(this.directory).supportsFileAttributeView("posix");
+            if (posix) {
+                Files.setPosixFilePermissions(this.directory, DIRECTORY_PERMISSIONS);
+            }
+        } catch (IOException e) {
+            throw new ConfigurationException(String.format("Idempotency store directory %s could not be created.", directory));
+        }
+    }
+
+    public String get(String key) {
+        Path file = getFile(key);
+        try {
+            byte[] content = Files.readAllBytes(file);
+            if (content.length < 8 || ByteBuffer.wrap(content, 0, 8).getLong() <= System.currentTimeMillis()) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            return new String(content, 8, content.length - 8, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public void put(String key, String response, long timeToLiveMillis) {
+        byte[] body = response.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer content = ByteBuffer.allocate(8 + body.length);
+        content.putLong(System.currentTimeMillis() + timeToLiveMillis).put(body);
+
+        Path file = getFile(key);
+        Path temp = null;
+        try {
+            temp = posix
+                    ? Files.createTempFile(directory, null, ".tmp", PosixFilePermissions.asFileAttribute(FILE_PERMISSIONS))
+                    : Files.createTempFile(directory, null, ".tmp");
+            Files.write(temp, content.array());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // a response that cannot be persisted is simply not replayed; purgeExpired only lists entries, so the
+            // temp file is removed here
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // eat the exception
+                }
+            }
+        }
+    }
+
+    public void remove(String key) {
+        try {
+            Files.deleteIfExists(getFile(key));
+        } catch (IOException e) {
+            // eat the exception
+        }
+    }
+
+    public void purgeExpired() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            long now = System.currentTimeMillis();
+            for (Path file : files) {
+                byte[] content = Files.readAllBytes(file);
+                if (content.length < 8 || ByteBuffer.wrap(content, 0, 8).getLong() <= now) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            // expired entries are removed on their next read
+        }
+    }
+
+    private Path getFile(String key) {
+        return directory.resolve(DigestUtils.sha256Hex(key) + EXTENSION);
+    }
+}
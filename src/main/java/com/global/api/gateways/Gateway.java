@@ -1,7 +1,13 @@
 package com.global.api.gateways;
 
+import com.global.api.entities.enums.RequestPriority;
+import com.global.api.entities.exceptions.CircuitBreakerOpenException;
 import com.global.api.entities.exceptions.GatewayException;
+import com.global.api.entities.exceptions.GatewayTimeoutException;
+import com.global.api.entities.exceptions.RequestRejectedException;
 import com.global.api.logging.IRequestLogger;
+import com.global.api.serviceConfigs.ResilienceConfig;
+import com.global.api.utils.Deadline;
 import com.global.api.utils.IOUtils;
 import com.global.api.utils.StringUtils;
 import com.google.gson.Gson;
@@ -13,25 +19,34 @@ import org.apache.http.entity.mime.MultipartEntity;
 import javax.net.ssl.HttpsURLConnection;
 import java.io.*;
 import java.lang.reflect.Field;
+import java.net.ConnectException;
 import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.NoRouteToHostException;
 import java.net.Proxy;
 import java.net.URL;
 import java.net.URLEncoder;
+import java.net.UnknownHostException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.GZIPInputStream;
 
 public abstract class Gateway {
     private String contentType;
     private boolean enableLogging;
     private IRequestLogger requestLogger;
-    private StringBuilder logEntry = new StringBuilder();
     private final String lSChar = System.getProperty("line.separator");
     protected HashMap<String, String> headers;
     protected HashMap<String, String> dynamicHeaders;
     protected int timeout;
     protected String serviceUrl;
     protected Proxy proxy;
+    protected ResilienceConfig resilienceConfig = new ResilienceConfig();
+    // breakers of this connector by endpoint, built from its current resilienceConfig
+    private final ConcurrentHashMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    protected RequestHedger requestHedger;
+    protected PriorityScheduler priorityScheduler;
 
     // ----------------------------------------------------------------------
     // TODO: Remove if it is not more useful
@@ -74,6 +89,27 @@ public abstract class Gateway {
     public void setProxy(Proxy proxy) {
         this.proxy = proxy;
     }
+    public ResilienceConfig getResilienceConfig() {
+        return resilienceConfig;
+    }
+    public void setResilienceConfig(ResilienceConfig resilienceConfig) {
+        if (resilienceConfig != null) {
+            this.resilienceConfig = resilienceConfig;
+            circuitBreakers.clear();
+        }
+    }
+    public RequestHedger getRequestHedger() {
+        return requestHedger;
+    }
+    public void setRequestHedger(RequestHedger requestHedger) {
+        this.requestHedger = requestHedger;
+    }
+    public PriorityScheduler getPriorityScheduler() {
+        return priorityScheduler;
+    }
+    public void setPriorityScheduler(PriorityScheduler priorityScheduler) {
+        this.priorityScheduler = priorityScheduler;
+    }
     public Gateway(String contentType) {
         headers = new HashMap<>();
         dynamicHeaders = new HashMap<>();
@@ -87,7 +123,19 @@ public abstract class Gateway {
         return sendRequest(verb, endpoint, data, null);
     }
     protected GatewayResponse sendRequest(String verb, String endpoint, String data, HashMap<String, String> queryStringParams) throws GatewayException {
+        return sendRequest(verb, endpoint, data, queryStringParams, null);
+    }
+    // requestHeaders are only sent with this request, leaving the shared headers untouched for concurrent callers
+    protected GatewayResponse sendRequest(String verb, String endpoint, String data, HashMap<String, String> queryStringParams, Map<String, String> requestHeaders) throws GatewayException {
+        if (requestHedger != null && RequestHedger.isSafe(verb)) {
+            return send(() -> requestHedger.execute(() -> sendRequestOnce(verb, endpoint, data, queryStringParams, requestHeaders)), true);
+        }
+        return send(() -> sendRequestOnce(verb, endpoint, data, queryStringParams, requestHeaders), true);
+    }
+
+    private GatewayResponse sendRequestOnce(String verb, String endpoint, String data, HashMap<String, String> queryStringParams, Map<String, String> requestHeaders) throws GatewayException {
         HttpsURLConnection conn = null;
+        StringBuilder logEntry = new StringBuilder();
         try{
             String queryString = buildQueryString(queryStringParams);
             if (proxy != null) {
@@ -95,8 +143,11 @@ public abstract class Gateway {
             } else {
                 conn = (HttpsURLConnection) new URL((serviceUrl + endpoint + queryString).trim()).openConnection();
             }
-            conn.setSSLSocketFactory(new SSLSocketFactoryEx());
-            conn.setConnectTimeout(timeout);
+            RequestHedger.register(conn);
+            conn.setSSLSocketFactory(SSLSocketFactoryEx.getShared());
+            conn.setConnectTimeout(Deadline.boundTimeout(timeout));
+            // only bounded when the call has a deadline; 0 (no read timeout) otherwise
+            conn.setReadTimeout(Deadline.boundTimeout(0));
             conn.setDoInput(true);
             // ----------------------------------------------------------------------
             // Fix: Supports PATCH requests in HttpsURLConnection on JAVA & Android
@@ -123,6 +174,12 @@ public abstract class Gateway {
                 }
             }
 
+            if (requestHeaders != null) {
+                for (Map.Entry<String, String> requestHeader : requestHeaders.entrySet()) {
+                    conn.setRequestProperty(requestHeader.getKey(), requestHeader.getValue());
+                }
+            }
+
             if (this.enableLogging || this.requestLogger != null) {
                 logEntry.append("================================================================================").append(lSChar);
                 logEntry.append("Endpoint:       ").append(endpoint).append(lSChar);
@@ -146,7 +203,7 @@ public abstract class Gateway {
                         logEntry.append("Request Body: ").append(StringUtils.mask(data)).append(lSChar).append(lSChar);
                     }
 
-                    outputLogging(true);
+                    outputLogging(logEntry, true);
                 }
 
                 DataOutputStream requestStream = new DataOutputStream(conn.getOutputStream());
@@ -173,7 +230,7 @@ public abstract class Gateway {
                     logEntry.append(rawResponse).append(lSChar);
                 }
 
-                outputLogging(false);
+                outputLogging(logEntry, false);
             }
 
             GatewayResponse response = new GatewayResponse();
@@ -187,7 +244,7 @@ public abstract class Gateway {
                 logEntry.append(exc.getMessage()).append(lSChar);
                 logEntry.append("================================================================================").append(lSChar);
 
-                outputLogging(false);
+                outputLogging(logEntry, false);
             }
 
             try {
@@ -220,11 +277,18 @@ public abstract class Gateway {
     }
 
     protected GatewayResponse sendRequest(String endpoint, MultipartEntity content) throws GatewayException {
+        return send(() -> sendRequestOnce(endpoint, content), false);
+    }
+
+    private GatewayResponse sendRequestOnce(String endpoint, MultipartEntity content) throws GatewayException {
         HttpsURLConnection conn;
+        StringBuilder logEntry = new StringBuilder();
         try{
             conn = (HttpsURLConnection)new URL((serviceUrl + endpoint).trim()).openConnection();
-            conn.setSSLSocketFactory(new SSLSocketFactoryEx());
-            conn.setConnectTimeout(timeout);
+            conn.setSSLSocketFactory(SSLSocketFactoryEx.getShared());
+            conn.setConnectTimeout(Deadline.boundTimeout(timeout));
+            // only bounded when the call has a deadline; 0 (no read timeout) otherwise
+            conn.setReadTimeout(Deadline.boundTimeout(0));
             conn.setDoInput(true);
             conn.setDoOutput(true);
             conn.setRequestMethod("POST");
@@ -236,7 +300,7 @@ public abstract class Gateway {
                 logEntry.append("================================================================================").append(lSChar);
                 logEntry.append("Request: ").append(content).append(lSChar);
 
-                outputLogging(true);
+                outputLogging(logEntry, true);
             }
             content.writeTo(out);
             out.flush();
@@ -248,7 +312,7 @@ public abstract class Gateway {
             if (this.enableLogging || this.requestLogger != null) {
                 logEntry.append(content).append(lSChar);
 
-                outputLogging(false);
+                outputLogging(logEntry, false);
             }
 
             GatewayResponse response = new GatewayResponse();
@@ -261,6 +325,113 @@ public abstract class Gateway {
         }
     }
 
+    private interface ITransportCall {
+        GatewayResponse execute() throws GatewayException;
+    }
+
+    /*
+     * Runs the call through the endpoint's circuit breaker. A call that failed to connect never
+     * reached the gateway, so it is retried with jittered backoff while the global retry budget allows.
+     */
+    private GatewayResponse send(ITransportCall call, boolean retryable) throws GatewayException {
+        if (priorityScheduler == null) {
+            return sendWithRetries(call, retryable);
+        }
+
+        RequestPriority priority = PriorityScheduler.currentPriority();
+        try {
+            if (!priorityScheduler.tryAcquire(priority)) {
+                throw new RequestRejectedException(String.format("No connection became available for the %s request.", priority));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GatewayException("Interrupted while waiting for a connection.", e);
+        }
+        try {
+            return sendWithRetries(call, retryable);
+        } finally {
+            priorityScheduler.release(priority);
+        }
+    }
+
+    private GatewayResponse sendWithRetries(ITransportCall call, boolean retryable) throws GatewayException {
+        CircuitBreaker circuitBreaker = getCircuitBreaker();
+        RetryBudget.getGlobal().onRequest();
+
+        for (int attempt = 0; ; attempt++) {
+            Deadline.check();
+            if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+                throw new CircuitBreakerOpenException(circuitBreaker.getName());
+            }
+
+            long started = System.nanoTime();
+            GatewayException error;
+            try {
+                GatewayResponse response = call.execute();
+                if (circuitBreaker != null) {
+                    if (response.getStatusCode() >= 500) {
+                        circuitBreaker.onError(System.nanoTime() - started);
+                    } else {
+                        circuitBreaker.onSuccess(System.nanoTime() - started);
+                    }
+                }
+                return response;
+            } catch (GatewayException exc) {
+                error = exc;
+            }
+
+            Deadline deadline = Deadline.current();
+            if (deadline != null && deadline.isExpired() && !(error instanceof GatewayTimeoutException)) {
+                error = new GatewayTimeoutException(error);
+            }
+
+            if (circuitBreaker != null) {
+                if (isServerFailure(error)) {
+                    circuitBreaker.onError(System.nanoTime() - started);
+                } else {
+                    circuitBreaker.onSuccess(System.nanoTime() - started);
+                }
+            }
+
+            if (!retryable || attempt >= resilienceConfig.getMaxConnectRetries() || !isConnectFailure(error) || !RetryBudget.getGlobal().tryRetry()) {
+                throw error;
+            }
+            try {
+                long backoff = RetryBudget.backoffMillis(attempt, resilienceConfig.getRetryBackoffMillis(), resilienceConfig.getMaxRetryBackoffMillis());
+                Thread.sleep(deadline != null ? Math.min(backoff, deadline.remainingMillis()) : backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw error;
+            }
+        }
+    }
+
+    private CircuitBreaker getCircuitBreaker() {
+        if (!resilienceConfig.isCircuitBreakerEnabled() || StringUtils.isNullOrEmpty(serviceUrl)) {
+            return null;
+        }
+        try {
+            URL url = new URL(serviceUrl.trim());
+            final ResilienceConfig config = resilienceConfig;
+            return circuitBreakers.computeIfAbsent(url.getProtocol() + "://" + url.getAuthority(), endpoint -> new CircuitBreaker(endpoint, config));
+        } catch (MalformedURLException e) {
+            return null;
+        }
+    }
+
+    // Client errors (4xx) are answers from a healthy gateway; anything else means it could not be reached or failed
+    private static boolean isServerFailure(GatewayException exc) {
+        String responseCode = exc.getResponseCode();
+        return responseCode == null || !responseCode.matches("4\\d\\d");
+    }
+
+    private static boolean isConnectFailure(GatewayException exc) {
+        Throwable cause = exc.getCause();
+        return cause instanceof ConnectException
+                || cause instanceof NoRouteToHostException
+                || cause instanceof UnknownHostException;
+    }
+
     private String buildQueryString(HashMap<String, String> queryStringParams) throws UnsupportedEncodingException {
         if(queryStringParams == null) {
             return "";
@@ -334,7 +505,7 @@ public abstract class Gateway {
                         );
     }
 
-    private void outputLogging(boolean isRequest) {
+    private void outputLogging(StringBuilder logEntry, boolean isRequest) {
         if (this.enableLogging) {
             System.out.print(logEntry);
         }
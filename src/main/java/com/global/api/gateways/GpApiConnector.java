@@ -53,7 +53,8 @@ public class GpApiConnector extends RestGateway implements IPaymentGateway, IRep
     private static final String GP_API_VERSION = "2021-03-22";
     private static final String IDEMPOTENCY_HEADER = "x-gp-idempotency";
 
-    private String accessToken;
+    private volatile String accessToken;
+    @Getter private IdempotencyCache idempotencyCache;
     @Getter GpApiConfig gpApiConfig; // Contains: appId, appKey, secondsToExpire, intervalToExpire, channel and language
 
     private static String dataAccountName;
@@ -142,10 +143,20 @@ public class GpApiConnector extends RestGateway implements IPaymentGateway, IRep
         headers.put("x-gp-sdk", "java;version=" + getReleaseVersion());
 
         dynamicHeaders = config.getDynamicHeaders();
+
+        if (config.getIdempotencyStore() != null) {
+            idempotencyCache = new IdempotencyCache(config.getIdempotencyStore(), config.getIdempotencyTimeToLive());
+        }
     }
 
+    // Read once per process rather than once per connector
+    private static volatile String releaseVersion;
+
     // Get the SDK release version
     private String getReleaseVersion() {
+        if (releaseVersion != null) {
+            return releaseVersion;
+        }
         String version = "";
         try {
             Document pomXml = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new File("pom.xml"));
@@ -155,10 +166,11 @@ public class GpApiConnector extends RestGateway implements IPaymentGateway, IRep
             if (gpApiConfig.isEnableLogging())
                 System.out.println("JAVA SDK version could not be extracted from pom.xml file.");
         }
+        releaseVersion = version;
         return version;
     }
 
-    void signIn() throws GatewayException {
+    synchronized void signIn() throws GatewayException {
         if (StringUtils.isNullOrEmpty(accessToken)) {
             GpApiTokenResponse response = getAccessToken();
 
@@ -197,25 +209,31 @@ public class GpApiConnector extends RestGateway implements IPaymentGateway, IRep
         return new GpApiTokenResponse(rawResponse);
     }
 
+    // Authorization and idempotency headers are sent per request so concurrent calls on this connector cannot see each other's values
     private String doTransactionWithIdempotencyKey(GpApiRequest.HttpMethod verb, String endpoint, String data, HashMap<String, String> queryStringParams, String idempotencyKey) throws GatewayException {
+        HashMap<String, String> requestHeaders = new HashMap<>();
+        requestHeaders.put("Authorization", String.format("Bearer %s", accessToken));
         if (!StringUtils.isNullOrEmpty(idempotencyKey)) {
-            headers.put(IDEMPOTENCY_HEADER, idempotencyKey);
-        }
-        try {
-            return super.doTransaction(verb.getValue(), endpoint, data, queryStringParams);
-        } catch (GatewayException ex) {
-            throw ex;
-        } finally {
-            headers.remove(IDEMPOTENCY_HEADER);
+            requestHeaders.put(IDEMPOTENCY_HEADER, idempotencyKey);
         }
+        return super.doTransaction(verb.getValue(), endpoint, data, queryStringParams, requestHeaders);
     }
 
     public String doTransaction(GpApiRequest.HttpMethod verb, String endpoint, String data, HashMap<String, String> queryStringParams, String idempotencyKey) throws GatewayException {
+        if (idempotencyCache != null && !isNullOrEmpty(idempotencyKey)) {
+            return idempotencyCache.execute(
+                    String.format("%s %s %s", verb.getValue(), endpoint, idempotencyKey),
+                    data,
+                    () -> sendTransaction(verb, endpoint, data, queryStringParams, idempotencyKey)
+            );
+        }
+        return sendTransaction(verb, endpoint, data, queryStringParams, idempotencyKey);
+    }
+
+    private String sendTransaction(GpApiRequest.HttpMethod verb, String endpoint, String data, HashMap<String, String> queryStringParams, String idempotencyKey) throws GatewayException {
         if (isNullOrEmpty(accessToken)) {
             signIn();
         }
-        // TODO: Check if we can move this into singIn()
-        headers.put("Authorization", String.format("Bearer %s", accessToken));
 
         try {
             return doTransactionWithIdempotencyKey(verb, endpoint, data, queryStringParams, idempotencyKey);
@@ -226,7 +244,6 @@ public class GpApiConnector extends RestGateway implements IPaymentGateway, IRep
                     !isNullOrEmpty(gpApiConfig.getAppKey())
             ) {
                 signIn();
-                headers.put("Authorization", String.format("Bearer %s", accessToken));
 
                 return doTransactionWithIdempotencyKey(verb, endpoint, data, queryStringParams, idempotencyKey);
             }
@@ -266,7 +283,6 @@ public class GpApiConnector extends RestGateway implements IPaymentGateway, IRep
         if (isNullOrEmpty(accessToken)) {
             signIn();
         }
-        headers.put("Authorization", String.format("Bearer %s", accessToken));
 
         GpApiRequest request = GpApiAuthorizationRequestBuilder.buildRequest(builder, this);
 
@@ -286,7 +302,6 @@ public class GpApiConnector extends RestGateway implements IPaymentGateway, IRep
         if (StringUtils.isNullOrEmpty(accessToken)) {
             signIn();
         }
-        headers.put("Authorization", String.format("Bearer %s", accessToken));
 
         GpApiRequest request = GpApiManagementRequestBuilder.buildRequest(builder, this);
 
@@ -307,7 +322,6 @@ public class GpApiConnector extends RestGateway implements IPaymentGateway, IRep
         if (StringUtils.isNullOrEmpty(accessToken)) {
             signIn();
         }
-        headers.put("Authorization", String.format("Bearer %s", accessToken));
 
         GpApiRequest request = GpApiReportRequestBuilder.buildRequest(builder, this);
 
@@ -327,7 +341,6 @@ public class GpApiConnector extends RestGateway implements IPaymentGateway, IRep
         if (StringUtils.isNullOrEmpty(accessToken)) {
             signIn();
         }
-        headers.put("Authorization", String.format("Bearer %s", accessToken));
 
         GpApiRequest request = GpApiSecure3DRequestBuilder.buildRequest(builder, this);
 
@@ -0,0 +1,16 @@
+package com.global.api.gateways;
+
+/**
+ * Keeps the raw gateway responses of completed idempotent requests for {@link IdempotencyCache}.
+ * Implementations must be thread safe.
+ */
+public interface IIdempotencyStore {
+    /**
+     * @return the stored response, or null when the key is unknown or its window has expired
+     */
+    String get(String key);
+
+    void put(String key, String response, long timeToLiveMillis);
+
+    void remove(String key);
+}
@@ -0,0 +1,19 @@
+package com.global.api.gateways;
+
+/**
+ * Storage backend for {@link CachingReportingService}. Implementations must be thread safe.
+ */
+public interface IReportCache {
+    /**
+     * @return the cached value, or null when the key is missing or has expired
+     */
+    Object get(String key);
+
+    void put(String key, Object value, long timeToLiveMillis);
+
+    void remove(String key);
+
+    void clear();
+
+    int size();
+}
@@ -0,0 +1,116 @@
+package com.global.api.gateways;
+
+import com.global.api.entities.exceptions.GatewayException;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Replays idempotent requests locally. A key whose request has completed within the time window
+ * returns the stored response without going to the gateway, and a duplicate issued while the first
+ * request is still in flight waits for and shares its response. Failed requests are not stored.
+ *
+ * The SHA-256 of the request body is kept with the response. Reusing a key with a different body is
+ * rejected, as the gateway would, instead of replaying the response to the other request.
+ */
+public class IdempotencyCache {
+    public interface IRequest {
+        String execute() throws GatewayException;
+    }
+
+    private static class InFlight {
+        private final String fingerprint;
+        private final CompletableFuture<String> future = new CompletableFuture<>();
+
+        private InFlight(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    // length of a hex SHA-256, which starts every stored entry
+    private static final int FINGERPRINT_LENGTH = 64;
+
+    private final IIdempotencyStore store;
+    private final long timeToLiveMillis;
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IIdempotencyStore getStore() {
+        return store;
+    }
+
+    public IdempotencyCache(IIdempotencyStore store, long timeToLiveMillis) {
+        this.store = store;
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    public String execute(String key, IRequest request) throws GatewayException {
+        return execute(key, null, request);
+    }
+
+    public String execute(String key, String requestBody, IRequest request) throws GatewayException {
+        String fingerprint = DigestUtils.sha256Hex(requestBody != null ? requestBody : "");
+        String response = lookup(key, fingerprint);
+        if (response != null) {
+            return response;
+        }
+
+        InFlight claim = new InFlight(fingerprint);
+        InFlight existing = inFlight.putIfAbsent(key, claim);
+        if (existing != null) {
+            checkFingerprint(existing.fingerprint, fingerprint);
+            return await(existing.future);
+        }
+
+        try {
+            // the previous owner of the key may have completed between the lookup and the claim
+            response = lookup(key, fingerprint);
+            if (response == null) {
+                response = request.execute();
+                if (response != null) {
+                    store.put(key, fingerprint + response, timeToLiveMillis);
+                }
+            }
+            claim.future.complete(response);
+            return response;
+        } catch (GatewayException | RuntimeException e) {
+            claim.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, claim);
+        }
+    }
+
+    private String lookup(String key, String fingerprint) throws GatewayException {
+        String entry = store.get(key);
+        if (entry == null || entry.length() < FINGERPRINT_LENGTH) {
+            return null;
+        }
+        checkFingerprint(entry.substring(0, FINGERPRINT_LENGTH), fingerprint);
+        return entry.substring(FINGERPRINT_LENGTH);
+    }
+
+    private static void checkFingerprint(String stored, String fingerprint) throws GatewayException {
+        if (!stored.equals(fingerprint)) {
+            throw new GatewayException("The idempotency key was already used for a request with a different body.");
+        }
+    }
+
+    private String await(CompletableFuture<String> future) throws GatewayException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GatewayException("Interrupted while waiting for the duplicate idempotent request.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GatewayException) {
+                throw (GatewayException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new GatewayException("Error occurred while waiting for the duplicate idempotent request.", e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.global.api.gateways;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class InMemoryIdempotencyStore implements IIdempotencyStore {
+    private static final int PURGE_INTERVAL = 1000;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger putCount = new AtomicInteger();
+
+    public String get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.response;
+    }
+
+    public void put(String key, String response, long timeToLiveMillis) {
+        entries.put(key, new Entry(response, System.currentTimeMillis() + timeToLiveMillis));
+        if (putCount.incrementAndGet() % PURGE_INTERVAL == 0) {
+            purgeExpired();
+        }
+    }
+
+    public void remove(String key) {
+        entries.remove(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue().isExpired(now)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static class Entry {
+        private final String response;
+        private final long expiresAt;
+
+        private Entry(String response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
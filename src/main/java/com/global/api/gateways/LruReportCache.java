@@ -0,0 +1,74 @@
+package com.global.api.gateways;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Default in-process {@link IReportCache}: a size bounded map evicting the least recently used entry.
+ * Expired entries are dropped lazily when they are read.
+ */
+public class LruReportCache implements IReportCache {
+    private final LinkedHashMap<String, Entry> entries;
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public LruReportCache(final int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1.");
+        }
+
+        entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized Object get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt - System.nanoTime() <= 0) {
+            entries.remove(key);
+            evictionCount.incrementAndGet();
+            return null;
+        }
+        return entry.value;
+    }
+
+    public synchronized void put(String key, Object value, long timeToLiveMillis) {
+        entries.put(key, new Entry(value, System.nanoTime() + timeToLiveMillis * 1000000L));
+    }
+
+    public synchronized void remove(String key) {
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static class Entry {
+        private final Object value;
+        private final long expiresAt;
+
+        private Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
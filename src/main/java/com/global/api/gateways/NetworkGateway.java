@@ -2,11 +2,15 @@ package com.global.api.gateways;
 
 import com.global.api.entities.enums.Host;
 import com.global.api.entities.enums.HostError;
+import com.global.api.entities.enums.RequestPriority;
 import com.global.api.entities.exceptions.ApiException;
 import com.global.api.entities.exceptions.GatewayComsException;
 import com.global.api.entities.exceptions.GatewayException;
 import com.global.api.entities.exceptions.GatewayTimeoutException;
+import com.global.api.entities.exceptions.RequestRejectedException;
 import com.global.api.gateways.events.*;
+import com.global.api.serviceConfigs.ResilienceConfig;
+import com.global.api.utils.Deadline;
 import com.global.api.terminals.abstractions.IDeviceMessage;
 import com.global.api.utils.StringUtils;
 import org.joda.time.DateTime;
@@ -19,6 +23,7 @@ import java.math.BigInteger;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
 import java.util.ArrayList;
 import java.util.HashMap;
 
@@ -42,12 +47,26 @@ public class NetworkGateway {
     private String connectorName = "NetworkGateway";
     private IGatewayEventHandler gatewayEventHandler;
 
+    private ResilienceConfig resilienceConfig = new ResilienceConfig();
+    // breakers of this connector by host, built from its current resilienceConfig
+    private final HashMap<String, CircuitBreaker> circuitBreakers = new HashMap<>();
+    private PriorityScheduler priorityScheduler;
+    // breaker of the connected endpoint, awaiting the outcome of the current request
+    private CircuitBreaker activeBreaker;
+    private long activeSince;
+
     public String getPrimaryEndpoint() {
         return primaryEndpoint;
     }
     public void setPrimaryEndpoint(String primaryEndpoint) {
         this.primaryEndpoint = primaryEndpoint;
     }
+    public PriorityScheduler getPriorityScheduler() {
+        return priorityScheduler;
+    }
+    public void setPriorityScheduler(PriorityScheduler priorityScheduler) {
+        this.priorityScheduler = priorityScheduler;
+    }
     public Integer getPrimaryPort() {
         return primaryPort;
     }
@@ -79,6 +98,17 @@ public class NetworkGateway {
         this.enableLogging = enableLogging;
     }
     public void setGatewayEventHandler(IGatewayEventHandler eventHandler) { this.gatewayEventHandler = eventHandler; }
+    public ResilienceConfig getResilienceConfig() {
+        return resilienceConfig;
+    }
+    public void setResilienceConfig(ResilienceConfig resilienceConfig) {
+        if(resilienceConfig != null) {
+            this.resilienceConfig = resilienceConfig;
+            synchronized (circuitBreakers) {
+                circuitBreakers.clear();
+            }
+        }
+    }
     public HashMap<Host, ArrayList<HostError>> getSimulatedHostErrors() {
         return simulatedHostErrors;
     }
@@ -93,6 +123,32 @@ public class NetworkGateway {
         return false;
     }
 
+    // simulated host errors bypass the breakers so certification runs cannot trip them
+    private CircuitBreaker getCircuitBreaker(String endpoint, Integer port) {
+        if(!resilienceConfig.isCircuitBreakerEnabled() || simulatedHostErrors != null) {
+            return null;
+        }
+        String name = String.format("%s:%s", endpoint, port);
+        synchronized (circuitBreakers) {
+            CircuitBreaker breaker = circuitBreakers.get(name);
+            if(breaker == null) {
+                breaker = new CircuitBreaker(name, resilienceConfig);
+                circuitBreakers.put(name, breaker);
+            }
+            return breaker;
+        }
+    }
+
+    private void recordOutcome(boolean success) {
+        if(activeBreaker != null) {
+            if(success) {
+                activeBreaker.onSuccess(System.nanoTime() - activeSince);
+            }
+            else activeBreaker.onError(System.nanoTime() - activeSince);
+            activeBreaker = null;
+        }
+    }
+
     // establish connection
     private void connect(String endpoint, Integer port) throws GatewayComsException {
         currentHost = endpoint.equals(primaryEndpoint) ? Host.Primary : Host.Secondary;
@@ -111,16 +167,20 @@ public class NetworkGateway {
                 disconnect();
             }
 
+            // an open breaker skips straight to the fail over endpoint instead of waiting on the connect timeout
+            CircuitBreaker breaker = getCircuitBreaker(endpoint, port);
+            boolean permitted = breaker == null || breaker.tryAcquirePermission();
+            long connectStarted = System.nanoTime();
             try {
                 // connection started
                 connectionEvent.setConnectionStarted(connectionStarted);
 
                 // check for simulated connection error
-                if(!isForcedError(HostError.Connection)) {
+                if(permitted && !isForcedError(HostError.Connection)) {
                     try {
-                        SSLSocketFactory factory = new SSLSocketFactoryEx();
+                        SSLSocketFactory factory = SSLSocketFactoryEx.getShared();
                         client = (SSLSocket) factory.createSocket();
-                        client.connect(new InetSocketAddress(endpoint, port), 5000);
+                        client.connect(new InetSocketAddress(endpoint, port), Deadline.boundTimeout(5000));
                         client.startHandshake();
 
                         raiseGatewayEvent(new SslHandshakeEvent(connectorName, null));
@@ -141,12 +201,19 @@ public class NetworkGateway {
                     in = client.getInputStream();
                     client.setKeepAlive(true);
                     connectionFaults = 0;
+
+                    activeBreaker = breaker;
+                    activeSince = connectStarted;
                 }
                 else {
+                    if(permitted && breaker != null) {
+                        breaker.onError(System.nanoTime() - connectStarted);
+                    }
+
                     // connection fail over
                     raiseGatewayEvent(new FailOverEvent(connectorName, connectionStarted, DateTime.now(DateTimeZone.UTC)));
 
-                    if(connectionFaults++ != 3) {
+                    if(connectionFaults++ < 3 && !isDeadlineExpired()) {
                         if(endpoint.equals(primaryEndpoint) && secondaryEndpoint != null) {
                             connect(secondaryEndpoint, secondaryPort);
                         }
@@ -155,7 +222,10 @@ public class NetworkGateway {
                         }
                     }
                     else {
-                        throw new IOException("Failed to connect to primary or secondary processing endpoints.");
+                        connectionFaults = 0;
+                        throw new IOException(permitted
+                                ? "Failed to connect to primary or secondary processing endpoints."
+                                : "Failed to connect to primary or secondary processing endpoints; circuit breaker is open.");
                     }
                 }
             }
@@ -184,7 +254,33 @@ public class NetworkGateway {
         }
     }
 
-    public byte[] send(IDeviceMessage message) throws GatewayTimeoutException, GatewayComsException {
+    public byte[] send(IDeviceMessage message) throws GatewayTimeoutException, GatewayComsException, RequestRejectedException {
+        if(priorityScheduler == null) {
+            return sendMessage(message);
+        }
+
+        // waiting callers take the socket in priority order rather than in whatever order the monitor picks
+        RequestPriority priority = PriorityScheduler.currentPriority();
+        try {
+            if(!priorityScheduler.tryAcquire(priority)) {
+                throw new RequestRejectedException(String.format("No connection became available for the %s request.", priority));
+            }
+        }
+        catch(InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            throw new GatewayComsException(exc, true);
+        }
+        try {
+            return sendMessage(message);
+        }
+        finally {
+            priorityScheduler.release(priority);
+        }
+    }
+
+    // the connector has one socket, one response reader and one fail over state (currentHost, connectionFaults);
+    // a second caller writing or reading mid-exchange would take the response meant for the first
+    private synchronized byte[] sendMessage(IDeviceMessage message) throws GatewayTimeoutException, GatewayComsException {
         /*
         1) if the initial attempt to connect fails (on both hosts) a GatewayComsException is thrown
         2) if the send/receive fails, no exception is thrown (timeout flag is tripped) and fail over occurs
@@ -194,11 +290,26 @@ public class NetworkGateway {
         6) if no response from the secondary host, GatewayTimeoutException is thrown
          */
         boolean timeout = false;
-        connect(getPrimaryEndpoint(), getPrimaryPort());
+        Deadline.check();
+        try {
+            connect(getPrimaryEndpoint(), getPrimaryPort());
+        }
+        catch(GatewayComsException exc) {
+            if(isDeadlineExpired()) {
+                throw new GatewayTimeoutException(exc);
+            }
+            // neither host could be reached, nothing was sent
+            throw new GatewayComsException((Exception) exc.getCause(), true);
+        }
 
         byte[] buffer = message.getSendBuffer();
         try {
             for(int i = 0; i < 2; i++) {
+                // the resend to the secondary host is part of fail over and only stops for an expired deadline
+                if(i > 0 && isDeadlineExpired()) {
+                    break;
+                }
+
                 raiseGatewayEvent(new RequestSentEvent(connectorName));
                 DateTime requestSent = DateTime.now(DateTimeZone.UTC);
                 try {
@@ -210,6 +321,7 @@ public class NetworkGateway {
                     byte[] rvalue = getGatewayResponse();
                     if (rvalue != null && !isForcedError(HostError.Timeout)) {
                         raiseGatewayEvent(new ResponseReceivedEvent(connectorName, requestSent));
+                        recordOutcome(true);
                         return rvalue;
                     }
                     timeout = true;
@@ -219,7 +331,8 @@ public class NetworkGateway {
                 }
 
                 // did not get a response, switch endpoints and try again
-                if(!currentHost.equals(Host.Secondary) && !StringUtils.isNullOrEmpty(secondaryEndpoint) && i < 1) {
+                recordOutcome(false);
+                if(!currentHost.equals(Host.Secondary) && !StringUtils.isNullOrEmpty(secondaryEndpoint) && i < 1 && !isDeadlineExpired()) {
                     raiseGatewayEvent(new TimeoutEvent(connectorName, GatewayEventType.TimeoutFailOver));
 
                     disconnect();
@@ -234,12 +347,13 @@ public class NetworkGateway {
             else throw new GatewayComsException();
         }
         catch(GatewayComsException exc) {
-            if(timeout) {
+            if(timeout || isDeadlineExpired()) {
                 throw new GatewayTimeoutException(exc);
             }
             throw exc;
         }
         finally {
+            recordOutcome(false);
             disconnect();
             raiseGatewayEvent(new DisconnectEvent(connectorName));
 
@@ -266,6 +380,20 @@ public class NetworkGateway {
 
     private int awaitResponse(InputStream in, byte[] buffer) throws GatewayTimeoutException, IOException {
         long t = System.currentTimeMillis();
+        int window = Deadline.boundTimeout(20000);
+        if(Deadline.current() != null) {
+            // without a read timeout a silent host would block past the deadline
+            client.setSoTimeout(window);
+        }
+        try {
+            return readResponse(in, buffer, t, window);
+        }
+        catch(SocketTimeoutException exc) {
+            throw new GatewayTimeoutException(exc);
+        }
+    }
+
+    private int readResponse(InputStream in, byte[] buffer, long t, int window) throws GatewayTimeoutException, IOException {
 
         int position = 0;
         Integer messageLength = null;
@@ -293,11 +421,16 @@ public class NetworkGateway {
             }
             catch(InterruptedException e) { break; }
         }
-        while((System.currentTimeMillis() - t) <= 20000);
+        while((System.currentTimeMillis() - t) <= window);
 
         throw new GatewayTimeoutException();
     }
 
+    private static boolean isDeadlineExpired() {
+        Deadline deadline = Deadline.current();
+        return deadline != null && deadline.isExpired();
+    }
+
     private void raiseGatewayEvent(final IGatewayEvent event) {
         if(gatewayEventHandler != null) {
             new Thread(new Runnable() {
@@ -1075,8 +1075,7 @@ public class PorticoConnector extends XmlGateway implements IPaymentGateway, IRe
             LodgingData lodgingData = new LodgingData();
 
             String advancedDepositType = root.getString("AdvancedDepositType");
-            ReverseStringEnumMap<AdvancedDepositType> map = new ReverseStringEnumMap<AdvancedDepositType>(AdvancedDepositType.class);
-            lodgingData.setAdvancedDepositType(map.get(advancedDepositType));
+            lodgingData.setAdvancedDepositType(ReverseStringEnumMap.parse(advancedDepositType, AdvancedDepositType.class));
             lodgingData.setLodgingDataEdit(root.getString("LodgingDataEdit"));
             summary.setLodgingData(lodgingData);
         }
@@ -0,0 +1,174 @@
+package com.global.api.gateways;
+
+import com.global.api.entities.enums.RequestPriority;
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.serviceConfigs.PriorityConfig;
+import com.global.api.utils.Deadline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out the connections of a transport by request priority. Part of the capacity is reserved for
+ * authorizations, lower priorities are capped, and a waiting request is only admitted when no request
+ * of a higher priority that could use the free capacity is waiting.
+ *
+ * The priority is taken from the calling thread: builders bind it with {@link #withPriority}, and every
+ * request sent while it is bound (sign in, follow on messages, ...) is scheduled with it.
+ */
+public class PriorityScheduler {
+    public interface IRequest<T> {
+        T execute() throws ApiException;
+    }
+
+    private static final ThreadLocal<RequestPriority> current = new ThreadLocal<>();
+    private static final RequestPriority[] PRIORITIES = RequestPriority.values();
+
+    private final int maxConcurrency;
+    private final int reservedForAuthorization;
+    private final int[] caps = new int[PRIORITIES.length];
+    private final long maxQueueWaitMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final int[] inUse = new int[PRIORITIES.length];
+    private final int[] waiting = new int[PRIORITIES.length];
+    private int totalInUse;
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    public PriorityScheduler(PriorityConfig config) {
+        this.maxConcurrency = config.getMaxConcurrency();
+        this.reservedForAuthorization = config.getReservedForAuthorization();
+        this.caps[RequestPriority.Management.ordinal()] = config.getMaxManagementConcurrency();
+        this.caps[RequestPriority.Report.ordinal()] = config.getMaxReportConcurrency();
+        this.maxQueueWaitMillis = config.getMaxQueueWaitMillis();
+    }
+
+    /**
+     * For transports with a single connection: requests are sent one at a time in priority order,
+     * without reservations or caps.
+     */
+    public static PriorityScheduler forSingleConnection(PriorityConfig config) {
+        return new PriorityScheduler(new PriorityConfig()
+                .setMaxConcurrency(1)
+                .setReservedForAuthorization(0)
+                .setMaxManagementConcurrency(0)
+                .setMaxReportConcurrency(0)
+                .setMaxQueueWaitMillis(config.getMaxQueueWaitMillis()));
+    }
+
+    /**
+     * Runs the request with the priority bound to the current thread. When a priority is already
+     * bound, the outer one applies, so follow on requests keep the priority of what triggered them.
+     */
+    public static <T> T withPriority(RequestPriority priority, IRequest<T> request) throws ApiException {
+        if (current.get() != null) {
+            return request.execute();
+        }
+        current.set(priority);
+        try {
+            return request.execute();
+        } finally {
+            current.remove();
+        }
+    }
+
+    // The priority of the request executing on this thread; requests sent outside a builder count as management
+    public static RequestPriority currentPriority() {
+        RequestPriority priority = current.get();
+        return priority != null ? priority : RequestPriority.Management;
+    }
+
+    public int getInUse(RequestPriority priority) {
+        lock.lock();
+        try {
+            return inUse[priority.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting(RequestPriority priority) {
+        lock.lock();
+        try {
+            return waiting[priority.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Waits up to maxQueueWaitMillis, or the time left on the current deadline, for a connection.
+     *
+     * @return false when no connection became available in time; the caller must not send the request
+     */
+    public boolean tryAcquire(RequestPriority priority) throws InterruptedException {
+        long wait = maxQueueWaitMillis;
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            wait = Math.min(wait, deadline.remainingMillis());
+        }
+        return tryAcquire(priority, wait, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean tryAcquire(RequestPriority priority, long timeout, TimeUnit unit) throws InterruptedException {
+        int index = priority.ordinal();
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            waiting[index]++;
+            try {
+                while (!isAdmissible(index)) {
+                    if (remaining <= 0) {
+                        rejectedCount.incrementAndGet();
+                        return false;
+                    }
+                    remaining = changed.awaitNanos(remaining);
+                }
+                inUse[index]++;
+                totalInUse++;
+                return true;
+            } finally {
+                waiting[index]--;
+                // a waiter leaving can unblock lower priorities
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(RequestPriority priority) {
+        lock.lock();
+        try {
+            inUse[priority.ordinal()]--;
+            totalInUse--;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean hasCapacity(int index) {
+        int limit = index == RequestPriority.Authorization.ordinal() ? maxConcurrency : maxConcurrency - reservedForAuthorization;
+        return totalInUse < limit && (caps[index] == 0 || inUse[index] < caps[index]);
+    }
+
+    private boolean isAdmissible(int index) {
+        if (!hasCapacity(index)) {
+            return false;
+        }
+        for (int higher = 0; higher < index; higher++) {
+            if (waiting[higher] > 0 && hasCapacity(higher)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,230 @@
+package com.global.api.gateways;
+
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.entities.exceptions.GatewayTimeoutException;
+import com.global.api.utils.Deadline;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets identical read only requests that are in flight at the same time share one gateway call.
+ * The first caller sends the request; callers arriving before it completes wait for and receive
+ * the same result or exception. Nothing is kept once the call completes.
+ *
+ * Results are shared between callers and must not be modified.
+ */
+public class RequestCoalescer {
+    public interface IRequest<T> {
+        T execute() throws ApiException;
+    }
+
+    public interface IKey {
+        String get();
+    }
+
+    // Used for configurations without request coalescing
+    public static final RequestCoalescer DISABLED = new RequestCoalescer() {
+        @Override
+        public <T> T execute(String key, IRequest<T> request) throws ApiException {
+            return request.execute();
+        }
+
+        @Override
+        public <T> T execute(IKey key, IRequest<T> request) throws ApiException {
+            // the key is never built, as fingerprinting walks the whole request
+            return request.execute();
+        }
+    };
+
+    private static final int MAX_DEPTH = 6;
+    // Per call settings that do not change what is asked of the gateway
+    private static final List<String> IGNORED_FIELDS = Arrays.asList("validations", "deadline", "timeoutMillis", "prefetchDepth", "clazz");
+
+    private static final ClassValue<Field[]> fingerprintFields = new ClassValue<Field[]>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic() && !IGNORED_FIELDS.contains(field.getName())) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            return fields.toArray(new Field[0]);
+        }
+    };
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    // Number of requests answered by another caller's gateway call
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    // Builds the key only when coalescing is enabled
+    public <T> T execute(IKey key, IRequest<T> request) throws ApiException {
+        return execute(key.get(), request);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, IRequest<T> request) throws ApiException {
+        if (key == null) {
+            return request.execute();
+        }
+
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalescedCount.incrementAndGet();
+            return (T) await(existing);
+        }
+
+        try {
+            T result = request.execute();
+            call.complete(result);
+            return result;
+        } catch (ApiException | RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> call) throws ApiException {
+        Deadline deadline = Deadline.current();
+        try {
+            return deadline != null ? call.get(deadline.remainingMillis(), TimeUnit.MILLISECONDS) : call.get();
+        } catch (TimeoutException e) {
+            throw new GatewayTimeoutException("The deadline for this request has passed.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Interrupted while waiting for the gateway response.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ApiException) {
+                throw (ApiException) e.getCause();
+            }
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    /**
+     * Builds a key that is equal for requests whose values are all equal, or returns null when the
+     * request holds a value the SDK cannot compare (such requests are never coalesced). The key is
+     * a digest, so card data is not held in the in-flight map.
+     */
+    public static String fingerprint(Object... parts) {
+        Fingerprint fingerprint = new Fingerprint();
+        for (Object part : parts) {
+            fingerprint.append(part, 0);
+            fingerprint.sb.append('|');
+        }
+        if (fingerprint.opaque) {
+            return null;
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest(fingerprint.sb.toString().getBytes(StandardCharsets.UTF_8))) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Fingerprint {
+        private final StringBuilder sb = new StringBuilder();
+        private final IdentityHashMap<Object, Boolean> path = new IdentityHashMap<>();
+        private boolean opaque;
+
+        void append(Object value, int depth) {
+            if (opaque) {
+                return;
+            }
+
+            if (value == null) {
+                sb.append('~');
+            } else if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+                    || value instanceof Character || value instanceof Enum) {
+                String text = value.toString();
+                sb.append(value.getClass().getSimpleName()).append(':').append(text.length()).append(':').append(text);
+            } else if (value instanceof Date) {
+                sb.append("Date:").append(((Date) value).getTime());
+            } else if (path.containsKey(value)) {
+                // back reference, e.g. a search criteria builder pointing at its report builder
+                sb.append('^');
+            } else if (depth >= MAX_DEPTH) {
+                opaque = true;
+            } else {
+                path.put(value, Boolean.TRUE);
+                if (value instanceof List) {
+                    appendAll((List<?>) value, depth);
+                } else if (value instanceof Collection || value instanceof Map) {
+                    // unordered, so equal contents are not guaranteed to give an equal key
+                    if (!(value instanceof Collection ? ((Collection<?>) value).isEmpty() : ((Map<?, ?>) value).isEmpty())) {
+                        opaque = true;
+                    }
+                    sb.append("[]");
+                } else if (value.getClass().isArray()) {
+                    List<Object> items = new ArrayList<>();
+                    for (int i = 0; i < Array.getLength(value); i++) {
+                        items.add(Array.get(value, i));
+                    }
+                    appendAll(items, depth);
+                } else if (value.getClass().getName().startsWith("com.global.api.")) {
+                    sb.append(value.getClass().getName()).append('{');
+                    for (Field field : fingerprintFields.get(value.getClass())) {
+                        sb.append(field.getName()).append('=');
+                        try {
+                            append(field.get(value), depth + 1);
+                        } catch (IllegalAccessException e) {
+                            opaque = true;
+                        }
+                        sb.append(';');
+                    }
+                    sb.append('}');
+                } else {
+                    opaque = true;
+                }
+                path.remove(value);
+            }
+        }
+
+        private void appendAll(List<?> items, int depth) {
+            sb.append('[');
+            for (Object item : items) {
+                append(item, depth + 1);
+                sb.append(',');
+            }
+            sb.append(']');
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.global.api.gateways;
+
+import com.global.api.entities.exceptions.GatewayException;
+import com.global.api.serviceConfigs.HedgingConfig;
+import com.global.api.utils.Deadline;
+
+import java.net.HttpURLConnection;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends a second copy of a read only request when the first has not answered within the configured
+ * latency percentile, and returns whichever answers first. The slower attempt is cancelled by closing
+ * its connection. Hedges are drawn from a budget proportional to the request volume, so a slow gateway
+ * sees at most a few percent more load.
+ */
+public class RequestHedger {
+    public interface IRequest<T> {
+        T execute() throws GatewayException;
+    }
+
+    private static final int LATENCY_SAMPLES = 256;
+    private static final int MIN_SAMPLES = 20;
+    // Recalculating the percentile on every sample is not worth the sort
+    private static final int RECALCULATE_EVERY = 16;
+
+    private static final ThreadLocal<Attempt<?>> currentAttempt = new ThreadLocal<>();
+    private static final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "gateway-hedge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final HedgingConfig config;
+    private final RetryBudget budget;
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int position;
+    private int recorded;
+    private volatile long hedgeDelayNanos;
+    private final AtomicLong hedgedCount = new AtomicLong();
+    private final AtomicLong hedgeWinCount = new AtomicLong();
+
+    public RequestHedger(HedgingConfig config) {
+        this.config = config;
+        this.budget = new RetryBudget(config.getBudgetRatio(), config.getMinHedgesPerSecond(), config.getMaxHedgeBurst());
+        this.hedgeDelayNanos = TimeUnit.MILLISECONDS.toNanos(config.getInitialHedgeDelayMillis());
+    }
+
+    // Only requests that cannot change anything on the gateway may be sent twice
+    public static boolean isSafe(String verb) {
+        return "GET".equalsIgnoreCase(verb) || "HEAD".equalsIgnoreCase(verb) || "OPTIONS".equalsIgnoreCase(verb);
+    }
+
+    // Called by the transport once it has opened the connection, so a losing attempt can be aborted
+    static void register(HttpURLConnection connection) {
+        Attempt<?> attempt = currentAttempt.get();
+        if (attempt != null) {
+            attempt.setConnection(connection);
+        }
+    }
+
+    public long getHedgeDelayMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos);
+    }
+
+    public long getHedgedCount() {
+        return hedgedCount.get();
+    }
+
+    // Number of hedges that answered before the original attempt
+    public long getHedgeWinCount() {
+        return hedgeWinCount.get();
+    }
+
+    public <T> T execute(IRequest<T> request) throws GatewayException {
+        budget.onRequest();
+
+        ExecutorCompletionService<Attempt<T>> completion = new ExecutorCompletionService<>(executor);
+        Deadline deadline = Deadline.current();
+        Attempt<T> primary = new Attempt<>(request, deadline, false);
+        Attempt<T> hedge = null;
+        primary.future = completion.submit(primary::run);
+
+        try {
+            Future<Attempt<T>> done = completion.poll(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+            if (done == null && budget.tryRetry()) {
+                hedgedCount.incrementAndGet();
+                hedge = new Attempt<>(request, deadline, true);
+                hedge.future = completion.submit(hedge::run);
+            }
+
+            int pending = hedge != null ? 2 : 1;
+            GatewayException error = null;
+            while (pending > 0) {
+                if (done == null) {
+                    done = completion.take();
+                }
+                Attempt<T> attempt = done.get();
+                done = null;
+                pending--;
+
+                if (attempt.error == null) {
+                    record(attempt.elapsedNanos);
+                    if (attempt.isHedge) {
+                        hedgeWinCount.incrementAndGet();
+                    }
+                    return attempt.response;
+                }
+                if (error == null) {
+                    error = attempt.error;
+                }
+            }
+            throw error;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GatewayException("Interrupted while waiting for the gateway response.", e);
+        } catch (ExecutionException e) {
+            throw new GatewayException("Error occurred while communicating with gateway.", e);
+        } finally {
+            primary.cancel();
+            if (hedge != null) {
+                hedge.cancel();
+            }
+        }
+    }
+
+    private synchronized void record(long elapsedNanos) {
+        latencies[position] = elapsedNanos;
+        position = (position + 1) % latencies.length;
+        if (recorded < latencies.length) {
+            recorded++;
+        }
+
+        if (recorded >= MIN_SAMPLES && position % RECALCULATE_EVERY == 0) {
+            long[] sorted = Arrays.copyOf(latencies, recorded);
+            Arrays.sort(sorted);
+            long percentile = sorted[Math.min(recorded - 1, recorded * config.getHedgeAfterPercentile() / 100)];
+            hedgeDelayNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(config.getMinHedgeDelayMillis()), percentile);
+        }
+    }
+
+    private static class Attempt<T> {
+        private final IRequest<T> request;
+        private final Deadline deadline;
+        private final boolean isHedge;
+        private Future<Attempt<T>> future;
+        private volatile HttpURLConnection connection;
+        private volatile boolean cancelled;
+        private T response;
+        private GatewayException error;
+        private long elapsedNanos;
+
+        Attempt(IRequest<T> request, Deadline deadline, boolean isHedge) {
+            this.request = request;
+            this.deadline = deadline;
+            this.isHedge = isHedge;
+        }
+
+        Attempt<T> run() {
+            long started = System.nanoTime();
+            currentAttempt.set(this);
+            try {
+                // the attempt runs on a pool thread, so the caller's deadline is bound again here
+                response = deadline != null ? deadline.run(request::execute) : request.execute();
+            } catch (GatewayException e) {
+                error = e;
+            } catch (Exception e) {
+                error = new GatewayException("Error occurred while communicating with gateway.", e);
+            } finally {
+                currentAttempt.remove();
+                elapsedNanos = System.nanoTime() - started;
+            }
+            return this;
+        }
+
+        void setConnection(HttpURLConnection connection) {
+            this.connection = connection;
+            if (cancelled) {
+                connection.disconnect();
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            if (future != null && future.cancel(true)) {
+                HttpURLConnection conn = connection;
+                if (conn != null) {
+                    conn.disconnect();
+                }
+            }
+        }
+    }
+}
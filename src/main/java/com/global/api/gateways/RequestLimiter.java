@@ -0,0 +1,137 @@
+package com.global.api.gateways;
+
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.entities.exceptions.GatewayException;
+import com.global.api.entities.exceptions.GatewayTimeoutException;
+import com.global.api.entities.exceptions.RequestRejectedException;
+import com.global.api.serviceConfigs.LimiterConfig;
+import com.global.api.utils.Deadline;
+import com.global.api.utils.RateLimiter;
+
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies a configuration's {@link LimiterConfig} to the requests sent through it. A request first
+ * takes a rate limit token and then a concurrency slot, sharing a single wait deadline; when either
+ * cannot be obtained in time a {@link RequestRejectedException} is thrown without contacting the gateway.
+ */
+public class RequestLimiter {
+    public interface IRequest<T> {
+        T execute() throws ApiException;
+    }
+
+    // Used for configurations without a LimiterConfig
+    public static final RequestLimiter UNLIMITED = new RequestLimiter(null);
+
+    private static final List<String> OVERLOAD_STATUS_CODES = Arrays.asList("429", "503", "504");
+
+    private final RateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final long maxQueueWaitMillis;
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    public RequestLimiter(LimiterConfig config) {
+        if (config != null && config.getRequestsPerSecond() > 0) {
+            double burst = config.getBurst() > 0 ? config.getBurst() : config.getRequestsPerSecond();
+            rateLimiter = new RateLimiter(config.getRequestsPerSecond(), burst);
+        } else {
+            rateLimiter = null;
+        }
+
+        if (config != null && config.getInitialConcurrency() > 0) {
+            concurrencyLimiter = new AdaptiveConcurrencyLimiter(
+                    config.getInitialConcurrency(),
+                    config.getMinConcurrency(),
+                    config.getMaxConcurrency(),
+                    config.getBackoffRatio(),
+                    config.getLatencyTolerance(),
+                    config.getMaxQueueSize()
+            );
+        } else {
+            concurrencyLimiter = null;
+        }
+
+        maxQueueWaitMillis = config != null ? config.getMaxQueueWaitMillis() : 0;
+    }
+
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public <T> T execute(IRequest<T> request) throws ApiException {
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            // do not queue past the point where the call could still complete
+            return execute(request, Math.min(maxQueueWaitMillis, deadline.remainingMillis()));
+        }
+        return execute(request, maxQueueWaitMillis);
+    }
+
+    public <T> T execute(IRequest<T> request, long maxWaitMillis) throws ApiException {
+        if (rateLimiter == null && concurrencyLimiter == null) {
+            return request.execute();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        try {
+            if (rateLimiter != null && !rateLimiter.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                throw reject("Request rate limit exceeded for this configuration.");
+            }
+            if (concurrencyLimiter != null && !concurrencyLimiter.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                throw reject("Too many concurrent requests for this configuration.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Interrupted while waiting to send the request.", e);
+        }
+
+        if (concurrencyLimiter == null) {
+            return request.execute();
+        }
+
+        long started = System.nanoTime();
+        boolean dropped = false;
+        boolean sent = true;
+        try {
+            return request.execute();
+        } catch (RequestRejectedException e) {
+            // e.g. an open circuit breaker; its near zero latency says nothing about the gateway
+            sent = false;
+            throw e;
+        } catch (ApiException e) {
+            dropped = isOverloaded(e);
+            throw e;
+        } finally {
+            if (sent) {
+                concurrencyLimiter.release(PriorityScheduler.currentPriority(), System.nanoTime() - started, dropped);
+            } else {
+                concurrencyLimiter.release();
+            }
+        }
+    }
+
+    private RequestRejectedException reject(String message) {
+        rejectedCount.incrementAndGet();
+        return new RequestRejectedException(message);
+    }
+
+    // Responses that mean the gateway is shedding load, as opposed to declines or validation errors
+    static boolean isOverloaded(ApiException exception) {
+        if (exception instanceof GatewayTimeoutException) {
+            return true;
+        }
+        if (exception instanceof GatewayException) {
+            return OVERLOAD_STATUS_CODES.contains(((GatewayException) exception).getResponseCode())
+                    || exception.getCause() instanceof SocketTimeoutException;
+        }
+        return false;
+    }
+}
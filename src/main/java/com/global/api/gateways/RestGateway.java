@@ -4,6 +4,7 @@ import com.global.api.entities.exceptions.GatewayException;
 import com.global.api.utils.JsonDoc;
 
 import java.util.HashMap;
+import java.util.Map;
 
 public class RestGateway extends Gateway {
     public RestGateway() {
@@ -17,7 +18,10 @@ public class RestGateway extends Gateway {
         return doTransaction(verb, endpoint, data, null);
     }
     public String doTransaction(String verb, String endpoint, String data, HashMap<String, String> queryStringParams) throws GatewayException {
-        GatewayResponse response = sendRequest(verb, endpoint, data, queryStringParams);
+        return doTransaction(verb, endpoint, data, queryStringParams, null);
+    }
+    public String doTransaction(String verb, String endpoint, String data, HashMap<String, String> queryStringParams, Map<String, String> requestHeaders) throws GatewayException {
+        GatewayResponse response = sendRequest(verb, endpoint, data, queryStringParams, requestHeaders);
         return handleResponse(response);
     }
     protected String handleResponse(GatewayResponse response) throws GatewayException {
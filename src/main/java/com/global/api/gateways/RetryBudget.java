@@ -0,0 +1,60 @@
+package com.global.api.gateways;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps transport retries to a fraction of the request volume, so retries cannot multiply the load
+ * on a gateway that is already struggling. Every request deposits {@code retryRatio} tokens, a
+ * retry withdraws one; {@code minRetriesPerSecond} tokens are added over time for low traffic.
+ */
+public class RetryBudget {
+    private static final RetryBudget global = new RetryBudget(0.2, 10, 100);
+
+    private final double retryRatio;
+    private final double minTokensPerNano;
+    private final double maxTokens;
+    private double tokens;
+    private long lastRefill = System.nanoTime();
+
+    // Shared by every Gateway and NetworkGateway in the process
+    public static RetryBudget getGlobal() {
+        return global;
+    }
+
+    public RetryBudget(double retryRatio, double minRetriesPerSecond, double maxTokens) {
+        this.retryRatio = retryRatio;
+        this.minTokensPerNano = minRetriesPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    public synchronized void onRequest() {
+        refill();
+        tokens = Math.min(maxTokens, tokens + retryRatio);
+    }
+
+    public synchronized boolean tryRetry() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    // Exponential backoff with jitter across the whole window, so retries from many threads spread out
+    public static long backoffMillis(int attempt, long initialMillis, long maxMillis) {
+        long window = initialMillis << Math.min(attempt, 30);
+        if (window <= 0 || window > maxMillis) {
+            window = maxMillis;
+        }
+        return ThreadLocalRandom.current().nextLong(window + 1);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(maxTokens, tokens + (now - lastRefill) * minTokensPerNano);
+        lastRefill = now;
+    }
+}
@@ -14,6 +14,17 @@ import java.util.List;
 
 public class SSLSocketFactoryEx extends SSLSocketFactory
 {
+    private static SSLSocketFactoryEx shared;
+
+    // One factory for every connector: keep-alive connections are only reused for the same factory instance
+    public static synchronized SSLSocketFactoryEx getShared() throws NoSuchAlgorithmException, KeyManagementException
+    {
+        if (shared == null) {
+            shared = new SSLSocketFactoryEx();
+        }
+        return shared;
+    }
+
     public SSLSocketFactoryEx() throws NoSuchAlgorithmException, KeyManagementException
     {
         initSSLSocketFactoryEx(null,null,null);
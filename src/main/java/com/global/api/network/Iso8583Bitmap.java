@@ -25,7 +25,7 @@ public class Iso8583Bitmap {
         }
 
         binaryValue = sb.toString();
-        dataElementMap = new ReverseIntEnumMap<DataElementId>(DataElementId.class);
+        dataElementMap = ReverseIntEnumMap.of(DataElementId.class);
     }
 
     public boolean isPresent(DataElementId element) {
@@ -21,6 +21,14 @@ public abstract class Configuration {
     protected int timeout = 30000;
     protected boolean validated;
     @Getter @Setter protected HashMap<String, String> dynamicHeaders;
+    // Optional client side rate and concurrency limits for the gateway requests of this configuration
+    @Getter @Setter protected LimiterConfig limiterConfig;
+    // Circuit breaker and connect retry settings for the gateway connections; defaults apply when not set
+    @Getter @Setter protected ResilienceConfig resilienceConfig;
+    // When true, identical read only requests (reports, balance inquiries, 3DS enrollment checks) in flight at the same time share one gateway call
+    @Getter @Setter protected boolean requestCoalescing;
+    // Optional priority scheduling of the gateway connections, so authorizations are not held up by management or report requests
+    @Getter @Setter protected PriorityConfig priorityConfig;
 
     public int getTimeout() {
         return timeout;
@@ -76,6 +84,15 @@ public abstract class Configuration {
     public abstract void configureContainer(ConfiguredServices services) throws ConfigurationException;
 
     public void validate() throws ConfigurationException {
+        if (limiterConfig != null) {
+            limiterConfig.validate();
+        }
+        if (resilienceConfig != null) {
+            resilienceConfig.validate();
+        }
+        if (priorityConfig != null) {
+            priorityConfig.validate();
+        }
         this.validated = true;
     }
 }
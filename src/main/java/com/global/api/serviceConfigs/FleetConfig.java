@@ -0,0 +1,36 @@
+package com.global.api.serviceConfigs;
+
+import com.global.api.entities.exceptions.ConfigurationException;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * Sizes a {@link com.global.api.terminals.fleet.TerminalFleet}: the threads its lanes run on,
+ * how many commands a lane may queue and how often idle lanes are pinged.
+ */
+@Accessors(chain = true)
+@Getter
+@Setter
+public class FleetConfig {
+    // Commands executing at the same time across all lanes; a lane runs one at a time. A command holds its
+    // thread for as long as the device takes (up to its timeout), so a cap below the lane count makes lanes
+    // wait on each other. 0, the default, grows the pool with the lanes: one thread per lane
+    private int threads = 0;
+    // Commands a lane may hold, including the one executing, before new ones are rejected
+    private int maxQueueDepth = 16;
+    // Lanes idle for this long are pinged; 0 disables heartbeats
+    private long heartbeatIntervalMillis = 60000;
+
+    public void validate() throws ConfigurationException {
+        if (threads < 0) {
+            throw new ConfigurationException("threads cannot be negative.");
+        }
+        if (maxQueueDepth < 1) {
+            throw new ConfigurationException("maxQueueDepth must be at least 1.");
+        }
+        if (heartbeatIntervalMillis < 0) {
+            throw new ConfigurationException("heartbeatIntervalMillis cannot be negative.");
+        }
+    }
+}
@@ -193,6 +193,7 @@ public class GatewayConfig extends Configuration {
             gateway.setProxy(proxy);
             gateway.setHostedPaymentConfig(hostedPaymentConfig);
             gateway.setEnableLogging(enableLogging);
+            gateway.setResilienceConfig(resilienceConfig);
 
             services.setGatewayConnector(gateway);
             services.setRecurringConnector(gateway);
@@ -218,6 +219,7 @@ public class GatewayConfig extends Configuration {
                 secure3d2.setMethodNotificationUrl(methodNotificationUrl);
                 secure3d2.setChallengeNotificationUrl(challengeNotificationUrl);
                 secure3d2.setEnableLogging(enableLogging);
+                secure3d2.setResilienceConfig(resilienceConfig);
 
                 services.setSecure3dProvider(Secure3dVersion.TWO, secure3d2);
             }
@@ -243,12 +245,14 @@ public class GatewayConfig extends Configuration {
             gateway.setServiceUrl(serviceUrl + "/Hps.Exchange.PosGateway/PosGatewayService.asmx");
             gateway.setEnableLogging(enableLogging);
             gateway.setRequestLogger(requestLogger);
+            gateway.setResilienceConfig(resilienceConfig);
             services.setGatewayConnector(gateway);
 
             PayPlanConnector payplan = new PayPlanConnector();
             payplan.setEnableLogging(enableLogging);
             payplan.setSecretApiKey(secretApiKey);
             payplan.setTimeout(timeout);
+            payplan.setResilienceConfig(resilienceConfig);
             String payplanEndpoint = environment == Environment.TEST || serviceUrl.contains("cert.")
                     ? "/Portico.PayPlan.v2/"
                     : "/PayPlan.v2/";
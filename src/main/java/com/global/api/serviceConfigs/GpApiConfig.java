@@ -4,13 +4,17 @@ import com.global.api.ConfiguredServices;
 import com.global.api.entities.enums.*;
 import com.global.api.entities.exceptions.ConfigurationException;
 import com.global.api.entities.gpApi.entities.AccessTokenInfo;
+import com.global.api.gateways.CachingReportingService;
 import com.global.api.gateways.GpApiConnector;
+import com.global.api.gateways.IIdempotencyStore;
+import com.global.api.gateways.RequestHedger;
 import com.global.api.utils.StringUtils;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 
 import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
 
 @Getter
 @Setter
@@ -67,6 +71,23 @@ public class GpApiConfig extends GatewayConfig {
     // will become to:  /ucp/merchants/merchantId/transactions
     private String merchantId;
 
+    // When set, responses to requests carrying an idempotency key are replayed locally for idempotencyTimeToLive
+    // milliseconds instead of being sent again. Use InMemoryIdempotencyStore or FileIdempotencyStore
+    // (FileIdempotencyStore keeps the raw, unencrypted responses on disk, see its documentation)
+    @Accessors(chain = true)
+    private IIdempotencyStore idempotencyStore;
+
+    @Accessors(chain = true)
+    private long idempotencyTimeToLive = TimeUnit.HOURS.toMillis(1);
+
+    // When set, reporting lookups of the report types given a time to live are cached
+    @Accessors(chain = true)
+    private ReportCacheConfig reportCacheConfig;
+
+    // When set, read only requests that are slower than usual are hedged with a second request
+    @Accessors(chain = true)
+    private HedgingConfig hedgingConfig;
+
     public void configureContainer(ConfiguredServices services) {
         if (StringUtils.isNullOrEmpty(serviceUrl)) {
             serviceUrl =
@@ -79,10 +100,18 @@ public class GpApiConfig extends GatewayConfig {
 
         gpApiConnector.setServiceUrl(serviceUrl);
         gpApiConnector.setEnableLogging(this.isEnableLogging());
+        gpApiConnector.setResilienceConfig(resilienceConfig);
+        if (hedgingConfig != null) {
+            gpApiConnector.setRequestHedger(new RequestHedger(hedgingConfig));
+        }
 
         services.setGatewayConnector(gpApiConnector);
 
-        services.setReportingService(gpApiConnector);
+        if (reportCacheConfig != null) {
+            services.setReportingService(new CachingReportingService(gpApiConnector, reportCacheConfig));
+        } else {
+            services.setReportingService(gpApiConnector);
+        }
 
         services.setSecure3dProvider(Secure3dVersion.ONE, gpApiConnector);
         services.setSecure3dProvider(Secure3dVersion.TWO, gpApiConnector);
@@ -94,6 +123,10 @@ public class GpApiConfig extends GatewayConfig {
 
         if ( accessTokenInfo == null && (appId == null || appKey == null))
             throw new ConfigurationException("accessTokenInfo or appId and appKey cannot be null.");
+
+        if (hedgingConfig != null) {
+            hedgingConfig.validate();
+        }
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.global.api.serviceConfigs;
+
+import com.global.api.entities.exceptions.ConfigurationException;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * Request hedging for read only (GET) calls: when the first attempt has not answered after the
+ * configured latency percentile, a second attempt is sent and whichever answers first is used.
+ */
+@Accessors(chain = true)
+@Getter
+@Setter
+public class HedgingConfig {
+    // Percentile of recently observed latencies after which a hedge is sent
+    private int hedgeAfterPercentile = 95;
+    // Hedge delay used until enough latencies have been observed
+    private long initialHedgeDelayMillis = 500;
+    private long minHedgeDelayMillis = 20;
+    // Hedges allowed per request sent, e.g. 0.05 allows one hedge for every twenty requests
+    private double budgetRatio = 0.05;
+    // Hedges allowed per second regardless of traffic, and the most that can be saved up
+    private double minHedgesPerSecond = 1;
+    private int maxHedgeBurst = 10;
+
+    public void validate() throws ConfigurationException {
+        if (hedgeAfterPercentile < 1 || hedgeAfterPercentile > 99) {
+            throw new ConfigurationException("hedgeAfterPercentile must be between 1 and 99.");
+        }
+        if (initialHedgeDelayMillis < 0 || minHedgeDelayMillis < 0) {
+            throw new ConfigurationException("initialHedgeDelayMillis and minHedgeDelayMillis cannot be negative.");
+        }
+        if (budgetRatio < 0 || minHedgesPerSecond < 0 || maxHedgeBurst < 0) {
+            throw new ConfigurationException("budgetRatio, minHedgesPerSecond and maxHedgeBurst cannot be negative.");
+        }
+    }
+}
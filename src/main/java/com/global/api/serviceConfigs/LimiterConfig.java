@@ -0,0 +1,52 @@
+package com.global.api.serviceConfigs;
+
+import com.global.api.entities.exceptions.ConfigurationException;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * Opt-in client side limits for the requests sent through a configuration: a token bucket
+ * rate limit and an adaptive (AIMD) concurrency limit. Callers over either limit wait in a
+ * bounded queue and are rejected once the queue is full or their wait time runs out.
+ */
+@Accessors(chain = true)
+@Getter
+@Setter
+public class LimiterConfig {
+    // Requests started per second; 0 disables rate limiting
+    private double requestsPerSecond;
+    // Requests that may start back to back after an idle period; defaults to one second of requests
+    private double burst;
+
+    // Concurrency limit used until enough responses have been observed; 0 disables the concurrency limit
+    private int initialConcurrency = 20;
+    private int minConcurrency = 1;
+    private int maxConcurrency = 200;
+    // Multiplier applied to the limit when the gateway throttles, times out or slows down
+    private double backoffRatio = 0.9;
+    // A response slower than this multiple of the fastest recent response counts as congestion
+    private double latencyTolerance = 2.0;
+
+    // Callers allowed to wait for capacity; any further caller is rejected immediately
+    private int maxQueueSize = 100;
+    private long maxQueueWaitMillis = 2000;
+
+    public void validate() throws ConfigurationException {
+        if (requestsPerSecond < 0 || burst < 0) {
+            throw new ConfigurationException("requestsPerSecond and burst cannot be negative.");
+        }
+        if (initialConcurrency > 0 && (minConcurrency < 1 || maxConcurrency < minConcurrency)) {
+            throw new ConfigurationException("minConcurrency must be at least 1 and no greater than maxConcurrency.");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new ConfigurationException("backoffRatio must be between 0 and 1.");
+        }
+        if (latencyTolerance < 1) {
+            throw new ConfigurationException("latencyTolerance must be at least 1.");
+        }
+        if (maxQueueSize < 0 || maxQueueWaitMillis < 0) {
+            throw new ConfigurationException("maxQueueSize and maxQueueWaitMillis cannot be negative.");
+        }
+    }
+}
@@ -139,6 +139,7 @@ public class NetworkGatewayConfig extends Configuration {
         gateway.setTimeout(timeout);
         gateway.setEnableLogging(enableLogging);
         gateway.setSimulatedHostErrors(simulatedHostErrors);
+        gateway.setResilienceConfig(resilienceConfig);
 
         // other fields
         gateway.setCompanyId(companyId);
@@ -0,0 +1,37 @@
+package com.global.api.serviceConfigs;
+
+import com.global.api.entities.exceptions.ConfigurationException;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * Schedules the gateway requests of a configuration by priority (authorization, then management,
+ * then report) so back office work cannot hold up authorizations on the shared connections.
+ */
+@Accessors(chain = true)
+@Getter
+@Setter
+public class PriorityConfig {
+    // Requests sent at the same time across all priorities
+    private int maxConcurrency = 16;
+    // Part of maxConcurrency only authorizations may use
+    private int reservedForAuthorization = 4;
+    // Per priority caps; 0 means only maxConcurrency applies
+    private int maxManagementConcurrency = 8;
+    private int maxReportConcurrency = 4;
+    // How long a request may wait for its turn before it is rejected
+    private long maxQueueWaitMillis = 10000;
+
+    public void validate() throws ConfigurationException {
+        if (maxConcurrency < 1) {
+            throw new ConfigurationException("maxConcurrency must be at least 1.");
+        }
+        if (reservedForAuthorization < 0 || reservedForAuthorization >= maxConcurrency) {
+            throw new ConfigurationException("reservedForAuthorization must be at least 0 and less than maxConcurrency.");
+        }
+        if (maxManagementConcurrency < 0 || maxReportConcurrency < 0 || maxQueueWaitMillis < 0) {
+            throw new ConfigurationException("maxManagementConcurrency, maxReportConcurrency and maxQueueWaitMillis cannot be negative.");
+        }
+    }
+}
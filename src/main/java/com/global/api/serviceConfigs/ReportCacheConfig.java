@@ -0,0 +1,48 @@
+package com.global.api.serviceConfigs;
+
+import com.global.api.entities.enums.ReportType;
+import com.global.api.gateways.IReportCache;
+import com.global.api.gateways.LruReportCache;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.util.EnumMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in caching of reporting lookups. Only report types given a time to live are cached, so it
+ * should be limited to results that no longer change (settled deposits, closed disputes, ...).
+ */
+@Accessors(chain = true)
+@Getter
+@Setter
+public class ReportCacheConfig {
+    // Maximum number of entries kept by the default LRU backend
+    private int maxEntries = 10000;
+
+    // Storage backend; defaults to an in-process LruReportCache of maxEntries
+    private IReportCache cache;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private EnumMap<ReportType, Long> timeToLive = new EnumMap<>(ReportType.class);
+
+    public ReportCacheConfig setTimeToLive(ReportType reportType, long duration, TimeUnit unit) {
+        timeToLive.put(reportType, unit.toMillis(duration));
+        return this;
+    }
+
+    public long getTimeToLiveMillis(ReportType reportType) {
+        Long value = timeToLive.get(reportType);
+        return value != null ? value : 0;
+    }
+
+    public IReportCache getCache() {
+        if (cache == null) {
+            cache = new LruReportCache(maxEntries);
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,48 @@
+package com.global.api.serviceConfigs;
+
+import com.global.api.entities.exceptions.ConfigurationException;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * Transport level protection for the gateway connections of a configuration: an opt-in circuit breaker
+ * per endpoint, and retries of HTTP requests that never reached the gateway, drawn from a global retry
+ * budget. Fail over between the primary and secondary host of a network gateway is not affected.
+ */
+@Accessors(chain = true)
+@Getter
+@Setter
+public class ResilienceConfig {
+    // Off unless the configuration opts in
+    private boolean circuitBreakerEnabled = false;
+    // Percentage of failed calls in the window that opens the breaker
+    private int failureRateThreshold = 50;
+    // Percentage of calls slower than slowCallDurationMillis in the window that opens the breaker
+    private int slowCallRateThreshold = 80;
+    private long slowCallDurationMillis = 10000;
+    // Number of most recent calls the rates are calculated over
+    private int slidingWindowSize = 50;
+    // Calls that must be recorded before the rates are evaluated
+    private int minimumNumberOfCalls = 20;
+    // How long an open breaker fails fast before letting trial calls through
+    private long openStateDurationMillis = 30000;
+    private int permittedCallsInHalfOpenState = 3;
+
+    // Retries of a request that failed to connect; each retry needs a token from the global retry budget
+    private int maxConnectRetries = 2;
+    private long retryBackoffMillis = 100;
+    private long maxRetryBackoffMillis = 2000;
+
+    public void validate() throws ConfigurationException {
+        if (failureRateThreshold < 1 || failureRateThreshold > 100 || slowCallRateThreshold < 1 || slowCallRateThreshold > 100) {
+            throw new ConfigurationException("failureRateThreshold and slowCallRateThreshold must be between 1 and 100.");
+        }
+        if (slidingWindowSize < 1 || minimumNumberOfCalls < 1 || permittedCallsInHalfOpenState < 1) {
+            throw new ConfigurationException("slidingWindowSize, minimumNumberOfCalls and permittedCallsInHalfOpenState must be at least 1.");
+        }
+        if (maxConnectRetries < 0 || retryBackoffMillis < 0 || maxRetryBackoffMillis < retryBackoffMillis) {
+            throw new ConfigurationException("maxRetryBackoffMillis must be greater than or equal to retryBackoffMillis.");
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.global.api.services;
+
+import com.global.api.ServicesContainer;
+import com.global.api.builders.AuthorizationBuilder;
+import com.global.api.builders.ManagementBuilder;
+import com.global.api.builders.TransactionBuilder;
+import com.global.api.entities.BatchExecutionOptions;
+import com.global.api.entities.BatchItemResult;
+import com.global.api.entities.IBatchResultHandler;
+import com.global.api.entities.Transaction;
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.entities.exceptions.BuilderException;
+import com.global.api.entities.exceptions.GatewayComsException;
+import com.global.api.entities.exceptions.GatewayException;
+import com.global.api.entities.exceptions.GatewayTimeoutException;
+import com.global.api.entities.exceptions.RequestRejectedException;
+import com.global.api.gateways.GpApiConnector;
+import com.global.api.utils.RateLimiter;
+import com.global.api.utils.StringUtils;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Executes many transaction builders (captures, refunds, voids, ...) against a single configuration
+ * with bounded concurrency, an optional rate limit and retries for transient gateway failures.
+ *
+ * Results are delivered in submission order; a failing item is reported in its {@link BatchItemResult}
+ * and does not stop the remaining items. Works with any configured IPaymentGateway connector.
+ */
+public class BatchExecutor {
+    // answers meaning the gateway did not process the request, or may not have when it reached it at all
+    private static final List<String> TRANSIENT_STATUS_CODES = Arrays.asList("429", "502", "503", "504");
+
+    public static List<BatchItemResult> executeAll(List<? extends TransactionBuilder<Transaction>> builders) throws ApiException {
+        return executeAll(builders, "default");
+    }
+
+    public static List<BatchItemResult> executeAll(List<? extends TransactionBuilder<Transaction>> builders, String configName) throws ApiException {
+        return executeAll(builders, configName, new BatchExecutionOptions());
+    }
+
+    public static List<BatchItemResult> executeAll(List<? extends TransactionBuilder<Transaction>> builders, String configName, BatchExecutionOptions options) throws ApiException {
+        final List<BatchItemResult> results = new ArrayList<>();
+        executeAll(builders, configName, options, results::add);
+        return results;
+    }
+
+    /**
+     * Streams each result to the handler, on the calling thread, as soon as it and every result
+     * submitted before it are complete.
+     */
+    public static void executeAll(List<? extends TransactionBuilder<Transaction>> builders, String configName, BatchExecutionOptions options, IBatchResultHandler handler) throws ApiException {
+        validate(options);
+        if (builders == null || builders.isEmpty()) {
+            return;
+        }
+
+        final RateLimiter rateLimiter = options.getRequestsPerSecond() > 0 ? new RateLimiter(options.getRequestsPerSecond()) : null;
+        final boolean honorsIdempotencyKey = honorsIdempotencyKey(configName);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(options.getMaxConcurrency(), builders.size()), runnable -> {
+            Thread thread = new Thread(runnable, "batch-executor");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<Future<BatchItemResult>> futures = new ArrayList<>(builders.size());
+        try {
+            for (int i = 0; i < builders.size(); i++) {
+                final int index = i;
+                final TransactionBuilder<Transaction> builder = builders.get(i);
+                futures.add(executor.submit(() -> executeItem(index, builder, configName, options, rateLimiter, honorsIdempotencyKey)));
+            }
+
+            for (Future<BatchItemResult> future : futures) {
+                handler.handle(await(future));
+            }
+        } finally {
+            for (Future<BatchItemResult> future : futures) {
+                future.cancel(true);
+            }
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Default retry policy for a request without an idempotency key the gateway honors: only failures
+     * before the request was sent, when it could not reach the gateway or was refused by the local
+     * request limiter. Anything after the request was sent may already have been processed.
+     */
+    public static boolean isTransient(ApiException exception) {
+        return isTransient(exception, false);
+    }
+
+    /**
+     * Default retry policy. With an idempotency key the gateway honors, a retry cannot be processed twice,
+     * so communication errors and gateway answers meaning it was temporarily unable to handle the request
+     * are retried as well. Timeouts are never retried.
+     */
+    public static boolean isTransient(ApiException exception, boolean idempotent) {
+        if (exception instanceof GatewayTimeoutException) {
+            return false;
+        }
+        if (exception instanceof RequestRejectedException) {
+            return true;
+        }
+        if (exception instanceof GatewayComsException) {
+            return idempotent || ((GatewayComsException) exception).isRequestNotSent();
+        }
+        if (exception instanceof GatewayException) {
+            GatewayException gatewayException = (GatewayException) exception;
+            if (idempotent && TRANSIENT_STATUS_CODES.contains(gatewayException.getResponseCode())) {
+                return true;
+            }
+
+            Throwable cause = exception.getCause();
+            return cause instanceof ConnectException
+                    || cause instanceof UnknownHostException
+                    || cause instanceof NoRouteToHostException;
+        }
+        return false;
+    }
+
+    // only GP API deduplicates requests by their idempotency key
+    private static boolean honorsIdempotencyKey(String configName) {
+        try {
+            return ServicesContainer.getInstance().getGateway(configName) instanceof GpApiConnector;
+        } catch (ApiException e) {
+            return false;
+        }
+    }
+
+    private static String getIdempotencyKey(TransactionBuilder<Transaction> builder) {
+        if (builder instanceof ManagementBuilder) {
+            return ((ManagementBuilder) builder).getIdempotencyKey();
+        } else if (builder instanceof AuthorizationBuilder) {
+            return ((AuthorizationBuilder) builder).getIdempotencyKey();
+        }
+        return null;
+    }
+
+    private static void validate(BatchExecutionOptions options) throws BuilderException {
+        if (options == null) {
+            throw new BuilderException("options cannot be null.");
+        }
+        if (options.getMaxConcurrency() < 1) {
+            throw new BuilderException("maxConcurrency must be at least 1.");
+        }
+        if (options.getMaxRetries() < 0) {
+            throw new BuilderException("maxRetries cannot be negative.");
+        }
+        if (options.getInitialBackoffMillis() < 0 || options.getMaxBackoffMillis() < options.getInitialBackoffMillis()) {
+            throw new BuilderException("maxBackoff must be greater than or equal to initialBackoff.");
+        }
+    }
+
+    private static BatchItemResult executeItem(int index, TransactionBuilder<Transaction> builder, String configName, BatchExecutionOptions options, RateLimiter rateLimiter, boolean honorsIdempotencyKey) {
+        if (options.getMaxRetries() > 0 && options.isGenerateIdempotencyKeys()) {
+            assignIdempotencyKey(builder);
+        }
+        Predicate<ApiException> retryOn = options.getRetryOn();
+        if (retryOn == null) {
+            final boolean idempotent = honorsIdempotencyKey && !StringUtils.isNullOrEmpty(getIdempotencyKey(builder));
+            retryOn = exception -> isTransient(exception, idempotent);
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            ApiException error;
+            try {
+                if (rateLimiter != null) {
+                    rateLimiter.acquire();
+                }
+                return new BatchItemResult(index, builder, builder.execute(configName), null, attempt);
+            } catch (ApiException e) {
+                error = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new BatchItemResult(index, builder, null, new ApiException("Interrupted while executing the batch.", e), attempt);
+            } catch (RuntimeException e) {
+                return new BatchItemResult(index, builder, null, new ApiException("Error occurred while executing the transaction.", e), attempt);
+            }
+
+            if (attempt > options.getMaxRetries() || !retryOn.test(error)) {
+                return new BatchItemResult(index, builder, null, error, attempt);
+            }
+
+            try {
+                TimeUnit.MILLISECONDS.sleep(backoff(attempt, options));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new BatchItemResult(index, builder, null, error, attempt);
+            }
+        }
+    }
+
+    private static void assignIdempotencyKey(TransactionBuilder<Transaction> builder) {
+        if (builder instanceof ManagementBuilder) {
+            ManagementBuilder managementBuilder = (ManagementBuilder) builder;
+            if (StringUtils.isNullOrEmpty(managementBuilder.getIdempotencyKey())) {
+                managementBuilder.withIdempotencyKey(UUID.randomUUID().toString());
+            }
+        } else if (builder instanceof AuthorizationBuilder) {
+            AuthorizationBuilder authorizationBuilder = (AuthorizationBuilder) builder;
+            if (StringUtils.isNullOrEmpty(authorizationBuilder.getIdempotencyKey())) {
+                authorizationBuilder.withIdempotencyKey(UUID.randomUUID().toString());
+            }
+        }
+    }
+
+    // Exponential backoff with jitter in the upper half of the window, so retries of a failed burst spread out
+    static long backoff(int attempt, BatchExecutionOptions options) {
+        long window = options.getInitialBackoffMillis() << Math.min(attempt - 1, 30);
+        if (window <= 0 || window > options.getMaxBackoffMillis()) {
+            window = options.getMaxBackoffMillis();
+        }
+        long half = window / 2;
+        return half + ThreadLocalRandom.current().nextLong(window - half + 1);
+    }
+
+    private static BatchItemResult await(Future<BatchItemResult> future) throws ApiException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Interrupted while waiting for the batch to complete.", e);
+        } catch (ExecutionException e) {
+            throw new ApiException("Error occurred while executing the batch.", e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.global.api.terminals;
+
+import com.global.api.entities.exceptions.ApiException;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams a file as upper case hex for device file transfers. The file is read through a small reused
+ * buffer and encoded straight into the caller's message buffer, so only one chunk is ever in memory.
+ * A chunk may end in the middle of a byte; the next chunk starts with its second hex digit.
+ */
+public class HexFileReader implements Closeable {
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private final String fileName;
+    private final long fileSize;
+    private final FileChannel channel;
+    private final ByteBuffer bytes = ByteBuffer.allocate(8192);
+    // hex digits not yet read
+    private long remaining;
+    // the second digit of a byte split across chunks
+    private byte carry;
+    private boolean hasCarry;
+
+    public HexFileReader(String filePath) throws ApiException {
+        File file = new File(filePath);
+        fileName = file.getName();
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            fileSize = channel.size();
+        }
+        catch (NoSuchFileException e) {
+            throw new ApiException(String.format("The file %s does not exist.", filePath), e);
+        }
+        catch (IOException e) {
+            throw new ApiException(String.format("Failed to open %s.", filePath), e);
+        }
+        remaining = fileSize * 2;
+        bytes.flip();
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public boolean hasRemaining() {
+        return remaining > 0;
+    }
+
+    // hex digits left to read, twice the bytes left in the file
+    public long getRemaining() {
+        return remaining;
+    }
+
+    // writes up to maxLength hex digits into buffer at offset and returns how many were written
+    public int read(byte[] buffer, int offset, int maxLength) throws ApiException {
+        int end = offset + (int) Math.min(maxLength, remaining);
+        int position = offset;
+        if (hasCarry && position < end) {
+            buffer[position++] = carry;
+            hasCarry = false;
+        }
+        while (position < end) {
+            if (!bytes.hasRemaining()) {
+                fill();
+            }
+            int b = bytes.get() & 0xff;
+            buffer[position++] = HEX[b >>> 4];
+            if (position < end) {
+                buffer[position++] = HEX[b & 0x0f];
+            }
+            else {
+                carry = HEX[b & 0x0f];
+                hasCarry = true;
+            }
+        }
+        remaining -= position - offset;
+        return position - offset;
+    }
+
+    public void close() {
+        try {
+            channel.close();
+        }
+        catch (IOException e) {
+            // Eating the close exception
+        }
+    }
+
+    private void fill() throws ApiException {
+        bytes.clear();
+        try {
+            while (bytes.position() == 0) {
+                if (channel.read(bytes) == -1) {
+                    throw new ApiException(String.format("%s was shortened while it was being read.", fileName));
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new ApiException(String.format("Failed to read %s.", fileName), e);
+        }
+        bytes.flip();
+    }
+}
@@ -0,0 +1,15 @@
+package com.global.api.terminals;
+
+import lombok.Getter;
+
+// a line of text for the device's line item display
+@Getter
+public class LineItem {
+    private final String leftText;
+    private final String rightText;
+
+    public LineItem(String leftText, String rightText) {
+        this.leftText = leftText;
+        this.rightText = rightText;
+    }
+}
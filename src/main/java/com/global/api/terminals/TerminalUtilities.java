@@ -83,28 +83,42 @@ public class TerminalUtilities {
     }
 
     public static DeviceMessage buildRequest(String message, MessageFormat format) {
-        MessageWriter buffer = new MessageWriter();
+        byte[] body = message.getBytes();
+        byte[] buffer = new byte[getFramingLength(format) + body.length];
+        System.arraycopy(body, 0, buffer, getFrameStartLength(format), body.length);
+        frameRequest(buffer, body.length, format);
+        return new DeviceMessage(buffer);
+    }
 
-        // beginning sentinel
-        if(format.equals(MessageFormat.Visa2nd))
-            buffer.add(ControlCodes.STX);
-        else {
-            buffer.add((byte)(message.length() >>> 8));
-            buffer.add((byte)message.length());
-        }
+    // Bytes the framing puts before the message: STX for Visa2nd, otherwise the two byte length
+    public static int getFrameStartLength(MessageFormat format) {
+        return format.equals(MessageFormat.Visa2nd) ? 1 : 2;
+    }
 
-        // put message
-        buffer.addRange(message.getBytes());
+    // Bytes the framing adds to the message; ETX and the LRC also follow a Visa2nd message
+    public static int getFramingLength(MessageFormat format) {
+        return format.equals(MessageFormat.Visa2nd) ? 3 : 2;
+    }
 
-        // ending sentinel
+    /**
+     * Frames a message that has already been written into the buffer at getFrameStartLength(format),
+     * filling in the sentinels around it, so a large message does not have to be copied again.
+     */
+    public static void frameRequest(byte[] buffer, int messageLength, MessageFormat format) {
         if(format.equals(MessageFormat.Visa2nd)) {
-            buffer.add(ControlCodes.ETX);
+            buffer[0] = ControlCodes.STX.getByte();
+            buffer[messageLength + 1] = ControlCodes.ETX.getByte();
 
-            byte lrc = calculateLRC(buffer.toArray());
-            buffer.add(lrc);
+            byte lrc = (byte)0x00;
+            for (int i = 1; i <= messageLength + 1; i++) {
+                lrc = (byte) (lrc ^ buffer[i]);
+            }
+            buffer[messageLength + 2] = lrc;
+        }
+        else {
+            buffer[0] = (byte)(messageLength >>> 8);
+            buffer[1] = (byte)messageLength;
         }
-
-        return new DeviceMessage(buffer.toArray());
     }
 
     public static DeviceMessage buildRequest(PaxMsgId messageId, Object... elements){
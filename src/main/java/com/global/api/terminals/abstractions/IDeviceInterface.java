@@ -7,6 +7,7 @@ import com.global.api.entities.enums.SafUpload;
 import com.global.api.entities.enums.PaymentMethodType;
 import com.global.api.entities.enums.SendFileType;
 import com.global.api.entities.exceptions.ApiException;
+import com.global.api.terminals.LineItem;
 import com.global.api.terminals.builders.TerminalAuthBuilder;
 import com.global.api.terminals.builders.TerminalManageBuilder;
 import com.global.api.terminals.messaging.IMessageSentInterface;
@@ -15,6 +16,7 @@ import com.global.api.terminals.pax.responses.SAFSummaryReport;
 import com.global.api.terminals.pax.responses.SAFUploadResponse;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 public interface IDeviceInterface extends IDisposable {
     void setOnMessageSent(IMessageSentInterface onMessageSent);
@@ -22,6 +24,7 @@ public interface IDeviceInterface extends IDisposable {
     // admin calls
     IDeviceResponse addLineItem(String leftText, String rightText) throws ApiException; // UPA
     IDeviceResponse addLineItem(String leftText, String rightText, String runningLeftText, String runningRightText) throws ApiException;
+    IDeviceResponse addLineItems(List<LineItem> lineItems) throws ApiException; // UPA
     void cancel() throws ApiException;
     void cancel(Integer cancelParams) throws ApiException; // UPA
     IDeviceResponse closeLane() throws ApiException;
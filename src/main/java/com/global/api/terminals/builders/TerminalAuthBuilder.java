@@ -221,8 +221,10 @@ public class TerminalAuthBuilder extends TerminalBuilder<TerminalAuthBuilder> {
     public TerminalResponse execute(String configName) throws ApiException {
         super.execute(configName);
 
-        DeviceController device = ServicesContainer.getInstance().getDeviceController(configName);
-        return device.processTransaction(this);
+        return ServicesContainer.getInstance().execute(configName, () -> {
+            DeviceController device = ServicesContainer.getInstance().getDeviceController(configName);
+            return device.processTransaction(this);
+        });
     }
 
     public void setupValidations() {
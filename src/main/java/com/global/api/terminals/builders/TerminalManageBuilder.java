@@ -76,8 +76,10 @@ public class TerminalManageBuilder extends TerminalBuilder<TerminalManageBuilder
     public TerminalResponse execute(String configName) throws ApiException {
         super.execute(configName);
 
-        DeviceController device = ServicesContainer.getInstance().getDeviceController(configName);
-        return device.manageTransaction(this);
+        return ServicesContainer.getInstance().execute(configName, () -> {
+            DeviceController device = ServicesContainer.getInstance().getDeviceController(configName);
+            return device.manageTransaction(this);
+        });
     }
 
     public void setupValidations() {
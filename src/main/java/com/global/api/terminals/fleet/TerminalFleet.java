@@ -0,0 +1,263 @@
+package com.global.api.terminals.fleet;
+
+import com.global.api.ServicesContainer;
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.entities.exceptions.ConfigurationException;
+import com.global.api.serviceConfigs.FleetConfig;
+import com.global.api.services.DeviceService;
+import com.global.api.terminals.ConnectionConfig;
+import com.global.api.terminals.abstractions.IDeviceInterface;
+import com.global.api.terminals.abstractions.IDisposable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives many payment terminals (lanes) from a shared thread pool. Each lane has its own command
+ * queue, so commands to one device run in order while lanes run in parallel, and idle lanes are
+ * pinged so a device that went away is noticed before a customer is waiting on it.
+ *
+ * By default the pool has one thread per lane, growing and shrinking as lanes are added and removed,
+ * because a command blocks its thread until the device answers. {@link FleetConfig#setThreads(int)}
+ * caps the pool instead; lanes beyond the cap then wait for a free thread.
+ *
+ * <pre>
+ * TerminalFleet fleet = new TerminalFleet(new FleetConfig());
+ * fleet.addLane("lane1", connectionConfig);
+ * TerminalResponse response = fleet.execute("lane1", device -&gt; device.creditSale(amount).execute("lane1"));
+ * </pre>
+ *
+ * Builders of a lane added from a ConnectionConfig must be executed with the lane's name, which is the
+ * configuration name its device is registered under.
+ */
+public class TerminalFleet implements IDisposable {
+    public interface ILaneCommand<T> {
+        T execute(IDeviceInterface device) throws ApiException;
+    }
+
+    private final FleetConfig config;
+    private final ConcurrentHashMap<String, TerminalLane> lanes = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService heartbeatTimer;
+
+    public TerminalFleet(FleetConfig config) throws ConfigurationException {
+        config.validate();
+        this.config = config;
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        int threads = config.getThreads() > 0 ? config.getThreads() : 1;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), runnable -> {
+            Thread thread = new Thread(runnable, "terminal-fleet-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // threads of removed lanes (or of an idle capped pool) are not kept around
+        executor.allowCoreThreadTimeOut(true);
+
+        if (config.getHeartbeatIntervalMillis() > 0) {
+            heartbeatTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "terminal-fleet-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(10, config.getHeartbeatIntervalMillis() / 2);
+            heartbeatTimer.scheduleWithFixedDelay(this::sendHeartbeats, period, period, TimeUnit.MILLISECONDS);
+        }
+        else heartbeatTimer = null;
+    }
+
+    /**
+     * Configures the device under the lane's name in the ServicesContainer and adds it to the fleet.
+     */
+    public TerminalLane addLane(String name, ConnectionConfig connectionConfig) throws ApiException {
+        if (lanes.containsKey(name)) {
+            throw new ConfigurationException(String.format("Lane %s is already in the fleet.", name));
+        }
+        IDeviceInterface device = DeviceService.create(connectionConfig, name);
+        return addLane(name, device, true);
+    }
+
+    public TerminalLane addLane(String name, IDeviceInterface device) throws ConfigurationException {
+        return addLane(name, device, false);
+    }
+
+    private TerminalLane addLane(String name, IDeviceInterface device, boolean configured) throws ConfigurationException {
+        TerminalLane lane = new TerminalLane(name, device, executor, config.getMaxQueueDepth(), configured);
+        if (lanes.putIfAbsent(name, lane) != null) {
+            throw new ConfigurationException(String.format("Lane %s is already in the fleet.", name));
+        }
+        resizePool();
+        return lane;
+    }
+
+    /**
+     * Removes the lane once the commands already queued for it have run, then disposes its device.
+     */
+    public void removeLane(String name) {
+        final TerminalLane lane = lanes.remove(name);
+        if (lane == null) {
+            return;
+        }
+        resizePool();
+        lane.close(() -> {
+            if (lane.configured) {
+                try {
+                    ServicesContainer.configureService(null, name);
+                }
+                catch (ConfigurationException e) {
+                    // removing a configuration does not validate anything
+                }
+            }
+            else lane.getDevice().dispose();
+        });
+    }
+
+    public TerminalLane getLane(String name) {
+        return lanes.get(name);
+    }
+
+    public Collection<TerminalLane> getLanes() {
+        return Collections.unmodifiableCollection(lanes.values());
+    }
+
+    /**
+     * Queues the command on the lane.
+     *
+     * @throws com.global.api.entities.exceptions.RequestRejectedException when the lane already holds
+     *      maxQueueDepth commands or has been removed
+     */
+    public <T> CompletableFuture<T> submit(String laneName, ILaneCommand<T> command) throws ApiException {
+        return lane(laneName).submit(command);
+    }
+
+    // Queues the command on the lane and waits for it
+    public <T> T execute(String laneName, ILaneCommand<T> command) throws ApiException {
+        CompletableFuture<T> result = submit(laneName, command);
+        try {
+            return result.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Interrupted while waiting for the lane.", e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof ApiException) {
+                throw (ApiException) e.getCause();
+            }
+            throw new ApiException(e.getCause().getMessage(), e);
+        }
+    }
+
+    public int getLaneCount() {
+        return lanes.size();
+    }
+
+    public int getHealthyLaneCount() {
+        int healthy = 0;
+        for (TerminalLane lane : lanes.values()) {
+            if (lane.isHealthy()) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    public Collection<String> getUnhealthyLanes() {
+        Collection<String> unhealthy = new ArrayList<>();
+        for (TerminalLane lane : lanes.values()) {
+            if (!lane.isHealthy()) {
+                unhealthy.add(lane.getName());
+            }
+        }
+        return unhealthy;
+    }
+
+    // Commands waiting or executing across all lanes
+    public int getQueuedCount() {
+        int queued = 0;
+        for (TerminalLane lane : lanes.values()) {
+            queued += lane.getQueueDepth();
+        }
+        return queued;
+    }
+
+    public long getCommandCount() {
+        long count = 0;
+        for (TerminalLane lane : lanes.values()) {
+            count += lane.getCommandCount();
+        }
+        return count;
+    }
+
+    public long getFailureCount() {
+        long count = 0;
+        for (TerminalLane lane : lanes.values()) {
+            count += lane.getFailureCount();
+        }
+        return count;
+    }
+
+    public double getAverageLatencyMillis() {
+        long count = 0;
+        long latency = 0;
+        for (TerminalLane lane : lanes.values()) {
+            count += lane.getCommandCount();
+            latency += lane.getTotalLatencyNanos();
+        }
+        return count == 0 ? 0 : latency / 1e6 / count;
+    }
+
+    public void dispose() {
+        if (heartbeatTimer != null) {
+            heartbeatTimer.shutdownNow();
+        }
+        for (String name : new ArrayList<>(lanes.keySet())) {
+            removeLane(name);
+        }
+        // lets the queued commands and disposals finish
+        executor.shutdown();
+    }
+
+    private TerminalLane lane(String laneName) throws ConfigurationException {
+        TerminalLane lane = lanes.get(laneName);
+        if (lane == null) {
+            throw new ConfigurationException(String.format("Lane %s is not in the fleet.", laneName));
+        }
+        return lane;
+    }
+
+    // gives every lane its own thread unless the configuration caps the pool
+    private synchronized void resizePool() {
+        if (config.getThreads() > 0) {
+            return;
+        }
+        int threads = Math.max(1, lanes.size());
+        if (threads > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(threads);
+            executor.setCorePoolSize(threads);
+        }
+        else {
+            executor.setCorePoolSize(threads);
+            executor.setMaximumPoolSize(threads);
+        }
+    }
+
+    private void sendHeartbeats() {
+        long interval = TimeUnit.MILLISECONDS.toNanos(config.getHeartbeatIntervalMillis());
+        for (TerminalLane lane : lanes.values()) {
+            if (lane.getIdleNanos() >= interval) {
+                lane.heartbeat();
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.global.api.terminals.fleet;
+
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.entities.exceptions.MessageException;
+import com.global.api.entities.exceptions.RequestRejectedException;
+import com.global.api.entities.exceptions.UnsupportedTransactionException;
+import com.global.api.terminals.abstractions.IDeviceInterface;
+import lombok.Getter;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One device of a {@link TerminalFleet}. Commands submitted to a lane run one at a time in submission
+ * order on the fleet's shared threads, so a device never sees two commands at once while other lanes
+ * keep running.
+ */
+public class TerminalLane {
+    @Getter private final String name;
+    @Getter private final IDeviceInterface device;
+    private final Executor executor;
+    private final int maxQueueDepth;
+    // the device was configured in the ServicesContainer under the lane's name
+    final boolean configured;
+
+    private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+    // a turn is scheduled on the executor
+    private boolean running;
+    private boolean executing;
+    private boolean closed;
+
+    private volatile long lastActivityNanos = System.nanoTime();
+    @Getter private volatile boolean healthy = true;
+    // wall clock time of the last heartbeat that succeeded; 0 until one does
+    @Getter private volatile long lastHeartbeatMillis;
+    // the device has no ping (PAX, HPA), so its health only follows its commands
+    private volatile boolean pingUnsupported;
+    private final AtomicLong commandCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong heartbeatFailureCount = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    TerminalLane(String name, IDeviceInterface device, Executor executor, int maxQueueDepth, boolean configured) {
+        this.name = name;
+        this.device = device;
+        this.executor = executor;
+        this.maxQueueDepth = maxQueueDepth;
+        this.configured = configured;
+    }
+
+    // commands waiting or executing
+    public synchronized int getQueueDepth() {
+        return queue.size() + (executing ? 1 : 0);
+    }
+
+    public long getCommandCount() {
+        return commandCount.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    public long getHeartbeatFailureCount() {
+        return heartbeatFailureCount.get();
+    }
+
+    long getTotalLatencyNanos() {
+        return totalLatencyNanos.get();
+    }
+
+    public double getAverageLatencyMillis() {
+        long count = commandCount.get();
+        return count == 0 ? 0 : totalLatencyNanos.get() / 1e6 / count;
+    }
+
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos.get() / 1e6;
+    }
+
+    <T> CompletableFuture<T> submit(TerminalFleet.ILaneCommand<T> command) throws RequestRejectedException {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        enqueue(() -> run(command, result, false), false);
+        return result;
+    }
+
+    // pings the device when nothing else is queued; commands always go first
+    void heartbeat() {
+        if (pingUnsupported) {
+            return;
+        }
+        try {
+            enqueue(() -> run(IDeviceInterface::ping, new CompletableFuture<>(), true), true);
+        }
+        catch (RequestRejectedException e) {
+            // the lane is busy or closed, which needs no ping
+        }
+    }
+
+    // runs after the commands already queued; no new ones are accepted
+    void close(Runnable onClosed) {
+        synchronized (this) {
+            closed = true;
+            if (running || !queue.isEmpty()) {
+                queue.add(onClosed);
+                return;
+            }
+        }
+        onClosed.run();
+    }
+
+    private void enqueue(Runnable task, boolean onlyIfIdle) throws RequestRejectedException {
+        synchronized (this) {
+            if (closed) {
+                throw new RequestRejectedException(String.format("Lane %s has been removed.", name));
+            }
+            if (onlyIfIdle && getQueueDepth() > 0) {
+                throw new RequestRejectedException(String.format("Lane %s is busy.", name));
+            }
+            if (getQueueDepth() >= maxQueueDepth) {
+                throw new RequestRejectedException(String.format("Lane %s has %d commands queued.", name, maxQueueDepth));
+            }
+            queue.add(task);
+            if (running) {
+                return;
+            }
+            running = true;
+        }
+        executor.execute(this::runNext);
+    }
+
+    // one command per turn, so a lane with a long queue cannot hold a shared thread from the others
+    private void runNext() {
+        while (true) {
+            Runnable task;
+            synchronized (this) {
+                task = queue.poll();
+                executing = task != null;
+            }
+            try {
+                if (task != null) {
+                    task.run();
+                }
+            }
+            finally {
+                synchronized (this) {
+                    executing = false;
+                    running = !queue.isEmpty();
+                }
+            }
+            if (!running) {
+                return;
+            }
+            try {
+                executor.execute(this::runNext);
+                return;
+            }
+            catch (RejectedExecutionException e) {
+                // the fleet is shutting down; finish the queue on this thread
+            }
+        }
+    }
+
+    private <T> void run(TerminalFleet.ILaneCommand<T> command, CompletableFuture<T> result, boolean heartbeat) {
+        long start = System.nanoTime();
+        T response = null;
+        Exception error = null;
+        try {
+            response = command.execute(device);
+        }
+        catch (ApiException | RuntimeException e) {
+            error = e;
+        }
+
+        // recorded, and the command off the queue, before the caller sees the outcome
+        long end = System.nanoTime();
+        lastActivityNanos = end;
+        if (heartbeat && error instanceof UnsupportedTransactionException) {
+            // no heartbeat is available, which says nothing about the device
+            pingUnsupported = true;
+        }
+        else if (error == null) {
+            healthy = true;
+            if (heartbeat) {
+                lastHeartbeatMillis = System.currentTimeMillis();
+            }
+        }
+        // a declined transaction is a response; failing to reach the device is not
+        else if (heartbeat || error instanceof MessageException) {
+            healthy = false;
+        }
+        if (heartbeat) {
+            if (error != null && !pingUnsupported) {
+                heartbeatFailureCount.incrementAndGet();
+            }
+        }
+        else {
+            long latency = end - start;
+            commandCount.incrementAndGet();
+            totalLatencyNanos.addAndGet(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            if (error != null) {
+                failureCount.incrementAndGet();
+            }
+        }
+
+        synchronized (this) {
+            executing = false;
+        }
+        if (error == null) {
+            result.complete(response);
+        }
+        else result.completeExceptionally(error);
+    }
+
+    long getIdleNanos() {
+        return System.nanoTime() - lastActivityNanos;
+    }
+}
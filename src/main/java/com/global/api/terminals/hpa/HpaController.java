@@ -70,9 +70,13 @@ public class HpaController extends DeviceController implements IDisposable {
         IDeviceMessage deviceMessage = TerminalUtilities.buildRequest(message, getFormat());
         deviceMessage.setKeepAlive(keepAlive);
         deviceMessage.setAwaitResponse(awaitResponse);
+        return sendMessage(clazz, deviceMessage, messageIds);
+    }
 
+    // sends a message that is already framed; null when the message awaits no response
+    <T extends SipBaseResponse> T sendMessage(Class<T> clazz, IDeviceMessage deviceMessage, String... messageIds) throws ApiException {
         byte[] response = _interface.send(deviceMessage);
-        if(awaitResponse) {
+        if(deviceMessage.isAwaitResponse()) {
             try {
                 Constructor<T> instance = clazz.getConstructor(byte[].class, String[].class);
                 return instance.newInstance(response, messageIds);
@@ -85,12 +89,15 @@ public class HpaController extends DeviceController implements IDisposable {
     }
 
     <T extends SipBaseResponse> T sendAdminMessage(Class<T> clazz, HpaAdminBuilder builder) throws ApiException {
-        int requestId = 1004;
+        builder.set("RequestId", nextRequestId());
+        return sendMessage(clazz, builder.buildMessage(), builder.isKeepAlive(), builder.isAwaitResponse(), builder.getMessageIds());
+    }
+
+    int nextRequestId() {
         if(requestIdProvider != null) {
-            requestId = requestIdProvider.getRequestId();
+            return requestIdProvider.getRequestId();
         }
-        builder.set("RequestId", requestId);
-        return sendMessage(clazz, builder.buildMessage(), builder.isKeepAlive(), builder.isAwaitResponse(), builder.getMessageIds());
+        return 1004;
     }
 
     public TerminalResponse processTransaction(TerminalAuthBuilder builder) throws ApiException {
@@ -167,8 +174,14 @@ public class HpaController extends DeviceController implements IDisposable {
         }
     }
 
+    // the device closes the lane, then disconnects through the controller
     public void dispose() {
-        _device.dispose();
+        if(_device != null)
+            _device.dispose();
+        else disconnect();
+    }
+
+    void disconnect() {
         _interface.disconnect();
     }
 }
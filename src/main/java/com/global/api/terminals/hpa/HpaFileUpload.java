@@ -1,33 +1,44 @@
 package com.global.api.terminals.hpa;
 
+import java.io.Closeable;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.util.LinkedList;
+import java.nio.charset.StandardCharsets;
 
-import com.global.api.utils.IOUtils;
-import com.global.api.utils.StringUtils;
-import org.apache.commons.codec.binary.Hex;
+import com.global.api.entities.enums.HpaMsgId;
+import com.global.api.entities.enums.MessageFormat;
 import com.global.api.entities.enums.SendFileType;
 import com.global.api.entities.exceptions.ApiException;
+import com.global.api.terminals.DeviceMessage;
+import com.global.api.terminals.HexFileReader;
+import com.global.api.terminals.TerminalUtilities;
+import com.global.api.terminals.abstractions.IDeviceMessage;
+import com.global.api.terminals.hpa.builders.HpaAdminBuilder;
 
-class HpaFileUpload {
-    private String hexData;
-    private String fileName;
-    private int fileSize;
+/**
+ * Frames the file data messages of a SendFile upload. Each part is hex encoded from the file as it is
+ * framed, into a send buffer that is reused while the parts are the same length. The message starts
+ * like any other admin message and is framed in the controller's format.
+ */
+class HpaFileUpload implements Closeable {
+    private static final byte[] PART_START = (HpaAdminBuilder.buildHeader(HpaMsgId.SEND_FILE.getValue()) + "<FileData>")
+            .getBytes(StandardCharsets.US_ASCII);
+
+    private final MessageFormat format;
+    private final HexFileReader reader;
+    private byte[] sendBuffer = new byte[0];
 
     String getFileName() {
-        return fileName;
+        return reader.getFileName();
     }
     int getFileSize() {
-        return fileSize;
+        return (int) reader.getFileSize();
+    }
+    boolean hasNextPart() {
+        return reader.hasRemaining();
     }
 
-    HpaFileUpload(SendFileType imageType, String filePath) throws ApiException {
-        //File name
-        File file = new File(filePath);
-        fileName = file.getName();
-
+    HpaFileUpload(SendFileType imageType, String filePath, MessageFormat format) throws ApiException {
+        String fileName = new File(filePath).getName();
         switch(imageType) {
             case Banner: {
                 if (!fileName.equalsIgnoreCase("banner.jpg")) {
@@ -43,32 +54,38 @@ class HpaFileUpload {
                 throw new ApiException("Unknown Send file type");
             }
         }
-        
-        //File size
-        byte[] buffer;
-        try {
-            FileInputStream input = new FileInputStream(file);
-            buffer = new byte[input.available()];
-            int bytesRead = input.read(buffer, 0, buffer.length);
-        } catch (IOException e) {
+
+        this.format = format;
+        reader = new HexFileReader(filePath);
+        if (reader.getFileSize() == 0) {
+            reader.close();
             throw new ApiException("Buffer should not be empty.");
         }
-        hexData = Hex.encodeHexString(buffer).toUpperCase();
-        fileSize = buffer.length;
     }
-    
-    LinkedList<String> getFileParts(int maxDataLength) {
-        if (StringUtils.isNullOrEmpty(hexData)) {
-            return null;
-        }
 
-        LinkedList<String> fileParts = new LinkedList<String>();
-        for (int i = 0; i < hexData.length(); i += maxDataLength) {
-            int remainingBytes = hexData.length() - i;
-            int endIndex = i + Math.min(maxDataLength, remainingBytes);
+    // the next maxDataLength hex digits of the file; only the last part is answered by the device
+    IDeviceMessage nextPart(int maxDataLength, int requestId) throws ApiException {
+        int dataLength = (int) Math.min(maxDataLength, reader.getRemaining());
+        boolean last = dataLength == reader.getRemaining();
+        byte[] partEnd = String.format("</FileData><MultipleMessage>%s</MultipleMessage><RequestId>%s</RequestId></SIP>",
+                last ? "0" : "1", requestId).getBytes(StandardCharsets.US_ASCII);
 
-            fileParts.add(hexData.substring(i, endIndex));
+        int messageLength = PART_START.length + dataLength + partEnd.length;
+        int start = TerminalUtilities.getFrameStartLength(format);
+        if (sendBuffer.length != messageLength + TerminalUtilities.getFramingLength(format)) {
+            sendBuffer = new byte[messageLength + TerminalUtilities.getFramingLength(format)];
         }
-        return fileParts;
+        System.arraycopy(PART_START, 0, sendBuffer, start, PART_START.length);
+        reader.read(sendBuffer, start + PART_START.length, dataLength);
+        System.arraycopy(partEnd, 0, sendBuffer, start + PART_START.length + dataLength, partEnd.length);
+        TerminalUtilities.frameRequest(sendBuffer, messageLength, format);
+
+        DeviceMessage message = new DeviceMessage(sendBuffer);
+        message.setAwaitResponse(last);
+        return message;
+    }
+
+    public void close() {
+        reader.close();
     }
 }
@@ -11,6 +11,7 @@ import com.global.api.entities.enums.SendFileType;
 import com.global.api.entities.enums.TransactionType;
 import com.global.api.entities.exceptions.ApiException;
 import com.global.api.entities.exceptions.UnsupportedTransactionException;
+import com.global.api.terminals.LineItem;
 import com.global.api.terminals.abstractions.*;
 import com.global.api.terminals.builders.TerminalAuthBuilder;
 import com.global.api.terminals.builders.TerminalManageBuilder;
@@ -29,7 +30,7 @@ import com.global.api.terminals.pax.responses.SAFUploadResponse;
 import com.global.api.utils.StringUtils;
 
 import java.math.BigDecimal;
-import java.util.LinkedList;
+import java.util.List;
 
 public class HpaInterface implements IDeviceInterface {
     private HpaController _controller;
@@ -133,39 +134,33 @@ public class HpaInterface implements IDeviceInterface {
             throw new ApiException("Filename is required for SendFile");
         }
 
-        //Load the File
-        HpaFileUpload fileUpload = new HpaFileUpload(imageType, filePath);
-
-        //Build the initial message
-        HpaAdminBuilder builder = new HpaAdminBuilder(HpaMsgId.SEND_FILE.getValue()) {{ setKeepAlive(true); }}
-                .set("FileName", fileUpload.getFileName())
-                .set("FileSize", fileUpload.getFileSize())
-                .set("MultipleMessage", "1");
-
-        SipSendFileResponse response = _controller.sendAdminMessage(SipSendFileResponse.class, builder);
-        if(response.getDeviceResponseCode().equals("00")) {
-            LinkedList<String> fileParts = fileUpload.getFileParts(response.getMaxDataSize() / 5);
-            String lastElement = fileParts.getLast();
-
-            for(String filePart: fileParts) {
-                final String multipleMessage = filePart.equals(lastElement) ? "0" : "1";
-
-                SipSendFileResponse dataResponse = _controller.sendAdminMessage(SipSendFileResponse.class,
-                        new HpaAdminBuilder(HpaMsgId.SEND_FILE.getValue()) {{
-                            setKeepAlive(multipleMessage.equals("1"));
-                            setAwaitResponse(multipleMessage.equals("0"));
-                        }}
-                        .set("FileData", filePart)
-                        .set("MultipleMessage", multipleMessage)
-                    );
+        //Open the File; it is read a part at a time as the parts are sent
+        try (HpaFileUpload fileUpload = new HpaFileUpload(imageType, filePath, _controller.getFormat())) {
+            //Build the initial message
+            HpaAdminBuilder builder = new HpaAdminBuilder(HpaMsgId.SEND_FILE.getValue())
+                    .set("FileName", fileUpload.getFileName())
+                    .set("FileSize", fileUpload.getFileSize())
+                    .set("MultipleMessage", "1");
+
+            SipSendFileResponse response = _controller.sendAdminMessage(SipSendFileResponse.class, builder);
+            if(!response.getDeviceResponseCode().equals("00")) {
+                throw new ApiException(String.format("Failed to upload file: %s", response.getDeviceResponseText()));
+            }
+            if(response.getMaxDataSize() == null || response.getMaxDataSize() / 5 <= 0) {
+                throw new ApiException("The device did not give a usable maximum data size.");
+            }
 
+            // the device only answers the last part, so the parts go out back to back on one connection
+            int maxDataLength = response.getMaxDataSize() / 5;
+            while(fileUpload.hasNextPart()) {
+                IDeviceMessage part = fileUpload.nextPart(maxDataLength, _controller.nextRequestId());
+                SipSendFileResponse dataResponse = _controller.sendMessage(SipSendFileResponse.class, part, HpaMsgId.SEND_FILE.getValue());
                 if (dataResponse != null) {
                     response = dataResponse;
                 }
             }
             return response;
         }
-        else throw new ApiException(String.format("Failed to upload file: %s", response.getDeviceResponseText()));
     }
 
     public IEODResponse endOfDay() throws ApiException {
@@ -288,7 +283,7 @@ public class HpaInterface implements IDeviceInterface {
         try { closeLane(); }
         catch(ApiException e) { /* NOM NOM */ }
         finally {
-            _controller.dispose();
+            _controller.disconnect();
         }
     }
 
@@ -324,6 +319,10 @@ public class HpaInterface implements IDeviceInterface {
         throw new UnsupportedTransactionException();
     }
 
+    public IDeviceResponse addLineItems(List<LineItem> lineItems) throws ApiException {
+        throw new UnsupportedTransactionException();
+    }
+
     public void cancel(Integer cancelParams) throws ApiException {
         throw new UnsupportedTransactionException();
     }
@@ -36,12 +36,17 @@ public class HpaAdminBuilder {
         }
 
         messageBuilder = new StringBuilder();
-        messageBuilder.append(String.format("<SIP><Version>1.0</Version><ECRId>1004</ECRId><Request>%s</Request>", messageIds[0]));
+        messageBuilder.append(buildHeader(messageIds[0]));
         this.messageIds = messageIds;
         this.keepAlive = false;
         this.awaitResponse = true;
     }
 
+    // The start of every admin message, up to and including the request
+    public static String buildHeader(String messageId) {
+        return String.format("<SIP><Version>1.0</Version><ECRId>1004</ECRId><Request>%s</Request>", messageId);
+    }
+
     public HpaAdminBuilder set(String tagName, Integer value) {
         if(value != null) {
             messageBuilder.append(String.format("<%s>%s</%s>", tagName, value, tagName));
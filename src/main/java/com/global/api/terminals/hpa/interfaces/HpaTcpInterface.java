@@ -4,30 +4,33 @@ import com.global.api.entities.exceptions.MessageException;
 import com.global.api.terminals.abstractions.IDeviceCommInterface;
 import com.global.api.terminals.abstractions.IDeviceMessage;
 import com.global.api.terminals.abstractions.ITerminalConfiguration;
-import com.global.api.terminals.messaging.IMessageReceivedInterface;
 import com.global.api.terminals.messaging.IMessageSentInterface;
-import com.global.api.utils.AutoResetEvent;
-import com.global.api.utils.Element;
-import com.global.api.utils.ElementTree;
 
+import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.Socket;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 public class HpaTcpInterface implements IDeviceCommInterface {
-    private Socket client;
+    private static final byte[] MULTIPLE_MESSAGE_TAG = "<MultipleMessage>".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DELIMITER = { '\r' };
+
+    private volatile Socket client;
     private DataOutputStream out;
-    private InputStream in;
-    private AutoResetEvent await;
     private ITerminalConfiguration settings;
-    private List<Byte> messageQueue;
     private String lastConnectionError;
 
+    // the response being assembled; messages of a multiple message response are delimited by \r
+    private final Object responseLock = new Object();
+    private byte[] response = new byte[8192];
+    private int responseLength;
+    private boolean responseComplete;
+    private MessageException receiveError;
+
     private IMessageSentInterface onMessageSent;
-    private IMessageReceivedInterface onMessageReceived;
 
     public void setMessageSentHandler(IMessageSentInterface onMessageSent) {
         this.onMessageSent = onMessageSent;
@@ -35,84 +38,71 @@ public class HpaTcpInterface implements IDeviceCommInterface {
 
     public HpaTcpInterface(ITerminalConfiguration settings) {
         this.settings = settings;
-        this.await = new AutoResetEvent(false);
-
-        onMessageReceived = new IMessageReceivedInterface() {
-            public void messageReceived(byte[] message) {
-                if(messageQueue == null)
-                    messageQueue = new ArrayList<Byte>();
-
-                for(byte b: message)
-                    messageQueue.add(b);
-
-                try {
-                    Element msg = ElementTree.parse(message).get("SIP");
-                    int multiMessage = msg.getInt("MultipleMessage");
-                    if(multiMessage == 0)
-                        await.set();
-                    else messageQueue.add((byte)'\r'); // delimiter
-                }
-                catch(Exception e) {
-                    // this should never cause a failure
-                    messageQueue.add((byte)'\r'); // delimiter
-                }
-            }
-        };
     }
 
-    private void beginReceiveThread() {
-        Thread receiveThread = new Thread() {
-            public void run() {
-                while(true) {
-                    try {
-                        if(in.available() > 0) {
-                            do {
-                                int length = getLength();
-                                if (length > 0) {
-                                    byte[] buffer = new byte[8192];
-
-                                    boolean incomplete = true;
-                                    int offset = 0;
-                                    int tempLength = length;
-                                    do {
-                                        int bytesReceived = in.read(buffer, offset, tempLength);
-                                        if (bytesReceived != tempLength) {
-                                            offset += bytesReceived;
-                                            tempLength -= bytesReceived;
-                                            sleep(10);
-                                        } else incomplete = false;
-                                    }
-                                    while (incomplete);
-
-                                    byte[] readBuffer = new byte[length];
-                                    System.arraycopy(buffer, 0, readBuffer, 0, length);
-                                    onMessageReceived.messageReceived(readBuffer);
-                                }
-                                else break;
-                            }
-                            while(true);
-                        }
-                        sleep(300);
-                    } catch (Exception e) {
-                        // This never needs to fail
+    // reads the length prefixed frames of one connection and ends with it
+    private void beginReceiveThread(final Socket socket, final DataInputStream in) {
+        Thread receiveThread = new Thread(() -> {
+            byte[] frame = new byte[8192];
+            try {
+                while (true) {
+                    int length = in.readUnsignedShort();
+                    if (length > frame.length) {
+                        frame = new byte[Math.max(length, frame.length * 2)];
                     }
+                    in.readFully(frame, 0, length);
+                    messageReceived(frame, length);
                 }
             }
-        };
+            catch (EOFException e) {
+                connectionLost(socket, new MessageException("The device closed the connection."));
+            }
+            catch (IOException e) {
+                connectionLost(socket, new MessageException("Connection to the device was lost.", e));
+            }
+        }, "hpa-receive-" + settings.getIpAddress());
+        receiveThread.setDaemon(true);
         receiveThread.start();
     }
 
-    public void connect() {
-        if(client == null) {
-            try {
-                client = new Socket(settings.getIpAddress(), settings.getPort());
+    private void messageReceived(byte[] frame, int length) {
+        synchronized (responseLock) {
+            boolean last = isLastMessage(frame, length);
+            append(frame, 0, length);
+            if (last) {
+                responseComplete = true;
+                responseLock.notifyAll();
+            }
+            else append(DELIMITER, 0, 1);
+        }
+    }
 
-                if(client.isConnected()) {
-                    out = new DataOutputStream(client.getOutputStream());
-                    in = client.getInputStream();
+    private void connectionLost(Socket socket, MessageException error) {
+        // wake the sender first; it holds the interface until it returns
+        synchronized (responseLock) {
+            // a connection that was already replaced has nobody waiting on it
+            if (socket != client) {
+                return;
+            }
+            receiveError = error;
+            responseLock.notifyAll();
+        }
+        synchronized (this) {
+            if (socket == client) {
+                closeQuietly(socket);
+                client = null;
+                out = null;
+            }
+        }
+    }
 
-                    beginReceiveThread();
-                }
+    public synchronized void connect() {
+        if(client == null) {
+            try {
+                Socket socket = new Socket(settings.getIpAddress(), settings.getPort());
+                out = new DataOutputStream(socket.getOutputStream());
+                client = socket;
+                beginReceiveThread(socket, new DataInputStream(socket.getInputStream()));
             }
             catch(IOException e) {
                 lastConnectionError = e.getMessage();
@@ -120,26 +110,17 @@ public class HpaTcpInterface implements IDeviceCommInterface {
         }
     }
 
-    public void disconnect() {
-        try {
-            if (!client.isClosed()) {
-                in.close();
-                out.close();
-                client.close();
-            }
-            messageQueue = null;
-        }
-        catch(IOException e) {
-            // Eating the close exception
-        }
-        finally {
-            in = null;
-            out = null;
-            client = null;
+    public synchronized void disconnect() {
+        Socket socket = client;
+        client = null;
+        out = null;
+        if (socket != null) {
+            // ends the receive thread
+            closeQuietly(socket);
         }
     }
 
-    public byte[] send(IDeviceMessage message) throws MessageException {
+    public synchronized byte[] send(IDeviceMessage message) throws MessageException {
         connect();
 
         if(client == null || !client.isConnected()) {
@@ -147,7 +128,11 @@ public class HpaTcpInterface implements IDeviceCommInterface {
         }
 
         String strMessage = message.toString();
-        messageQueue = new ArrayList<Byte>();
+        synchronized (responseLock) {
+            responseLength = 0;
+            responseComplete = false;
+            receiveError = null;
+        }
         try{
             byte[] buffer = message.getSendBuffer();
 
@@ -156,12 +141,11 @@ public class HpaTcpInterface implements IDeviceCommInterface {
                 out.flush();
 
                 if(message.isAwaitResponse()) {
-                    await.waitOne(settings.getTimeout());
-                    if(messageQueue.size() == 0) {
+                    byte[] received = awaitResponse(settings.getTimeout());
+                    if(received.length == 0) {
                         throw new MessageException("Device did not response within the timeout");
                     }
-
-                    return convertBytes(messageQueue.toArray(new Byte[messageQueue.size()]));
+                    return received;
                 }
                 else return null;
             }
@@ -181,27 +165,71 @@ public class HpaTcpInterface implements IDeviceCommInterface {
         }
     }
 
-    private int getLength() {
-        try {
-            byte[] lengthBuffer = new byte[2];
-            int byteCount = in.read(lengthBuffer, 0, 2);
-
-            if(byteCount != 2)
-                return 0;
-            return (short)(((lengthBuffer[0] & 0xFF) << 8) | (lengthBuffer[1] & 0xFF));
+    // the complete response, or what was received of it when the timeout expires
+    private byte[] awaitResponse(int timeout) throws InterruptedException, MessageException {
+        long until = System.currentTimeMillis() + timeout;
+        synchronized (responseLock) {
+            while (!responseComplete && receiveError == null) {
+                long remaining = until - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    break;
+                }
+                responseLock.wait(remaining);
+            }
+            if (!responseComplete && receiveError != null) {
+                throw receiveError;
+            }
+            return Arrays.copyOf(response, responseLength);
         }
-        catch(IOException e) {
-            return 0;
+    }
+
+    // called holding the response lock
+    private void append(byte[] buffer, int offset, int length) {
+        if (responseLength + length > response.length) {
+            response = Arrays.copyOf(response, Math.max(responseLength + length, response.length * 2));
         }
+        System.arraycopy(buffer, offset, response, responseLength, length);
+        responseLength += length;
     }
 
-    private byte[] convertBytes(Byte[] buffer) {
-        byte[] returnBuffer = new byte[buffer.length];
+    // finds the MultipleMessage flag without parsing the message; only an explicit 0 ends the response
+    static boolean isLastMessage(byte[] frame, int length) {
+        int index = indexOf(frame, length, MULTIPLE_MESSAGE_TAG);
+        if (index < 0) {
+            return false;
+        }
+        int i = index + MULTIPLE_MESSAGE_TAG.length;
+        while (i < length && Character.isWhitespace(frame[i])) {
+            i++;
+        }
+        int value = 0;
+        boolean digits = false;
+        while (i < length && frame[i] >= '0' && frame[i] <= '9') {
+            value = value * 10 + (frame[i++] - '0');
+            digits = true;
+        }
+        return digits && value == 0;
+    }
 
-        int index = 0;
-        for(Byte b: buffer)
-            returnBuffer[index++] = b;
+    private static int indexOf(byte[] buffer, int length, byte[] target) {
+        outer:
+        for (int i = 0; i <= length - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (buffer[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
 
-        return returnBuffer;
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        }
+        catch(IOException e) {
+            // Eating the close exception
+        }
     }
 }
@@ -4,6 +4,7 @@ import com.global.api.entities.enums.*;
 import com.global.api.entities.exceptions.ApiException;
 import com.global.api.entities.exceptions.MessageException;
 import com.global.api.entities.exceptions.UnsupportedTransactionException;
+import com.global.api.terminals.LineItem;
 import com.global.api.terminals.TerminalUtilities;
 import com.global.api.terminals.abstractions.*;
 import com.global.api.terminals.messaging.IMessageSentInterface;
@@ -20,6 +21,7 @@ import com.global.api.terminals.pax.responses.SignatureResponse;
 import java.math.BigDecimal;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
 
 class PaxInterface implements IDeviceInterface {
     private PaxController controller;
@@ -322,6 +324,10 @@ class PaxInterface implements IDeviceInterface {
         throw new UnsupportedTransactionException();
     }
 
+    public IDeviceResponse addLineItems(List<LineItem> lineItems) throws ApiException {
+        throw new UnsupportedTransactionException();
+    }
+
     public void cancel(Integer cancelParams) throws ApiException {
         throw new UnsupportedTransactionException();
     }
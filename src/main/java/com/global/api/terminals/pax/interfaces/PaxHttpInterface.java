@@ -6,16 +6,32 @@ import com.global.api.terminals.abstractions.IDeviceCommInterface;
 import com.global.api.terminals.abstractions.IDeviceMessage;
 import com.global.api.terminals.messaging.IMessageSentInterface;
 import com.global.api.terminals.abstractions.ITerminalConfiguration;
-import com.global.api.utils.IOUtils;
-import org.apache.commons.codec.binary.Base64;
 
 import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
+/**
+ * Sends each message as GET http://ip:port?base64(message) over one HTTP/1.1 connection that is kept
+ * open between commands, so only the first command pays for connection setup. The device may still
+ * close the connection after any response; the next command then opens a new one.
+ */
 public class PaxHttpInterface implements IDeviceCommInterface {
+    private static final byte[] BASE64 = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] REQUEST_START = "GET /?".getBytes(StandardCharsets.US_ASCII);
+
     private ITerminalConfiguration _settings;
-    private HttpURLConnection _client;
+    private Socket _client;
+    private InputStream _in;
+    private OutputStream _out;
+    private IOException lastConnectionError;
+    // the request line and headers, written in place for every command
+    private byte[] requestBuffer = new byte[1024];
+    private byte[] requestEnd;
+    private byte[] lineBuffer = new byte[256];
     private IMessageSentInterface onMessageSent;
 
     public void setMessageSentHandler(IMessageSentInterface messageInterface) {
@@ -24,39 +40,229 @@ public class PaxHttpInterface implements IDeviceCommInterface {
 
     public PaxHttpInterface(ITerminalConfiguration settings) {
         this._settings = settings;
+        this.requestEnd = String.format(" HTTP/1.1\r\nHost: %s:%d\r\nConnection: keep-alive\r\n\r\n",
+                settings.getIpAddress(), settings.getPort()).getBytes(StandardCharsets.US_ASCII);
     }
 
-    public void connect() {
-        // not required for this connection mode
+    public synchronized void connect() {
+        if(_client != null)
+            return;
+        Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setKeepAlive(true);
+            socket.connect(new InetSocketAddress(_settings.getIpAddress(), _settings.getPort()), _settings.getTimeout());
+            socket.setSoTimeout(_settings.getTimeout());
+            _in = new BufferedInputStream(socket.getInputStream());
+            _out = socket.getOutputStream();
+            _client = socket;
+            lastConnectionError = null;
+        }
+        catch(IOException e) {
+            lastConnectionError = e;
+            try {
+                socket.close();
+            }
+            catch(IOException exc) {
+                // Eating the close exception
+            }
+        }
     }
 
-    public void disconnect() {
-        // not required for this connection mode
+    public synchronized void disconnect() {
+        try {
+            if(_client != null)
+                _client.close();
+        }
+        catch(IOException e) {
+            // Eating the close exception
+        }
+        finally {
+            _client = null;
+            _in = null;
+            _out = null;
+        }
     }
 
-    public byte[] send(IDeviceMessage message) throws ApiException {
+    public synchronized byte[] send(IDeviceMessage message) throws ApiException {
         if(onMessageSent != null)
             onMessageSent.messageSent(message.toString());
 
-        String payload = Base64.encodeBase64String(message.getSendBuffer()).replace("\r", "").replace("\n", "");
+        int length = buildRequest(message.getSendBuffer());
 
-        String endpoint = String.format("http://%s:%d?%s", _settings.getIpAddress(), _settings.getPort(), payload);
-        try {
-            _client = (HttpURLConnection) new URL(endpoint).openConnection();
-        } catch(IOException e) {
-            throw new ApiException(e.getMessage(), e);
+        // a kept connection the device has since closed fails on the write, or ends before any byte of the
+        // response; only then is the request resent on a new one, as the device cannot have acted on it
+        boolean reused = _client != null;
+        while(true) {
+            connect();
+            if(_client == null)
+                throw new MessageException("Failed to send message. Check inner exception for more details.", lastConnectionError);
+
+            try {
+                _out.write(requestBuffer, 0, length);
+                _out.flush();
+            }
+            catch(IOException e) {
+                disconnect();
+                if(!reused)
+                    throw new MessageException("Failed to send message. Check inner exception for more details.", e);
+                reused = false;
+                continue;
+            }
+
+            try {
+                return readResponse();
+            }
+            catch(StaleConnectionException e) {
+                disconnect();
+                if(!reused)
+                    throw new MessageException("The device closed the connection without responding.", e);
+                reused = false;
+            }
+            catch(SocketTimeoutException e) {
+                disconnect();
+                throw new MessageException("Terminal did not respond in the given timeout.", e);
+            }
+            catch(IOException e) {
+                // the device may already have processed the request
+                disconnect();
+                throw new MessageException("Failed to read the response from the device. Check inner exception for more details.", e);
+            }
+        }
+    }
+
+    // writes the request line with the message base64 encoded straight into the request buffer
+    private int buildRequest(byte[] message) {
+        int encodedLength = (message.length + 2) / 3 * 4;
+        int length = REQUEST_START.length + encodedLength + requestEnd.length;
+        if(requestBuffer.length < length)
+            requestBuffer = new byte[Math.max(length, requestBuffer.length * 2)];
+
+        System.arraycopy(REQUEST_START, 0, requestBuffer, 0, REQUEST_START.length);
+        int position = REQUEST_START.length;
+        int i = 0;
+        for(; i + 2 < message.length; i += 3) {
+            int bits = (message[i] & 0xff) << 16 | (message[i + 1] & 0xff) << 8 | (message[i + 2] & 0xff);
+            requestBuffer[position++] = BASE64[bits >>> 18];
+            requestBuffer[position++] = BASE64[(bits >>> 12) & 0x3f];
+            requestBuffer[position++] = BASE64[(bits >>> 6) & 0x3f];
+            requestBuffer[position++] = BASE64[bits & 0x3f];
+        }
+        int remaining = message.length - i;
+        if(remaining > 0) {
+            int bits = (message[i] & 0xff) << 16 | (remaining == 2 ? (message[i + 1] & 0xff) << 8 : 0);
+            requestBuffer[position++] = BASE64[bits >>> 18];
+            requestBuffer[position++] = BASE64[(bits >>> 12) & 0x3f];
+            requestBuffer[position++] = remaining == 2 ? BASE64[(bits >>> 6) & 0x3f] : (byte)'=';
+            requestBuffer[position++] = '=';
+        }
+        System.arraycopy(requestEnd, 0, requestBuffer, position, requestEnd.length);
+        return position + requestEnd.length;
+    }
+
+    private byte[] readResponse() throws IOException, MessageException {
+        String statusLine = readLine(true);
+        String[] status = statusLine.split(" ", 3);
+        if(status.length < 2 || !status[0].startsWith("HTTP/"))
+            throw new IOException("Malformed response from the device: " + statusLine);
+
+        int contentLength = -1;
+        boolean chunked = false;
+        boolean close = status[0].equals("HTTP/1.0");
+        String line;
+        while(!(line = readLine(false)).isEmpty()) {
+            int colon = line.indexOf(':');
+            if(colon < 0)
+                continue;
+            String name = line.substring(0, colon).trim();
+            String value = line.substring(colon + 1).trim();
+            if(name.equalsIgnoreCase("Content-Length"))
+                contentLength = Integer.parseInt(value);
+            else if(name.equalsIgnoreCase("Transfer-Encoding"))
+                chunked = value.equalsIgnoreCase("chunked");
+            else if(name.equalsIgnoreCase("Connection"))
+                close = value.equalsIgnoreCase("close");
+        }
+
+        byte[] body;
+        if(chunked)
+            body = readChunked();
+        else if(contentLength >= 0)
+            body = readFully(contentLength);
+        else {
+            // the body runs to the end of the connection
+            body = readToEnd();
+            close = true;
         }
+        if(close)
+            disconnect();
 
-        try{
-            _client.setDoInput(true);
-            _client.setDoOutput(true);
-            _client.setRequestMethod("GET");
-            _client.addRequestProperty("Content-Type", "text/xml; charset=UTF-8");
+        if(!status[1].equals("200"))
+            throw new MessageException(String.format("The device responded with HTTP %s.", status[1]));
+        return body;
+    }
+
+    private byte[] readChunked() throws IOException {
+        byte[] body = new byte[0];
+        while(true) {
+            String size = readLine(false);
+            int extension = size.indexOf(';');
+            int chunkLength = Integer.parseInt((extension < 0 ? size : size.substring(0, extension)).trim(), 16);
+            if(chunkLength == 0)
+                break;
+            byte[] chunk = readFully(chunkLength);
+            body = Arrays.copyOf(body, body.length + chunkLength);
+            System.arraycopy(chunk, 0, body, body.length - chunkLength, chunkLength);
+            readLine(false);
+        }
+        // trailers
+        while(!readLine(false).isEmpty()) { }
+        return body;
+    }
+
+    private byte[] readFully(int length) throws IOException {
+        byte[] body = new byte[length];
+        int read = 0;
+        while(read < length) {
+            int count = _in.read(body, read, length - read);
+            if(count == -1)
+                throw new EOFException("The device closed the connection mid-response.");
+            read += count;
+        }
+        return body;
+    }
+
+    private byte[] readToEnd() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int count;
+        while((count = _in.read(buffer)) != -1)
+            body.write(buffer, 0, count);
+        return body.toByteArray();
+    }
+
+    // reads a header line without its CRLF; the end of the stream before the status line means a stale connection
+    private String readLine(boolean statusLine) throws IOException {
+        int length = 0;
+        int b;
+        while((b = _in.read()) != '\n') {
+            if(b == -1) {
+                if(statusLine && length == 0)
+                    throw new StaleConnectionException();
+                throw new EOFException("The device closed the connection mid-response.");
+            }
+            if(length == lineBuffer.length)
+                lineBuffer = Arrays.copyOf(lineBuffer, length * 2);
+            lineBuffer[length++] = (byte)b;
+        }
+        if(length > 0 && lineBuffer[length - 1] == '\r')
+            length--;
+        return new String(lineBuffer, 0, length, StandardCharsets.ISO_8859_1);
+    }
 
-            InputStream responseStream = _client.getInputStream();
-            return IOUtils.readFully(responseStream).getBytes();
-        } catch(IOException e){
-            throw new MessageException("Failed to send message. Check inner exception for more details.", e);
+    private static class StaleConnectionException extends IOException {
+        StaleConnectionException() {
+            super("The device closed the connection before responding.");
         }
     }
-}
\ No newline at end of file
+}
@@ -5,12 +5,15 @@ import com.global.api.entities.exceptions.MessageException;
 import com.global.api.terminals.TerminalUtilities;
 import com.global.api.terminals.abstractions.*;
 import com.global.api.terminals.messaging.IMessageSentInterface;
-import com.global.api.utils.EnumUtils;
 
+import java.io.BufferedInputStream;
 import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
 
 public class PaxTcpInterface implements IDeviceCommInterface {
     private Socket client;
@@ -18,7 +21,8 @@ public class PaxTcpInterface implements IDeviceCommInterface {
     private InputStream in;
     private ITerminalConfiguration settings;
     private int nakCount = 0;
-
+    private byte[] frame = new byte[4096];
+    private int frameLength;
 
     private IMessageSentInterface onMessageSent;
 
@@ -36,7 +40,7 @@ public class PaxTcpInterface implements IDeviceCommInterface {
                 client = new Socket(settings.getIpAddress(), settings.getPort());
                 if(client.isConnected()) {
                     out = new DataOutputStream(client.getOutputStream());
-                    in = client.getInputStream();
+                    in = new BufferedInputStream(client.getInputStream());
                     client.setKeepAlive(true);
                 }
                 else throw new IOException("Client failed to connect");
@@ -49,40 +53,50 @@ public class PaxTcpInterface implements IDeviceCommInterface {
 
     public void disconnect() {
         try {
-            if (!client.isClosed()) {
+            if (client != null && !client.isClosed()) {
                 in.close();
                 out.close();
                 client.close();
             }
-            client = null;
         } catch(IOException e) {
             // Eating the close exception
         }
+        finally {
+            client = null;
+        }
     }
 
     public byte[] send(IDeviceMessage message) throws MessageException {
         connect();
 
+        if(client == null) {
+            throw new MessageException("Unable to connect with device.");
+        }
+
         byte[] buffer = message.getSendBuffer();
+        long deadline = System.currentTimeMillis() + settings.getTimeout();
         try {
             if(onMessageSent != null)
                 onMessageSent.messageSent(message.toString());
 
+            nakCount = 0;
             for(int i = 0; i < 3; i++) {
                 out.write(buffer);
+                out.flush();
 
-                byte[] rvalue = getTerminalResponse();
+                byte[] rvalue = getTerminalResponse(deadline);
                 if (rvalue != null) {
-                    byte lrc = rvalue[rvalue.length - 1]; // should be the lrc
-                    if (lrc != TerminalUtilities.calculateLRC(rvalue))
-                        sendControlCode(ControlCodes.NAK);
-                    else {
-                        sendControlCode(ControlCodes.ACK);
-                        return rvalue;
-                    }
+                    return rvalue;
                 }
+                // the terminal rejected the request; send it again
             }
-            throw new MessageException("Terminal did not respond in the given timeout.");
+            throw new MessageException("Terminal rejected the message.");
+        }
+        catch(SocketTimeoutException exc) {
+            throw new MessageException("Terminal did not respond in the given timeout.", exc);
+        }
+        catch(MessageException exc) {
+            throw exc;
         }
         catch(Exception exc) {
             throw new MessageException(exc.getMessage(), exc);
@@ -94,56 +108,82 @@ public class PaxTcpInterface implements IDeviceCommInterface {
 
     private void sendControlCode(ControlCodes code) throws MessageException {
         try {
-            if (code != ControlCodes.NAK) {
-                nakCount = 0;
-                out.write((int) code.getByte());
-            } else if (++nakCount == 3) {
-                sendControlCode(ControlCodes.EOT);
-            }
+            out.write((int) code.getByte());
+            out.flush();
         } catch(IOException e) {
             throw new MessageException("Failed to send control code.");
         }
     }
 
-    private byte[] getTerminalResponse() throws MessageException {
-        try {
-            byte[] buffer = new byte[4096];
-            int bytesReceived = awaitResponse(in, buffer);
-
-            if(bytesReceived > 0) {
-                byte[] rec_buffer = new byte[bytesReceived];
-                System.arraycopy(buffer, 0, rec_buffer, 0, bytesReceived);
-
-                ControlCodes code = EnumUtils.parse(ControlCodes.class, rec_buffer[0]); // queue.readCode();
-                if (code.equals(ControlCodes.NAK))
-                    return null;
-                else if (code.equals(ControlCodes.EOT))
-                    throw new MessageException("Terminal returned EOT for the current message");
-                else if (code.equals(ControlCodes.ACK))
-                    return getTerminalResponse();
-                else if (code.equals(ControlCodes.STX)) {
-                    return rec_buffer;
-                } else throw new MessageException(String.format("Unknown message received: %s", code));
+    /**
+     * Reads until the terminal answers the request: null when it rejects it (NAK), otherwise its
+     * response frame (STX ... ETX LRC), acknowledged. A response with a bad LRC is rejected so the
+     * terminal sends it again, three times at most before the exchange is ended with EOT.
+     */
+    private byte[] getTerminalResponse(long deadline) throws IOException, MessageException {
+        while(true) {
+            byte code = read(deadline);
+            if (code == ControlCodes.ACK.getByte()) {
+                // request accepted, the response follows
+                continue;
+            }
+            if (code == ControlCodes.NAK.getByte()) {
+                return null;
+            }
+            if (code == ControlCodes.EOT.getByte()) {
+                throw new MessageException("Terminal returned EOT for the current message");
+            }
+            if (code != ControlCodes.STX.getByte()) {
+                // not the start of a frame
+                continue;
             }
 
-            return null;
-        }
-        catch(IOException exc) {
-            return null;
+            byte[] frame = readFrame(deadline);
+            if (frame[frame.length - 1] == TerminalUtilities.calculateLRC(frame)) {
+                nakCount = 0;
+                sendControlCode(ControlCodes.ACK);
+                return frame;
+            }
+            if (++nakCount == 3) {
+                sendControlCode(ControlCodes.EOT);
+                throw new MessageException("Terminal response failed the LRC check.");
+            }
+            sendControlCode(ControlCodes.NAK);
         }
     }
 
-    private int awaitResponse(InputStream in, byte[] buffer) throws IOException {
-        long t = System.currentTimeMillis();
+    // the rest of a frame whose STX was read, through the LRC following ETX
+    private byte[] readFrame(long deadline) throws IOException {
+        frameLength = 0;
+        append(ControlCodes.STX.getByte());
+        byte b;
         do {
-            if(in.available() > 0) {
-                return in.read(buffer);
-            }
+            b = read(deadline);
+            append(b);
+        }
+        while(b != ControlCodes.ETX.getByte());
+        append(read(deadline));
+        return Arrays.copyOf(frame, frameLength);
+    }
 
-            if (System.currentTimeMillis() - t >= settings.getTimeout())
-                break;
+    private void append(byte b) {
+        if (frameLength == frame.length) {
+            frame = Arrays.copyOf(frame, frame.length * 2);
+        }
+        frame[frameLength++] = b;
+    }
+
+    // blocks until a byte arrives or the deadline passes
+    private byte read(long deadline) throws IOException {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            throw new SocketTimeoutException("Terminal did not respond in the given timeout");
+        }
+        client.setSoTimeout((int) remaining);
+        int b = in.read();
+        if (b == -1) {
+            throw new EOFException("Terminal closed the connection.");
         }
-        while(true);
-        throw new IOException("Terminal did not respond in the given timeout");
+        return (byte) b;
     }
-}
\ No newline at end of file
+}
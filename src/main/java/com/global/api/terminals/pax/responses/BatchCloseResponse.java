@@ -1,11 +1,9 @@
 package com.global.api.terminals.pax.responses;
 
-import com.global.api.entities.enums.ControlCodes;
 import com.global.api.entities.enums.PaxMsgId;
 import com.global.api.entities.exceptions.MessageException;
 import com.global.api.terminals.abstractions.IBatchCloseResponse;
 import com.global.api.terminals.pax.subgroups.HostResponse;
-import com.global.api.utils.MessageReader;
 
 public class BatchCloseResponse extends PaxDeviceResponse implements IBatchCloseResponse {
     private String totalCount;
@@ -43,15 +41,15 @@ public class BatchCloseResponse extends PaxDeviceResponse implements IBatchClose
     }
 
     @Override
-    protected void parseResponse(MessageReader mr) throws MessageException {
+    protected void parseResponse(PaxResponseReader mr) throws MessageException {
         super.parseResponse(mr);
 
         hostResponse = new HostResponse(mr);
-        totalCount = mr.readToCode(ControlCodes.FS);
-        totalAmount = mr.readToCode(ControlCodes.FS);
-        timeStamp = mr.readToCode(ControlCodes.FS);
-        tid = mr.readToCode(ControlCodes.FS);
-        mid = mr.readToCode(ControlCodes.ETX);
+        totalCount = mr.readField();
+        totalAmount = mr.readField();
+        timeStamp = mr.readField();
+        tid = mr.readField();
+        mid = mr.readToEnd();
 
         if(this.hostResponse != null)
             this.batchNumber = this.hostResponse.getBatchNumber();
@@ -1,10 +1,8 @@
 package com.global.api.terminals.pax.responses;
 
-import com.global.api.entities.enums.ControlCodes;
 import com.global.api.entities.enums.PaxMsgId;
 import com.global.api.entities.exceptions.MessageException;
 import com.global.api.terminals.pax.subgroups.*;
-import com.global.api.utils.MessageReader;
 
 public class DebitResponse extends PaxDeviceResponse {
     public DebitResponse(byte[] buffer) throws MessageException {
@@ -12,12 +10,12 @@ public class DebitResponse extends PaxDeviceResponse {
     }
 
     @Override
-    protected void parseResponse(MessageReader br) throws MessageException {
+    protected void parseResponse(PaxResponseReader br) throws MessageException {
         super.parseResponse(br);
 
         if (deviceResponseCode.equals("000000")) {
             hostResponse = new HostResponse(br);
-            transactionType = br.readToCode(ControlCodes.FS);
+            transactionType = br.readField();
             amountResponse = new AmountResponse(br);
             accountResponse = new AccountResponse(br);
             traceResponse = new TraceResponse(br);
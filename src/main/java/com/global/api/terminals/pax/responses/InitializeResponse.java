@@ -1,10 +1,8 @@
 package com.global.api.terminals.pax.responses;
 
-import com.global.api.entities.enums.ControlCodes;
 import com.global.api.entities.enums.PaxMsgId;
 import com.global.api.entities.exceptions.MessageException;
 import com.global.api.terminals.abstractions.IInitializeResponse;
-import com.global.api.utils.MessageReader;
 
 public class InitializeResponse extends PaxDeviceResponse implements IInitializeResponse {
     private String serialNumber;
@@ -21,8 +19,8 @@ public class InitializeResponse extends PaxDeviceResponse implements IInitialize
     }
 
     @Override
-    protected void parseResponse(MessageReader mr) throws MessageException {
+    protected void parseResponse(PaxResponseReader mr) throws MessageException {
         super.parseResponse(mr);
-        setSerialNumber(mr.readToCode(ControlCodes.ETX));
+        setSerialNumber(mr.readToEnd());
     }
 }
@@ -6,7 +6,6 @@ import com.global.api.entities.exceptions.MessageException;
 import com.global.api.terminals.TerminalResponse;
 import com.global.api.terminals.pax.subgroups.*;
 import com.global.api.utils.EnumUtils;
-import com.global.api.utils.MessageReader;
 
 import java.util.Arrays;
 
@@ -28,16 +27,15 @@ public class PaxBaseResponse extends TerminalResponse {
         this.messageIds = messageIds;
         this.buffer = buffer;
 
-        this.parseResponse(new MessageReader(buffer));
+        this.parseResponse(new PaxResponseReader(buffer));
     }
 
-    protected void parseResponse(MessageReader mr) throws MessageException {
-        ControlCodes code = mr.readCode();  //STX
-        setStatus(mr.readToCode(ControlCodes.FS));
-        setCommand(mr.readToCode(ControlCodes.FS));
-        setVersion(mr.readToCode(ControlCodes.FS));
-        setDeviceResponseCode(mr.readToCode(ControlCodes.FS));
-        setDeviceResponseText(mr.readToCode(ControlCodes.FS));
+    protected void parseResponse(PaxResponseReader mr) throws MessageException {
+        setStatus(mr.readField());
+        setCommand(mr.readField());
+        setVersion(mr.readField());
+        setDeviceResponseCode(mr.readField());
+        setDeviceResponseText(mr.readField());
 
         PaxMsgId msgId = EnumUtils.parse(PaxMsgId.class, command);
         if(!Arrays.asList(messageIds).contains(msgId))
@@ -0,0 +1,142 @@
+package com.global.api.terminals.pax.responses;
+
+import com.global.api.entities.enums.ControlCodes;
+import com.global.api.utils.ReverseByteEnumMap;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads the fields of a PAX response frame (STX fields ETX LRC). The frame is split on FS in one pass
+ * into offsets of the original buffer, and a field only becomes a String when it is read.
+ *
+ * Fields read the way MessageReader.readToCode always read them: a control character inside a field
+ * comes back as its name (a comma as [COMMA]), and every field after the ETX is empty.
+ */
+public class PaxResponseReader {
+    private static final ReverseByteEnumMap<ControlCodes> controlCodes = ReverseByteEnumMap.of(ControlCodes.class);
+    private static final byte FS = ControlCodes.FS.getByte();
+    private static final byte US = ControlCodes.US.getByte();
+    private static final byte ETX = ControlCodes.ETX.getByte();
+    private static final String[] NO_FIELDS = new String[0];
+
+    private final byte[] buffer;
+    // the ETX, or the end of a truncated frame
+    private final int end;
+    private final int[] separators;
+    private final int separatorCount;
+    private int nextSeparator;
+    private int position;
+
+    public PaxResponseReader(byte[] buffer) {
+        this.buffer = buffer;
+
+        int[] found = new int[16];
+        int count = 0;
+        int i = 1; // after the STX
+        for(; i < buffer.length && buffer[i] != ETX; i++) {
+            if(buffer[i] == FS) {
+                if(count == found.length)
+                    found = Arrays.copyOf(found, count * 2);
+                found[count++] = i;
+            }
+        }
+        this.end = Math.min(i, buffer.length);
+        this.separators = found;
+        this.separatorCount = count;
+        this.position = Math.min(1, buffer.length);
+    }
+
+    // the field up to the next FS
+    public String readField() {
+        if(position > end)
+            return "";
+        int stop = nextSeparator < separatorCount ? separators[nextSeparator] : end;
+        String value = decode(position, stop);
+        skipTo(stop);
+        return value;
+    }
+
+    // everything up to the ETX, separators included
+    public String readToEnd() {
+        if(position > end)
+            return "";
+        String value = decode(position, end);
+        skipTo(end);
+        return value;
+    }
+
+    // the field up to the next FS split on US; trailing empty subfields are dropped
+    public String[] readSubFields() {
+        if(position > end)
+            return NO_FIELDS;
+        int stop = nextSeparator < separatorCount ? separators[nextSeparator] : end;
+        String[] values = split(position, stop);
+        skipTo(stop);
+        return values;
+    }
+
+    // everything up to the ETX split on US; trailing empty subfields are dropped
+    public String[] readSubFieldsToEnd() {
+        if(position > end)
+            return NO_FIELDS;
+        String[] values = split(position, end);
+        skipTo(end);
+        return values;
+    }
+
+    private void skipTo(int stop) {
+        while(nextSeparator < separatorCount && separators[nextSeparator] <= stop)
+            nextSeparator++;
+        position = stop < end ? stop + 1 : end + 1;
+    }
+
+    private String[] split(int start, int stop) {
+        // the last non-empty subfield decides how many are kept
+        int count = 0;
+        int kept = 0;
+        int partStart = start;
+        for(int i = start; i <= stop; i++) {
+            if(i == stop || buffer[i] == US) {
+                count++;
+                if(i > partStart)
+                    kept = count;
+                partStart = i + 1;
+            }
+        }
+        if(kept == 0)
+            return NO_FIELDS;
+
+        String[] values = new String[kept];
+        int index = 0;
+        partStart = start;
+        for(int i = start; index < kept; i++) {
+            if(i == stop || buffer[i] == US) {
+                values[index++] = decode(partStart, i);
+                partStart = i + 1;
+            }
+        }
+        return values;
+    }
+
+    private String decode(int start, int stop) {
+        for(int i = start; i < stop; i++) {
+            byte b = buffer[i];
+            if(b < 0 || controlCodes.get(b) != null)
+                return decodeSlow(start, stop);
+        }
+        return new String(buffer, start, stop - start, StandardCharsets.US_ASCII);
+    }
+
+    // control characters become their names and bytes above 0x7f widen as signed, as readToCode did
+    private String decodeSlow(int start, int stop) {
+        StringBuilder sb = new StringBuilder(stop - start + 8);
+        for(int i = start; i < stop; i++) {
+            ControlCodes code = controlCodes.get(buffer[i]);
+            if(code != null)
+                sb.append(code.toString());
+            else sb.append((char)buffer[i]);
+        }
+        return sb.toString();
+    }
+}
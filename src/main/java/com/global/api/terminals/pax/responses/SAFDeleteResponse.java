@@ -1,9 +1,7 @@
 package com.global.api.terminals.pax.responses;
 
-import com.global.api.entities.enums.ControlCodes;
 import com.global.api.entities.enums.PaxMsgId;
 import com.global.api.entities.exceptions.MessageException;
-import com.global.api.utils.MessageReader;
 
 public class SAFDeleteResponse extends PaxDeviceResponse {
     
@@ -22,11 +20,11 @@ public class SAFDeleteResponse extends PaxDeviceResponse {
     }
     
     @Override
-    protected void parseResponse(MessageReader mr) throws MessageException {
+    protected void parseResponse(PaxResponseReader mr) throws MessageException {
         super.parseResponse(mr);
 
         if(deviceResponseCode.equals("000000")) {
-            safDeletedCount = Integer.parseInt(mr.readToCode(ControlCodes.FS));
+            safDeletedCount = Integer.parseInt(mr.readField());
         }
     }
 
@@ -1,9 +1,7 @@
 package com.global.api.terminals.pax.responses;
 
-import com.global.api.entities.enums.ControlCodes;
 import com.global.api.entities.enums.PaxMsgId;
 import com.global.api.entities.exceptions.MessageException;
-import com.global.api.utils.MessageReader;
 
 public class SAFSummaryReport extends PaxDeviceResponse {
     
@@ -31,12 +29,12 @@ public class SAFSummaryReport extends PaxDeviceResponse {
     }
     
     @Override
-    protected void parseResponse(MessageReader mr) throws MessageException {
+    protected void parseResponse(PaxResponseReader mr) throws MessageException {
         super.parseResponse(mr);
         
         if(deviceResponseCode.equals("000000")) {
-            safTotalCount = mr.readToCode(ControlCodes.FS);
-            safTotalAmount = mr.readToCode(ControlCodes.FS);
+            safTotalCount = mr.readField();
+            safTotalAmount = mr.readField();
         }
     }
 
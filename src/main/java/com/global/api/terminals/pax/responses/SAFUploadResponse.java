@@ -1,9 +1,7 @@
 package com.global.api.terminals.pax.responses;
 
-import com.global.api.entities.enums.ControlCodes;
 import com.global.api.entities.enums.PaxMsgId;
 import com.global.api.entities.exceptions.MessageException;
-import com.global.api.utils.MessageReader;
 
 public class SAFUploadResponse extends PaxDeviceResponse {
     
@@ -76,17 +74,17 @@ public class SAFUploadResponse extends PaxDeviceResponse {
     }
     
     @Override
-    protected void parseResponse(MessageReader mr) throws MessageException {
+    protected void parseResponse(PaxResponseReader mr) throws MessageException {
         super.parseResponse(mr);
         
         if (deviceResponseCode.equals("000000")) {
-            totalCount = Integer.parseInt(mr.readToCode(ControlCodes.FS));
-            totalAmount = Integer.parseInt(mr.readToCode(ControlCodes.FS));
-            timeStamp = mr.readToCode(ControlCodes.FS);
-            safUploadedCount = Integer.parseInt(mr.readToCode(ControlCodes.FS));
-            safUploadedAmount = Integer.parseInt(mr.readToCode(ControlCodes.FS));
-            safFailedCount = Integer.parseInt(mr.readToCode(ControlCodes.FS));
-            safFailedTotal = Integer.parseInt(mr.readToCode(ControlCodes.FS));
+            totalCount = Integer.parseInt(mr.readField());
+            totalAmount = Integer.parseInt(mr.readField());
+            timeStamp = mr.readField();
+            safUploadedCount = Integer.parseInt(mr.readField());
+            safUploadedAmount = Integer.parseInt(mr.readField());
+            safFailedCount = Integer.parseInt(mr.readField());
+            safFailedTotal = Integer.parseInt(mr.readField());
         }
     }
 
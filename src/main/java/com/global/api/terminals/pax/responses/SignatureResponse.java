@@ -1,12 +1,10 @@
 package com.global.api.terminals.pax.responses;
 
-import com.global.api.entities.enums.ControlCodes;
 import com.global.api.entities.enums.PaxMsgId;
 import com.global.api.entities.exceptions.ApiException;
 import com.global.api.entities.exceptions.MessageException;
 import com.global.api.terminals.TerminalUtilities;
 import com.global.api.terminals.abstractions.ISignatureResponse;
-import com.global.api.utils.MessageReader;
 
 public class SignatureResponse extends PaxBaseResponse implements ISignatureResponse {
     private Integer totalLength;
@@ -30,14 +28,14 @@ public class SignatureResponse extends PaxBaseResponse implements ISignatureResp
     }
 
     @Override
-    protected void parseResponse(MessageReader mr) throws MessageException {
+    protected void parseResponse(PaxResponseReader mr) throws MessageException {
         super.parseResponse(mr);
 
         if(deviceResponseCode.equals("000000") && command.equals(PaxMsgId.A09_RSP_GET_SIGNATURE.getValue())) {
-            totalLength = Integer.parseInt(mr.readToCode(ControlCodes.FS));
-            responseLength = Integer.parseInt(mr.readToCode(ControlCodes.FS));
+            totalLength = Integer.parseInt(mr.readField());
+            responseLength = Integer.parseInt(mr.readField());
 
-            signatureData = mr.readToCode(ControlCodes.ETX).getBytes();
+            signatureData = mr.readToEnd().getBytes();
         }
     }
 }
@@ -1,10 +1,8 @@
 package com.global.api.terminals.pax.subgroups;
 
-import com.global.api.entities.enums.ControlCodes;
 import com.global.api.entities.enums.PaxEntryMode;
 import com.global.api.utils.EnumUtils;
-import com.global.api.utils.MessageReader;
-import com.global.api.utils.StringUtils;
+import com.global.api.terminals.pax.responses.PaxResponseReader;
 
 public class AccountResponse {
     private String accountNumber;
@@ -53,12 +51,8 @@ public class AccountResponse {
         return cardPresent;
     }
 
-    public AccountResponse(MessageReader br) {
-        String values = br.readToCode(ControlCodes.FS);
-        if (StringUtils.isNullOrEmpty(values))
-            return;
-
-        String[] data = values.split("\\[US\\]");
+    public AccountResponse(PaxResponseReader br) {
+        String[] data = br.readSubFields();
         try {
             accountNumber = data[0];
             entryMode = EnumUtils.parse(PaxEntryMode.class, data[1]);
@@ -1,8 +1,7 @@
 package com.global.api.terminals.pax.subgroups;
 
-import com.global.api.entities.enums.ControlCodes;
 import com.global.api.terminals.abstractions.IResponseSubGroup;
-import com.global.api.utils.MessageReader;
+import com.global.api.terminals.pax.responses.PaxResponseReader;
 import com.global.api.utils.StringUtils;
 
 import java.math.BigDecimal;
@@ -42,12 +41,8 @@ public class AmountResponse implements IResponseSubGroup {
         return balance2;
     }
 
-    public AmountResponse(MessageReader mr) {
-        String values = mr.readToCode(ControlCodes.FS);
-        if(StringUtils.isNullOrEmpty(values))
-            return;
-
-        String[] data = values.split("\\[US\\]");
+    public AmountResponse(PaxResponseReader mr) {
+        String[] data = mr.readSubFields();
         try{
             approvedAmount = StringUtils.toAmount(data[0]);
             amountDue = StringUtils.toAmount(data[1]);
@@ -3,7 +3,7 @@ package com.global.api.terminals.pax.subgroups;
 import com.global.api.entities.enums.ControlCodes;
 import com.global.api.terminals.abstractions.IRequestSubGroup;
 import com.global.api.terminals.abstractions.IResponseSubGroup;
-import com.global.api.utils.MessageReader;
+import com.global.api.terminals.pax.responses.PaxResponseReader;
 import com.global.api.utils.StringUtils;
 
 public class CashierSubGroup implements IRequestSubGroup, IResponseSubGroup {
@@ -24,12 +24,8 @@ public class CashierSubGroup implements IRequestSubGroup, IResponseSubGroup {
     }
 
     public CashierSubGroup() { }
-    public CashierSubGroup(MessageReader br) {
-        String values = br.readToCode(ControlCodes.FS);
-        if (StringUtils.isNullOrEmpty(values))
-            return;
-
-        String[] data = values.split("\\[US\\]");
+    public CashierSubGroup(PaxResponseReader br) {
+        String[] data = br.readSubFields();
         try {
             clerkId = data[0];
             shiftId = data[1];
@@ -3,7 +3,7 @@ package com.global.api.terminals.pax.subgroups;
 import com.global.api.entities.enums.ControlCodes;
 import com.global.api.terminals.abstractions.IRequestSubGroup;
 import com.global.api.terminals.abstractions.IResponseSubGroup;
-import com.global.api.utils.MessageReader;
+import com.global.api.terminals.pax.responses.PaxResponseReader;
 import com.global.api.utils.StringUtils;
 
 public class CheckSubGroup implements IRequestSubGroup, IResponseSubGroup {
@@ -80,12 +80,8 @@ public class CheckSubGroup implements IRequestSubGroup, IResponseSubGroup {
     }
 
     public CheckSubGroup() { }
-    public CheckSubGroup(MessageReader br) {
-        String values = br.readToCode(ControlCodes.FS);
-        if (StringUtils.isNullOrEmpty(values))
-            return;
-
-        String[] data = values.split("\\[US\\]");
+    public CheckSubGroup(PaxResponseReader br) {
+        String[] data = br.readSubFields();
         try {
             this.saleType = data[0];
             this.routingNumber = data[1];
@@ -3,7 +3,7 @@ package com.global.api.terminals.pax.subgroups;
 import com.global.api.entities.enums.ControlCodes;
 import com.global.api.terminals.abstractions.IRequestSubGroup;
 import com.global.api.terminals.abstractions.IResponseSubGroup;
-import com.global.api.utils.MessageReader;
+import com.global.api.terminals.pax.responses.PaxResponseReader;
 import com.global.api.utils.StringUtils;
 
 public class EcomSubGroup implements IRequestSubGroup, IResponseSubGroup {
@@ -52,12 +52,8 @@ public class EcomSubGroup implements IRequestSubGroup, IResponseSubGroup {
     }
 
     public EcomSubGroup() { }
-    public EcomSubGroup(MessageReader br) {
-        String values = br.readToCode(ControlCodes.FS);
-        if (StringUtils.isNullOrEmpty(values))
-            return;
-
-        String[] data = values.split("\\[US\\]");
+    public EcomSubGroup(PaxResponseReader br) {
+        String[] data = br.readSubFields();
         try {
             this.ecomMode = data[0];
             this.transactionType = data[1];
@@ -1,8 +1,7 @@
 package com.global.api.terminals.pax.subgroups;
 
-import com.global.api.entities.enums.ControlCodes;
 import com.global.api.terminals.abstractions.IResponseSubGroup;
-import com.global.api.utils.MessageReader;
+import com.global.api.terminals.pax.responses.PaxResponseReader;
 
 public class HostResponse implements IResponseSubGroup {
     private String hostResponseCode;
@@ -31,12 +30,8 @@ public class HostResponse implements IResponseSubGroup {
         return batchNumber;
     }
 
-    public HostResponse(MessageReader mr) {
-        String values = mr.readToCode(ControlCodes.FS);
-        if(values == null || values.equals(""))
-            return;
-
-        String[] data = values.split("\\[US\\]");
+    public HostResponse(PaxResponseReader mr) {
+        String[] data = mr.readSubFields();
         try{
             hostResponseCode = data[0];
             hostResponseMessage = data[1];
@@ -1,9 +1,7 @@
 package com.global.api.terminals.pax.subgroups;
 
-import com.global.api.entities.enums.ControlCodes;
 import com.global.api.terminals.abstractions.IResponseSubGroup;
-import com.global.api.utils.MessageReader;
-import com.global.api.utils.StringUtils;
+import com.global.api.terminals.pax.responses.PaxResponseReader;
 
 public class TraceResponse implements IResponseSubGroup {
     private String transactionNumber;
@@ -20,12 +18,8 @@ public class TraceResponse implements IResponseSubGroup {
         return timeStamp;
     }
 
-    public TraceResponse(MessageReader br) {
-        String values = br.readToCode(ControlCodes.FS);
-        if (StringUtils.isNullOrEmpty(values))
-            return;
-
-        String[] data = values.split("\\[US\\]");
+    public TraceResponse(PaxResponseReader br) {
+        String[] data = br.readSubFields();
         try {
             this.transactionNumber = data[0];
             this.referenceNumber = data[1];
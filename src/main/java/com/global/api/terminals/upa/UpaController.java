@@ -1,6 +1,8 @@
 package com.global.api.terminals.upa;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.global.api.entities.enums.ConnectionModes;
 import com.global.api.entities.enums.TransactionType;
@@ -67,6 +69,19 @@ public class UpaController extends DeviceController {
         return _interface.send(message);
     }
 
+    // sends the messages in order without waiting for READY between them where the connection allows it
+    public List<byte[]> sendPipelined(List<? extends IDeviceMessage> messages) throws ApiException {
+        if (_interface instanceof UpaTcpInterface) {
+            return ((UpaTcpInterface) _interface).sendPipelined(messages);
+        }
+
+        List<byte[]> responses = new ArrayList<>(messages.size());
+        for (IDeviceMessage message : messages) {
+            responses.add(send(message));
+        }
+        return responses;
+    }
+
     private UpaTransactionResponse doTransaction(
         UpaMessageId messageId,
         Integer requestId,
@@ -2,6 +2,8 @@ package com.global.api.terminals.upa;
 
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.global.api.entities.enums.PaymentMethodType;
 import com.global.api.entities.enums.SafDelete;
@@ -13,6 +15,7 @@ import com.global.api.entities.enums.TransactionType;
 import com.global.api.entities.exceptions.ApiException;
 import com.global.api.entities.exceptions.UnsupportedTransactionException;
 import com.global.api.terminals.DeviceMessage;
+import com.global.api.terminals.LineItem;
 import com.global.api.terminals.TerminalUtilities;
 import com.global.api.terminals.abstractions.IBatchCloseResponse;
 import com.global.api.terminals.abstractions.IDeviceInterface;
@@ -29,6 +32,7 @@ import com.global.api.terminals.pax.responses.SAFSummaryReport;
 import com.global.api.terminals.pax.responses.SAFUploadResponse;
 import com.global.api.terminals.upa.Entities.Enums.UpaMessageId;
 import com.global.api.terminals.upa.builders.UpaTerminalManageBuilder;
+import com.global.api.terminals.upa.responses.UpaBatchResponse;
 import com.global.api.terminals.upa.responses.UpaDeviceResponse;
 import com.global.api.terminals.upa.responses.UpaEODResponse;
 import com.global.api.utils.JsonDoc;
@@ -42,6 +46,37 @@ public class UpaInterface implements IDeviceInterface {
     }
 
     public IDeviceResponse addLineItem(String leftText, String rightText) throws ApiException {
+        DeviceMessage message = buildLineItemMessage(leftText, rightText);
+
+        JsonDoc responseObj = JsonDoc.parse(
+            new String(controller.send(message), StandardCharsets.UTF_8)
+        );
+
+        return new UpaDeviceResponse(responseObj, UpaMessageId.LineItemDisplay);  
+    }
+
+    // the device displays one line item per request, so the items are pipelined on the open session
+    public IDeviceResponse addLineItems(List<LineItem> lineItems) throws ApiException {
+        if (lineItems == null || lineItems.isEmpty()) {
+            throw new ApiException("At least one line item is required.");
+        }
+
+        // every item is checked before the first one is sent
+        List<DeviceMessage> messages = new ArrayList<>(lineItems.size());
+        for (LineItem lineItem : lineItems) {
+            messages.add(buildLineItemMessage(lineItem.getLeftText(), lineItem.getRightText()));
+        }
+
+        List<IDeviceResponse> responses = new ArrayList<>(messages.size());
+        for (byte[] response : controller.sendPipelined(messages)) {
+            JsonDoc responseObj = JsonDoc.parse(new String(response, StandardCharsets.UTF_8));
+            responses.add(new UpaDeviceResponse(responseObj, UpaMessageId.LineItemDisplay));
+        }
+
+        return new UpaBatchResponse(UpaMessageId.LineItemDisplay.toString(), responses);
+    }
+
+    private DeviceMessage buildLineItemMessage(String leftText, String rightText) throws ApiException {
         JsonDoc param = new JsonDoc();
 
         if (leftText != null && leftText.length() <= 20) {
@@ -65,17 +100,11 @@ public class UpaInterface implements IDeviceInterface {
         JsonDoc body = new JsonDoc();
         body.set("params", param);
 
-        DeviceMessage message = TerminalUtilities.buildMessage(
+        return TerminalUtilities.buildMessage(
             UpaMessageId.LineItemDisplay,
             controller.getRequestId().toString(),
             body
         );
-
-        JsonDoc responseObj = JsonDoc.parse(
-            new String(controller.send(message), StandardCharsets.UTF_8)
-        );
-
-        return new UpaDeviceResponse(responseObj, UpaMessageId.LineItemDisplay);  
     }
 
     public void cancel() throws ApiException {
@@ -0,0 +1,105 @@
+package com.global.api.terminals.upa.interfaces;
+
+import com.global.api.entities.enums.ControlCodes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reassembles UPA frames (STX LF body LF ETX LF) from the bytes read off the connection, however they
+ * are split across reads. Line feeds inside the body are dropped, and bytes outside a frame or frames
+ * that are malformed or larger than maxFrameLength are skipped.
+ */
+public class UpaFrameDecoder {
+    private enum State {
+        SEEK_STX,
+        START_LF,
+        BODY,
+        END_LF
+    }
+
+    private static final byte STX = ControlCodes.STX.getByte();
+    private static final byte ETX = ControlCodes.ETX.getByte();
+    private static final byte LF = ControlCodes.LF.getByte();
+
+    private final int maxFrameLength;
+    private State state = State.SEEK_STX;
+    private byte[] body = new byte[1024];
+    private int count;
+    private boolean overflow;
+
+    public UpaFrameDecoder() {
+        this(1024 * 1024);
+    }
+
+    public UpaFrameDecoder(int maxFrameLength) {
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    /**
+     * @return the bodies of the frames completed by these bytes, usually none or one
+     */
+    public List<byte[]> decode(byte[] buffer, int offset, int length) {
+        List<byte[]> frames = null;
+        for (int i = offset; i < offset + length; i++) {
+            byte b = buffer[i];
+            switch (state) {
+                case SEEK_STX:
+                    if (b == STX) {
+                        state = State.START_LF;
+                    }
+                    break;
+                case START_LF:
+                    if (b == LF) {
+                        count = 0;
+                        overflow = false;
+                        state = State.BODY;
+                    }
+                    else if (b != STX) {
+                        state = State.SEEK_STX;
+                    }
+                    break;
+                case BODY:
+                    if (b == ETX) {
+                        state = State.END_LF;
+                    }
+                    else if (b == STX) {
+                        // the previous frame was cut short; start over with this one
+                        state = State.START_LF;
+                    }
+                    else if (b != LF) {
+                        append(b);
+                    }
+                    break;
+                case END_LF:
+                    if (b == LF && !overflow) {
+                        if (frames == null) {
+                            frames = new ArrayList<>(1);
+                        }
+                        frames.add(Arrays.copyOf(body, count));
+                    }
+                    state = b == STX ? State.START_LF : State.SEEK_STX;
+                    break;
+            }
+        }
+        return frames != null ? frames : Collections.<byte[]>emptyList();
+    }
+
+    public void reset() {
+        state = State.SEEK_STX;
+        count = 0;
+    }
+
+    private void append(byte b) {
+        if (count == maxFrameLength) {
+            overflow = true;
+            return;
+        }
+        if (count == body.length) {
+            body = Arrays.copyOf(body, Math.min(body.length * 2, maxFrameLength));
+        }
+        body[count++] = b;
+    }
+}
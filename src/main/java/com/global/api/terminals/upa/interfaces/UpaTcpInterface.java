@@ -1,17 +1,19 @@
 package com.global.api.terminals.upa.interfaces;
 
-import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.Socket;
-import java.net.SocketTimeoutException;
 import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
-import com.global.api.entities.enums.ControlCodes;
 import com.global.api.entities.exceptions.MessageException;
 import com.global.api.terminals.ConnectionConfig;
 import com.global.api.terminals.TerminalUtilities;
@@ -20,17 +22,45 @@ import com.global.api.terminals.abstractions.IDeviceMessage;
 import com.global.api.terminals.messaging.IMessageSentInterface;
 import com.global.api.terminals.upa.Entities.Constants;
 import com.global.api.utils.JsonDoc;
-import com.global.api.utils.MessageWriter;
 
+/**
+ * A session with a UPA device that stays connected across commands. A receive thread decodes the
+ * frames sent by the device and moves the command in progress through ACK, MSG (the response, which is
+ * acknowledged) and READY, which completes it: the device accepts the next command from then on.
+ *
+ * {@link #sendPipelined} sends a run of commands without waiting for READY between them.
+ */
 public class UpaTcpInterface implements IDeviceCommInterface {
-    private Socket client;
-    private DataOutputStream out;
-    private DataInputStream in;
+    // times a pipelined command turned away as BUSY is sent again
+    private static final int MAX_BUSY_RETRIES = 3;
+
+    private static class DeviceBusyException extends MessageException {
+        DeviceBusyException() {
+            super("Device is busy");
+        }
+    }
+
+    private enum SessionState {
+        IDLE,
+        AWAITING_RESPONSE,
+        AWAITING_READY
+    }
+
     private final ConnectionConfig settings;
     private IMessageSentInterface onMessageSent;
-    private MessageWriter data;
-    private String responseMessageString;
-    private boolean readyReceived;
+    private String lastConnectionError;
+
+    // guards the connection and the command in progress, shared with the receive thread
+    private final Object session = new Object();
+    private Socket client;
+    private DataOutputStream out;
+    private SessionState state = SessionState.IDLE;
+    private CompletableFuture<byte[]> pending;
+    private byte[] response;
+    // the command in progress completes on its response rather than on READY
+    private boolean pipelined;
+    // a pipelined command was answered and the device has not sent READY yet
+    private boolean readyOutstanding;
 
     public void setMessageSentHandler(IMessageSentInterface onMessageSent) {
         this.onMessageSent = onMessageSent;
@@ -41,180 +71,320 @@ public class UpaTcpInterface implements IDeviceCommInterface {
     }
 
     public void connect() {
-        if(client == null) {
+        synchronized (session) {
+            if (client != null) {
+                return;
+            }
             try {
-                client = new Socket(settings.getIpAddress(), settings.getPort());
-                if(client.isConnected()) {
-                    out = new DataOutputStream(client.getOutputStream());
-                    in = new DataInputStream(client.getInputStream());
-                    client.setKeepAlive(true);
-                    client.setSoTimeout(settings.getTimeout());
-                }
-                else throw new IOException("Client failed to connect");
+                Socket socket = new Socket(settings.getIpAddress(), settings.getPort());
+                socket.setKeepAlive(true);
+                // frames and acknowledgements are small and answered right away
+                socket.setTcpNoDelay(true);
+                out = new DataOutputStream(socket.getOutputStream());
+                client = socket;
+                beginReceiveThread(socket, socket.getInputStream());
             }
-            catch(IOException exc) {
-                // eat connection exception
+            catch (IOException exc) {
+                lastConnectionError = exc.getMessage();
             }
         }
     }
 
     public void disconnect() {
-        try {
-            if (!client.isClosed()) {
-                in.close();
-                out.close();
-                client.close();
+        synchronized (session) {
+            if (client != null) {
+                close(client, new MessageException("Disconnected from the device."));
             }
-            client = null;
-
-        } catch(IOException e) {
-            // Eating the close exception
         }
     }
 
-    public byte[] send(IDeviceMessage message) throws MessageException {
-        connect();
+    public synchronized byte[] send(IDeviceMessage message) throws MessageException {
+        awaitReady();
+        return exchange(message, false);
+    }
 
-        if (client == null) {
-            throw new MessageException("Unable to connect with device.");
+    /**
+     * Sends the messages in order, writing each one as soon as the device has answered the one before
+     * instead of waiting for its READY. A message the device turns away as BUSY is sent again once the
+     * device is READY. The last message waits for READY, so the device is free when this returns.
+     *
+     * @return the response to each message, in order
+     */
+    public synchronized List<byte[]> sendPipelined(List<? extends IDeviceMessage> messages) throws MessageException {
+        awaitReady();
+        List<byte[]> responses = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            boolean last = i == messages.size() - 1;
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    responses.add(exchange(messages.get(i), !last));
+                    break;
+                }
+                catch (DeviceBusyException exc) {
+                    if (attempt == MAX_BUSY_RETRIES) {
+                        throw exc;
+                    }
+                    awaitReady();
+                }
+            }
         }
+        return responses;
+    }
 
-        readyReceived = false;
+    private byte[] exchange(IDeviceMessage message, boolean completeOnResponse) throws MessageException {
         byte[] sendBuffer = message.getSendBuffer();
 
-        try {
-            if(onMessageSent != null) {
-                long currentMillis = System.currentTimeMillis();
-                Timestamp t = new Timestamp(currentMillis);
-                onMessageSent.messageSent(t + ":\n" + new String(sendBuffer, StandardCharsets.UTF_8));
-            }
+        if (onMessageSent != null) {
+            long currentMillis = System.currentTimeMillis();
+            Timestamp t = new Timestamp(currentMillis);
+            onMessageSent.messageSent(t + ":\n" + new String(sendBuffer, StandardCharsets.UTF_8));
+        }
 
-            if(settings.getRequestLogger() != null) {
-                String formMsg = new String(sendBuffer, StandardCharsets.UTF_8);
-                settings.getRequestLogger().RequestSent(formMsg);
+        try {
+            if (settings.getRequestLogger() != null) {
+                settings.getRequestLogger().RequestSent(new String(sendBuffer, StandardCharsets.UTF_8));
             }
-
-            out.write(sendBuffer);
-            out.flush();
-            long timeOfSend = System.currentTimeMillis();
-
-            do {
-                getTerminalResponse();
-
-                if (System.currentTimeMillis() > timeOfSend + settings.getTimeout()) {
-                    throw new TimeoutException("Terminal did not respond in the given timeout.");
-                }
-
-                Thread.sleep(100);
-            } while (!readyReceived);
-
-            return responseMessageString.getBytes();
         }
-        catch(Exception exc) {
+        catch (IOException exc) {
             throw new MessageException(exc.getMessage(), exc);
         }
-        finally {
+
+        CompletableFuture<byte[]> result;
+        boolean reused = isConnected();
+        try {
+            result = transmit(sendBuffer, completeOnResponse);
+        }
+        catch (IOException exc) {
+            if (!reused) {
+                throw new MessageException(exc.getMessage(), exc);
+            }
+            // the device may have dropped the idle connection; the command never reached it
             disconnect();
             try {
-                // a little padding here
-                Thread.sleep(250);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+                result = transmit(sendBuffer, completeOnResponse);
+            }
+            catch (IOException retryExc) {
+                throw new MessageException(retryExc.getMessage(), retryExc);
             }
         }
-    }
 
-    private void getTerminalResponse() throws Exception {
         try {
-            validateResponsePacket();
-            byte[] buffer = data.toArray();
-
-            if(buffer.length > 0) {
-                JsonDoc responseObj = JsonDoc.parse(
-                    new String(data.toArray(), StandardCharsets.UTF_8)
-                );
-
-                String message = responseObj.getString("message");
+            if (settings.getTimeout() > 0) {
+                return result.get(settings.getTimeout(), TimeUnit.MILLISECONDS);
+            }
+            return result.get();
+        }
+        catch (TimeoutException exc) {
+            // a late response must not be taken for the next command's
+            disconnect();
+            throw new MessageException("Terminal did not respond in the given timeout.");
+        }
+        catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            disconnect();
+            throw new MessageException("Interrupted while waiting for the terminal.", exc);
+        }
+        catch (ExecutionException exc) {
+            if (exc.getCause() instanceof MessageException) {
+                throw (MessageException) exc.getCause();
+            }
+            throw new MessageException(exc.getCause().getMessage(), exc);
+        }
+    }
 
-                if(settings.getRequestLogger() != null) {
-                    String formMsg = new String(buffer, StandardCharsets.UTF_8);
-                    settings.getRequestLogger().ResponseReceived(formMsg);
+    // waits, up to the timeout, for the READY owed by a pipelined command
+    private void awaitReady() throws MessageException {
+        long timeout = settings.getTimeout() > 0 ? settings.getTimeout() : Long.MAX_VALUE;
+        long deadline = System.currentTimeMillis() + timeout;
+        synchronized (session) {
+            while (readyOutstanding && client != null) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    // let the device say BUSY if it still is
+                    readyOutstanding = false;
+                    return;
                 }
-
-                switch (message) {
-                    case Constants.ACK_MESSAGE:
-                    case Constants.NAK_MESSAGE:
-                    case Constants.TIMEOUT_MESSAGE:
-                        break;
-                    case Constants.BUSY_MESSAGE:
-                        throw new Exception("Device is busy");
-                    case Constants.DATA_MESSAGE:
-                        responseMessageString = new String(buffer, StandardCharsets.UTF_8);
-                        String eval = responseObj.get("data").getString("response");
-                        if (eval.equals("Reboot")) {
-                            readyReceived = true; // since reboot doesn't return READY
-                        }
-                        sendAckMessageToDevice();
-                        break;
-                    case Constants.READY_MESSAGE:
-                        readyReceived = true;
-                        break;
-                    default:
-                        throw new Exception("Message field value is unknown in API Response.");
+                try {
+                    session.wait(remaining);
+                }
+                catch (InterruptedException exc) {
+                    Thread.currentThread().interrupt();
+                    throw new MessageException("Interrupted while waiting for the terminal.", exc);
                 }
             }
         }
-        catch(IOException exc) {
-            throw new IOException(exc.getMessage(), exc);
-        }
     }
 
-    private void validateResponsePacket() throws IOException {
-        try {
-            byte[] buffer;
-            List<Byte> receive = new ArrayList<>();
-            data = new MessageWriter();
+    private boolean isConnected() {
+        synchronized (session) {
+            return client != null;
+        }
+    }
 
-            byte stx = ControlCodes.STX.getByte();
-            byte etx = ControlCodes.ETX.getByte();
-            byte lf = ControlCodes.LF.getByte();
+    private CompletableFuture<byte[]> transmit(byte[] sendBuffer, boolean completeOnResponse) throws IOException, MessageException {
+        connect();
 
-            do {
-                receive.add(in.readByte());
-            } while (in.available() > 0);
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        DataOutputStream stream;
+        synchronized (session) {
+            if (client == null) {
+                throw new MessageException(String.format("Unable to connect with device. %s", lastConnectionError));
+            }
+            pending = result;
+            response = null;
+            pipelined = completeOnResponse;
+            state = SessionState.AWAITING_RESPONSE;
+            stream = out;
+        }
+        write(stream, sendBuffer);
+        return result;
+    }
 
-            buffer = new byte[receive.size()];
+    private static void write(OutputStream stream, byte[] buffer) throws IOException {
+        // acknowledgements are written from the receive thread
+        synchronized (stream) {
+            stream.write(buffer);
+            stream.flush();
+        }
+    }
 
-            for (int i = 0; i < buffer.length; i++) {
-                buffer[i] = receive.get(i);
+    private void beginReceiveThread(final Socket socket, final InputStream in) {
+        Thread receiveThread = new Thread(() -> {
+            UpaFrameDecoder decoder = new UpaFrameDecoder();
+            byte[] buffer = new byte[4096];
+            try {
+                int bytesRead;
+                while ((bytesRead = in.read(buffer)) != -1) {
+                    for (byte[] frame : decoder.decode(buffer, 0, bytesRead)) {
+                        messageReceived(socket, frame);
+                    }
+                }
+                fail(socket, new MessageException("The device closed the connection."));
+            }
+            catch (IOException exc) {
+                fail(socket, new MessageException("Connection to the device was lost.", exc));
             }
+        }, "upa-session-" + settings.getIpAddress());
+        receiveThread.setDaemon(true);
+        receiveThread.start();
+    }
 
-            for (int i = 0; i < buffer.length; i++) {
-                if (i < 2) {
-                    if (buffer[i] != stx && buffer[i + 1] != lf) {
-                        throw new IOException("The bytes of the start response packet are not the expected bytes.");
-                    }
+    private void messageReceived(Socket socket, byte[] frame) throws IOException {
+        String responseMessage = new String(frame, StandardCharsets.UTF_8);
+        if (settings.getRequestLogger() != null) {
+            settings.getRequestLogger().ResponseReceived(responseMessage);
+        }
 
-                    i += 1;
-                    continue;
-                }
+        String message;
+        JsonDoc responseObj;
+        try {
+            responseObj = JsonDoc.parse(responseMessage);
+            message = responseObj.getString("message");
+        }
+        catch (RuntimeException exc) {
+            fail(socket, new MessageException("Unable to parse the device response.", exc));
+            return;
+        }
 
-                if (buffer[i] == etx) {
-                    if ((buffer[i - 1] & buffer[i + 1]) != lf) {
-                        throw new IOException("The bytes of the end response packet are not the expected bytes.");
+        CompletableFuture<byte[]> completed = null;
+        byte[] completedResponse = null;
+        boolean reboot = false;
+        synchronized (session) {
+            if (socket != client) {
+                return;
+            }
+            switch (message != null ? message : "") {
+                case Constants.ACK_MESSAGE:
+                case Constants.NAK_MESSAGE:
+                case Constants.TIMEOUT_MESSAGE:
+                    break;
+                case Constants.BUSY_MESSAGE:
+                    failPending(new DeviceBusyException());
+                    break;
+                case Constants.DATA_MESSAGE:
+                    response = frame;
+                    JsonDoc data = responseObj.get("data");
+                    // reboot doesn't return READY
+                    reboot = data != null && "Reboot".equals(data.getString("response"));
+                    if (reboot) {
+                        completed = pending;
+                        completedResponse = frame;
+                        clearPending();
+                    }
+                    else if (state == SessionState.AWAITING_RESPONSE && pipelined) {
+                        completed = pending;
+                        completedResponse = frame;
+                        clearPending();
+                        readyOutstanding = true;
+                    }
+                    else if (state == SessionState.AWAITING_RESPONSE) {
+                        state = SessionState.AWAITING_READY;
                     }
-
                     break;
-                } else if (buffer[i] != lf) {
-                    data.add(buffer[i]);
-                }
+                case Constants.READY_MESSAGE:
+                    // a READY without a response belongs to an earlier exchange
+                    if (state == SessionState.AWAITING_READY) {
+                        completed = pending;
+                        completedResponse = response;
+                        clearPending();
+                    }
+                    readyOutstanding = false;
+                    session.notifyAll();
+                    break;
+                default:
+                    failPending(new MessageException("Message field value is unknown in API Response."));
             }
-        } catch (SocketTimeoutException e) {
-            client.setSoTimeout(0);
         }
+
+        if (Constants.DATA_MESSAGE.equals(message)) {
+            sendAckMessageToDevice(socket);
+        }
+        if (completed != null) {
+            completed.complete(completedResponse);
+        }
+        if (reboot) {
+            fail(socket, new MessageException("The device is rebooting."));
+        }
+    }
+
+    private void fail(Socket socket, MessageException error) {
+        synchronized (session) {
+            if (socket == client) {
+                close(socket, error);
+            }
+        }
+    }
+
+    // called holding the session lock
+    private void close(Socket socket, MessageException error) {
+        try {
+            socket.close();
+        }
+        catch (IOException e) {
+            // Eating the close exception
+        }
+        client = null;
+        out = null;
+        readyOutstanding = false;
+        session.notifyAll();
+        failPending(error);
+    }
+
+    private void failPending(MessageException error) {
+        if (pending != null) {
+            pending.completeExceptionally(error);
+        }
+        clearPending();
     }
 
-    private void sendAckMessageToDevice() throws IOException {
+    private void clearPending() {
+        pending = null;
+        response = null;
+        pipelined = false;
+        state = SessionState.IDLE;
+    }
+
+    private void sendAckMessageToDevice(Socket socket) throws IOException {
         JsonDoc json = new JsonDoc();
         json.set("data", "", true);
         json.set("message", "ACK");
@@ -222,22 +392,24 @@ public class UpaTcpInterface implements IDeviceCommInterface {
         IDeviceMessage message = TerminalUtilities.compileMessage(body);
         byte[] sendBuffer = message.getSendBuffer();
 
-        if(settings.getRequestLogger() != null) {
+        if (settings.getRequestLogger() != null) {
             String formMsg = new String(sendBuffer, StandardCharsets.UTF_8);
             settings.getRequestLogger().RequestSent(formMsg);
         }
 
-        try {
-            if(onMessageSent != null) {
-                long currentMillis = System.currentTimeMillis();
-                Timestamp t = new Timestamp(currentMillis);
-                onMessageSent.messageSent(t + ":\n" + new String(sendBuffer, StandardCharsets.UTF_8));
-            }
+        if (onMessageSent != null) {
+            long currentMillis = System.currentTimeMillis();
+            Timestamp t = new Timestamp(currentMillis);
+            onMessageSent.messageSent(t + ":\n" + new String(sendBuffer, StandardCharsets.UTF_8));
+        }
 
-            out.write(sendBuffer);
-            out.flush();
-        } catch(IOException exc) {
-            throw new IOException(exc.getMessage(), exc);
+        DataOutputStream stream;
+        synchronized (session) {
+            if (socket != client) {
+                return;
+            }
+            stream = out;
         }
+        write(stream, sendBuffer);
     }
 }
@@ -0,0 +1,33 @@
+package com.global.api.terminals.upa.responses;
+
+import com.global.api.terminals.TerminalResponse;
+import com.global.api.terminals.abstractions.IDeviceResponse;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The responses to a run of commands sent together. Its device response code is 00 when every
+ * command succeeded, otherwise the code of the first one that did not.
+ */
+public class UpaBatchResponse extends TerminalResponse {
+    private final List<IDeviceResponse> responses;
+
+    public UpaBatchResponse(String command, List<IDeviceResponse> responses) {
+        this.command = command;
+        this.responses = Collections.unmodifiableList(responses);
+
+        this.deviceResponseCode = "00";
+        for (IDeviceResponse response : responses) {
+            if (!"00".equals(response.getDeviceResponseCode())) {
+                this.deviceResponseCode = response.getDeviceResponseCode();
+                this.deviceResponseText = response.getDeviceResponseText();
+                break;
+            }
+        }
+    }
+
+    public List<IDeviceResponse> getResponses() {
+        return responses;
+    }
+}
@@ -0,0 +1,94 @@
+package com.global.api.utils;
+
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.entities.exceptions.GatewayTimeoutException;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time by which a call must complete. While a builder with a deadline executes, the
+ * deadline is bound to the executing thread so every stage of the call (sign in, connect, fail over,
+ * retries, follow on messages) can size its own timeout from the time that is left.
+ */
+public class Deadline {
+    public interface IAction<T> {
+        T execute() throws ApiException;
+    }
+
+    private static final ThreadLocal<Deadline> current = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(long timeout, TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    public static Deadline at(Date value) {
+        return after(value.getTime() - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // The deadline of the call executing on this thread, or null when it has none
+    public static Deadline current() {
+        return current.get();
+    }
+
+    public long remainingMillis() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Runs the action with this deadline bound to the current thread. When a deadline is already
+     * bound, the earlier of the two applies.
+     */
+    public <T> T run(IAction<T> action) throws ApiException {
+        Deadline previous = current.get();
+        current.set(previous != null && previous.expiresAtNanos - expiresAtNanos < 0 ? previous : this);
+        try {
+            return action.execute();
+        } finally {
+            if (previous != null) {
+                current.set(previous);
+            } else {
+                current.remove();
+            }
+        }
+    }
+
+    /**
+     * Limits a stage timeout to the time left on the current deadline.
+     *
+     * @param timeoutMillis the stage's own timeout; 0 or less means no timeout
+     * @return the timeout to use, never less than 1 ms while a deadline is set
+     */
+    public static int boundTimeout(int timeoutMillis) {
+        Deadline deadline = current.get();
+        if (deadline == null) {
+            return timeoutMillis;
+        }
+
+        long remaining = Math.max(1, deadline.remainingMillis());
+        if (timeoutMillis <= 0 || remaining < timeoutMillis) {
+            return (int) Math.min(Integer.MAX_VALUE, remaining);
+        }
+        return timeoutMillis;
+    }
+
+    /**
+     * Aborts the call before its next stage once the current deadline has passed.
+     */
+    public static void check() throws GatewayTimeoutException {
+        Deadline deadline = current.get();
+        if (deadline != null && deadline.isExpired()) {
+            throw new GatewayTimeoutException("The deadline for this request has passed.");
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.global.api.entities.enums.ControlCodes;
 import com.global.api.entities.enums.IByteConstant;
 
 public class MessageReader {
+    private static final ReverseByteEnumMap<ControlCodes> controlCodes = ReverseByteEnumMap.of(ControlCodes.class);
+
     byte[] buffer;
     int position = 0;
     long length = 0;
@@ -28,8 +30,7 @@ public class MessageReader {
     }
 
     public <T extends Enum<T> & IByteConstant> T readEnum(Class<T> enumType){
-        ReverseByteEnumMap<T> map = new ReverseByteEnumMap<T>(enumType);
-        return map.get(buffer[position++]);
+        return ReverseByteEnumMap.of(enumType).get(buffer[position++]);
     }
 
     public byte readByte() {
@@ -67,17 +68,18 @@ public class MessageReader {
         return readToCode(code, true);
     }
     public String readToCode(ControlCodes code, boolean removeCode){
-        String rvalue = "";
+        StringBuilder rvalue = new StringBuilder();
 
         try {
             byte value;
             while((value = peek()) != code.getByte()) {
-                if(EnumUtils.isDefined(ControlCodes.class, value)) {
-                    ControlCodes byteCode = EnumUtils.parse(ControlCodes.class, buffer[position++]);
-                    if(byteCode == ControlCodes.ETX)
-                        break;
-                    else rvalue += byteCode.toString();
-                } else rvalue += (char)buffer[position++];
+                ControlCodes byteCode = controlCodes.get(value);
+                position++;
+                if(byteCode == ControlCodes.ETX)
+                    break;
+                else if(byteCode != null)
+                    rvalue.append(byteCode.toString());
+                else rvalue.append((char)value);
             }
         } catch (ArrayIndexOutOfBoundsException e) {
             removeCode = false;
@@ -87,7 +89,7 @@ public class MessageReader {
         if(removeCode)
             readByte();
 
-        return rvalue;
+        return rvalue.toString();
     }
 
     public void purge(){
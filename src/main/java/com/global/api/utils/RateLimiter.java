@@ -0,0 +1,68 @@
+package com.global.api.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter. Tokens are refilled continuously at {@code permitsPerSecond}
+ * up to {@code burst}; callers block in {@link #acquire()} until a token is available.
+ */
+public class RateLimiter {
+    private final double permitsPerNano;
+    private final double burst;
+    private double tokens;
+    private long lastRefill;
+
+    public RateLimiter(double permitsPerSecond) {
+        this(permitsPerSecond, Math.max(1, permitsPerSecond));
+    }
+
+    public RateLimiter(double permitsPerSecond, double burst) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be greater than zero.");
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = reserve(Long.MAX_VALUE)) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Takes a token if one becomes available within the timeout.
+     *
+     * @return false if no token could be obtained before the timeout elapsed
+     */
+    public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long waitNanos;
+        while ((waitNanos = reserve(deadline - System.nanoTime())) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return waitNanos == 0;
+    }
+
+    public boolean tryAcquire() {
+        return reserve(0) == 0;
+    }
+
+    // Returns 0 when a token was taken, the nanos to wait for the next token, or -1 if that exceeds maxWaitNanos
+    private synchronized long reserve(long maxWaitNanos) {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+
+        long waitNanos = Math.max(1, (long) Math.ceil((1 - tokens) / permitsPerNano));
+        return waitNanos <= maxWaitNanos ? waitNanos : -1;
+    }
+}
@@ -2,24 +2,37 @@ package com.global.api.utils;
 
 import com.global.api.entities.enums.IByteConstant;
 
-import java.util.HashMap;
-import java.util.Map;
-
+/**
+ * Looks up a byte constant by its byte. One map is built per enum, on first use, and shared; it is
+ * indexed by the byte itself so a lookup neither hashes nor boxes.
+ */
 public class ReverseByteEnumMap<V extends Enum<V> & IByteConstant> {
-    private Map<Byte, V> map = new HashMap<Byte, V>();
+    private static final ClassValue<ReverseByteEnumMap<?>> cache = new ClassValue<ReverseByteEnumMap<?>>() {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected ReverseByteEnumMap<?> computeValue(Class<?> type) {
+            return new ReverseByteEnumMap(type);
+        }
+    };
+
+    private final Object[] values = new Object[256];
 
     ReverseByteEnumMap(Class<V> valueType) {
         for(V v: valueType.getEnumConstants()) {
-            map.put(v.getByte(), v);
+            values[v.getByte() & 0xff] = v;
         }
     }
 
+    @SuppressWarnings("unchecked")
+    public static <V extends Enum<V> & IByteConstant> ReverseByteEnumMap<V> of(Class<V> valueType) {
+        return (ReverseByteEnumMap<V>) cache.get(valueType);
+    }
+
+    @SuppressWarnings("unchecked")
     public V get(byte value) {
-        return map.get(value);
+        return (V) values[value & 0xff];
     }
 
     public static <TResult extends Enum<TResult> & IByteConstant> TResult parse(byte value, Class<TResult> clazz) {
-        ReverseByteEnumMap<TResult> mapper = new ReverseByteEnumMap<TResult>(clazz);
-        return mapper.get(value);
+        return of(clazz).get(value);
     }
-}
\ No newline at end of file
+}
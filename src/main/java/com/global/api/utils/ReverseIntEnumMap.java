@@ -5,16 +5,60 @@ import com.global.api.entities.enums.INumericConstant;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Looks up a numeric constant by its value. One map is built per enum, on first use, and shared. Values
+ * that fall in a compact range are indexed in an array; anything sparser falls back to a hash map.
+ */
 public class ReverseIntEnumMap<V extends Enum<V> & INumericConstant> {
-    private Map<Integer, V> map = new HashMap<Integer, V>();
+    private static final ClassValue<ReverseIntEnumMap<?>> cache = new ClassValue<ReverseIntEnumMap<?>>() {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected ReverseIntEnumMap<?> computeValue(Class<?> type) {
+            return new ReverseIntEnumMap(type);
+        }
+    };
+
+    private final int min;
+    private final Object[] values;
+    private final Map<Integer, V> map;
 
     public ReverseIntEnumMap(Class<V> valueType) {
-        for(V v: valueType.getEnumConstants()) {
-            map.put(v.getValue(), v);
+        V[] constants = valueType.getEnumConstants();
+        long low = Integer.MAX_VALUE;
+        long high = Integer.MIN_VALUE;
+        for(V v: constants) {
+            low = Math.min(low, v.getValue());
+            high = Math.max(high, v.getValue());
+        }
+
+        if(constants.length > 0 && high - low < 4L * constants.length + 64) {
+            min = (int)low;
+            values = new Object[(int)(high - low) + 1];
+            map = null;
+            for(V v: constants) {
+                values[v.getValue() - min] = v;
+            }
         }
+        else {
+            min = 0;
+            values = null;
+            map = new HashMap<Integer, V>();
+            for(V v: constants) {
+                map.put(v.getValue(), v);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V extends Enum<V> & INumericConstant> ReverseIntEnumMap<V> of(Class<V> valueType) {
+        return (ReverseIntEnumMap<V>) cache.get(valueType);
     }
 
+    @SuppressWarnings("unchecked")
     public V get(int value) {
-        return map.get(value);
+        if(values == null) {
+            return map.get(value);
+        }
+        long index = (long)value - min;
+        return index >= 0 && index < values.length ? (V) values[(int)index] : null;
     }
-}
\ No newline at end of file
+}
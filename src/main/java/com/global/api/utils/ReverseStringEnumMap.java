@@ -5,8 +5,18 @@ import com.global.api.entities.enums.IStringConstant;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Looks up a string constant by its value. One map is built per enum, on first use, and shared.
+ */
 public class ReverseStringEnumMap<V extends Enum<V> & IStringConstant> {
-    private Map<String, V> map = new HashMap<String, V>();
+    private static final ClassValue<ReverseStringEnumMap<?>> cache = new ClassValue<ReverseStringEnumMap<?>>() {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected ReverseStringEnumMap<?> computeValue(Class<?> type) {
+            return new ReverseStringEnumMap(type);
+        }
+    };
+
+    private final Map<String, V> map = new HashMap<String, V>();
 
     public ReverseStringEnumMap(Class<V> valueType) {
         for(V v: valueType.getEnumConstants()) {
@@ -14,12 +24,16 @@ public class ReverseStringEnumMap<V extends Enum<V> & IStringConstant> {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    public static <V extends Enum<V> & IStringConstant> ReverseStringEnumMap<V> of(Class<V> valueType) {
+        return (ReverseStringEnumMap<V>) cache.get(valueType);
+    }
+
     public V get(String value) {
         return map.get(value);
     }
 
     public static <TResult extends Enum<TResult> & IStringConstant> TResult parse(String value, Class<TResult> clazz) {
-        ReverseStringEnumMap<TResult> mapper = new ReverseStringEnumMap<TResult>(clazz);
-        return mapper.get(value);
+        return of(clazz).get(value);
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,10 @@
 package com.global.api.tests;
 
 import com.global.api.ServicesContainer;
+import com.global.api.builders.TransactionReportBuilder;
+import com.global.api.entities.ActivityReport;
+import com.global.api.entities.Transaction;
+import com.global.api.entities.enums.ReportType;
 import com.global.api.entities.exceptions.ApiException;
 import com.global.api.entities.exceptions.BuilderException;
 import com.global.api.paymentMethods.CreditCardData;
@@ -11,6 +15,9 @@ import com.global.api.serviceConfigs.GatewayConfig;
 import com.global.api.services.ReportingService;
 import org.junit.Test;
 
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.fail;
+
 import java.math.BigDecimal;
 import java.util.Date;
 
@@ -118,4 +125,27 @@ public class BuilderValidationTests {
                 .withTransactionId("1234567890")
                 .execute();
     }
+
+    @Test
+    public void sharedValidationsCopiedBeforeChange() throws ApiException {
+        TransactionReportBuilder<ActivityReport> changed = ReportingService.activity();
+        TransactionReportBuilder<ActivityReport> other = ReportingService.activity();
+        assertNotSame(changed.getValidations(), other.getValidations());
+
+        changed.getValidations().of(ReportType.Activity).check("deviceId").isNotNull();
+        try {
+            changed.getValidations().validate(changed);
+            fail("Expected the added rule to apply to the builder it was added to.");
+        } catch (BuilderException e) {
+            // expected
+        }
+        other.getValidations().validate(other);
+        TransactionReportBuilder<ActivityReport> later = ReportingService.activity();
+        later.getValidations().validate(later);
+    }
+
+    @Test(expected = BuilderException.class)
+    public void refundAmountNoCurrencyWithSharedValidations() throws ApiException {
+        Transaction.fromId("1234567890").refund(new BigDecimal(10)).execute();
+    }
 }
@@ -0,0 +1,66 @@
+package com.global.api.tests;
+
+import com.global.api.entities.enums.ControlCodes;
+import com.global.api.entities.enums.PaxMsgId;
+import com.global.api.entities.enums.PayGroupFrequency;
+import com.global.api.network.enums.DataElementId;
+import com.global.api.utils.EnumUtils;
+import com.global.api.utils.MessageReader;
+import com.global.api.utils.ReverseByteEnumMap;
+import com.global.api.utils.ReverseIntEnumMap;
+import com.global.api.utils.ReverseStringEnumMap;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EnumUtilsTests {
+    @Test
+    public void byteConstants() {
+        for (ControlCodes code : ControlCodes.values()) {
+            assertSame(code, EnumUtils.parse(ControlCodes.class, code.getByte()));
+        }
+        assertNull(EnumUtils.parse(ControlCodes.class, (byte) 'A'));
+        assertNull(EnumUtils.parse(ControlCodes.class, (byte) 0xff));
+        assertFalse(EnumUtils.isDefined(ControlCodes.class, (byte) 0x80));
+    }
+
+    @Test
+    public void intConstants() {
+        for (DataElementId id : DataElementId.values()) {
+            assertSame(id, EnumUtils.parse(DataElementId.class, id.getValue()));
+        }
+        for (PayGroupFrequency frequency : PayGroupFrequency.values()) {
+            assertSame(frequency, EnumUtils.parse(PayGroupFrequency.class, frequency.getValue()));
+        }
+        assertNull(EnumUtils.parse(DataElementId.class, -1));
+        assertNull(EnumUtils.parse(DataElementId.class, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void stringConstants() {
+        for (PaxMsgId id : PaxMsgId.values()) {
+            assertSame(id, ReverseStringEnumMap.parse(id.getValue(), PaxMsgId.class));
+        }
+        assertNull(EnumUtils.parse(PaxMsgId.class, "Z99"));
+        assertNull(EnumUtils.parse(PaxMsgId.class, (String) null));
+    }
+
+    @Test
+    public void mapsBuiltOncePerEnum() {
+        assertSame(ReverseByteEnumMap.of(ControlCodes.class), ReverseByteEnumMap.of(ControlCodes.class));
+        assertSame(ReverseIntEnumMap.of(DataElementId.class), ReverseIntEnumMap.of(DataElementId.class));
+        assertSame(ReverseStringEnumMap.of(PaxMsgId.class), ReverseStringEnumMap.of(PaxMsgId.class));
+    }
+
+    @Test
+    public void readToCodeNamesControlCodes() {
+        byte[] buffer = { 0x02, 'A', 0x2c, 'B', 0x1c, 'C', 0x03, 'D' };
+        MessageReader reader = new MessageReader(buffer);
+
+        assertEquals(ControlCodes.STX, reader.readCode());
+        assertEquals("A[COMMA]B", reader.readToCode(ControlCodes.FS));
+        assertEquals("C", reader.readToCode(ControlCodes.FS));
+        // ETX ends the field and the byte after it (the LRC) is popped as the code
+        assertFalse(reader.canRead());
+    }
+}
@@ -0,0 +1,66 @@
+package com.global.api.tests;
+
+import com.global.api.ConfiguredServices;
+import com.global.api.builders.AuthorizationBuilder;
+import com.global.api.builders.ManagementBuilder;
+import com.global.api.builders.ReportBuilder;
+import com.global.api.entities.Transaction;
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.gateways.IPaymentGateway;
+import com.global.api.gateways.IReportingService;
+import com.global.api.network.NetworkMessageHeader;
+import com.global.api.serviceConfigs.Configuration;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory connector used by the offline tests. Each call is answered by the matching handler.
+ */
+public class FakeGateway implements IPaymentGateway, IReportingService {
+    public interface Handler<TBuilder, TResult> {
+        TResult handle(TBuilder builder) throws ApiException;
+    }
+
+    public Handler<AuthorizationBuilder, Transaction> authorizationHandler;
+    public Handler<ManagementBuilder, Transaction> managementHandler;
+    public Handler<ReportBuilder<?>, Object> reportHandler;
+    public final AtomicInteger requestCount = new AtomicInteger();
+
+    public Transaction processAuthorization(AuthorizationBuilder builder) throws ApiException {
+        requestCount.incrementAndGet();
+        return authorizationHandler.handle(builder);
+    }
+
+    public Transaction manageTransaction(ManagementBuilder builder) throws ApiException {
+        requestCount.incrementAndGet();
+        return managementHandler.handle(builder);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T processReport(ReportBuilder<T> builder, Class<T> clazz) throws ApiException {
+        requestCount.incrementAndGet();
+        return (T) reportHandler.handle(builder);
+    }
+
+    public String serializeRequest(AuthorizationBuilder builder) {
+        return null;
+    }
+
+    public NetworkMessageHeader sendKeepAlive() {
+        return null;
+    }
+
+    public boolean supportsHostedPayments() {
+        return false;
+    }
+
+    public Configuration toConfiguration() {
+        final FakeGateway gateway = this;
+        return new Configuration() {
+            public void configureContainer(ConfiguredServices services) {
+                services.setGatewayConnector(gateway);
+                services.setReportingService(gateway);
+            }
+        };
+    }
+}
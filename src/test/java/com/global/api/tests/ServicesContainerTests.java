@@ -0,0 +1,150 @@
+package com.global.api.tests;
+
+import com.global.api.ServicesContainer;
+import com.global.api.entities.Transaction;
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.terminals.abstractions.IDisposable;
+import org.junit.After;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ServicesContainerTests {
+    private static class DisposableGateway extends FakeGateway implements IDisposable {
+        final String name;
+        final AtomicInteger disposeCount = new AtomicInteger();
+
+        DisposableGateway(String name) {
+            this.name = name;
+            managementHandler = builder -> {
+                Transaction transaction = new Transaction();
+                transaction.setTransactionId(this.name);
+                return transaction;
+            };
+        }
+
+        public void dispose() {
+            disposeCount.incrementAndGet();
+        }
+    }
+
+    @After
+    public void restoreDrainTimeout() {
+        ServicesContainer.getInstance().setDrainTimeoutMillis(60000);
+    }
+
+    private static String capture() throws ApiException {
+        return Transaction.fromId("1").capture(new BigDecimal(10)).execute("reload").getTransactionId();
+    }
+
+    @Test
+    public void newCallsUseReplacement() throws ApiException {
+        DisposableGateway first = new DisposableGateway("first");
+        DisposableGateway second = new DisposableGateway("second");
+
+        ServicesContainer.configureService(first.toConfiguration(), "reload");
+        assertEquals("first", capture());
+
+        ServicesContainer.configureService(second.toConfiguration(), "reload");
+        assertEquals("second", capture());
+        assertEquals(1, first.disposeCount.get());
+        assertEquals(0, second.disposeCount.get());
+    }
+
+    @Test
+    public void replacedConfigurationDrainsBeforeDispose() throws Exception {
+        DisposableGateway first = new DisposableGateway("first");
+        DisposableGateway second = new DisposableGateway("second");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        first.managementHandler = builder -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId("first");
+            return transaction;
+        };
+        ServicesContainer.configureService(first.toConfiguration(), "reload");
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<String> inFlight = executor.submit(ServicesContainerTests::capture);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        ServicesContainer.configureService(second.toConfiguration(), "reload");
+        assertEquals("second", capture());
+        assertEquals(0, first.disposeCount.get());
+
+        release.countDown();
+        assertEquals("first", inFlight.get(5, TimeUnit.SECONDS));
+        assertEquals(1, first.disposeCount.get());
+        executor.shutdown();
+    }
+
+    @Test
+    public void stuckCallDoesNotBlockDisposal() throws Exception {
+        ServicesContainer.getInstance().setDrainTimeoutMillis(50);
+        DisposableGateway first = new DisposableGateway("first");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        first.managementHandler = builder -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Transaction();
+        };
+        ServicesContainer.configureService(first.toConfiguration(), "reload");
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(ServicesContainerTests::capture);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        ServicesContainer.configureService(new DisposableGateway("second").toConfiguration(), "reload");
+
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (first.disposeCount.get() == 0 && System.nanoTime() < until) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, first.disposeCount.get());
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void sharedComponentsNotDisposed() throws ApiException {
+        DisposableGateway gateway = new DisposableGateway("shared");
+        ServicesContainer.configureService(gateway.toConfiguration(), "reload");
+        ServicesContainer.configureService(gateway.toConfiguration(), "reload");
+
+        assertEquals(0, gateway.disposeCount.get());
+        assertEquals("shared", capture());
+    }
+
+    @Test
+    public void removedConfigurationDisposed() throws ApiException {
+        DisposableGateway gateway = new DisposableGateway("removed");
+        ServicesContainer.configureService(gateway.toConfiguration(), "reload");
+        ServicesContainer.configureService(null, "reload");
+
+        assertEquals(1, gateway.disposeCount.get());
+        try {
+            capture();
+            fail("Expected the configuration to be removed.");
+        } catch (ApiException e) {
+            assertEquals("The specified configuration has not been configured for card processing.", e.getMessage());
+        }
+    }
+}
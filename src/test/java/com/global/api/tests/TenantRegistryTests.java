@@ -0,0 +1,148 @@
+package com.global.api.tests;
+
+import com.global.api.ConfiguredServices;
+import com.global.api.ServicesContainer;
+import com.global.api.TenantRegistry;
+import com.global.api.entities.Transaction;
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.serviceConfigs.Configuration;
+import com.global.api.terminals.abstractions.IDisposable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TenantRegistryTests {
+    private static final AtomicInteger created = new AtomicInteger();
+    private static final AtomicInteger disposed = new AtomicInteger();
+
+    private static class TenantGateway extends FakeGateway implements IDisposable {
+        TenantGateway(String name) {
+            created.incrementAndGet();
+            managementHandler = builder -> {
+                Transaction transaction = new Transaction();
+                transaction.setTransactionId(name);
+                return transaction;
+            };
+        }
+
+        public void dispose() {
+            disposed.incrementAndGet();
+        }
+    }
+
+    // the gateway is only created when the tenant's services are
+    private static class TenantConfig extends Configuration {
+        private final String name;
+
+        TenantConfig(String name) {
+            this.name = name;
+        }
+
+        public void configureContainer(ConfiguredServices services) {
+            services.setGatewayConnector(new TenantGateway(name));
+        }
+    }
+
+    private TenantRegistry registry;
+
+    @Before
+    public void init() {
+        created.set(0);
+        disposed.set(0);
+        registry = ServicesContainer.getInstance().getTenantRegistry();
+        registry.setMaxActiveTenants(500);
+        registry.setIdleTimeoutMillis(60000);
+    }
+
+    @After
+    public void cleanup() throws ApiException {
+        for (int i = 0; i < 4; i++) {
+            ServicesContainer.configureService(null, "tenant" + i);
+        }
+    }
+
+    private static String capture(String configName) throws ApiException {
+        return Transaction.fromId("1").capture(new BigDecimal(10)).execute(configName).getTransactionId();
+    }
+
+    @Test
+    public void servicesCreatedOnFirstUse() throws ApiException {
+        ServicesContainer.registerTenant(new TenantConfig("first"), "tenant0");
+        assertTrue(registry.isRegistered("tenant0"));
+        assertFalse(registry.isActive("tenant0"));
+        assertEquals(0, created.get());
+
+        assertEquals("first", capture("tenant0"));
+        assertEquals("first", capture("tenant0"));
+        assertTrue(registry.isActive("tenant0"));
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    public void leastRecentlyUsedEvicted() throws ApiException {
+        registry.setMaxActiveTenants(2);
+        long evictions = registry.getEvictionCount();
+        for (int i = 0; i < 3; i++) {
+            ServicesContainer.registerTenant(new TenantConfig("tenant" + i), "tenant" + i);
+            assertEquals("tenant" + i, capture("tenant" + i));
+        }
+
+        assertFalse(registry.isActive("tenant0"));
+        assertTrue(registry.isActive("tenant1"));
+        assertTrue(registry.isActive("tenant2"));
+        assertEquals(evictions + 1, registry.getEvictionCount());
+        assertEquals(1, disposed.get());
+
+        // evicted tenants are recreated transparently
+        assertEquals("tenant0", capture("tenant0"));
+        assertEquals(4, created.get());
+        assertFalse(registry.isActive("tenant1"));
+    }
+
+    @Test
+    public void idleTenantsEvicted() throws Exception {
+        ServicesContainer.registerTenant(new TenantConfig("idle"), "tenant0");
+        ServicesContainer.registerTenant(new TenantConfig("busy"), "tenant1");
+        capture("tenant0");
+        capture("tenant1");
+
+        registry.setIdleTimeoutMillis(50);
+        Thread.sleep(100);
+        capture("tenant1");
+        registry.evictIdleTenants();
+
+        assertFalse(registry.isActive("tenant0"));
+        assertTrue(registry.isActive("tenant1"));
+        assertEquals(1, disposed.get());
+        assertTrue(registry.isRegistered("tenant0"));
+    }
+
+    @Test
+    public void registeringAgainReplacesConfiguration() throws ApiException {
+        ServicesContainer.registerTenant(new TenantConfig("old"), "tenant0");
+        assertEquals("old", capture("tenant0"));
+
+        ServicesContainer.registerTenant(new TenantConfig("rotated"), "tenant0");
+        assertFalse(registry.isActive("tenant0"));
+        assertEquals(1, disposed.get());
+        assertEquals("rotated", capture("tenant0"));
+    }
+
+    @Test
+    public void configuredServicesNotEvicted() throws ApiException {
+        registry.setMaxActiveTenants(1);
+        ServicesContainer.registerTenant(new TenantConfig("tenant"), "tenant0");
+        ServicesContainer.configureService(new TenantConfig("configured"), "tenant1");
+        capture("tenant0");
+        capture("tenant1");
+
+        assertFalse(registry.isRegistered("tenant1"));
+        assertEquals("configured", capture("tenant1"));
+        assertEquals(0, disposed.get());
+    }
+}
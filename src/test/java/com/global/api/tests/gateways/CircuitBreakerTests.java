@@ -0,0 +1,172 @@
+package com.global.api.tests.gateways;
+
+import com.global.api.entities.exceptions.CircuitBreakerOpenException;
+import com.global.api.entities.exceptions.GatewayException;
+import com.global.api.gateways.CircuitBreaker;
+import com.global.api.gateways.RestGateway;
+import com.global.api.gateways.RetryBudget;
+import com.global.api.serviceConfigs.ResilienceConfig;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class CircuitBreakerTests {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(20);
+
+    private static ResilienceConfig config() {
+        return new ResilienceConfig()
+                .setCircuitBreakerEnabled(true)
+                .setSlidingWindowSize(4)
+                .setMinimumNumberOfCalls(4)
+                .setOpenStateDurationMillis(20)
+                .setPermittedCallsInHalfOpenState(2);
+    }
+
+    @Test
+    public void opensWhenFailureRateReached() {
+        CircuitBreaker breaker = new CircuitBreaker("failures", config());
+        breaker.onSuccess(FAST);
+        breaker.onError(FAST);
+        breaker.onSuccess(FAST);
+        assertEquals(CircuitBreaker.State.Closed, breaker.getState());
+
+        breaker.onError(FAST);
+        assertEquals(CircuitBreaker.State.Open, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void opensWhenSlowCallRateReached() {
+        CircuitBreaker breaker = new CircuitBreaker("slow", config().setSlowCallRateThreshold(75));
+        breaker.onSuccess(SLOW);
+        breaker.onSuccess(SLOW);
+        breaker.onSuccess(FAST);
+        breaker.onSuccess(SLOW);
+        assertEquals(CircuitBreaker.State.Open, breaker.getState());
+    }
+
+    @Test
+    public void oldOutcomesLeaveTheWindow() {
+        CircuitBreaker breaker = new CircuitBreaker("window", config().setFailureRateThreshold(75));
+        breaker.onError(FAST);
+        breaker.onError(FAST);
+        for (int i = 0; i < 10; i++) {
+            breaker.onSuccess(FAST);
+        }
+        breaker.onError(FAST);
+        breaker.onError(FAST);
+        assertEquals(CircuitBreaker.State.Closed, breaker.getState());
+    }
+
+    @Test
+    public void halfOpenClosesAfterSuccessfulTrials() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("recovers", config().setMinimumNumberOfCalls(1));
+        breaker.onError(FAST);
+        assertFalse(breaker.tryAcquirePermission());
+
+        Thread.sleep(30);
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HalfOpen, breaker.getState());
+
+        breaker.onSuccess(FAST);
+        breaker.onSuccess(FAST);
+        assertEquals(CircuitBreaker.State.Closed, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void halfOpenReopensOnFailure() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("relapses", config().setMinimumNumberOfCalls(1));
+        breaker.onError(FAST);
+
+        Thread.sleep(30);
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onError(FAST);
+        assertEquals(CircuitBreaker.State.Open, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void retryBudgetLimitsRetries() {
+        RetryBudget budget = new RetryBudget(0.5, 0, 2);
+        assertTrue(budget.tryRetry());
+        assertTrue(budget.tryRetry());
+        assertFalse(budget.tryRetry());
+
+        budget.onRequest();
+        budget.onRequest();
+        assertTrue(budget.tryRetry());
+        assertFalse(budget.tryRetry());
+    }
+
+    @Test
+    public void gatewayFailsFastOnceOpen() throws GatewayException {
+        RestGateway gateway = new RestGateway();
+        gateway.setServiceUrl("https://127.0.0.1:1");
+        gateway.setTimeout(1000);
+        gateway.setResilienceConfig(config()
+                .setMinimumNumberOfCalls(2)
+                .setOpenStateDurationMillis(60000)
+                .setMaxConnectRetries(0));
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                gateway.doTransaction("GET", "/status");
+                fail("Expected the connection to be refused.");
+            } catch (CircuitBreakerOpenException e) {
+                fail("The breaker opened too early.");
+            } catch (GatewayException e) {
+                // connection refused
+            }
+        }
+
+        long start = System.nanoTime();
+        try {
+            gateway.doTransaction("GET", "/status");
+            fail("Expected the circuit breaker to be open.");
+        } catch (CircuitBreakerOpenException e) {
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 100);
+        }
+    }
+
+    @Test
+    public void breakerIsOptIn() {
+        assertFalse(new ResilienceConfig().isCircuitBreakerEnabled());
+    }
+
+    @Test
+    public void connectorsKeepTheirOwnBreakers() throws GatewayException {
+        RestGateway tripped = gateway(config().setMinimumNumberOfCalls(2).setOpenStateDurationMillis(60000));
+        RestGateway other = gateway(config().setMinimumNumberOfCalls(4).setOpenStateDurationMillis(60000));
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                tripped.doTransaction("GET", "/status");
+            } catch (GatewayException e) {
+                // connection refused
+            }
+        }
+
+        try {
+            other.doTransaction("GET", "/status");
+            fail("Expected the connection to be refused.");
+        } catch (CircuitBreakerOpenException e) {
+            fail("The breaker of another connector was used.");
+        } catch (GatewayException e) {
+            // connection refused
+        }
+    }
+
+    private static RestGateway gateway(ResilienceConfig config) {
+        RestGateway gateway = new RestGateway();
+        gateway.setServiceUrl("https://127.0.0.1:1");
+        gateway.setTimeout(1000);
+        gateway.setResilienceConfig(config.setMaxConnectRetries(0));
+        return gateway;
+    }
+}
@@ -0,0 +1,128 @@
+package com.global.api.tests.gateways;
+
+import com.global.api.ServicesContainer;
+import com.global.api.entities.Transaction;
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.entities.exceptions.GatewayException;
+import com.global.api.entities.exceptions.GatewayTimeoutException;
+import com.global.api.gateways.RestGateway;
+import com.global.api.serviceConfigs.ResilienceConfig;
+import com.global.api.tests.FakeGateway;
+import com.global.api.utils.Deadline;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class DeadlineTests {
+    private FakeGateway gateway;
+
+    @Before
+    public void init() throws ApiException {
+        gateway = new FakeGateway();
+        gateway.managementHandler = builder -> Transaction.fromId(builder.getTransactionId());
+        ServicesContainer.configureService(gateway.toConfiguration(), "deadline");
+    }
+
+    @Test
+    public void deadlineBoundWhileExecuting() throws ApiException {
+        AtomicLong remaining = new AtomicLong(-1);
+        gateway.managementHandler = builder -> {
+            remaining.set(Deadline.current().remainingMillis());
+            return Transaction.fromId(builder.getTransactionId());
+        };
+
+        Transaction.fromId("1").capture(new BigDecimal(10))
+                .withTimeout(5, TimeUnit.SECONDS)
+                .execute("deadline");
+
+        assertTrue(remaining.get() > 0 && remaining.get() <= 5000);
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    public void noDeadlineByDefault() throws ApiException {
+        AtomicLong calls = new AtomicLong();
+        gateway.managementHandler = builder -> {
+            assertNull(Deadline.current());
+            calls.incrementAndGet();
+            return Transaction.fromId(builder.getTransactionId());
+        };
+
+        Transaction.fromId("1").capture(new BigDecimal(10)).execute("deadline");
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void earlierOfTimeoutAndDeadlineApplies() throws ApiException {
+        AtomicLong remaining = new AtomicLong(-1);
+        gateway.managementHandler = builder -> {
+            remaining.set(Deadline.current().remainingMillis());
+            return Transaction.fromId(builder.getTransactionId());
+        };
+
+        Transaction.fromId("1").capture(new BigDecimal(10))
+                .withTimeout(1, TimeUnit.MINUTES)
+                .withDeadline(new Date(System.currentTimeMillis() + 2000))
+                .execute("deadline");
+
+        assertTrue(remaining.get() <= 2000);
+    }
+
+    @Test(expected = GatewayTimeoutException.class)
+    public void expiredDeadlineNotSent() throws ApiException {
+        try {
+            Transaction.fromId("1").capture(new BigDecimal(10))
+                    .withDeadline(new Date(System.currentTimeMillis() - 1))
+                    .execute("deadline");
+        } finally {
+            assertEquals(0, gateway.requestCount.get());
+        }
+    }
+
+    @Test
+    public void nestedDeadlineCannotExtendOuter() throws ApiException {
+        Deadline outer = Deadline.after(1, TimeUnit.SECONDS);
+        long remaining = outer.run(() -> Deadline.after(1, TimeUnit.HOURS).run(() -> Deadline.current().remainingMillis()));
+        assertTrue(remaining <= 1000);
+    }
+
+    @Test
+    public void boundTimeout() throws ApiException {
+        assertEquals(30000, Deadline.boundTimeout(30000));
+        assertEquals(0, Deadline.boundTimeout(0));
+
+        Deadline.after(1, TimeUnit.SECONDS).run(() -> {
+            assertTrue(Deadline.boundTimeout(30000) <= 1000);
+            assertTrue(Deadline.boundTimeout(0) > 0);
+            assertEquals(10, Deadline.boundTimeout(10));
+            return null;
+        });
+    }
+
+    @Test
+    public void retriesStopAtDeadline() throws ApiException {
+        RestGateway rest = new RestGateway();
+        rest.setServiceUrl("https://127.0.0.1:1");
+        rest.setTimeout(30000);
+        rest.setResilienceConfig(new ResilienceConfig()
+                .setCircuitBreakerEnabled(false)
+                .setMaxConnectRetries(50)
+                .setRetryBackoffMillis(100)
+                .setMaxRetryBackoffMillis(100));
+
+        long start = System.nanoTime();
+        try {
+            Deadline.after(300, TimeUnit.MILLISECONDS).run(() -> rest.doTransaction("GET", "/status"));
+            fail("Expected the deadline to pass.");
+        } catch (GatewayException e) {
+            assertTrue(e instanceof GatewayTimeoutException);
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+    }
+}
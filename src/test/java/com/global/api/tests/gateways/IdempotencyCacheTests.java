@@ -0,0 +1,150 @@
+package com.global.api.tests.gateways;
+
+import com.global.api.entities.exceptions.GatewayException;
+import com.global.api.gateways.FileIdempotencyStore;
+import com.global.api.gateways.IdempotencyCache;
+import com.global.api.gateways.InMemoryIdempotencyStore;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class IdempotencyCacheTests {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replaysCompletedRequest() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(new InMemoryIdempotencyStore(), 60000);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals("response-1", cache.execute("key", () -> "response-" + calls.incrementAndGet()));
+        assertEquals("response-1", cache.execute("key", () -> "response-" + calls.incrementAndGet()));
+        assertEquals("response-2", cache.execute("other", () -> "response-" + calls.incrementAndGet()));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void concurrentDuplicatesShareInFlightRequest() throws Exception {
+        final IdempotencyCache cache = new IdempotencyCache(new InMemoryIdempotencyStore(), 60000);
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> cache.execute("key", () -> {
+                    calls.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new GatewayException("interrupted");
+                    }
+                    return "approved";
+                })));
+            }
+
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> future : futures) {
+                assertEquals("approved", future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void doesNotStoreFailures() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(new InMemoryIdempotencyStore(), 60000);
+        try {
+            cache.execute("key", () -> {
+                throw new GatewayException("timeout");
+            });
+            fail("Expected the failure to be rethrown.");
+        } catch (GatewayException e) {
+            assertEquals("timeout", e.getMessage());
+        }
+        assertEquals("retried", cache.execute("key", () -> "retried"));
+    }
+
+    @Test
+    public void rejectsKeyReusedWithDifferentBody() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(new InMemoryIdempotencyStore(), 60000);
+        assertEquals("captured", cache.execute("key", "{\"amount\":100}", () -> "captured"));
+        assertEquals("captured", cache.execute("key", "{\"amount\":100}", () -> "sent again"));
+
+        try {
+            cache.execute("key", "{\"amount\":500}", () -> "sent again");
+            fail("Expected the different body to be rejected.");
+        } catch (GatewayException e) {
+            assertTrue(e.getMessage().contains("different body"));
+        }
+    }
+
+    @Test
+    public void expiresEntries() throws Exception {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore();
+        store.put("key", "value", -1);
+        assertNull(store.get("key"));
+    }
+
+    @Test
+    public void fileStoreRoundTrip() throws Exception {
+        FileIdempotencyStore store = new FileIdempotencyStore(folder.getRoot().toPath().resolve("idempotency"));
+        store.put("POST /transactions abc", "{\"id\":\"TRN_1\"}", 60000);
+        store.put("POST /transactions expired", "{}", -1);
+
+        FileIdempotencyStore reopened = new FileIdempotencyStore(folder.getRoot().toPath().resolve("idempotency"));
+        assertEquals("{\"id\":\"TRN_1\"}", reopened.get("POST /transactions abc"));
+        assertNull(reopened.get("POST /transactions expired"));
+        assertNull(reopened.get("POST /transactions missing"));
+
+        reopened.remove("POST /transactions abc");
+        assertNull(store.get("POST /transactions abc"));
+    }
+
+    @Test
+    public void failedWriteLeavesNoTempFile() throws Exception {
+        Path directory = folder.getRoot().toPath().resolve("idempotency");
+        FileIdempotencyStore store = new FileIdempotencyStore(directory);
+        // a non-empty directory where the entry belongs makes the final move fail
+        Path entry = Files.createDirectory(directory.resolve(DigestUtils.sha256Hex("POST /transactions abc") + ".idem"));
+        Files.createFile(entry.resolve("blocker"));
+
+        store.put("POST /transactions abc", "{\"id\":\"TRN_1\"}", 60000);
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.tmp")) {
+            assertFalse(files.iterator().hasNext());
+        }
+    }
+
+    @Test
+    public void fileStoreIsPrivateToOwner() throws Exception {
+        Path directory = folder.getRoot().toPath().resolve("idempotency");
+        FileIdempotencyStore store = new FileIdempotencyStore(directory);
+        assumeTrue(Files.getFileStore(directory).supportsFileAttributeView("posix"));
+
+        store.put("POST /transactions abc", "{\"id\":\"TRN_1\"}", 60000);
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(directory)));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(file)));
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.global.api.tests.gateways;
+
+import com.global.api.entities.enums.RequestPriority;
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.gateways.PriorityScheduler;
+import com.global.api.serviceConfigs.PriorityConfig;
+import com.global.api.utils.Deadline;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class PrioritySchedulerTests {
+    private static PriorityConfig config() {
+        return new PriorityConfig()
+                .setMaxConcurrency(4)
+                .setReservedForAuthorization(1)
+                .setMaxManagementConcurrency(0)
+                .setMaxReportConcurrency(0);
+    }
+
+    @Test
+    public void capacityReservedForAuthorizations() throws InterruptedException {
+        PriorityScheduler scheduler = new PriorityScheduler(config());
+        for (int i = 0; i < 3; i++) {
+            assertTrue(scheduler.tryAcquire(RequestPriority.Report, 0, TimeUnit.MILLISECONDS));
+        }
+
+        assertFalse(scheduler.tryAcquire(RequestPriority.Report, 10, TimeUnit.MILLISECONDS));
+        assertFalse(scheduler.tryAcquire(RequestPriority.Management, 10, TimeUnit.MILLISECONDS));
+        assertTrue(scheduler.tryAcquire(RequestPriority.Authorization, 0, TimeUnit.MILLISECONDS));
+        assertEquals(2, scheduler.getRejectedCount());
+    }
+
+    @Test
+    public void lowerPrioritiesCapped() throws InterruptedException {
+        PriorityScheduler scheduler = new PriorityScheduler(config().setMaxReportConcurrency(1));
+        assertTrue(scheduler.tryAcquire(RequestPriority.Report, 0, TimeUnit.MILLISECONDS));
+        assertFalse(scheduler.tryAcquire(RequestPriority.Report, 10, TimeUnit.MILLISECONDS));
+        assertTrue(scheduler.tryAcquire(RequestPriority.Management, 0, TimeUnit.MILLISECONDS));
+
+        scheduler.release(RequestPriority.Report);
+        assertTrue(scheduler.tryAcquire(RequestPriority.Report, 0, TimeUnit.MILLISECONDS));
+        assertEquals(1, scheduler.getInUse(RequestPriority.Report));
+    }
+
+    @Test
+    public void higherPriorityAdmittedFirst() throws Exception {
+        PriorityScheduler scheduler = PriorityScheduler.forSingleConnection(config());
+        assertTrue(scheduler.tryAcquire(RequestPriority.Management, 0, TimeUnit.MILLISECONDS));
+
+        List<RequestPriority> admitted = Collections.synchronizedList(new ArrayList<>());
+        Thread report = waiter(scheduler, RequestPriority.Report, admitted);
+        awaitWaiting(scheduler, RequestPriority.Report);
+        Thread authorization = waiter(scheduler, RequestPriority.Authorization, admitted);
+        awaitWaiting(scheduler, RequestPriority.Authorization);
+
+        scheduler.release(RequestPriority.Management);
+        report.join(2000);
+        authorization.join(2000);
+
+        assertEquals(2, admitted.size());
+        assertEquals(RequestPriority.Authorization, admitted.get(0));
+        assertEquals(RequestPriority.Report, admitted.get(1));
+    }
+
+    @Test
+    public void waitBoundByDeadline() throws ApiException {
+        PriorityScheduler scheduler = new PriorityScheduler(config().setMaxConcurrency(1).setReservedForAuthorization(0).setMaxQueueWaitMillis(60000));
+        Deadline.after(50, TimeUnit.MILLISECONDS).run(() -> {
+            try {
+                assertTrue(scheduler.tryAcquire(RequestPriority.Report));
+                long start = System.nanoTime();
+                assertFalse(scheduler.tryAcquire(RequestPriority.Report));
+                assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+            } catch (InterruptedException e) {
+                fail();
+            }
+            return null;
+        });
+    }
+
+    @Test
+    public void outerPriorityApplies() throws ApiException {
+        assertEquals(RequestPriority.Management, PriorityScheduler.currentPriority());
+
+        RequestPriority nested = PriorityScheduler.withPriority(RequestPriority.Authorization,
+                () -> PriorityScheduler.withPriority(RequestPriority.Report, PriorityScheduler::currentPriority));
+
+        assertEquals(RequestPriority.Authorization, nested);
+        assertEquals(RequestPriority.Management, PriorityScheduler.currentPriority());
+    }
+
+    private static Thread waiter(PriorityScheduler scheduler, RequestPriority priority, List<RequestPriority> admitted) {
+        Thread thread = new Thread(() -> {
+            try {
+                if (scheduler.tryAcquire(priority, 2, TimeUnit.SECONDS)) {
+                    admitted.add(priority);
+                    scheduler.release(priority);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitWaiting(PriorityScheduler scheduler, RequestPriority priority) throws InterruptedException {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (scheduler.getWaiting(priority) == 0 && System.nanoTime() < until) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.global.api.tests.gateways;
+
+import com.global.api.ServicesContainer;
+import com.global.api.entities.Transaction;
+import com.global.api.entities.TransactionSummary;
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.entities.exceptions.GatewayException;
+import com.global.api.gateways.RequestCoalescer;
+import com.global.api.paymentMethods.GiftCard;
+import com.global.api.serviceConfigs.Configuration;
+import com.global.api.services.ReportingService;
+import com.global.api.tests.FakeGateway;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class RequestCoalescerTests {
+    private static final int CALLERS = 8;
+
+    private FakeGateway gateway;
+    private CountDownLatch release;
+
+    @Before
+    public void init() throws ApiException {
+        gateway = new FakeGateway();
+        release = new CountDownLatch(1);
+        gateway.reportHandler = builder -> {
+            await(release);
+            return new TransactionSummary();
+        };
+        gateway.authorizationHandler = builder -> {
+            await(release);
+            return new Transaction();
+        };
+
+        Configuration config = gateway.toConfiguration();
+        config.setRequestCoalescing(true);
+        ServicesContainer.configureService(config, "coalesced");
+    }
+
+    @Test
+    public void identicalReportsShareOneCall() throws Exception {
+        List<Object> results = runConcurrently(() -> ReportingService.transactionDetail("TRN_1").execute("coalesced"));
+
+        assertEquals(1, gateway.requestCount.get());
+        for (Object result : results) {
+            assertSame(results.get(0), result);
+        }
+        assertEquals(CALLERS - 1, ServicesContainer.getInstance().getRequestCoalescer("coalesced").getCoalescedCount());
+        assertEquals(0, ServicesContainer.getInstance().getRequestCoalescer("coalesced").getInFlightCount());
+    }
+
+    @Test
+    public void identicalBalanceInquiriesShareOneCall() throws Exception {
+        runConcurrently(() -> giftCard("5022440000000000098").balanceInquiry().execute("coalesced"));
+
+        assertEquals(1, gateway.requestCount.get());
+    }
+
+    @Test
+    public void differentRequestsNotCoalesced() throws Exception {
+        release.countDown();
+        ReportingService.transactionDetail("TRN_1").execute("coalesced");
+        ReportingService.transactionDetail("TRN_2").execute("coalesced");
+        giftCard("5022440000000000098").balanceInquiry().execute("coalesced");
+        giftCard("5022440000000000007").balanceInquiry().execute("coalesced");
+
+        assertEquals(4, gateway.requestCount.get());
+    }
+
+    @Test
+    public void completedRequestsNotReplayed() throws ApiException {
+        release.countDown();
+        ReportingService.transactionDetail("TRN_1").execute("coalesced");
+        ReportingService.transactionDetail("TRN_1").execute("coalesced");
+
+        assertEquals(2, gateway.requestCount.get());
+    }
+
+    @Test
+    public void chargesNotCoalesced() throws Exception {
+        runConcurrently(() -> giftCard("5022440000000000098").charge(new BigDecimal(10)).withCurrency("USD").execute("coalesced"));
+
+        assertEquals(CALLERS, gateway.requestCount.get());
+    }
+
+    @Test
+    public void errorSharedWithWaitingCallers() throws Exception {
+        gateway.reportHandler = builder -> {
+            await(release);
+            throw new GatewayException("unavailable");
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        List<Future<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(executor.submit(() -> ReportingService.transactionDetail("TRN_1").execute("coalesced")));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<Object> future : futures) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail("Expected the error to be shared.");
+            } catch (java.util.concurrent.ExecutionException e) {
+                assertTrue(e.getCause() instanceof GatewayException);
+            }
+        }
+        executor.shutdown();
+        assertEquals(1, gateway.requestCount.get());
+    }
+
+    @Test
+    public void disabledCoalescerNeverBuildsKey() throws ApiException {
+        AtomicInteger keys = new AtomicInteger();
+        Object result = RequestCoalescer.DISABLED.execute(() -> {
+            keys.incrementAndGet();
+            return "key";
+        }, () -> "result");
+
+        assertEquals("result", result);
+        assertEquals(0, keys.get());
+    }
+
+    @Test
+    public void fingerprint() {
+        assertEquals(RequestCoalescer.fingerprint(giftCard("5022440000000000098")), RequestCoalescer.fingerprint(giftCard("5022440000000000098")));
+        assertNotEquals(RequestCoalescer.fingerprint(giftCard("5022440000000000098")), RequestCoalescer.fingerprint(giftCard("5022440000000000007")));
+        assertFalse(RequestCoalescer.fingerprint(giftCard("5022440000000000098")).contains("5022440000000000098"));
+
+        HashMap<String, String> unordered = new HashMap<>();
+        unordered.put("key", "value");
+        assertNull(RequestCoalescer.fingerprint(unordered));
+        assertNull(RequestCoalescer.fingerprint(new Object()));
+    }
+
+    private List<Object> runConcurrently(Callable<Object> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        List<Future<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(executor.submit(call));
+        }
+        // let every caller reach the coalescer before the gateway answers
+        Thread.sleep(100);
+        release.countDown();
+
+        List<Object> results = new ArrayList<>();
+        for (Future<Object> future : futures) {
+            results.add(future.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        return results;
+    }
+
+    private static GiftCard giftCard(String number) {
+        GiftCard card = new GiftCard();
+        card.setNumber(number);
+        return card;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
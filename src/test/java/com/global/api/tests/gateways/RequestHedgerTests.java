@@ -0,0 +1,134 @@
+package com.global.api.tests.gateways;
+
+import com.global.api.entities.exceptions.GatewayException;
+import com.global.api.gateways.RequestHedger;
+import com.global.api.serviceConfigs.HedgingConfig;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class RequestHedgerTests {
+    private static HedgingConfig config() {
+        return new HedgingConfig()
+                .setInitialHedgeDelayMillis(50)
+                .setMinHedgeDelayMillis(1);
+    }
+
+    @Test
+    public void fastRequestNotHedged() throws GatewayException {
+        RequestHedger hedger = new RequestHedger(config());
+        AtomicInteger calls = new AtomicInteger();
+
+        String response = hedger.execute(() -> "attempt " + calls.incrementAndGet());
+
+        assertEquals("attempt 1", response);
+        assertEquals(1, calls.get());
+        assertEquals(0, hedger.getHedgedCount());
+    }
+
+    @Test
+    public void slowRequestHedgedAndLoserCancelled() throws Exception {
+        RequestHedger hedger = new RequestHedger(config());
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch loserInterrupted = new CountDownLatch(1);
+
+        long start = System.nanoTime();
+        String response = hedger.execute(() -> {
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    loserInterrupted.countDown();
+                }
+                return "primary";
+            }
+            return "hedge";
+        });
+
+        assertEquals("hedge", response);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertEquals(1, hedger.getHedgedCount());
+        assertEquals(1, hedger.getHedgeWinCount());
+        assertTrue(loserInterrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void noHedgeWithoutBudget() throws GatewayException {
+        RequestHedger hedger = new RequestHedger(config()
+                .setBudgetRatio(0)
+                .setMinHedgesPerSecond(0)
+                .setMaxHedgeBurst(0));
+        AtomicInteger calls = new AtomicInteger();
+
+        String response = hedger.execute(() -> {
+            calls.incrementAndGet();
+            sleep(150);
+            return "primary";
+        });
+
+        assertEquals("primary", response);
+        assertEquals(1, calls.get());
+        assertEquals(0, hedger.getHedgedCount());
+    }
+
+    @Test
+    public void failedHedgeFallsBackToPrimary() throws GatewayException {
+        RequestHedger hedger = new RequestHedger(config());
+        AtomicInteger calls = new AtomicInteger();
+
+        String response = hedger.execute(() -> {
+            if (calls.incrementAndGet() == 1) {
+                sleep(150);
+                return "primary";
+            }
+            throw new GatewayException("hedge failed");
+        });
+
+        assertEquals("primary", response);
+        assertEquals(1, hedger.getHedgedCount());
+    }
+
+    @Test
+    public void errorReturnedWhenAllAttemptsFail() {
+        RequestHedger hedger = new RequestHedger(config());
+        try {
+            hedger.execute(() -> {
+                throw new GatewayException("unavailable");
+            });
+            fail("Expected the error to be returned.");
+        } catch (GatewayException e) {
+            assertEquals("unavailable", e.getMessage());
+        }
+        assertEquals(0, hedger.getHedgedCount());
+    }
+
+    @Test
+    public void hedgeDelayFollowsObservedLatency() throws GatewayException {
+        RequestHedger hedger = new RequestHedger(config().setInitialHedgeDelayMillis(1000));
+        for (int i = 0; i < 32; i++) {
+            hedger.execute(() -> "fast");
+        }
+        assertTrue(hedger.getHedgeDelayMillis() < 1000);
+    }
+
+    @Test
+    public void onlySafeVerbsHedged() {
+        assertTrue(RequestHedger.isSafe("GET"));
+        assertTrue(RequestHedger.isSafe("head"));
+        assertFalse(RequestHedger.isSafe("POST"));
+        assertFalse(RequestHedger.isSafe("PATCH"));
+        assertFalse(RequestHedger.isSafe("DELETE"));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
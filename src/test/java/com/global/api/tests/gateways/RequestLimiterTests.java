@@ -0,0 +1,191 @@
+package com.global.api.tests.gateways;
+
+import com.global.api.ServicesContainer;
+import com.global.api.entities.Transaction;
+import com.global.api.entities.enums.RequestPriority;
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.entities.exceptions.GatewayException;
+import com.global.api.entities.exceptions.RequestRejectedException;
+import com.global.api.gateways.AdaptiveConcurrencyLimiter;
+import com.global.api.gateways.RequestLimiter;
+import com.global.api.serviceConfigs.Configuration;
+import com.global.api.serviceConfigs.LimiterConfig;
+import com.global.api.tests.FakeGateway;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RequestLimiterTests {
+    private static LimiterConfig singleSlot(int maxQueueSize, long maxQueueWaitMillis) {
+        return new LimiterConfig()
+                .setInitialConcurrency(1)
+                .setMinConcurrency(1)
+                .setMaxConcurrency(1)
+                .setMaxQueueSize(maxQueueSize)
+                .setMaxQueueWaitMillis(maxQueueWaitMillis);
+    }
+
+    private static ExecutorService holdSlot(final RequestLimiter limiter, final CountDownLatch started, final CountDownLatch release) {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> limiter.execute(() -> {
+            started.countDown();
+            await(release);
+            return null;
+        }));
+        return executor;
+    }
+
+    private static void await(CountDownLatch latch) {
+        await(latch, 5000);
+    }
+
+    private static void await(CountDownLatch latch, long millis) {
+        try {
+            latch.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void rejectsImmediatelyWhenQueueIsFull() throws Exception {
+        RequestLimiter limiter = new RequestLimiter(singleSlot(0, 5000));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = holdSlot(limiter, started, release);
+        try {
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            long start = System.nanoTime();
+            try {
+                limiter.execute(() -> "unreachable");
+                fail("Expected the request to be rejected.");
+            } catch (RequestRejectedException e) {
+                assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+            }
+            assertEquals(1, limiter.getRejectedCount());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void queuedCallerRejectedAtDeadline() throws Exception {
+        RequestLimiter limiter = new RequestLimiter(singleSlot(10, 50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = holdSlot(limiter, started, release);
+        try {
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            long start = System.nanoTime();
+            try {
+                limiter.execute(() -> "unreachable");
+                fail("Expected the request to be rejected.");
+            } catch (RequestRejectedException e) {
+                assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 40);
+            }
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void queuedCallerAdmittedWhenSlotFrees() throws Exception {
+        RequestLimiter limiter = new RequestLimiter(singleSlot(10, 5000));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = holdSlot(limiter, started, release);
+        try {
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            new Thread(() -> {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException ignored) {
+                }
+                release.countDown();
+            }).start();
+
+            assertEquals("admitted", limiter.execute(() -> "admitted"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void limitBacksOffWhenGatewayThrottles() throws ApiException {
+        RequestLimiter limiter = new RequestLimiter(new LimiterConfig().setInitialConcurrency(10));
+        try {
+            limiter.execute(() -> {
+                throw new GatewayException("Status Code: 503", "503", null);
+            });
+            fail("Expected the gateway exception to propagate.");
+        } catch (GatewayException e) {
+            assertEquals("503", e.getResponseCode());
+        }
+        assertEquals(9, limiter.getConcurrencyLimiter().getLimit());
+    }
+
+    @Test
+    public void limitGrowsWhileHealthy() throws ApiException {
+        RequestLimiter limiter = new RequestLimiter(new LimiterConfig()
+                .setInitialConcurrency(1)
+                .setLatencyTolerance(10));
+        for (int i = 0; i < 20; i++) {
+            limiter.execute(() -> {
+                await(new CountDownLatch(1), 2);
+                return null;
+            });
+        }
+        assertTrue(limiter.getConcurrencyLimiter().getLimit() > 1);
+        assertEquals(0, limiter.getConcurrencyLimiter().getInFlight());
+    }
+
+    @Test
+    public void latencyComparedWithinPriority() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 0.9, 2, 10);
+        long fast = TimeUnit.MILLISECONDS.toNanos(20);
+        long slow = TimeUnit.MILLISECONDS.toNanos(900);
+
+        assertTrue(limiter.tryAcquire(0, TimeUnit.MILLISECONDS));
+        limiter.release(RequestPriority.Authorization, fast, false);
+        // a report is slow next to an authorization, but not next to other reports
+        assertTrue(limiter.tryAcquire(0, TimeUnit.MILLISECONDS));
+        limiter.release(RequestPriority.Report, slow, false);
+        assertEquals(10, limiter.getLimit());
+
+        assertTrue(limiter.tryAcquire(0, TimeUnit.MILLISECONDS));
+        limiter.release(RequestPriority.Authorization, slow, false);
+        assertEquals(9, limiter.getLimit());
+    }
+
+    @Test
+    public void rateLimitAppliedThroughServicesContainer() throws ApiException {
+        FakeGateway gateway = new FakeGateway();
+        gateway.managementHandler = builder -> Transaction.fromId(builder.getTransactionId());
+
+        Configuration config = gateway.toConfiguration();
+        config.setLimiterConfig(new LimiterConfig()
+                .setRequestsPerSecond(0.1)
+                .setBurst(1)
+                .setInitialConcurrency(0)
+                .setMaxQueueWaitMillis(0));
+        ServicesContainer.configureService(config, "limited");
+
+        Transaction.fromId("1").capture(new BigDecimal(10)).execute("limited");
+        try {
+            Transaction.fromId("2").capture(new BigDecimal(10)).execute("limited");
+            fail("Expected the second request to be rate limited.");
+        } catch (RequestRejectedException e) {
+            assertEquals(1, gateway.requestCount.get());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.global.api.tests.reporting;
+
+import com.global.api.ServicesContainer;
+import com.global.api.entities.TransactionSummary;
+import com.global.api.entities.enums.ReportType;
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.entities.reporting.DepositSummary;
+import com.global.api.gateways.CachingReportingService;
+import com.global.api.gateways.LruReportCache;
+import com.global.api.serviceConfigs.ReportCacheConfig;
+import com.global.api.services.ReportingService;
+import com.global.api.tests.FakeGateway;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class CachingReportingServiceTests {
+    private FakeGateway gateway;
+    private CachingReportingService service;
+
+    @Before
+    public void init() {
+        gateway = new FakeGateway();
+        gateway.reportHandler = builder -> {
+            if (builder.getReportType() == ReportType.DepositDetail) {
+                return new DepositSummary();
+            }
+            return new TransactionSummary();
+        };
+
+        service = new CachingReportingService(gateway, new ReportCacheConfig()
+                .setMaxEntries(2)
+                .setTimeToLive(ReportType.TransactionDetail, 1, TimeUnit.MINUTES));
+    }
+
+    @Test
+    public void servesRepeatedLookupsFromCache() throws ApiException {
+        TransactionSummary first = service.processReport(ReportingService.transactionDetail("TRN_1"), TransactionSummary.class);
+        TransactionSummary second = service.processReport(ReportingService.transactionDetail("TRN_1"), TransactionSummary.class);
+
+        assertSame(first, second);
+        assertEquals(1, gateway.requestCount.get());
+        assertEquals(1, service.getHitCount());
+        assertEquals(1, service.getMissCount());
+        assertEquals(0.5, service.getHitRatio(), 0);
+    }
+
+    @Test
+    public void skipsReportTypesWithoutTimeToLive() throws ApiException {
+        service.processReport(ReportingService.depositDetail("DEP_1"), DepositSummary.class);
+        service.processReport(ReportingService.depositDetail("DEP_1"), DepositSummary.class);
+
+        assertEquals(2, gateway.requestCount.get());
+        assertEquals(0, service.getMissCount());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws ApiException {
+        service.processReport(ReportingService.transactionDetail("TRN_1"), TransactionSummary.class);
+        service.processReport(ReportingService.transactionDetail("TRN_2"), TransactionSummary.class);
+        service.processReport(ReportingService.transactionDetail("TRN_1"), TransactionSummary.class);
+        service.processReport(ReportingService.transactionDetail("TRN_3"), TransactionSummary.class);
+        service.processReport(ReportingService.transactionDetail("TRN_2"), TransactionSummary.class);
+
+        assertEquals(4, gateway.requestCount.get());
+        assertEquals(2, service.getCache().size());
+        assertEquals(2, ((LruReportCache) service.getCache()).getEvictionCount());
+    }
+
+    @Test
+    public void expiresEntries() throws Exception {
+        LruReportCache cache = new LruReportCache(10);
+        cache.put("key", "value", 1);
+        Thread.sleep(5);
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void usedByReportBuilders() throws ApiException {
+        ServicesContainer.configureService(gateway.toConfiguration(), "cached");
+        assertSame(gateway, ServicesContainer.getInstance().getReportingService("cached"));
+
+        ReportingService.transactionDetail("TRN_1").execute("cached");
+        assertEquals(1, gateway.requestCount.get());
+    }
+}
@@ -0,0 +1,125 @@
+package com.global.api.tests.reporting;
+
+import com.global.api.ServicesContainer;
+import com.global.api.builders.ReportBuilder;
+import com.global.api.builders.TransactionReportBuilder;
+import com.global.api.entities.TransactionSummary;
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.entities.exceptions.GatewayException;
+import com.global.api.entities.reporting.ReportCursor;
+import com.global.api.entities.reporting.TransactionSummaryPaged;
+import com.global.api.services.ReportingService;
+import com.global.api.tests.FakeGateway;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class ReportCursorTests {
+    private static final int TOTAL = 23;
+    private FakeGateway gateway;
+
+    @Before
+    public void init() throws ApiException {
+        gateway = new FakeGateway();
+        gateway.reportHandler = builder -> {
+            TransactionReportBuilder<?> reportBuilder = (TransactionReportBuilder<?>) builder;
+            TransactionSummaryPaged result = new TransactionSummaryPaged();
+            result.setTotalRecordCount(TOTAL);
+            result.setPage(reportBuilder.getPage());
+            result.setPageSize(reportBuilder.getPageSize());
+
+            int start = (reportBuilder.getPage() - 1) * reportBuilder.getPageSize();
+            for (int i = start; i < Math.min(TOTAL, start + reportBuilder.getPageSize()); i++) {
+                TransactionSummary summary = new TransactionSummary();
+                summary.setTransactionId(String.valueOf(i));
+                result.add(summary);
+            }
+            return result;
+        };
+        ServicesContainer.configureService(gateway.toConfiguration(), "cursor");
+    }
+
+    @Test
+    public void iteratesEveryPageInOrder() throws ApiException {
+        ReportCursor<TransactionSummary> cursor = ReportingService
+                .findTransactionsPaged(1, 5)
+                .withPrefetchDepth(2)
+                .cursor("cursor");
+
+        int expected = 0;
+        while (cursor.hasNext()) {
+            assertEquals(String.valueOf(expected++), cursor.next().getTransactionId());
+        }
+        assertEquals(TOTAL, expected);
+        assertEquals(5, gateway.requestCount.get());
+    }
+
+    @Test
+    public void fetchesAheadWhileCurrentPageIsConsumed() throws Exception {
+        CountDownLatch secondPageRequested = new CountDownLatch(1);
+        FakeGateway.Handler<ReportBuilder<?>, Object> pages = gateway.reportHandler;
+        gateway.reportHandler = builder -> {
+            if (((TransactionReportBuilder<?>) builder).getPage() == 2) {
+                secondPageRequested.countDown();
+            }
+            return pages.handle(builder);
+        };
+
+        ReportCursor<TransactionSummary> cursor = ReportingService.findTransactionsPaged(1, 5).cursor("cursor");
+        assertEquals("0", cursor.next().getTransactionId());
+
+        // page 2 is requested while page 1 is still being read, and nothing further than prefetchDepth
+        assertTrue(secondPageRequested.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(2, gateway.requestCount.get());
+        cursor.dispose();
+    }
+
+    @Test
+    public void builderPageUnchanged() throws ApiException {
+        TransactionReportBuilder<TransactionSummaryPaged> builder = ReportingService.findTransactionsPaged(2, 5);
+        ReportCursor<TransactionSummary> cursor = builder.cursor("cursor");
+
+        int rows = 0;
+        while (cursor.hasNext()) {
+            cursor.next();
+            rows++;
+        }
+        assertEquals(TOTAL - 5, rows);
+        assertEquals(2, builder.getPage());
+    }
+
+    @Test
+    public void streamsRows() {
+        List<String> ids = ReportingService
+                .findTransactionsPaged(3, 10)
+                .<TransactionSummary>stream("cursor")
+                .map(TransactionSummary::getTransactionId)
+                .collect(Collectors.toList());
+
+        assertEquals(3, ids.size());
+        assertEquals("20", ids.get(0));
+    }
+
+    @Test
+    public void surfacesPageErrors() throws ApiException {
+        gateway.reportHandler = builder -> {
+            throw new GatewayException("page failed");
+        };
+
+        ReportCursor<TransactionSummary> cursor = ReportingService.findTransactionsPaged(1, 5).cursor("cursor");
+        try {
+            cursor.hasNext();
+            fail("Expected the fetch error to be rethrown.");
+        } catch (GatewayException e) {
+            assertEquals("page failed", e.getMessage());
+        }
+        assertFalse(cursor.hasNext());
+    }
+}
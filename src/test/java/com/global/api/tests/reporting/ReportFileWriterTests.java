@@ -0,0 +1,91 @@
+package com.global.api.tests.reporting;
+
+import com.global.api.entities.TransactionSummary;
+import com.global.api.entities.reporting.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ReportFileWriterTests {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<TransactionSummary> transactions(int count) {
+        List<TransactionSummary> transactions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TransactionSummary summary = new TransactionSummary();
+            summary.setTransactionId("TRN_" + i);
+            summary.setAmount(new BigDecimal("10.50").add(new BigDecimal(i)));
+            summary.setOrderId(i % 2 == 0 ? "order, \"" + i + "\"" : null);
+            transactions.add(summary);
+        }
+        return transactions;
+    }
+
+    @Test
+    public void writesCsv() throws Exception {
+        Path file = folder.newFile("transactions.csv").toPath();
+        List<ReportColumn<TransactionSummary>> columns = ReportColumns.select(ReportColumns.TRANSACTION_SUMMARY, "transactionId", "amount", "orderId");
+
+        try (CsvReportWriter<TransactionSummary> writer = CsvReportWriter.open(file, columns)) {
+            writer.writeAll(transactions(2));
+        }
+
+        String csv = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        assertEquals("transactionId,amount,orderId\r\nTRN_0,10.50,\"order, \"\"0\"\"\"\r\nTRN_1,11.50,\r\n", csv);
+    }
+
+    @Test
+    public void columnarRoundTrip() throws Exception {
+        Path file = folder.newFile("transactions.gprc").toPath();
+        List<ReportColumn<TransactionSummary>> columns = ReportColumns.select(ReportColumns.TRANSACTION_SUMMARY, "transactionId", "amount", "orderId");
+
+        try (ColumnarReportWriter<TransactionSummary> writer = new ColumnarReportWriter<>(Files.newByteChannel(file, StandardOpenOption.WRITE), columns, 7)) {
+            writer.writeAll(transactions(100));
+        }
+
+        try (ColumnarReportReader reader = ColumnarReportReader.open(file)) {
+            assertEquals(3, reader.getColumnNames().size());
+            assertEquals("amount", reader.getColumnNames().get(1));
+
+            int count = 0;
+            String[] row;
+            while ((row = reader.readRow()) != null) {
+                assertEquals("TRN_" + count, row[0]);
+                assertEquals(new BigDecimal("10.50").add(new BigDecimal(count)).toPlainString(), row[1]);
+                if (count % 2 == 0) {
+                    assertEquals("order, \"" + count + "\"", row[2]);
+                } else {
+                    assertNull(row[2]);
+                }
+                count++;
+            }
+            assertEquals(100, count);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownColumn() {
+        ReportColumns.select(ReportColumns.DEPOSIT_SUMMARY, "depositId", "missing");
+    }
+
+    @Test
+    public void writesEmptyReport() throws IOException {
+        Path file = folder.newFile("empty.csv").toPath();
+        CsvReportWriter.open(file, ReportColumns.DISPUTE_SUMMARY).close();
+
+        String csv = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("caseId,caseIdTime,"));
+    }
+}
@@ -0,0 +1,112 @@
+package com.global.api.tests.reporting;
+
+import com.global.api.ServicesContainer;
+import com.global.api.builders.TransactionReportBuilder;
+import com.global.api.entities.TransactionSummary;
+import com.global.api.entities.TransactionSummaryList;
+import com.global.api.entities.enums.SortDirection;
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.entities.exceptions.GatewayException;
+import com.global.api.entities.reporting.ShardedReportExport;
+import com.global.api.entities.reporting.TransactionSummaryPaged;
+import com.global.api.services.ReportingService;
+import com.global.api.tests.FakeGateway;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ShardedReportExportTests {
+    // One transaction every 6 hours across 3 days, the last one exactly on the end date
+    private static final DateTime START = new DateTime(2021, 1, 1, 0, 0);
+    private static final List<TransactionSummary> TRANSACTIONS = new ArrayList<>();
+
+    static {
+        for (int i = 0; i <= 12; i++) {
+            TransactionSummary summary = new TransactionSummary();
+            summary.setTransactionId("TRN_" + i);
+            summary.setTransactionDate(START.plusHours(i * 6));
+            TRANSACTIONS.add(summary);
+        }
+    }
+
+    private FakeGateway gateway;
+
+    @Before
+    public void init() throws ApiException {
+        gateway = new FakeGateway();
+        ServicesContainer.configureService(gateway.toConfiguration(), "export");
+    }
+
+    @Test
+    public void mergesListShardsInDateOrder() throws ApiException {
+        // Each shard also returns the first row of the following shard, as a day based filter would
+        gateway.reportHandler = builder -> {
+            TransactionReportBuilder<?> reportBuilder = (TransactionReportBuilder<?>) builder;
+            TransactionSummaryList list = new TransactionSummaryList();
+            for (TransactionSummary summary : TRANSACTIONS) {
+                long time = summary.getTransactionDate().getMillis();
+                if (time >= reportBuilder.getStartDate().getTime() && time <= reportBuilder.getEndDate().getTime() + 1) {
+                    list.add(0, summary);
+                }
+            }
+            return list;
+        };
+
+        List<TransactionSummary> rows = new ShardedReportExport(ReportingService::findTransactions, START.toDate(), START.plusDays(3).toDate())
+                .withShardDuration(12, TimeUnit.HOURS)
+                .withConcurrency(3)
+                .execute("export");
+
+        assertEquals(TRANSACTIONS.size(), rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals("TRN_" + i, rows.get(i).getTransactionId());
+        }
+        assertEquals(7, gateway.requestCount.get());
+    }
+
+    @Test
+    public void pagesThroughEachShard() throws ApiException {
+        gateway.reportHandler = builder -> {
+            TransactionReportBuilder<?> reportBuilder = (TransactionReportBuilder<?>) builder;
+            List<TransactionSummary> matches = new ArrayList<>();
+            for (TransactionSummary summary : TRANSACTIONS) {
+                long time = summary.getTransactionDate().getMillis();
+                if (time >= reportBuilder.getStartDate().getTime() && time <= reportBuilder.getEndDate().getTime()) {
+                    matches.add(summary);
+                }
+            }
+
+            TransactionSummaryPaged result = new TransactionSummaryPaged();
+            result.setTotalRecordCount(matches.size());
+            int from = (reportBuilder.getPage() - 1) * reportBuilder.getPageSize();
+            for (int i = from; i < Math.min(matches.size(), from + reportBuilder.getPageSize()); i++) {
+                result.add(matches.get(i));
+            }
+            return result;
+        };
+
+        List<TransactionSummary> rows = new ShardedReportExport(() -> ReportingService.findTransactionsPaged(1, 2), START.toDate(), START.plusDays(3).toDate())
+                .withRequestsPerSecond(1000)
+                .withOrder(SortDirection.Descending)
+                .execute("export");
+
+        assertEquals(TRANSACTIONS.size(), rows.size());
+        assertEquals("TRN_12", rows.get(0).getTransactionId());
+        assertEquals("TRN_0", rows.get(rows.size() - 1).getTransactionId());
+    }
+
+    @Test(expected = GatewayException.class)
+    public void propagatesShardFailure() throws ApiException {
+        gateway.reportHandler = builder -> {
+            throw new GatewayException("shard failed");
+        };
+
+        new ShardedReportExport(ReportingService::findTransactions, START.toDate(), START.plusDays(3).toDate()).execute("export");
+    }
+}
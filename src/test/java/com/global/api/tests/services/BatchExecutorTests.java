@@ -0,0 +1,161 @@
+package com.global.api.tests.services;
+
+import com.global.api.ServicesContainer;
+import com.global.api.builders.ManagementBuilder;
+import com.global.api.builders.TransactionBuilder;
+import com.global.api.entities.BatchExecutionOptions;
+import com.global.api.entities.BatchItemResult;
+import com.global.api.entities.Transaction;
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.entities.exceptions.BuilderException;
+import com.global.api.entities.exceptions.GatewayComsException;
+import com.global.api.entities.exceptions.GatewayException;
+import com.global.api.entities.exceptions.GatewayTimeoutException;
+import com.global.api.services.BatchExecutor;
+import com.global.api.tests.FakeGateway;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class BatchExecutorTests {
+    private FakeGateway gateway;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+
+    @Before
+    public void init() throws ApiException {
+        gateway = new FakeGateway();
+        gateway.managementHandler = builder -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+            return Transaction.fromId(builder.getTransactionId());
+        };
+        ServicesContainer.configureService(gateway.toConfiguration(), "batch");
+    }
+
+    private List<TransactionBuilder<Transaction>> captures(int count) {
+        List<TransactionBuilder<Transaction>> builders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            builders.add(Transaction.fromId(String.valueOf(i)).capture(new BigDecimal(10)));
+        }
+        return builders;
+    }
+
+    @Test
+    public void resultsReturnedInSubmissionOrder() throws ApiException {
+        List<BatchItemResult> results = BatchExecutor.executeAll(captures(50), "batch", new BatchExecutionOptions().withMaxConcurrency(8));
+
+        assertEquals(50, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertTrue(results.get(i).isSuccessful());
+            assertEquals(String.valueOf(i), results.get(i).getTransaction().getTransactionId());
+        }
+        assertTrue(maxActive.get() <= 8);
+    }
+
+    @Test
+    public void concurrencyIsBounded() throws ApiException {
+        BatchExecutor.executeAll(captures(40), "batch", new BatchExecutionOptions().withMaxConcurrency(3));
+        assertTrue(maxActive.get() <= 3);
+    }
+
+    @Test
+    public void transientFailuresAreRetried() throws ApiException {
+        final Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        gateway.managementHandler = builder -> {
+            if (attempts.computeIfAbsent(builder.getTransactionId(), k -> new AtomicInteger()).incrementAndGet() < 3) {
+                throw new GatewayComsException(new ConnectException(), true);
+            }
+            return Transaction.fromId(builder.getTransactionId());
+        };
+
+        List<BatchItemResult> results = BatchExecutor.executeAll(captures(5), "batch", new BatchExecutionOptions()
+                .withMaxRetries(2)
+                .withBackoff(1, 5, TimeUnit.MILLISECONDS));
+
+        for (BatchItemResult result : results) {
+            assertTrue(result.isSuccessful());
+            assertEquals(3, result.getAttempts());
+            assertNotNull(((ManagementBuilder) result.getBuilder()).getIdempotencyKey());
+        }
+    }
+
+    @Test
+    public void failuresAreReportedPerItem() throws ApiException {
+        gateway.managementHandler = builder -> {
+            if (builder.getTransactionId().equals("2")) {
+                throw new GatewayException("Declined", "14", "Invalid card");
+            }
+            return Transaction.fromId(builder.getTransactionId());
+        };
+
+        List<BatchItemResult> results = BatchExecutor.executeAll(captures(4), "batch", new BatchExecutionOptions()
+                .withBackoff(1, 5, TimeUnit.MILLISECONDS));
+
+        assertTrue(results.get(1).isSuccessful());
+        assertFalse(results.get(2).isSuccessful());
+        assertEquals(1, results.get(2).getAttempts());
+        assertEquals("14", ((GatewayException) results.get(2).getException()).getResponseCode());
+        assertTrue(results.get(3).isSuccessful());
+        assertEquals(4, gateway.requestCount.get());
+    }
+
+    @Test
+    public void sentRequestsAreNotRetriedWithoutIdempotency() throws ApiException {
+        gateway.managementHandler = builder -> {
+            throw new GatewayException("Bad gateway", "502", null);
+        };
+
+        List<BatchItemResult> results = BatchExecutor.executeAll(captures(2), "batch", new BatchExecutionOptions()
+                .withBackoff(1, 5, TimeUnit.MILLISECONDS));
+
+        for (BatchItemResult result : results) {
+            assertFalse(result.isSuccessful());
+            assertEquals(1, result.getAttempts());
+        }
+    }
+
+    @Test
+    public void transientClassification() {
+        assertTrue(BatchExecutor.isTransient(new GatewayComsException(new ConnectException(), true)));
+        assertTrue(BatchExecutor.isTransient(new GatewayException("Refused", new ConnectException())));
+        assertFalse(BatchExecutor.isTransient(new GatewayComsException()));
+        assertFalse(BatchExecutor.isTransient(new GatewayException("Bad gateway", "502", null)));
+        assertFalse(BatchExecutor.isTransient(new GatewayException("Unavailable", "504", null)));
+        assertFalse(BatchExecutor.isTransient(new GatewayTimeoutException()));
+        assertFalse(BatchExecutor.isTransient(new GatewayException("Declined", "05", "Do not honor")));
+        assertFalse(BatchExecutor.isTransient(new BuilderException("Invalid")));
+    }
+
+    @Test
+    public void idempotentClassification() {
+        assertTrue(BatchExecutor.isTransient(new GatewayComsException(), true));
+        assertTrue(BatchExecutor.isTransient(new GatewayException("Bad gateway", "502", null), true));
+        assertTrue(BatchExecutor.isTransient(new GatewayException("Unavailable", "503", null), true));
+        assertFalse(BatchExecutor.isTransient(new GatewayTimeoutException(), true));
+        assertFalse(BatchExecutor.isTransient(new GatewayException("Declined", "05", "Do not honor"), true));
+    }
+
+    @Test(expected = BuilderException.class)
+    public void invalidConcurrency() throws ApiException {
+        BatchExecutor.executeAll(captures(1), "batch", new BatchExecutionOptions().withMaxConcurrency(0));
+    }
+}
@@ -0,0 +1,158 @@
+package com.global.api.tests.terminals;
+
+import com.global.api.entities.enums.ConnectionModes;
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.entities.exceptions.MessageException;
+import com.global.api.services.DeviceService;
+import com.global.api.terminals.abstractions.IDeviceInterface;
+import com.global.api.terminals.abstractions.IDeviceResponse;
+import com.global.api.terminals.abstractions.IInitializeResponse;
+import com.global.api.tests.terminals.simulators.DeviceSimulator;
+import com.global.api.tests.terminals.simulators.HpaSimulator;
+import com.global.api.tests.terminals.simulators.LaneLoadHarness;
+import com.global.api.tests.terminals.simulators.LatencyReport;
+import com.global.api.tests.terminals.simulators.PaxSimulator;
+import com.global.api.tests.terminals.simulators.UpaSimulator;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class DeviceSimulatorTests {
+    private final List<DeviceSimulator> simulators = new ArrayList<>();
+    private final List<IDeviceInterface> devices = new ArrayList<>();
+
+    @After
+    public void cleanup() {
+        for (IDeviceInterface device : devices) {
+            device.dispose();
+        }
+        for (DeviceSimulator simulator : simulators) {
+            simulator.close();
+        }
+    }
+
+    @Test
+    public void paxTcpRetransmitsAfterNakAndCorruptResponse() throws Exception {
+        PaxSimulator simulator = add(new PaxSimulator(ConnectionModes.TCP_IP));
+        simulator.setNakRequests(1);
+        simulator.setCorruptResponses(1);
+
+        IInitializeResponse response = device(simulator, "paxTcpSimulator").initialize();
+
+        assertEquals("000000", response.getDeviceResponseCode());
+        assertEquals(PaxSimulator.SERIAL_NUMBER, response.getSerialNumber());
+        assertEquals(2, simulator.getRequestCount());
+    }
+
+    @Test
+    public void paxHttp() throws Exception {
+        PaxSimulator simulator = add(new PaxSimulator(ConnectionModes.HTTP));
+
+        IInitializeResponse response = device(simulator, "paxHttpSimulator").initialize();
+
+        assertEquals("000000", response.getDeviceResponseCode());
+        assertEquals(PaxSimulator.SERIAL_NUMBER, response.getSerialNumber());
+    }
+
+    @Test
+    public void paxBusy() throws Exception {
+        PaxSimulator simulator = add(new PaxSimulator(ConnectionModes.TCP_IP));
+        simulator.setBusyResponses(1);
+        IDeviceInterface device = device(simulator, "paxBusySimulator");
+
+        assertEquals(PaxSimulator.BUSY_RESPONSE_CODE, device.initialize().getDeviceResponseCode());
+        assertEquals("000000", device.initialize().getDeviceResponseCode());
+    }
+
+    @Test
+    public void upaPing() throws Exception {
+        UpaSimulator simulator = add(new UpaSimulator());
+        IDeviceInterface device = device(simulator, "upaSimulator");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("00", device.ping().getDeviceResponseCode());
+        }
+        assertEquals(1, simulator.getConnectionCount());
+    }
+
+    @Test
+    public void upaBusy() throws Exception {
+        UpaSimulator simulator = add(new UpaSimulator());
+        simulator.setBusyResponses(1);
+        IDeviceInterface device = device(simulator, "upaBusySimulator");
+
+        try {
+            device.ping();
+            fail("Expected the device to be busy.");
+        } catch (MessageException e) {
+            assertEquals("Device is busy", e.getMessage());
+        }
+        assertEquals("00", device.ping().getDeviceResponseCode());
+    }
+
+    @Test
+    public void hpaMultipleMessages() throws Exception {
+        HpaSimulator simulator = add(new HpaSimulator());
+        simulator.setMultipleMessages(2);
+        IDeviceInterface device = device(simulator, "hpaSimulator");
+
+        IDeviceResponse response = device.openLane();
+
+        assertEquals("00", response.getDeviceResponseCode());
+        assertEquals("0", response.getStatus());
+        assertEquals(3, response.toString().split("\r").length);
+    }
+
+    @Test
+    public void hpaBusy() throws Exception {
+        HpaSimulator simulator = add(new HpaSimulator());
+        simulator.setBusyResponses(1);
+        IDeviceInterface device = device(simulator, "hpaBusySimulator");
+
+        IDeviceResponse response = device.openLane();
+
+        assertEquals(HpaSimulator.BUSY_RESULT, response.getDeviceResponseCode());
+        assertEquals(HpaSimulator.BUSY_RESULT_TEXT, response.getDeviceResponseText());
+    }
+
+    @Test
+    public void harnessReportsLatencyPerCommand() throws Exception {
+        List<UpaSimulator> lanes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            UpaSimulator simulator = add(new UpaSimulator());
+            simulator.setLatency(10, 10);
+            lanes.add(simulator);
+        }
+
+        Map<String, LatencyReport> reports = new LaneLoadHarness(lanes)
+                .addCommand("ping", IDeviceInterface::ping)
+                .addCommand("lineItem", device -> device.addLineItem("Coffee", "1.00"))
+                .run(5);
+
+        assertEquals(2, reports.size());
+        for (LatencyReport report : reports.values()) {
+            assertEquals(20, report.getCount());
+            assertEquals(0, report.getFailureCount());
+            assertTrue(report.getPercentileMillis(50) >= 10);
+            assertTrue(report.getPercentileMillis(99) >= report.getPercentileMillis(50));
+            assertTrue(report.getMaxMillis() >= report.getPercentileMillis(99));
+            assertTrue(report.getThroughput() > 0);
+        }
+    }
+
+    private <T extends DeviceSimulator> T add(T simulator) {
+        simulators.add(simulator);
+        return simulator;
+    }
+
+    private IDeviceInterface device(DeviceSimulator simulator, String name) throws ApiException {
+        IDeviceInterface device = DeviceService.create(simulator.getConnectionConfig(), name);
+        devices.add(device);
+        return device;
+    }
+}
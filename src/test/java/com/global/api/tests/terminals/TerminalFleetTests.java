@@ -0,0 +1,277 @@
+package com.global.api.tests.terminals;
+
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.entities.exceptions.MessageException;
+import com.global.api.entities.exceptions.RequestRejectedException;
+import com.global.api.entities.exceptions.UnsupportedTransactionException;
+import com.global.api.serviceConfigs.FleetConfig;
+import com.global.api.terminals.abstractions.IDeviceInterface;
+import com.global.api.terminals.fleet.TerminalFleet;
+import com.global.api.terminals.fleet.TerminalLane;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TerminalFleetTests {
+    // a device whose ping succeeds unless it is offline
+    private static class FakeDevice {
+        final AtomicInteger pings = new AtomicInteger();
+        final AtomicInteger disposals = new AtomicInteger();
+        volatile boolean offline;
+        // like PAX and HPA devices, which have no ping
+        volatile boolean pingUnsupported;
+
+        IDeviceInterface create() {
+            return (IDeviceInterface) Proxy.newProxyInstance(IDeviceInterface.class.getClassLoader(),
+                    new Class<?>[] { IDeviceInterface.class }, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "ping":
+                                pings.incrementAndGet();
+                                if (pingUnsupported) {
+                                    throw new UnsupportedTransactionException("This method is not supported by the currently configured device.");
+                                }
+                                if (offline) {
+                                    throw new MessageException("Unable to connect with device.");
+                                }
+                                return null;
+                            case "dispose":
+                                disposals.incrementAndGet();
+                                return null;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+    }
+
+    private TerminalFleet fleet;
+
+    @After
+    public void cleanup() {
+        if (fleet != null) {
+            fleet.dispose();
+        }
+    }
+
+    @Test
+    public void laneCommandsSerializedWhileLanesRunInParallel() throws Exception {
+        fleet = new TerminalFleet(new FleetConfig().setThreads(4).setHeartbeatIntervalMillis(0));
+        for (int i = 0; i < 4; i++) {
+            fleet.addLane("lane" + i, new FakeDevice().create());
+        }
+
+        AtomicInteger[] perLane = new AtomicInteger[4];
+        AtomicInteger[] maxPerLane = new AtomicInteger[4];
+        AtomicInteger overall = new AtomicInteger();
+        AtomicInteger maxOverall = new AtomicInteger();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            perLane[i] = new AtomicInteger();
+            maxPerLane[i] = new AtomicInteger();
+        }
+        for (int command = 0; command < 5; command++) {
+            for (int i = 0; i < 4; i++) {
+                final int lane = i;
+                final int sequence = command;
+                results.add(fleet.submit("lane" + i, device -> {
+                    maxPerLane[lane].accumulateAndGet(perLane[lane].incrementAndGet(), Math::max);
+                    maxOverall.accumulateAndGet(overall.incrementAndGet(), Math::max);
+                    sleep(20);
+                    overall.decrementAndGet();
+                    perLane[lane].decrementAndGet();
+                    return sequence;
+                }));
+            }
+        }
+
+        for (CompletableFuture<Integer> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+        for (AtomicInteger max : maxPerLane) {
+            assertEquals(1, max.get());
+        }
+        assertTrue(maxOverall.get() > 1);
+        assertEquals(20, fleet.getCommandCount());
+        assertEquals(0, fleet.getQueuedCount());
+    }
+
+    @Test
+    public void defaultPoolGivesEveryLaneAThread() throws Exception {
+        fleet = new TerminalFleet(new FleetConfig().setHeartbeatIntervalMillis(0));
+        int laneCount = 12;
+        for (int i = 0; i < laneCount; i++) {
+            fleet.addLane("lane" + i, new FakeDevice().create());
+        }
+
+        // every lane's command blocks until all of them are running, which a smaller pool never reaches
+        CountDownLatch running = new CountDownLatch(laneCount);
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<Object>> results = new ArrayList<>();
+        for (int i = 0; i < laneCount; i++) {
+            results.add(fleet.submit("lane" + i, device -> {
+                running.countDown();
+                return await(release);
+            }));
+        }
+        try {
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+        for (CompletableFuture<Object> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void commandsRunInSubmissionOrder() throws Exception {
+        fleet = new TerminalFleet(new FleetConfig().setThreads(4).setHeartbeatIntervalMillis(0));
+        fleet.addLane("lane", new FakeDevice().create());
+
+        List<Integer> order = new ArrayList<>();
+        List<CompletableFuture<Object>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final int sequence = i;
+            results.add(fleet.submit("lane", device -> order.add(sequence)));
+        }
+        for (CompletableFuture<Object> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(i), order.get(i));
+        }
+    }
+
+    @Test
+    public void fullLaneRejectsCommands() throws Exception {
+        fleet = new TerminalFleet(new FleetConfig().setThreads(2).setMaxQueueDepth(2).setHeartbeatIntervalMillis(0));
+        fleet.addLane("lane", new FakeDevice().create());
+
+        CountDownLatch release = new CountDownLatch(1);
+        fleet.submit("lane", device -> await(release));
+        fleet.submit("lane", device -> null);
+        try {
+            fleet.submit("lane", device -> null);
+            fail("Expected the lane to be full.");
+        } catch (RequestRejectedException e) {
+            assertEquals(2, fleet.getLane("lane").getQueueDepth());
+        }
+        release.countDown();
+    }
+
+    @Test
+    public void failuresReported() throws ApiException {
+        fleet = new TerminalFleet(new FleetConfig().setHeartbeatIntervalMillis(0));
+        fleet.addLane("lane", new FakeDevice().create());
+
+        try {
+            fleet.execute("lane", device -> {
+                throw new MessageException("Terminal did not respond in the given timeout.");
+            });
+            fail("Expected the failure to be reported.");
+        } catch (MessageException e) {
+            assertEquals("Terminal did not respond in the given timeout.", e.getMessage());
+        }
+        assertEquals(1, fleet.getFailureCount());
+        assertFalse(fleet.getLane("lane").isHealthy());
+    }
+
+    @Test
+    public void idleLanesPinged() throws Exception {
+        fleet = new TerminalFleet(new FleetConfig().setHeartbeatIntervalMillis(50));
+        FakeDevice online = new FakeDevice();
+        FakeDevice offline = new FakeDevice();
+        offline.offline = true;
+        fleet.addLane("online", online.create());
+        fleet.addLane("offline", offline.create());
+
+        long until = System.currentTimeMillis() + 2000;
+        while ((online.pings.get() == 0 || fleet.getHealthyLaneCount() != 1) && System.currentTimeMillis() < until) {
+            Thread.sleep(10);
+        }
+
+        TerminalLane lane = fleet.getLane("online");
+        assertTrue(lane.isHealthy());
+        assertTrue(lane.getLastHeartbeatMillis() > 0);
+        assertEquals(0, lane.getCommandCount());
+        assertEquals(1, fleet.getUnhealthyLanes().size());
+        assertTrue(fleet.getUnhealthyLanes().contains("offline"));
+
+        offline.offline = false;
+        until = System.currentTimeMillis() + 2000;
+        while (fleet.getHealthyLaneCount() != 2 && System.currentTimeMillis() < until) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, fleet.getHealthyLaneCount());
+    }
+
+    @Test
+    public void laneWithoutPingStaysHealthy() throws Exception {
+        fleet = new TerminalFleet(new FleetConfig().setHeartbeatIntervalMillis(20));
+        FakeDevice device = new FakeDevice();
+        device.pingUnsupported = true;
+        fleet.addLane("lane", device.create());
+
+        long until = System.currentTimeMillis() + 2000;
+        while (device.pings.get() == 0 && System.currentTimeMillis() < until) {
+            Thread.sleep(5);
+        }
+        // several intervals go by; the unsupported ping is not tried again
+        Thread.sleep(200);
+
+        TerminalLane lane = fleet.getLane("lane");
+        assertEquals(1, device.pings.get());
+        assertTrue(lane.isHealthy());
+        assertEquals(0, lane.getHeartbeatFailureCount());
+        assertEquals(1, fleet.getHealthyLaneCount());
+        assertTrue(fleet.getUnhealthyLanes().isEmpty());
+    }
+
+    @Test
+    public void removedLaneDisposedAfterQueuedCommands() throws Exception {
+        fleet = new TerminalFleet(new FleetConfig().setHeartbeatIntervalMillis(0));
+        FakeDevice device = new FakeDevice();
+        fleet.addLane("lane", device.create());
+
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> queued = fleet.submit("lane", d -> await(release));
+        fleet.removeLane("lane");
+        assertEquals(0, device.disposals.get());
+
+        release.countDown();
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        long until = System.currentTimeMillis() + 2000;
+        while (device.disposals.get() == 0 && System.currentTimeMillis() < until) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, device.disposals.get());
+        assertNull(fleet.getLane("lane"));
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
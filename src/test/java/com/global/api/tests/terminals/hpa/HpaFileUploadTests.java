@@ -0,0 +1,107 @@
+package com.global.api.tests.terminals.hpa;
+
+import com.global.api.entities.enums.MessageFormat;
+import com.global.api.entities.enums.SendFileType;
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.services.DeviceService;
+import com.global.api.terminals.HexFileReader;
+import com.global.api.terminals.TerminalUtilities;
+import com.global.api.terminals.abstractions.IDeviceInterface;
+import com.global.api.terminals.abstractions.IDeviceResponse;
+import com.global.api.tests.terminals.simulators.HpaSimulator;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class HpaFileUploadTests {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HpaSimulator simulator;
+    private IDeviceInterface device;
+
+    @Before
+    public void init() throws IOException, ApiException {
+        simulator = new HpaSimulator();
+        device = DeviceService.create(simulator.getConnectionConfig(), "hpaFileUpload");
+    }
+
+    @After
+    public void cleanup() {
+        device.dispose();
+        simulator.close();
+    }
+
+    @Test
+    public void readerSplitsBytesAcrossChunks() throws IOException, ApiException {
+        byte[] content = content(1001);
+        String expected = Hex.encodeHexString(content).toUpperCase();
+
+        StringBuilder read = new StringBuilder();
+        try (HexFileReader reader = new HexFileReader(write("data.bin", content).getPath())) {
+            assertEquals(1001, reader.getFileSize());
+            byte[] buffer = new byte[37];
+            while (reader.hasRemaining()) {
+                int count = reader.read(buffer, 0, buffer.length);
+                read.append(new String(buffer, 0, count, StandardCharsets.US_ASCII));
+            }
+        }
+        assertEquals(expected, read.toString());
+    }
+
+    @Test
+    public void fileIsSentInParts() throws IOException, ApiException {
+        simulator.setResponseElements("SendFile", "<MaxDataSize>1000</MaxDataSize>");
+        byte[] content = content(5000);
+
+        IDeviceResponse response = device.sendFile(SendFileType.Banner, write("BANNER.JPG", content).getPath());
+
+        assertEquals("00", response.getDeviceResponseCode());
+        assertEquals(Hex.encodeHexString(content).toUpperCase(), simulator.getFileData());
+        // the file size message and 10000 hex digits 200 at a time
+        assertEquals(51, simulator.getRequestCount());
+        assertEquals(1, simulator.getConnectionCount());
+    }
+
+    @Test
+    public void framingFollowsMessageFormat() {
+        // the file parts are framed in place by the same code that frames every other request
+        assertArrayEquals(new byte[] { 0, 2, 'A', 'B' }, TerminalUtilities.buildRequest("AB", MessageFormat.HPA).getSendBuffer());
+        assertArrayEquals(new byte[] { 0x02, 'A', 'B', 0x03, 'A' ^ 'B' ^ 0x03 },
+                TerminalUtilities.buildRequest("AB", MessageFormat.Visa2nd).getSendBuffer());
+    }
+
+    @Test
+    public void missingFile() throws ApiException {
+        try {
+            device.sendFile(SendFileType.Logo, new File(folder.getRoot(), "IDLELOGO.JPG").getPath());
+            fail("Expected the missing file to be reported.");
+        } catch (ApiException e) {
+            assertTrue(e.getMessage().contains("does not exist"));
+        }
+        assertEquals(0, simulator.getRequestCount());
+    }
+
+    private File write(String name, byte[] content) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        Files.write(file.toPath(), content);
+        return file;
+    }
+
+    private static byte[] content(int length) {
+        byte[] content = new byte[length];
+        new Random(length).nextBytes(content);
+        return content;
+    }
+}
@@ -0,0 +1,138 @@
+package com.global.api.tests.terminals.hpa;
+
+import com.global.api.entities.exceptions.MessageException;
+import com.global.api.terminals.ConnectionConfig;
+import com.global.api.terminals.DeviceMessage;
+import com.global.api.terminals.hpa.interfaces.HpaTcpInterface;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class HpaTcpInterfaceTests {
+    private ServerSocket server;
+    private HpaTcpInterface device;
+    private volatile String[] replies;
+
+    @Before
+    public void init() throws IOException {
+        server = new ServerSocket(0);
+        Thread thread = new Thread(this::serve);
+        thread.setDaemon(true);
+        thread.start();
+
+        ConnectionConfig config = new ConnectionConfig();
+        config.setIpAddress("127.0.0.1");
+        config.setPort(server.getLocalPort());
+        config.setTimeout(5000);
+        device = new HpaTcpInterface(config);
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        device.disconnect();
+        server.close();
+    }
+
+    @Test
+    public void multipleMessagesAssembled() throws Exception {
+        replies = new String[] {
+                sip("<MultipleMessage>1</MultipleMessage><Response>A</Response>"),
+                sip("<MultipleMessage>1</MultipleMessage><Response>B</Response>"),
+                sip("<MultipleMessage>0</MultipleMessage><Response>C</Response>")
+        };
+
+        String response = new String(device.send(request()), StandardCharsets.UTF_8);
+
+        String[] messages = response.split("\r");
+        assertEquals(3, messages.length);
+        assertTrue(messages[0].contains("<Response>A</Response>"));
+        assertTrue(messages[2].contains("<Response>C</Response>"));
+    }
+
+    @Test
+    public void connectionLossReportedWithoutWaitingForTimeout() {
+        replies = null;
+        long start = System.currentTimeMillis();
+        try {
+            device.send(request());
+            fail("Expected the lost connection to be reported.");
+        } catch (MessageException e) {
+            assertTrue(System.currentTimeMillis() - start < 4000);
+        }
+    }
+
+    @Test
+    public void receiveThreadEndsWithConnection() throws Exception {
+        replies = new String[] { sip("<MultipleMessage>0</MultipleMessage>") };
+        int before = receiveThreads();
+        for (int i = 0; i < 5; i++) {
+            device.send(request());
+            device.disconnect();
+        }
+
+        long until = System.currentTimeMillis() + 2000;
+        while (receiveThreads() > before && System.currentTimeMillis() < until) {
+            Thread.sleep(10);
+        }
+        assertEquals(before, receiveThreads());
+    }
+
+    private void serve() {
+        while (!server.isClosed()) {
+            try (Socket socket = server.accept()) {
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                while (true) {
+                    byte[] request = new byte[in.readUnsignedShort()];
+                    in.readFully(request);
+                    String[] current = replies;
+                    if (current == null) {
+                        break;
+                    }
+                    for (String reply : current) {
+                        byte[] bytes = reply.getBytes(StandardCharsets.UTF_8);
+                        out.writeShort(bytes.length);
+                        out.write(bytes);
+                    }
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // connection closed
+            }
+        }
+    }
+
+    private static DeviceMessage request() {
+        byte[] body = "<SIP><Version>1.0</Version><ECRId>1004</ECRId><Request>Ping</Request><RequestId>1</RequestId></SIP>".getBytes(StandardCharsets.UTF_8);
+        byte[] buffer = new byte[body.length + 2];
+        buffer[0] = (byte) (body.length >>> 8);
+        buffer[1] = (byte) body.length;
+        System.arraycopy(body, 0, buffer, 2, body.length);
+        DeviceMessage message = new DeviceMessage(buffer);
+        message.setAwaitResponse(true);
+        return message;
+    }
+
+    private static String sip(String elements) {
+        return "<SIP><Version>1.0</Version><ECRId>1004</ECRId><Response>Ping</Response>" + elements + "</SIP>";
+    }
+
+    private static int receiveThreads() {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("hpa-receive-")) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
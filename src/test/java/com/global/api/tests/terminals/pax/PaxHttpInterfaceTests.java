@@ -0,0 +1,106 @@
+package com.global.api.tests.terminals.pax;
+
+import com.global.api.entities.enums.ConnectionModes;
+import com.global.api.entities.enums.MessageFormat;
+import com.global.api.entities.exceptions.MessageException;
+import com.global.api.terminals.ConnectionConfig;
+import com.global.api.terminals.TerminalUtilities;
+import com.global.api.terminals.pax.interfaces.PaxHttpInterface;
+import com.global.api.terminals.pax.responses.InitializeResponse;
+import com.global.api.tests.terminals.simulators.PaxSimulator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PaxHttpInterfaceTests {
+    private PaxSimulator simulator;
+    private PaxHttpInterface device;
+
+    @Before
+    public void init() throws Exception {
+        simulator = new PaxSimulator(ConnectionModes.HTTP);
+        device = new PaxHttpInterface(simulator.getConnectionConfig());
+    }
+
+    @After
+    public void cleanup() {
+        device.disconnect();
+        simulator.close();
+    }
+
+    @Test
+    public void connectionReusedAcrossCommands() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(PaxSimulator.SERIAL_NUMBER, initialize("").getSerialNumber());
+        }
+        assertEquals(1, simulator.getConnectionCount());
+        assertEquals(5, simulator.getRequestCount());
+    }
+
+    @Test
+    public void deviceClosingConnectionsHandled() throws Exception {
+        simulator.setKeepAlive(false);
+        for (int i = 0; i < 3; i++) {
+            assertEquals("000000", initialize("").getDeviceResponseCode());
+        }
+        assertEquals(3, simulator.getConnectionCount());
+    }
+
+    @Test
+    public void droppedConnectionRetriedOnce() throws Exception {
+        initialize("");
+        simulator.dropConnections();
+        Thread.sleep(50);
+
+        assertEquals("000000", initialize("").getDeviceResponseCode());
+        assertEquals(2, simulator.getConnectionCount());
+    }
+
+    @Test
+    public void responseCutShortIsNotResent() throws Exception {
+        initialize("");
+        simulator.setTruncatedResponses(1);
+
+        try {
+            initialize("");
+            fail("Expected the cut short response to fail the command.");
+        } catch (MessageException e) {
+            assertEquals(2, simulator.getRequestCount());
+        }
+        assertEquals("000000", initialize("").getDeviceResponseCode());
+    }
+
+    @Test
+    public void everyMessageLengthEncoded() throws Exception {
+        // covers each base64 padding case
+        String padding = "";
+        for (int i = 0; i < 6; i++) {
+            assertEquals("A01", initialize(padding).getCommand());
+            padding += "1";
+        }
+    }
+
+    @Test
+    public void silentDeviceTimesOut() throws Exception {
+        simulator.setLatency(3000, 0);
+        ConnectionConfig config = simulator.getConnectionConfig();
+        config.setTimeout(500);
+        device = new PaxHttpInterface(config);
+
+        long start = System.currentTimeMillis();
+        try {
+            initialize("");
+            fail("Expected a timeout.");
+        } catch (MessageException e) {
+            assertEquals("Terminal did not respond in the given timeout.", e.getMessage());
+            assertTrue(System.currentTimeMillis() - start < 2500);
+        }
+    }
+
+    private InitializeResponse initialize(String padding) throws Exception {
+        byte[] response = device.send(TerminalUtilities.buildRequest("A00\u001c1.45" + padding, MessageFormat.Visa2nd));
+        return new InitializeResponse(response);
+    }
+}
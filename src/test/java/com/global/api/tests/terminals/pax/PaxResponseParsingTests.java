@@ -0,0 +1,115 @@
+package com.global.api.tests.terminals.pax;
+
+import com.global.api.entities.enums.MessageFormat;
+import com.global.api.terminals.TerminalUtilities;
+import com.global.api.terminals.pax.responses.BatchCloseResponse;
+import com.global.api.terminals.pax.responses.CreditResponse;
+import com.global.api.terminals.pax.responses.InitializeResponse;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class PaxResponseParsingTests {
+    private static final String FS = "\u001c";
+    private static final String US = "\u001f";
+
+    @Test
+    public void creditResponse() throws Exception {
+        CreditResponse response = new CreditResponse(frame(
+                "0", "T01", "1.45", "000000", "OK",
+                "000000" + US + "APPROVED, THANK YOU" + US + "AUTH12" + US + "HREF9" + US + "TRACE" + US + "BATCH1",
+                "01",
+                "1000" + US + "0" + US + "200" + US + US + US + US + US,
+                "4111" + US + "1" + US + "1225" + US + US + US + US + "VISA" + US + "JOHN SMITH",
+                "17" + US + "REF9" + US + "20240101120000",
+                "",
+                "",
+                "",
+                "HREF=H123" + US + "TOKEN=TK1" + US + "TC=ABCD" + US + "junk"));
+
+        assertEquals("0", response.getStatus());
+        assertEquals("T01", response.getCommand());
+        assertEquals("1.45", response.getVersion());
+        assertEquals("000000", response.getDeviceResponseCode());
+        assertEquals("OK", response.getDeviceResponseText());
+        assertEquals("000000", response.getResponseCode());
+        // control characters inside a field have always come back as their names
+        assertEquals("APPROVED[COMMA] THANK YOU", response.getResponseText());
+        assertEquals("AUTH12", response.getApprovalCode());
+        assertEquals("HREF9", response.getHostReferenceNumber());
+        assertEquals("SALE", response.getTransactionType());
+        assertEquals(new BigDecimal("10"), response.getTransactionAmount());
+        assertEquals(new BigDecimal("2"), response.getTipAmount());
+        // trailing empty subfields are absent
+        assertNull(response.getCashBackAmount());
+        assertEquals("************4111", response.getMaskedCardNumber());
+        assertEquals("Swipe", response.getEntryMethod());
+        assertEquals("VISA", response.getPaymentType());
+        assertEquals("JOHN SMITH", response.getCardHolderName());
+        assertNull(response.getCvvResponseCode());
+        assertEquals("17", response.getTerminalRefNumber());
+        assertEquals("REF9", response.getReferenceNumber());
+        assertNull(response.getAvsResponseCode());
+        assertEquals("H123", response.getTransactionId());
+        assertEquals("TK1", response.getToken());
+        assertEquals("ABCD", response.getApplicationCryptogram());
+    }
+
+    @Test
+    public void declinedResponseStopsAtHeader() throws Exception {
+        CreditResponse response = new CreditResponse(frame("0", "T01", "1.45", "100021", "ABORTED", "junk"));
+
+        assertEquals("100021", response.getDeviceResponseCode());
+        assertEquals("ABORTED", response.getDeviceResponseText());
+        assertNull(response.getResponseCode());
+    }
+
+    @Test
+    public void highBytesWidenedAsSigned() throws Exception {
+        byte[] buffer = frame("0", "A01", "1.45", "000000", "OK", "SN\u00e9");
+        InitializeResponse response = new InitializeResponse(buffer);
+
+        assertEquals("SN\uffe9", response.getSerialNumber());
+    }
+
+    @Test
+    public void lastFieldReadsThroughSeparators() throws Exception {
+        InitializeResponse response = new InitializeResponse(frame("0", "A01", "1.45", "000000", "OK", "SN1", "extra"));
+
+        assertEquals("SN1[FS]extra", response.getSerialNumber());
+    }
+
+    @Test
+    public void truncatedResponse() throws Exception {
+        byte[] frame = frame("0", "B01", "1.45", "000000", "OK", "0" + US + "OK", "5", "5000", "20240101", "TID", "MID");
+        // cut inside the time stamp
+        byte[] truncated = Arrays.copyOf(frame, new String(frame, "ISO-8859-1").indexOf("2024") + 4);
+        BatchCloseResponse response = new BatchCloseResponse(truncated);
+
+        assertEquals("5", response.getTotalCount());
+        assertEquals("5000", response.getTotalAmount());
+        assertEquals("2024", response.getTimeStamp());
+        assertEquals("", response.getTid());
+        assertEquals("", response.getMid());
+
+        response = new BatchCloseResponse(frame);
+        assertEquals("20240101", response.getTimeStamp());
+        assertEquals("TID", response.getTid());
+        assertEquals("MID", response.getMid());
+    }
+
+    private static byte[] frame(String... fields) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (String field : fields) {
+            if (sb.length() > 0) {
+                sb.append(FS);
+            }
+            sb.append(field);
+        }
+        byte[] message = sb.toString().getBytes("ISO-8859-1");
+        return TerminalUtilities.buildRequest(message).getSendBuffer();
+    }
+}
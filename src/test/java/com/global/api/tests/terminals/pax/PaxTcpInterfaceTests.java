@@ -0,0 +1,181 @@
+package com.global.api.tests.terminals.pax;
+
+import com.global.api.entities.enums.ControlCodes;
+import com.global.api.entities.enums.MessageFormat;
+import com.global.api.entities.exceptions.MessageException;
+import com.global.api.terminals.ConnectionConfig;
+import com.global.api.terminals.DeviceMessage;
+import com.global.api.terminals.TerminalUtilities;
+import com.global.api.terminals.pax.interfaces.PaxTcpInterface;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PaxTcpInterfaceTests {
+    // what the terminal does with a request
+    private interface ITerminal {
+        void respond(InputStream in, OutputStream out) throws IOException;
+    }
+
+    private static final byte[] RESPONSE = TerminalUtilities.buildRequest("1.45\u001cT01\u001c000000\u001cOK", MessageFormat.Visa2nd).getSendBuffer();
+
+    private ServerSocket server;
+    private PaxTcpInterface terminal;
+    private volatile ITerminal behavior;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<Byte> controlCodes = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void init() throws IOException {
+        server = new ServerSocket(0);
+        Thread thread = new Thread(this::serve);
+        thread.setDaemon(true);
+        thread.start();
+
+        ConnectionConfig config = new ConnectionConfig();
+        config.setIpAddress("127.0.0.1");
+        config.setPort(server.getLocalPort());
+        config.setTimeout(2000);
+        terminal = new PaxTcpInterface(config);
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void responseSplitAcrossWrites() throws Exception {
+        behavior = (in, out) -> {
+            out.write(ControlCodes.ACK.getByte());
+            out.flush();
+            int half = RESPONSE.length / 2;
+            out.write(RESPONSE, 0, half);
+            out.flush();
+            sleep(50);
+            out.write(RESPONSE, half, RESPONSE.length - half);
+            out.flush();
+            readControlCode(in);
+        };
+
+        assertArrayEquals(RESPONSE, terminal.send(request()));
+        assertEquals(1, requests.get());
+        awaitControlCodes(1);
+        assertEquals(Arrays.asList(ControlCodes.ACK.getByte()), controlCodes);
+    }
+
+    @Test
+    public void rejectedRequestRetransmitted() throws Exception {
+        behavior = (in, out) -> {
+            if (requests.get() == 1) {
+                out.write(ControlCodes.NAK.getByte());
+                out.flush();
+                return;
+            }
+            out.write(RESPONSE);
+            out.flush();
+            readControlCode(in);
+        };
+
+        assertArrayEquals(RESPONSE, terminal.send(request()));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void corruptResponseRejected() throws Exception {
+        byte[] corrupt = RESPONSE.clone();
+        corrupt[corrupt.length - 1] ^= 0x01;
+        behavior = (in, out) -> {
+            out.write(corrupt);
+            out.flush();
+            readControlCode(in);
+            out.write(RESPONSE);
+            out.flush();
+            readControlCode(in);
+        };
+
+        assertArrayEquals(RESPONSE, terminal.send(request()));
+        awaitControlCodes(2);
+        assertEquals(Arrays.asList(ControlCodes.NAK.getByte(), ControlCodes.ACK.getByte()), controlCodes);
+    }
+
+    @Test
+    public void silentTerminalTimesOut() {
+        behavior = (in, out) -> sleep(5000);
+
+        long start = System.currentTimeMillis();
+        try {
+            terminal.send(request());
+            fail("Expected a timeout.");
+        } catch (MessageException e) {
+            assertEquals("Terminal did not respond in the given timeout.", e.getMessage());
+            assertTrue(System.currentTimeMillis() - start < 4000);
+        }
+    }
+
+    private void serve() {
+        while (!server.isClosed()) {
+            try (Socket socket = server.accept()) {
+                InputStream in = socket.getInputStream();
+                OutputStream out = socket.getOutputStream();
+                while (readRequest(in)) {
+                    requests.incrementAndGet();
+                    behavior.respond(in, out);
+                }
+            } catch (IOException e) {
+                // connection closed
+            }
+        }
+    }
+
+    // reads a request through its LRC
+    private static boolean readRequest(InputStream in) throws IOException {
+        int b;
+        do {
+            b = in.read();
+            if (b == -1) {
+                return false;
+            }
+        } while (b != ControlCodes.ETX.getByte());
+        return in.read() != -1;
+    }
+
+    private void readControlCode(InputStream in) throws IOException {
+        int b = in.read();
+        if (b != -1) {
+            controlCodes.add((byte) b);
+        }
+    }
+
+    // the terminal reads the POS's ACK after send has returned
+    private void awaitControlCodes(int count) throws InterruptedException {
+        long until = System.currentTimeMillis() + 2000;
+        while (controlCodes.size() < count && System.currentTimeMillis() < until) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static DeviceMessage request() {
+        return TerminalUtilities.buildRequest("A00\u001c1.45", MessageFormat.Visa2nd);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.global.api.tests.terminals.simulators;
+
+import com.global.api.terminals.ConnectionConfig;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A terminal listening on a local port that answers the SDK the way the real device does on the wire.
+ * Subclasses speak one protocol; this class accepts the connections and holds what every device can be
+ * told to do: take a while to answer and answer busy.
+ */
+public abstract class DeviceSimulator implements Closeable {
+    private final ServerSocket server;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger busyResponses = new AtomicInteger();
+    private volatile long latencyMillis;
+    private volatile long jitterMillis;
+
+    protected DeviceSimulator(String name) throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread thread = new Thread(this::acceptConnections, name + "-simulator-" + server.getLocalPort());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    // requests read off the wire, retransmissions included
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    // time the device takes to answer a request, plus up to jitterMillis at random
+    public void setLatency(long latencyMillis, long jitterMillis) {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+    }
+
+    // the next count requests are answered as a busy device would
+    public void setBusyResponses(int count) {
+        busyResponses.set(count);
+    }
+
+    // points the SDK at this device
+    public ConnectionConfig getConnectionConfig() {
+        ConnectionConfig config = new ConnectionConfig();
+        config.setIpAddress("127.0.0.1");
+        config.setPort(getPort());
+        config.setTimeout(5000);
+        configure(config);
+        return config;
+    }
+
+    // closes the open connections, as a device dropping idle clients does, and keeps listening
+    public void dropConnections() {
+        for (Socket socket : connections) {
+            closeQuietly(socket);
+        }
+    }
+
+    public void close() {
+        try {
+            server.close();
+        }
+        catch (IOException e) {
+            // Eating the close exception
+        }
+        for (Socket socket : connections) {
+            closeQuietly(socket);
+        }
+    }
+
+    protected abstract void configure(ConnectionConfig config);
+
+    // answers requests until the connection closes
+    protected abstract void serve(InputStream in, OutputStream out) throws IOException;
+
+    protected void requestReceived() {
+        requestCount.incrementAndGet();
+    }
+
+    protected boolean takeBusyResponse() {
+        return take(busyResponses);
+    }
+
+    protected void delay() {
+        long millis = latencyMillis;
+        if (jitterMillis > 0) {
+            millis += ThreadLocalRandom.current().nextLong(jitterMillis + 1);
+        }
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // decrements the counter if it is above zero
+    protected static boolean take(AtomicInteger counter) {
+        return counter.getAndUpdate(count -> count > 0 ? count - 1 : 0) > 0;
+    }
+
+    private void acceptConnections() {
+        while (!server.isClosed()) {
+            final Socket socket;
+            try {
+                socket = server.accept();
+            }
+            catch (IOException e) {
+                return;
+            }
+            connections.add(socket);
+            connectionCount.incrementAndGet();
+
+            Thread thread = new Thread(() -> {
+                try {
+                    socket.setTcpNoDelay(true);
+                    serve(socket.getInputStream(), socket.getOutputStream());
+                }
+                catch (IOException e) {
+                    // connection closed
+                }
+                finally {
+                    connections.remove(socket);
+                    closeQuietly(socket);
+                }
+            }, Thread.currentThread().getName() + "-connection");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        }
+        catch (IOException e) {
+            // Eating the close exception
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.global.api.tests.terminals.simulators;
+
+import com.global.api.entities.enums.ConnectionModes;
+import com.global.api.entities.enums.DeviceType;
+import com.global.api.terminals.ConnectionConfig;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A HeartSIP terminal. Requests and responses are SIP XML behind a two byte length. Each request is
+ * answered with multipleMessages intermediate messages (MultipleMessage 1) and a final one
+ * (MultipleMessage 0) carrying Result 0 and the elements set for that request.
+ *
+ * The FileData of SendFile parts is kept. A part that is not the last (MultipleMessage 1) is not
+ * answered, as the device does.
+ */
+public class HpaSimulator extends DeviceSimulator {
+    public static final String BUSY_RESULT = "2503";
+    public static final String BUSY_RESULT_TEXT = "Device Busy";
+
+    private static final Pattern REQUEST = Pattern.compile("<Request>(.*?)</Request>");
+    private static final Pattern REQUEST_ID = Pattern.compile("<RequestId>(.*?)</RequestId>");
+    private static final Pattern FILE_DATA = Pattern.compile("<FileData>(.*?)</FileData>");
+    private static final Pattern MULTIPLE_MESSAGE = Pattern.compile("<MultipleMessage>(.*?)</MultipleMessage>");
+
+    private final Map<String, String> responseElements = new ConcurrentHashMap<>();
+    private final StringBuffer fileData = new StringBuffer();
+    private volatile int multipleMessages;
+
+    public HpaSimulator() throws IOException {
+        super("hpa");
+    }
+
+    // intermediate messages sent before the final one
+    public void setMultipleMessages(int multipleMessages) {
+        this.multipleMessages = multipleMessages;
+    }
+
+    // XML elements added to the final message answering the request
+    public void setResponseElements(String request, String elements) {
+        responseElements.put(request, elements);
+    }
+
+    // the FileData of every SendFile part received, in order
+    public String getFileData() {
+        return fileData.toString();
+    }
+
+    @Override
+    protected void configure(ConnectionConfig config) {
+        config.setDeviceType(DeviceType.HPA_ISC250);
+        config.setConnectionMode(ConnectionModes.TCP_IP);
+    }
+
+    @Override
+    protected void serve(InputStream input, OutputStream output) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        DataOutputStream out = new DataOutputStream(output);
+        while (true) {
+            byte[] request;
+            try {
+                request = new byte[in.readUnsignedShort()];
+                in.readFully(request);
+            }
+            catch (EOFException e) {
+                return;
+            }
+            requestReceived();
+
+            String message = new String(request, StandardCharsets.UTF_8);
+            String command = find(REQUEST, message);
+            String requestId = find(REQUEST_ID, message);
+            Matcher data = FILE_DATA.matcher(message);
+            if (data.find()) {
+                fileData.append(data.group(1));
+                if ("1".equals(find(MULTIPLE_MESSAGE, message))) {
+                    continue;
+                }
+            }
+
+            delay();
+            if (takeBusyResponse()) {
+                write(out, sip(command, requestId, 0, BUSY_RESULT, BUSY_RESULT_TEXT, ""));
+                continue;
+            }
+            int intermediate = multipleMessages;
+            for (int i = 0; i < intermediate; i++) {
+                write(out, sip(command, requestId, 1, "0", "Processing", ""));
+            }
+            String elements = responseElements.get(command);
+            write(out, sip(command, requestId, 0, "0", "Success", elements != null ? elements : ""));
+        }
+    }
+
+    private static String sip(String command, String requestId, int multipleMessage, String result, String resultText, String elements) {
+        return "<SIP><Version>1.0</Version><ECRId>1004</ECRId>"
+                + "<Response>" + command + "</Response>"
+                + "<RequestId>" + requestId + "</RequestId>"
+                + "<MultipleMessage>" + multipleMessage + "</MultipleMessage>"
+                + "<Result>" + result + "</Result>"
+                + "<ResultText>" + resultText + "</ResultText>"
+                + elements
+                + "</SIP>";
+    }
+
+    private static String find(Pattern pattern, String message) {
+        Matcher matcher = pattern.matcher(message);
+        return matcher.find() ? matcher.group(1) : "";
+    }
+
+    private static void write(DataOutputStream out, String message) throws IOException {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+        out.flush();
+    }
+}
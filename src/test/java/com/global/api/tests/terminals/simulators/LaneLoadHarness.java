@@ -0,0 +1,112 @@
+package com.global.api.tests.terminals.simulators;
+
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.serviceConfigs.FleetConfig;
+import com.global.api.terminals.fleet.TerminalFleet;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drives a lane per simulated device at once through a {@link TerminalFleet}. Every lane runs the
+ * commands in the order they were added, for the given number of rounds, and the time each command
+ * spent on its device is reported per command.
+ *
+ * <pre>
+ * LaneLoadHarness harness = new LaneLoadHarness(simulators)
+ *         .addCommand("ping", IDeviceInterface::ping);
+ * for (LatencyReport report : harness.run(50).values()) {
+ *     System.out.println(report);
+ * }
+ * </pre>
+ */
+public class LaneLoadHarness {
+    private final List<? extends DeviceSimulator> devices;
+    private final Map<String, TerminalFleet.ILaneCommand<?>> commands = new LinkedHashMap<>();
+    private long timeoutMillis = 60000;
+
+    public LaneLoadHarness(List<? extends DeviceSimulator> devices) {
+        this.devices = devices;
+    }
+
+    public LaneLoadHarness addCommand(String name, TerminalFleet.ILaneCommand<?> command) {
+        commands.put(name, command);
+        return this;
+    }
+
+    // how long a run may take before it is abandoned
+    public LaneLoadHarness setTimeoutMillis(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        return this;
+    }
+
+    public Map<String, LatencyReport> run(int rounds) throws ApiException, InterruptedException, TimeoutException {
+        Map<String, LatencyReport> reports = new LinkedHashMap<>();
+        for (String name : commands.keySet()) {
+            reports.put(name, new LatencyReport(name));
+        }
+
+        TerminalFleet fleet = new TerminalFleet(new FleetConfig()
+                .setThreads(devices.size())
+                .setMaxQueueDepth(rounds * commands.size())
+                .setHeartbeatIntervalMillis(0));
+        try {
+            List<String> lanes = new ArrayList<>();
+            for (DeviceSimulator device : devices) {
+                String lane = "simulated-lane-" + device.getPort();
+                fleet.addLane(lane, device.getConnectionConfig());
+                lanes.add(lane);
+            }
+
+            long start = System.nanoTime();
+            List<CompletableFuture<?>> results = new ArrayList<>();
+            for (int round = 0; round < rounds; round++) {
+                for (String lane : lanes) {
+                    for (Map.Entry<String, TerminalFleet.ILaneCommand<?>> command : commands.entrySet()) {
+                        results.add(fleet.submit(lane, timed(command.getValue(), reports.get(command.getKey()))));
+                    }
+                }
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            for (CompletableFuture<?> result : results) {
+                try {
+                    result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+                catch (ExecutionException e) {
+                    // recorded as a failure
+                }
+            }
+
+            long elapsed = System.nanoTime() - start;
+            for (LatencyReport report : reports.values()) {
+                report.finish(elapsed);
+            }
+            return reports;
+        }
+        finally {
+            fleet.dispose();
+        }
+    }
+
+    private static <T> TerminalFleet.ILaneCommand<T> timed(final TerminalFleet.ILaneCommand<T> command, final LatencyReport report) {
+        return device -> {
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                T response = command.execute(device);
+                failed = false;
+                return response;
+            }
+            finally {
+                report.record(System.nanoTime() - start, failed);
+            }
+        };
+    }
+}
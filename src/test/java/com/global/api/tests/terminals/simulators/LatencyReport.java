@@ -0,0 +1,70 @@
+package com.global.api.tests.terminals.simulators;
+
+import java.util.Arrays;
+
+/**
+ * Latencies recorded for one command by the {@link LaneLoadHarness}.
+ */
+public class LatencyReport {
+    private final String command;
+    private long[] latencies = new long[64];
+    private int count;
+    private int failureCount;
+    private long elapsedNanos;
+
+    LatencyReport(String command) {
+        this.command = command;
+    }
+
+    synchronized void record(long latencyNanos, boolean failed) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (failed) {
+            failureCount++;
+        }
+    }
+
+    synchronized void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+        Arrays.sort(latencies, 0, count);
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    public synchronized int getFailureCount() {
+        return failureCount;
+    }
+
+    // nearest rank, so p100 is the slowest command
+    public synchronized double getPercentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * count);
+        return latencies[Math.max(rank, 1) - 1] / 1e6;
+    }
+
+    public double getMaxMillis() {
+        return getPercentileMillis(100);
+    }
+
+    // commands completed per second across all lanes
+    public synchronized double getThroughput() {
+        return elapsedNanos == 0 ? 0 : count / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d commands, %d failed, %.1f/s, p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms",
+                command, getCount(), getFailureCount(), getThroughput(),
+                getPercentileMillis(50), getPercentileMillis(90), getPercentileMillis(99), getMaxMillis());
+    }
+}
@@ -0,0 +1,240 @@
+package com.global.api.tests.terminals.simulators;
+
+import com.global.api.entities.enums.ConnectionModes;
+import com.global.api.entities.enums.ControlCodes;
+import com.global.api.entities.enums.DeviceType;
+import com.global.api.entities.enums.MessageFormat;
+import com.global.api.terminals.ConnectionConfig;
+import com.global.api.terminals.TerminalUtilities;
+import org.apache.commons.codec.binary.Base64;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A PAX terminal. Over TCP it ACKs each STX/ETX/LRC request, answers with a response frame and waits for
+ * the POS to ACK it, retransmitting on NAK. Over HTTP it answers the base64 request in the query string
+ * with the response frame as the body.
+ *
+ * A request for command Xnn is answered with X(nn + 1), status 0, response code 000000 and text OK,
+ * followed by the fields set for that response command.
+ */
+public class PaxSimulator extends DeviceSimulator {
+    public static final String BUSY_RESPONSE_CODE = "100001";
+    public static final String BUSY_RESPONSE_TEXT = "DEVICE BUSY";
+    public static final String SERIAL_NUMBER = "SIM0000001";
+
+    private static final byte STX = ControlCodes.STX.getByte();
+    private static final byte ETX = ControlCodes.ETX.getByte();
+    private static final byte ACK = ControlCodes.ACK.getByte();
+    private static final byte NAK = ControlCodes.NAK.getByte();
+    private static final byte FS = ControlCodes.FS.getByte();
+
+    private final ConnectionModes connectionMode;
+    private final Map<String, String> responseFields = new ConcurrentHashMap<>();
+    private final AtomicInteger nakRequests = new AtomicInteger();
+    private final AtomicInteger corruptResponses = new AtomicInteger();
+    private final AtomicInteger truncatedResponses = new AtomicInteger();
+    private volatile boolean keepAlive = true;
+
+    public PaxSimulator(ConnectionModes connectionMode) throws IOException {
+        super("pax");
+        if (connectionMode != ConnectionModes.TCP_IP && connectionMode != ConnectionModes.HTTP) {
+            throw new IllegalArgumentException("PAX is simulated over TCP or HTTP.");
+        }
+        this.connectionMode = connectionMode;
+        responseFields.put("A01", SERIAL_NUMBER);
+    }
+
+    // fields that follow the response text of the response command, separated by FS
+    public void setResponseFields(String responseCommand, String fields) {
+        responseFields.put(responseCommand, fields);
+    }
+
+    // the next count requests are NAKed instead of answered (TCP only)
+    public void setNakRequests(int count) {
+        nakRequests.set(count);
+    }
+
+    // the next count responses are sent with a bad LRC (TCP only)
+    public void setCorruptResponses(int count) {
+        corruptResponses.set(count);
+    }
+
+    // the next count HTTP responses end half way through the body, as a device resetting mid-response
+    public void setTruncatedResponses(int count) {
+        truncatedResponses.set(count);
+    }
+
+    // whether an HTTP connection stays open after the response
+    public void setKeepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    @Override
+    protected void configure(ConnectionConfig config) {
+        config.setDeviceType(DeviceType.PAX_S300);
+        config.setConnectionMode(connectionMode);
+    }
+
+    @Override
+    protected void serve(InputStream in, OutputStream out) throws IOException {
+        in = new BufferedInputStream(in);
+        if (connectionMode == ConnectionModes.HTTP) {
+            serveHttp(in, out);
+        }
+        else serveTcp(in, out);
+    }
+
+    private void serveTcp(InputStream in, OutputStream out) throws IOException {
+        byte[] request;
+        while ((request = readFrame(in)) != null) {
+            requestReceived();
+            if (take(nakRequests)) {
+                out.write(NAK);
+                out.flush();
+                continue;
+            }
+            out.write(ACK);
+            out.flush();
+
+            delay();
+            byte[] response = respond(request);
+            while (true) {
+                if (take(corruptResponses)) {
+                    byte[] corrupt = response.clone();
+                    corrupt[corrupt.length - 1] ^= 0x01;
+                    out.write(corrupt);
+                }
+                else out.write(response);
+                out.flush();
+
+                // NAK asks for the response again; ACK or EOT ends the exchange
+                int code = in.read();
+                if (code == -1) {
+                    return;
+                }
+                if (code != NAK) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void serveHttp(InputStream in, OutputStream out) throws IOException {
+        String header;
+        while ((header = readHttpHeader(in)) != null) {
+            String requestLine = header.substring(0, header.indexOf("\r\n"));
+            int query = requestLine.indexOf('?');
+            int end = requestLine.lastIndexOf(' ');
+            byte[] request = query < 0 || end < query ? new byte[0] : Base64.decodeBase64(requestLine.substring(query + 1, end));
+            if (request.length == 0 || request[0] != STX) {
+                writeHttpResponse(out, "400 Bad Request", new byte[0], true);
+                return;
+            }
+
+            requestReceived();
+            delay();
+            boolean close = !keepAlive || header.toLowerCase().contains("connection: close");
+            if (take(truncatedResponses)) {
+                byte[] response = respond(request);
+                writeHttpResponse(out, "200 OK", response, response.length / 2, false);
+                return;
+            }
+            writeHttpResponse(out, "200 OK", respond(request), close);
+            if (close) {
+                return;
+            }
+        }
+    }
+
+    private byte[] respond(byte[] request) {
+        int end = 1;
+        while (end < request.length && request[end] != FS && request[end] != ETX) {
+            end++;
+        }
+        String command = new String(request, 1, end - 1, StandardCharsets.US_ASCII);
+        String responseCommand = String.format("%c%02d", command.charAt(0), Integer.parseInt(command.substring(1)) + 1);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("0").append((char) FS)
+                .append(responseCommand).append((char) FS)
+                .append("1.45").append((char) FS);
+        if (takeBusyResponse()) {
+            sb.append(BUSY_RESPONSE_CODE).append((char) FS).append(BUSY_RESPONSE_TEXT);
+        }
+        else {
+            sb.append("000000").append((char) FS).append("OK");
+            String fields = responseFields.get(responseCommand);
+            if (fields != null) {
+                sb.append((char) FS).append(fields);
+            }
+        }
+        return TerminalUtilities.buildRequest(sb.toString(), MessageFormat.Visa2nd).getSendBuffer();
+    }
+
+    // reads STX through the LRC, skipping anything before the STX
+    private static byte[] readFrame(InputStream in) throws IOException {
+        int b;
+        do {
+            b = in.read();
+            if (b == -1) {
+                return null;
+            }
+        } while (b != STX);
+
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        frame.write(b);
+        do {
+            b = in.read();
+            if (b == -1) {
+                return null;
+            }
+            frame.write(b);
+        } while (b != ETX);
+
+        int lrc = in.read();
+        if (lrc == -1) {
+            return null;
+        }
+        frame.write(lrc);
+        return frame.toByteArray();
+    }
+
+    private static String readHttpHeader(InputStream in) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        int matched = 0;
+        while (matched < 4) {
+            int b = in.read();
+            if (b == -1) {
+                return null;
+            }
+            header.write(b);
+            matched = (b == '\r' && matched % 2 == 0) || (b == '\n' && matched % 2 == 1) ? matched + 1 : (b == '\r' ? 1 : 0);
+        }
+        return new String(header.toByteArray(), StandardCharsets.ISO_8859_1);
+    }
+
+    private static void writeHttpResponse(OutputStream out, String status, byte[] body, boolean close) throws IOException {
+        writeHttpResponse(out, status, body, body.length, close);
+    }
+
+    // sends the headers for the whole body but only the first written bytes of it
+    private static void writeHttpResponse(OutputStream out, String status, byte[] body, int written, boolean close) throws IOException {
+        String header = "HTTP/1.1 " + status + "\r\n"
+                + "Content-Type: text/plain\r\n"
+                + "Content-Length: " + body.length + "\r\n"
+                + (close ? "Connection: close\r\n" : "")
+                + "\r\n";
+        out.write(header.getBytes(StandardCharsets.ISO_8859_1));
+        out.write(body, 0, written);
+        out.flush();
+    }
+}
@@ -0,0 +1,167 @@
+package com.global.api.tests.terminals.simulators;
+
+import com.global.api.entities.enums.ConnectionModes;
+import com.global.api.entities.enums.DeviceType;
+import com.global.api.terminals.ConnectionConfig;
+import com.global.api.terminals.IRequestIdProvider;
+import com.global.api.terminals.TerminalUtilities;
+import com.global.api.terminals.upa.interfaces.UpaFrameDecoder;
+import com.global.api.utils.JsonDoc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A UPA terminal. Each JSON request is ACKed, then answered with a MSG whose cmdResult is Success; once
+ * the POS ACKs the MSG the device sends READY. Reboot is answered without READY, as the device does.
+ *
+ * A request that arrives after the POS ACK but before READY is early. It is queued and answered after
+ * READY, or answered BUSY when the device is told to be strict about it.
+ */
+public class UpaSimulator extends DeviceSimulator {
+    private final AtomicInteger requestIds = new AtomicInteger();
+    private final AtomicInteger earlyRequestCount = new AtomicInteger();
+    private final DeviceType deviceType;
+    private volatile long readyDelayMillis;
+    private volatile boolean busyBeforeReady;
+
+    public UpaSimulator() throws IOException {
+        this(DeviceType.UPA_SATURN_1000);
+    }
+
+    public UpaSimulator(DeviceType deviceType) throws IOException {
+        super("upa");
+        this.deviceType = deviceType;
+    }
+
+    // time between the POS ACK and READY
+    public void setReadyDelay(long readyDelayMillis) {
+        this.readyDelayMillis = readyDelayMillis;
+    }
+
+    // whether a request sent before READY is answered BUSY instead of queued
+    public void setBusyBeforeReady(boolean busyBeforeReady) {
+        this.busyBeforeReady = busyBeforeReady;
+    }
+
+    // requests that arrived before the READY for the one before them
+    public int getEarlyRequestCount() {
+        return earlyRequestCount.get();
+    }
+
+    @Override
+    protected void configure(ConnectionConfig config) {
+        config.setDeviceType(deviceType);
+        config.setConnectionMode(ConnectionModes.TCP_IP);
+        config.setRequestIdProvider(new IRequestIdProvider() {
+            public int getRequestId() {
+                return requestIds.incrementAndGet();
+            }
+        });
+    }
+
+    @Override
+    protected void serve(InputStream in, OutputStream out) throws IOException {
+        UpaFrameDecoder decoder = new UpaFrameDecoder();
+        Deque<byte[]> frames = new ArrayDeque<>();
+        // a MSG went out and its ACK will be followed by READY
+        boolean awaitingAck = false;
+
+        while (true) {
+            if (frames.isEmpty() && !readFrames(in, decoder, frames, false)) {
+                return;
+            }
+            JsonDoc message = parse(frames.poll());
+            if ("ACK".equals(message.getString("message"))) {
+                if (awaitingAck) {
+                    awaitingAck = false;
+                    sendReady(in, out, decoder, frames);
+                }
+                continue;
+            }
+
+            requestReceived();
+            if (takeBusyResponse()) {
+                write(out, control("BUSY"));
+                continue;
+            }
+            write(out, control("ACK"));
+
+            delay();
+            JsonDoc request = message.get("data");
+            String command = request.getString("command");
+            JsonDoc data = new JsonDoc()
+                    .set("response", command)
+                    .set("EcrId", request.getString("EcrId"))
+                    .set("requestId", request.getString("requestId"));
+            data.subElement("cmdResult").set("result", "Success");
+            write(out, new JsonDoc().set("message", "MSG").set("data", data).toString());
+            awaitingAck = !"Reboot".equals(command);
+        }
+    }
+
+    // whatever the POS sent before READY is early
+    private void sendReady(InputStream in, OutputStream out, UpaFrameDecoder decoder, Deque<byte[]> frames) throws IOException {
+        long readyDelay = readyDelayMillis;
+        if (readyDelay > 0) {
+            try {
+                Thread.sleep(readyDelay);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        readFrames(in, decoder, frames, true);
+
+        Deque<byte[]> queued = new ArrayDeque<>();
+        for (byte[] frame : frames) {
+            if ("ACK".equals(parse(frame).getString("message"))) {
+                queued.add(frame);
+                continue;
+            }
+            earlyRequestCount.incrementAndGet();
+            if (busyBeforeReady) {
+                requestReceived();
+                write(out, control("BUSY"));
+            }
+            else queued.add(frame);
+        }
+        frames.clear();
+        frames.addAll(queued);
+        write(out, control("READY"));
+    }
+
+    // decodes a read of the stream into frames; without blocking, only what has already arrived
+    private static boolean readFrames(InputStream in, UpaFrameDecoder decoder, Deque<byte[]> frames, boolean available) throws IOException {
+        byte[] buffer = new byte[4096];
+        do {
+            if (available && in.available() == 0) {
+                return true;
+            }
+            int bytesRead = in.read(buffer);
+            if (bytesRead == -1) {
+                return false;
+            }
+            frames.addAll(decoder.decode(buffer, 0, bytesRead));
+        } while (available || frames.isEmpty());
+        return true;
+    }
+
+    private static JsonDoc parse(byte[] frame) {
+        return JsonDoc.parse(new String(frame, StandardCharsets.UTF_8));
+    }
+
+    private static String control(String message) {
+        return new JsonDoc().set("message", message).set("data", "", true).toString();
+    }
+
+    private static void write(OutputStream out, String body) throws IOException {
+        out.write(TerminalUtilities.compileMessage(body).getSendBuffer());
+        out.flush();
+    }
+}
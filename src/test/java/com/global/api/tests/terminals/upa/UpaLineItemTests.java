@@ -0,0 +1,98 @@
+package com.global.api.tests.terminals.upa;
+
+import com.global.api.entities.exceptions.ApiException;
+import com.global.api.services.DeviceService;
+import com.global.api.terminals.LineItem;
+import com.global.api.terminals.abstractions.IDeviceInterface;
+import com.global.api.terminals.abstractions.IDeviceResponse;
+import com.global.api.terminals.upa.responses.UpaBatchResponse;
+import com.global.api.tests.terminals.simulators.UpaSimulator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class UpaLineItemTests {
+    private UpaSimulator simulator;
+    private IDeviceInterface device;
+
+    @Before
+    public void init() throws IOException, ApiException {
+        simulator = new UpaSimulator();
+        device = DeviceService.create(simulator.getConnectionConfig(), "upaLineItems");
+    }
+
+    @After
+    public void cleanup() {
+        device.dispose();
+        simulator.close();
+    }
+
+    @Test
+    public void itemsDoNotWaitForReady() throws ApiException {
+        simulator.setReadyDelay(50);
+
+        UpaBatchResponse response = (UpaBatchResponse) device.addLineItems(items(5));
+
+        assertEquals("00", response.getDeviceResponseCode());
+        assertEquals("LineItemDisplay", response.getCommand());
+        assertEquals(5, response.getResponses().size());
+        for (IDeviceResponse item : response.getResponses()) {
+            assertEquals("00", item.getDeviceResponseCode());
+        }
+        assertEquals(5, simulator.getRequestCount());
+        assertTrue(simulator.getEarlyRequestCount() > 0);
+        assertEquals(1, simulator.getConnectionCount());
+    }
+
+    @Test
+    public void busyItemsAreSentAgainAfterReady() throws ApiException {
+        simulator.setReadyDelay(20);
+        simulator.setBusyBeforeReady(true);
+
+        IDeviceResponse response = device.addLineItems(items(4));
+
+        assertEquals("00", response.getDeviceResponseCode());
+        assertEquals(4, ((UpaBatchResponse) response).getResponses().size());
+        assertEquals(4 + simulator.getEarlyRequestCount(), simulator.getRequestCount());
+    }
+
+    @Test
+    public void nextCommandWaitsForTheLastReady() throws ApiException {
+        simulator.setReadyDelay(50);
+        simulator.setBusyBeforeReady(true);
+
+        device.addLineItems(items(3));
+        int early = simulator.getEarlyRequestCount();
+
+        assertEquals("00", device.ping().getDeviceResponseCode());
+        assertEquals(early, simulator.getEarlyRequestCount());
+    }
+
+    @Test
+    public void itemsAreCheckedBeforeAnyIsSent() throws ApiException {
+        List<LineItem> lineItems = items(2);
+        lineItems.add(new LineItem("Coffee", "12345678901"));
+
+        try {
+            device.addLineItems(lineItems);
+            fail("Expected the right-side text to be rejected.");
+        } catch (ApiException e) {
+            assertEquals("Right-side text has 10 char limit.", e.getMessage());
+        }
+        assertEquals(0, simulator.getRequestCount());
+    }
+
+    private static List<LineItem> items(int count) {
+        List<LineItem> lineItems = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            lineItems.add(new LineItem("Item " + i, i + ".00"));
+        }
+        return lineItems;
+    }
+}
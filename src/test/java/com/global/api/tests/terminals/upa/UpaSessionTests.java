@@ -0,0 +1,167 @@
+package com.global.api.tests.terminals.upa;
+
+import com.global.api.entities.exceptions.MessageException;
+import com.global.api.terminals.ConnectionConfig;
+import com.global.api.terminals.TerminalUtilities;
+import com.global.api.terminals.abstractions.IDeviceMessage;
+import com.global.api.terminals.upa.interfaces.UpaFrameDecoder;
+import com.global.api.terminals.upa.interfaces.UpaTcpInterface;
+import com.global.api.utils.JsonDoc;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class UpaSessionTests {
+    private ServerSocket server;
+    private Thread device;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger acks = new AtomicInteger();
+    private volatile boolean busy;
+    private volatile boolean closeAfterResponse;
+    private UpaTcpInterface session;
+
+    @Before
+    public void init() throws IOException {
+        server = new ServerSocket(0);
+        device = new Thread(this::serve);
+        device.setDaemon(true);
+        device.start();
+
+        ConnectionConfig config = new ConnectionConfig();
+        config.setIpAddress("127.0.0.1");
+        config.setPort(server.getLocalPort());
+        config.setTimeout(5000);
+        session = new UpaTcpInterface(config);
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        session.disconnect();
+        server.close();
+    }
+
+    @Test
+    public void framesSplitAcrossReads() {
+        byte[] frames = concat(frame("{\"message\":\"ACK\"}"), "noise".getBytes(), frame("{\"message\":\"READY\"}"));
+        UpaFrameDecoder decoder = new UpaFrameDecoder();
+
+        assertTrue(decoder.decode(frames, 0, 5).isEmpty());
+        List<byte[]> decoded = decoder.decode(frames, 5, frames.length - 5);
+        assertEquals(2, decoded.size());
+        assertEquals("{\"message\":\"ACK\"}", new String(decoded.get(0), StandardCharsets.UTF_8));
+        assertEquals("{\"message\":\"READY\"}", new String(decoded.get(1), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void commandsShareOneConnection() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            JsonDoc response = JsonDoc.parse(new String(session.send(command("Ping")), StandardCharsets.UTF_8));
+            assertEquals("MSG", response.getString("message"));
+            assertEquals("Ping", response.get("data").getString("response"));
+        }
+
+        assertEquals(1, connections.get());
+        awaitAcks(3);
+    }
+
+    @Test
+    public void busyDeviceFailsCommand() throws Exception {
+        busy = true;
+        try {
+            session.send(command("Ping"));
+            fail("Expected the device to be busy.");
+        } catch (MessageException e) {
+            assertEquals("Device is busy", e.getMessage());
+        }
+
+        busy = false;
+        assertNotNull(session.send(command("Ping")));
+        assertEquals(1, connections.get());
+    }
+
+    @Test
+    public void reconnectsAfterDeviceDropsConnection() throws Exception {
+        closeAfterResponse = true;
+        assertNotNull(session.send(command("Ping")));
+        Thread.sleep(100);
+        assertNotNull(session.send(command("Ping")));
+
+        assertEquals(2, connections.get());
+    }
+
+    private void serve() {
+        while (!server.isClosed()) {
+            try (Socket socket = server.accept()) {
+                connections.incrementAndGet();
+                InputStream in = socket.getInputStream();
+                OutputStream out = socket.getOutputStream();
+                UpaFrameDecoder decoder = new UpaFrameDecoder();
+                byte[] buffer = new byte[4096];
+                int bytesRead;
+                while ((bytesRead = in.read(buffer)) != -1) {
+                    for (byte[] body : decoder.decode(buffer, 0, bytesRead)) {
+                        JsonDoc request = JsonDoc.parse(new String(body, StandardCharsets.UTF_8));
+                        if ("ACK".equals(request.getString("message"))) {
+                            acks.incrementAndGet();
+                            out.write(frame("{\"message\":\"READY\"}"));
+                            if (closeAfterResponse) {
+                                socket.close();
+                            }
+                            continue;
+                        }
+                        out.write(frame("{\"message\":\"ACK\"}"));
+                        if (busy) {
+                            out.write(frame("{\"message\":\"BUSY\"}"));
+                            continue;
+                        }
+                        String command = request.get("data").getString("command");
+                        out.write(frame("{\"message\":\"MSG\",\"data\":{\"response\":\"" + command + "\",\"cmdResult\":{\"result\":\"Success\"}}}"));
+                    }
+                }
+            } catch (IOException e) {
+                // connection closed
+            }
+        }
+    }
+
+    private void awaitAcks(int expected) throws InterruptedException {
+        long until = System.currentTimeMillis() + 2000;
+        while (acks.get() < expected && System.currentTimeMillis() < until) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, acks.get());
+    }
+
+    private static IDeviceMessage command(String command) {
+        return TerminalUtilities.compileMessage("{\"message\":\"MSG\",\"data\":{\"command\":\"" + command + "\"}}");
+    }
+
+    private static byte[] frame(String body) {
+        return TerminalUtilities.compileMessage(body).getSendBuffer();
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        int length = 0;
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+        byte[] result = new byte[length];
+        int offset = 0;
+        for (byte[] part : parts) {
+            System.arraycopy(part, 0, result, offset, part.length);
+            offset += part.length;
+        }
+        return result;
+    }
+}